@@ -0,0 +1,83 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wikipediacleaner.api.check.CheckError;
+import org.wikipediacleaner.api.data.AutomaticFormatter;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysisCache;
+
+
+/**
+ * Benchmark for tidying up the pages of the corpus with all algorithms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AutomaticFormatterBenchmark {
+
+  /** Corpus */
+  private BenchmarkCorpus corpus;
+
+  /** Pages to tidy up */
+  private List<Page> pages;
+
+  /**
+   * Load the corpus.
+   *
+   * @throws IOException Error reading the corpus.
+   */
+  @Setup(Level.Trial)
+  public void loadCorpus() throws IOException {
+    corpus = BenchmarkCorpus.getInstance();
+  }
+
+  /**
+   * Create new pages so that no analysis is reused.
+   */
+  @Setup(Level.Invocation)
+  public void createPages() {
+    PageAnalysisCache.getInstance().clear();
+    pages = corpus.createPages();
+  }
+
+  /**
+   * Tidy up each page of the corpus with bot fixes.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void tidyArticle(Blackhole blackhole) {
+    for (int index = 0; index < pages.size(); index++) {
+      Page page = pages.get(index);
+      List<CheckError.Progress> usedAlgorithms = new ArrayList<CheckError.Progress>();
+      blackhole.consume(AutomaticFormatter.tidyArticle(
+          page, page.getContents(), corpus.getAlgorithms(index), true, usedAlgorithms));
+    }
+  }
+}
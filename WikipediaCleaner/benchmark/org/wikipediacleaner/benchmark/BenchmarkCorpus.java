@@ -0,0 +1,260 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithms;
+import org.wikipediacleaner.api.constants.CWConfiguration;
+import org.wikipediacleaner.api.constants.CWConfigurationError;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.request.query.meta.ApiSiteInfoRequest;
+import org.wikipediacleaner.api.request.query.meta.ApiXmlFileSiteInfoResult;
+
+
+/**
+ * Corpus of pages used by the benchmarks.
+ *
+ * The corpus is described by a list file (benchmark/corpus/corpus.txt by default,
+ * can be changed with the <code>wpcleaner.benchmark.corpus</code> system property).
+ * Each line of the list is <code>wiki code|page title|file name</code>,
+ * the file name being relative to the directory of the list.
+ * For each wiki, the site information (answer of the API to <code>action=query&amp;meta=siteinfo</code>)
+ * is read from the file given by a line <code>siteinfo|wiki code|file name</code>
+ * before the pages of the wiki, or from <code>&lt;wiki code&gt;.siteinfo.xml</code> in the same directory.
+ * Optional files <code>&lt;wiki code&gt;.wpcleaner.txt</code> and
+ * <code>&lt;wiki code&gt;.checkwiki.txt</code> are used as WPCleaner and Check Wiki configurations.
+ * When no Check Wiki configuration is available, every algorithm is activated.
+ */
+public class BenchmarkCorpus {
+
+  /** Default list file for the corpus */
+  private final static String DEFAULT_CORPUS = "benchmark/corpus/corpus.txt";
+
+  /** Keyword for lines giving the site information of a wiki */
+  private final static String SITE_INFO = "siteinfo";
+
+  /** Unique instance of the corpus */
+  private static BenchmarkCorpus instance;
+
+  /**
+   * @return Unique instance of the corpus.
+   * @throws IOException Error reading the corpus.
+   */
+  public static synchronized BenchmarkCorpus getInstance() throws IOException {
+    if (instance == null) {
+      String fileName = System.getProperty("wpcleaner.benchmark.corpus", DEFAULT_CORPUS);
+      instance = new BenchmarkCorpus(new File(fileName));
+    }
+    return instance;
+  }
+
+  /** Wikis used in the corpus */
+  private final List<EnumWikipedia> wikis;
+
+  /** Titles of the pages */
+  private final List<String> titles;
+
+  /** Wikis of the pages */
+  private final List<EnumWikipedia> pageWikis;
+
+  /** Contents of the pages */
+  private final List<String> contents;
+
+  /**
+   * @param listFile List file for the corpus.
+   * @throws IOException Error reading the corpus.
+   */
+  private BenchmarkCorpus(File listFile) throws IOException {
+    this.wikis = new ArrayList<EnumWikipedia>();
+    this.titles = new ArrayList<String>();
+    this.pageWikis = new ArrayList<EnumWikipedia>();
+    this.contents = new ArrayList<String>();
+    Map<EnumWikipedia, File> siteInfoFiles = new HashMap<EnumWikipedia, File>();
+    File directory = listFile.getAbsoluteFile().getParentFile();
+    for (String line : readFile(listFile).split("\n")) {
+      line = line.trim();
+      if ((line.length() == 0) || line.startsWith("#")) {
+        continue;
+      }
+      String[] elements = line.split("\\|");
+      if (elements.length != 3) {
+        throw new IOException("Incorrect line in corpus: " + line);
+      }
+      if (SITE_INFO.equals(elements[0].trim())) {
+        siteInfoFiles.put(getWiki(elements[1]), new File(directory, elements[2].trim()));
+        continue;
+      }
+      EnumWikipedia wiki = getWiki(elements[0]);
+      if (!wikis.contains(wiki)) {
+        File siteInfoFile = siteInfoFiles.get(wiki);
+        if (siteInfoFile == null) {
+          siteInfoFile = new File(directory, wiki.getSettings().getCode() + ".siteinfo.xml");
+        }
+        initializeWiki(wiki, directory, siteInfoFile);
+        wikis.add(wiki);
+      }
+      titles.add(elements[1].trim());
+      pageWikis.add(wiki);
+      contents.add(readFile(new File(directory, elements[2].trim())));
+    }
+    if (contents.isEmpty()) {
+      throw new IOException("Empty corpus: " + listFile.getAbsolutePath());
+    }
+  }
+
+  /**
+   * @param code Wiki code.
+   * @return Wiki.
+   * @throws IOException Unknown wiki.
+   */
+  private static EnumWikipedia getWiki(String code) throws IOException {
+    EnumWikipedia wiki = EnumWikipedia.getWikipedia(code.trim());
+    if (wiki == null) {
+      throw new IOException("Unknown wiki in corpus: " + code);
+    }
+    return wiki;
+  }
+
+  /**
+   * Initialize the configuration of a wiki without accessing the wiki.
+   *
+   * @param wiki Wiki.
+   * @param directory Directory containing the corpus.
+   * @param siteInfoFile File containing the site information.
+   * @throws IOException Error reading the configuration.
+   */
+  private static void initializeWiki(
+      EnumWikipedia wiki, File directory, File siteInfoFile) throws IOException {
+    String code = wiki.getSettings().getCode();
+    try {
+      if (!siteInfoFile.isFile()) {
+        throw new IOException("Missing site information: " + siteInfoFile.getAbsolutePath());
+      }
+      ApiSiteInfoRequest request = new ApiSiteInfoRequest(
+          wiki, new ApiXmlFileSiteInfoResult(wiki, siteInfoFile));
+      request.loadSiteInformation(true, true, true, true, true, true, true);
+      File wpcFile = new File(directory, code + ".wpcleaner.txt");
+      if (wpcFile.isFile()) {
+        wiki.getConfiguration().setGeneralConfiguration(
+            new StringReader(readFile(wpcFile)));
+      }
+      File cwFile = new File(directory, code + ".checkwiki.txt");
+      if (cwFile.isFile()) {
+        wiki.getCWConfiguration().setWikiConfiguration(
+            new StringReader(readFile(cwFile)));
+      } else {
+        StringBuilder cwConfig = new StringBuilder();
+        String cwCode = wiki.getSettings().getCodeCheckWiki();
+        for (int errorNumber = 1; errorNumber <= CWConfiguration.MAX_ERROR_NUMBER; errorNumber++) {
+          cwConfig.append(String.format("error_%03d_prio_%s=%d END\n",
+              Integer.valueOf(errorNumber), cwCode,
+              Integer.valueOf(CWConfigurationError.PRIORITY_LOWEST)));
+        }
+        wiki.getCWConfiguration().setWikiConfiguration(
+            new StringReader(cwConfig.toString()));
+      }
+    } catch (APIException e) {
+      throw new IOException("Error reading configuration for " + code, e);
+    }
+    CheckErrorAlgorithms.initializeAlgorithms(wiki);
+  }
+
+  /**
+   * @param file File.
+   * @return Contents of the file.
+   * @throws IOException Error reading the file.
+   */
+  private static String readFile(File file) throws IOException {
+    BufferedReader reader = null;
+    try {
+      reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+      StringBuilder buffer = new StringBuilder((int) file.length());
+      char[] chars = new char[8192];
+      int count;
+      while ((count = reader.read(chars)) >= 0) {
+        buffer.append(chars, 0, count);
+      }
+      return buffer.toString();
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          // Nothing to do
+        }
+      }
+    }
+  }
+
+  /**
+   * @return Number of pages in the corpus.
+   */
+  public int size() {
+    return contents.size();
+  }
+
+  /**
+   * @param index Page index.
+   * @return Contents of the page.
+   */
+  public String getContents(int index) {
+    return contents.get(index);
+  }
+
+  /**
+   * Create a new page, so that nothing is memorized between invocations.
+   *
+   * @param index Page index.
+   * @return Page with its contents.
+   */
+  public Page createPage(int index) {
+    Page page = DataManager.getPage(pageWikis.get(index), titles.get(index), null, null, null);
+    page.setContents(contents.get(index));
+    return page;
+  }
+
+  /**
+   * Create new pages, so that nothing is memorized between invocations.
+   *
+   * @return Pages with their contents.
+   */
+  public List<Page> createPages() {
+    List<Page> pages = new ArrayList<Page>(contents.size());
+    for (int index = 0; index < contents.size(); index++) {
+      pages.add(createPage(index));
+    }
+    return pages;
+  }
+
+  /**
+   * @param index Page index.
+   * @return All algorithms available for the wiki of the page.
+   */
+  public List<CheckErrorAlgorithm> getAlgorithms(int index) {
+    List<CheckErrorAlgorithm> algorithms = CheckErrorAlgorithms.getAlgorithms(pageWikis.get(index));
+    if (algorithms == null) {
+      return Collections.emptyList();
+    }
+    return algorithms;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wikipediacleaner.api.check.CheckError;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.PageAnalysisCache;
+
+
+/**
+ * Benchmark for the detection of Check Wiki errors with all algorithms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CheckErrorBenchmark {
+
+  /** True to run algorithms in parallel for each page */
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  /** Corpus */
+  private BenchmarkCorpus corpus;
+
+  /** Analysis of the pages, with the full page analysis already done */
+  private PageAnalysis[] analysis;
+
+  /**
+   * Load the corpus.
+   *
+   * @throws IOException Error reading the corpus.
+   */
+  @Setup(Level.Trial)
+  public void loadCorpus() throws IOException {
+    corpus = BenchmarkCorpus.getInstance();
+  }
+
+  /**
+   * Create new analysis so that no detection is reused.
+   */
+  @Setup(Level.Invocation)
+  public void createAnalysis() {
+    PageAnalysisCache.getInstance().clear();
+    List<Page> pages = corpus.createPages();
+    analysis = new PageAnalysis[pages.size()];
+    for (int index = 0; index < pages.size(); index++) {
+      Page page = pages.get(index);
+      analysis[index] = page.getAnalysis(page.getContents(), false);
+      analysis[index].performFullPageAnalysis(null);
+    }
+  }
+
+  /**
+   * Detection of errors with all algorithms on each page of the corpus.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeErrors(Blackhole blackhole) {
+    for (int index = 0; index < analysis.length; index++) {
+      blackhole.consume(CheckError.analyzeErrors(
+          corpus.getAlgorithms(index), analysis[index], false, parallel));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.PageAnalysisCache;
+
+
+/**
+ * Benchmark for the full analysis of the pages of the corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PageAnalysisBenchmark {
+
+  /** Corpus */
+  private BenchmarkCorpus corpus;
+
+  /** Pages to analyze */
+  private List<Page> pages;
+
+  /**
+   * Load the corpus.
+   *
+   * @throws IOException Error reading the corpus.
+   */
+  @Setup(Level.Trial)
+  public void loadCorpus() throws IOException {
+    corpus = BenchmarkCorpus.getInstance();
+  }
+
+  /**
+   * Create new pages so that no analysis is reused.
+   */
+  @Setup(Level.Invocation)
+  public void createPages() {
+    PageAnalysisCache.getInstance().clear();
+    pages = corpus.createPages();
+  }
+
+  /**
+   * Full analysis of each page of the corpus.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void performFullPageAnalysis(Blackhole blackhole) {
+    for (Page page : pages) {
+      PageAnalysis analysis = page.getAnalysis(page.getContents(), false);
+      analysis.performFullPageAnalysis(null);
+      blackhole.consume(analysis);
+    }
+  }
+}
@@ -0,0 +1,362 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.PageAnalysisCache;
+import org.wikipediacleaner.api.data.PageElementCategory;
+import org.wikipediacleaner.api.data.PageElementComment;
+import org.wikipediacleaner.api.data.PageElementExternalLink;
+import org.wikipediacleaner.api.data.PageElementFunction;
+import org.wikipediacleaner.api.data.PageElementImage;
+import org.wikipediacleaner.api.data.PageElementInternalLink;
+import org.wikipediacleaner.api.data.PageElementInterwikiLink;
+import org.wikipediacleaner.api.data.PageElementLanguageLink;
+import org.wikipediacleaner.api.data.PageElementMagicWord;
+import org.wikipediacleaner.api.data.PageElementParameter;
+import org.wikipediacleaner.api.data.PageElementTag;
+import org.wikipediacleaner.api.data.PageElementTemplate;
+import org.wikipediacleaner.api.data.PageElementTitle;
+
+
+/**
+ * Benchmark for the analysis of each kind of page element.
+ *
+ * Each benchmark calls the <code>analyzeBlock</code> method of a kind of
+ * element at every position of the corpus where such an element may begin.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PageElementBenchmark {
+
+  /** Wikis of the pages */
+  private EnumWikipedia[] wikis;
+
+  /** Contents of the pages */
+  private String[] contents;
+
+  /** Analysis of the pages (for comments and tags) */
+  private PageAnalysis[] analysis;
+
+  /** Positions of "&lt;!--" in each page */
+  private int[][] commentIndexes;
+
+  /** Positions of "&lt;" in each page */
+  private int[][] tagIndexes;
+
+  /** Positions of "[[" in each page */
+  private int[][] linkIndexes;
+
+  /** Positions of "[" (not followed by "[") in each page */
+  private int[][] externalLinkIndexes;
+
+  /** Positions of "__" in each page */
+  private int[][] magicWordIndexes;
+
+  /** Positions of "{{{" in each page */
+  private int[][] parameterIndexes;
+
+  /** Positions of "{{" (not followed by "{") in each page */
+  private int[][] templateIndexes;
+
+  /** Positions of "=" at the beginning of a line in each page */
+  private int[][] titleIndexes;
+
+  /**
+   * Load the corpus and find the possible positions of each kind of element.
+   *
+   * @throws IOException Error reading the corpus.
+   */
+  @Setup(Level.Trial)
+  public void loadCorpus() throws IOException {
+    BenchmarkCorpus corpus = BenchmarkCorpus.getInstance();
+    PageAnalysisCache.getInstance().clear();
+    int size = corpus.size();
+    wikis = new EnumWikipedia[size];
+    contents = new String[size];
+    analysis = new PageAnalysis[size];
+    commentIndexes = new int[size][];
+    tagIndexes = new int[size][];
+    linkIndexes = new int[size][];
+    externalLinkIndexes = new int[size][];
+    magicWordIndexes = new int[size][];
+    parameterIndexes = new int[size][];
+    templateIndexes = new int[size][];
+    titleIndexes = new int[size][];
+    for (int index = 0; index < size; index++) {
+      Page page = corpus.createPage(index);
+      String text = page.getContents();
+      wikis[index] = page.getWikipedia();
+      contents[index] = text;
+      analysis[index] = page.getAnalysis(text, false);
+      analysis[index].performFullPageAnalysis(null);
+      commentIndexes[index] = findIndexes(text, "<!--", null, false);
+      tagIndexes[index] = findIndexes(text, "<", null, false);
+      linkIndexes[index] = findIndexes(text, "[[", null, false);
+      externalLinkIndexes[index] = findIndexes(text, "[", "[", false);
+      magicWordIndexes[index] = findIndexes(text, "__", null, false);
+      parameterIndexes[index] = findIndexes(text, "{{{", null, false);
+      templateIndexes[index] = findIndexes(text, "{{", "{", false);
+      titleIndexes[index] = findIndexes(text, "=", null, true);
+    }
+  }
+
+  /**
+   * @param text Text.
+   * @param prefix Prefix to search for.
+   * @param notFollowedBy Text that shouldn't follow the prefix.
+   * @param lineStart True if the prefix should be at the beginning of a line.
+   * @return Positions of the prefix in the text.
+   */
+  private static int[] findIndexes(
+      String text, String prefix, String notFollowedBy, boolean lineStart) {
+    List<Integer> indexes = new ArrayList<Integer>();
+    int index = text.indexOf(prefix);
+    while (index >= 0) {
+      boolean ok = true;
+      if ((notFollowedBy != null) &&
+          text.startsWith(notFollowedBy, index + prefix.length())) {
+        ok = false;
+      }
+      if (lineStart && (index > 0) && (text.charAt(index - 1) != '\n')) {
+        ok = false;
+      }
+      if (ok) {
+        indexes.add(Integer.valueOf(index));
+      }
+      index = text.indexOf(prefix, index + 1);
+    }
+    int[] result = new int[indexes.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = indexes.get(i).intValue();
+    }
+    return result;
+  }
+
+  /**
+   * Analysis of comments.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeComment(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : commentIndexes[page]) {
+        blackhole.consume(PageElementComment.analyzeBlock(
+            wikis[page], contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of tags.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeTag(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : tagIndexes[page]) {
+        blackhole.consume(PageElementTag.analyzeBlock(
+            contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of internal links.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeInternalLink(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : linkIndexes[page]) {
+        blackhole.consume(PageElementInternalLink.analyzeBlock(
+            wikis[page], contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of images.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeImage(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : linkIndexes[page]) {
+        blackhole.consume(PageElementImage.analyzeBlock(
+            wikis[page], contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of categories.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeCategory(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : linkIndexes[page]) {
+        blackhole.consume(PageElementCategory.analyzeBlock(
+            wikis[page], contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of interwiki links.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeInterwikiLink(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : linkIndexes[page]) {
+        blackhole.consume(PageElementInterwikiLink.analyzeBlock(
+            wikis[page], contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of language links.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeLanguageLink(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : linkIndexes[page]) {
+        blackhole.consume(PageElementLanguageLink.analyzeBlock(
+            wikis[page], contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of external links.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeExternalLink(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : externalLinkIndexes[page]) {
+        blackhole.consume(PageElementExternalLink.analyzeBlock(
+            wikis[page], contents[page], index, analysis[page]));
+      }
+    }
+  }
+
+  /**
+   * Analysis of magic words.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeMagicWord(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : magicWordIndexes[page]) {
+        blackhole.consume(PageElementMagicWord.analyzeBlock(
+            wikis[page], contents[page], index));
+      }
+    }
+  }
+
+  /**
+   * Analysis of parameters.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeParameter(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : parameterIndexes[page]) {
+        blackhole.consume(PageElementParameter.analyzeBlock(
+            wikis[page], contents[page], index,
+            analysis[page].getComments(), analysis[page].getTags()));
+      }
+    }
+  }
+
+  /**
+   * Analysis of functions.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeFunction(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : templateIndexes[page]) {
+        blackhole.consume(PageElementFunction.analyzeBlock(
+            wikis[page], contents[page], index,
+            analysis[page].getComments(), analysis[page].getTags()));
+      }
+    }
+  }
+
+  /**
+   * Analysis of templates.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeTemplate(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : templateIndexes[page]) {
+        blackhole.consume(PageElementTemplate.analyzeBlock(
+            wikis[page], contents[page], index,
+            analysis[page].getComments(), analysis[page].getTags()));
+      }
+    }
+  }
+
+  /**
+   * Analysis of titles.
+   *
+   * @param blackhole Consumer of the results.
+   */
+  @Benchmark
+  public void analyzeTitle(Blackhole blackhole) {
+    for (int page = 0; page < contents.length; page++) {
+      for (int index : titleIndexes[page]) {
+        blackhole.consume(PageElementTitle.analyzeBlock(
+            wikis[page], contents[page], index,
+            analysis[page].getComments(), analysis[page].getTags()));
+      }
+    }
+  }
+}
@@ -25,6 +25,8 @@ import java.util.logging.SimpleFormatter;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.APIFactory;
+import org.wikipediacleaner.api.check.CheckWiki;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithms;
 import org.wikipediacleaner.api.constants.EnumLanguage;
@@ -37,11 +39,13 @@ import org.wikipediacleaner.gui.swing.basic.BasicWorkerListener;
 import org.wikipediacleaner.gui.swing.bot.AutomaticCWWorker;
 import org.wikipediacleaner.gui.swing.bot.AutomaticListCWWorker;
 import org.wikipediacleaner.gui.swing.bot.ListCWWorker;
+import org.wikipediacleaner.gui.swing.bot.RecentChangesCWWorker;
 import org.wikipediacleaner.gui.swing.worker.LoginWorker;
 import org.wikipediacleaner.gui.swing.worker.UpdateDabWarningWorker;
 import org.wikipediacleaner.gui.swing.worker.UpdateDuplicateArgsWarningWorker;
 import org.wikipediacleaner.gui.swing.worker.UpdateISBNWarningWorker;
 import org.wikipediacleaner.gui.swing.worker.UpdateISSNWarningWorker;
+import org.wikipediacleaner.gui.swing.worker.UpdateWarningWorker;
 import org.wikipediacleaner.i18n.GT;
 import org.wikipediacleaner.utils.Configuration;
 import org.wikipediacleaner.utils.ConfigurationConstants;
@@ -56,6 +60,9 @@ public class Bot implements BasicWorkerListener {
 
   private final static Log log = LogFactory.getLog(Bot.class);
 
+  /** Maximum time to wait for notifications to Check Wiki before exiting (in milliseconds) */
+  private final static long FLUSH_TIMEOUT = 60000;
+
   /**
    * @param args
    */
@@ -239,15 +246,15 @@ public class Bot implements BasicWorkerListener {
       }
       worker = new UpdateDabWarningWorker(wiki, null, start);
     } else if ("UpdateISBNWarnings".equalsIgnoreCase(action)) {
-      worker = new UpdateISBNWarningWorker(wiki, null, false);
+      worker = useDump(new UpdateISBNWarningWorker(wiki, null, false), args, currentArg);
     } else if ("ListISBNWarnings".equalsIgnoreCase(action)) {
-      worker = new UpdateISBNWarningWorker(wiki, null, true);
+      worker = useDump(new UpdateISBNWarningWorker(wiki, null, true), args, currentArg);
     } else if ("UpdateISSNWarnings".equalsIgnoreCase(action)) {
-      worker = new UpdateISSNWarningWorker(wiki, null, false);
+      worker = useDump(new UpdateISSNWarningWorker(wiki, null, false), args, currentArg);
     } else if ("ListISSNWarnings".equalsIgnoreCase(action)) {
-      worker = new UpdateISSNWarningWorker(wiki, null, true);
+      worker = useDump(new UpdateISSNWarningWorker(wiki, null, true), args, currentArg);
     } else if ("UpdateDuplicateArgsWarnings".equalsIgnoreCase(action)) {
-      worker = new UpdateDuplicateArgsWarningWorker(wiki, null, false);
+      worker = useDump(new UpdateDuplicateArgsWarningWorker(wiki, null, false), args, currentArg);
     } else if ("FixCheckWiki".equalsIgnoreCase(action)) {
       List<CheckErrorAlgorithm> algorithms = new ArrayList<CheckErrorAlgorithm>();
       List<CheckErrorAlgorithm> allAlgorithms = new ArrayList<CheckErrorAlgorithm>();
@@ -308,6 +315,13 @@ public class Bot implements BasicWorkerListener {
               algorithms, check);
         }
       }
+    } else if ("MonitorCheckWiki".equalsIgnoreCase(action)) {
+      if (args.length > currentArg + 1) {
+        File output = new File(args[currentArg]);
+        List<CheckErrorAlgorithm> algorithms = new ArrayList<CheckErrorAlgorithm>();
+        extractAlgorithms(algorithms, null, args, currentArg + 1);
+        worker = new RecentChangesCWWorker(wiki, null, algorithms, output);
+      }
     }
     if (worker != null) {
       System.out.println("Running task " + action);
@@ -364,6 +378,27 @@ public class Bot implements BasicWorkerListener {
     }
   }
 
+  /**
+   * Configure a warning worker to use a dump if requested (<code>-dump path</code>).
+   * 
+   * @param worker Worker.
+   * @param args Arguments.
+   * @param currentArg Index of the current argument.
+   * @return Worker.
+   */
+  private UpdateWarningWorker useDump(
+      UpdateWarningWorker worker, String[] args, int currentArg) {
+    if ((args.length > currentArg + 1) &&
+        "-dump".equalsIgnoreCase(args[currentArg])) {
+      File dumpFile = getDumpFile(args[currentArg + 1]);
+      if (dumpFile == null) {
+        log.warn("Unable to find dump file " + args[currentArg + 1]);
+      }
+      worker.setDumpFile(dumpFile);
+    }
+    return worker;
+  }
+
   /**
    * @param path Path to the dump file.
    * @return Dump file.
@@ -435,15 +470,28 @@ public class Bot implements BasicWorkerListener {
   @Override
   public void afterFinished(BasicWorker worker, boolean ok) {
     if (!ok) {
-      System.exit(1);
+      exit(1);
     }
     if (!loginDone) {
       loginDone = true;
     }
     if (actions.isEmpty()) {
-      System.exit(0);
+      exit(0);
     }
     String[] currentAction = actions.remove(0);
     executeAction(currentAction);
   }
+
+  /**
+   * Exit, after sending the pending notifications to Check Wiki.
+   * 
+   * @param status Exit status.
+   */
+  private void exit(int status) {
+    CheckWiki checkWiki = APIFactory.getCheckWiki();
+    if ((checkWiki != null) && !checkWiki.flush(FLUSH_TIMEOUT)) {
+      log.warn("Some notifications to Check Wiki will be sent at next start");
+    }
+    System.exit(status);
+  }
 }
@@ -16,6 +16,7 @@ import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.AbuseFilter;
 import org.wikipediacleaner.api.data.LoginResult;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.api.data.QueryResult;
 import org.wikipediacleaner.api.data.RecentChange;
 import org.wikipediacleaner.api.data.Section;
@@ -306,6 +307,28 @@ public interface API {
       List<Page> knownPages,
       boolean redirects, boolean disambigNeeded) throws APIException;
 
+  /**
+   * Retrieves internal links of several pages.
+   * (<code>action=query</code>, <code>generator=links</code>).
+   * 
+   * Links of each page are retrieved with one generator query,
+   * but redirects and disambiguation information are retrieved
+   * for all the pages together.
+   * 
+   * @param wiki Wiki.
+   * @param pages Pages.
+   * @param namespace Restrict the list to a given namespace.
+   * @param knownPages Already known pages.
+   * @param redirects True if redirects are requested.
+   * @param disambigNeeded True if disambiguation information is needed.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Properties#links_.2F_pl">API:Properties#links</a>
+   */
+  public void retrieveLinks(
+      EnumWikipedia wiki, Collection<Page> pages, Integer namespace,
+      List<Page> knownPages,
+      boolean redirects, boolean disambigNeeded) throws APIException;
+
   /**
    * Retrieve a specific language link in a page.
    * (<code>action=query</code>, <code>prop=langlinks</code>).
@@ -380,6 +403,39 @@ public interface API {
       EnumWikipedia wiki, Page category,
       int depth, boolean limit, int max) throws APIException;
 
+  /**
+   * Retrieves references to the members of a category, without creating full pages.
+   * (<code>action=query</code>, <code>list=categorymembers</code>).
+   * 
+   * @param wiki Wiki.
+   * @param category Category.
+   * @param depth Depth of lookup for sub-categories.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param max Absolute maximum number of results
+   * @return Sorted list of references to the category members.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Categorymembers">API:Categorymembers</a>
+   */
+  public List<PageRef> retrieveCategoryMemberRefs(
+      EnumWikipedia wiki, Page category,
+      int depth, boolean limit, int max) throws APIException;
+
+  /**
+   * Retrieves the members of categories, using parallel requests,
+   * and sends them to a consumer as they are retrieved.
+   * (<code>action=query</code>, <code>list=categorymembers</code>).
+   * 
+   * @param wiki Wiki.
+   * @param categories Categories.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param consumer Consumer of the category members.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Categorymembers">API:Categorymembers</a>
+   */
+  public void retrieveCategoryMembers(
+      EnumWikipedia wiki, Collection<Page> categories,
+      boolean limit, PageListConsumer consumer) throws APIException;
+
   /**
    * Retrieves the pages in which <code>page</code> is embedded.
    * (<code>action=query</code>, <code>list=embeddedin</code>).
@@ -395,6 +451,41 @@ public interface API {
       EnumWikipedia wiki, Page page,
       List<Integer> namespaces, boolean limit) throws APIException;
 
+  /**
+   * Retrieves references to the pages in which <code>page</code> is embedded,
+   * without creating full pages.
+   * (<code>action=query</code>, <code>list=embeddedin</code>).
+   * 
+   * @param wiki Wiki.
+   * @param page Page.
+   * @param namespaces Limit to some namespaces.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @return Sorted list of references to the embedding pages.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Embeddedin">API:Embeddedin</a>
+   */
+  public List<PageRef> retrieveEmbeddedInRefs(
+      EnumWikipedia wiki, Page page,
+      List<Integer> namespaces, boolean limit) throws APIException;
+
+  /**
+   * Retrieves the pages in which some pages are embedded, using parallel requests,
+   * and sends them to a consumer as they are retrieved.
+   * (<code>action=query</code>, <code>list=embeddedin</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages Pages.
+   * @param namespaces Limit to some namespaces.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param consumer Consumer of the embedding pages.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Embeddedin">API:Embeddedin</a>
+   */
+  public void retrieveEmbeddedIn(
+      EnumWikipedia wiki, Collection<Page> pages,
+      List<Integer> namespaces, boolean limit,
+      PageListConsumer consumer) throws APIException;
+
   /**
    * Retrieves the pages in the <code>category</code> Linter category.
    * (<code>action=query</code>, <code>list=linterrors</code>).
@@ -480,6 +571,24 @@ public interface API {
       EnumWikipedia wiki,
       String start, List<RecentChange> recentChanges) throws APIException;
 
+  /**
+   * Retrieves recent changes.
+   * (<code>action=query</code>, <code>list=recentchanges</code>).
+   * 
+   * @param wiki Wiki.
+   * @param start The timestamp to start listing from.
+   * @param namespaces Namespaces of interest (null for all namespaces).
+   * @param types Types of changes of interest (null for all types).
+   * @param recentChanges The list of recent changes to be filled.
+   * @return The timestamp to use as a starting point for the next call.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Recentchanges">API:Recentchanges</a>
+   */
+  public String getRecentChanges(
+      EnumWikipedia wiki, String start,
+      Collection<Integer> namespaces, Collection<String> types,
+      List<RecentChange> recentChanges) throws APIException;
+
   /**
    * Retrieves similar pages.
    * (<code>action=query</code>, <code>list=search</code>).
@@ -619,6 +728,20 @@ public interface API {
   public TemplateData retrieveTemplateData(
       EnumWikipedia wiki, Page page) throws APIException;
 
+  /**
+   * Retrieve the TemplateData for a list of pages.
+   * (<code>action=templatedata</code>).
+   * 
+   * TemplateData is cached, only missing or outdated TemplateData is requested.
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @return TemplateData indexed by page title (null for pages without TemplateData).
+   * @throws APIException
+   */
+  public Map<String, TemplateData> retrieveTemplateData(
+      EnumWikipedia wiki, Collection<Page> pages) throws APIException;
+
   // ==========================================================================
   // Recent changes management.
   // ==========================================================================
@@ -633,6 +756,18 @@ public interface API {
       EnumWikipedia wiki,
       RecentChangesListener listener);
 
+  /**
+   * Adds a <code>RecentChangesListener</code> to the API.
+   * 
+   * @param wiki Wiki.
+   * @param listener Recent changes listener.
+   * @param filter Filter on recent changes (null for all recent changes).
+   */
+  public void addRecentChangesListener(
+      EnumWikipedia wiki,
+      RecentChangesListener listener,
+      RecentChangesFilter filter);
+
   /**
    * Removes a <code>RecentChangesListener</code> from the API.
    * 
@@ -642,4 +777,14 @@ public interface API {
   public void removeRecentChangesListener(
       EnumWikipedia wiki,
       RecentChangesListener listener);
+
+  /**
+   * Changes the source of recent changes for a wiki.
+   * 
+   * @param wiki Wiki.
+   * @param source Source of recent changes (null to query the API).
+   */
+  public void setRecentChangesSource(
+      EnumWikipedia wiki,
+      RecentChangesSource source);
 }
@@ -20,6 +20,15 @@ import org.wikipediacleaner.api.impl.MediaWikiAPI;
  */
 public class APIFactory {
 
+  /**
+   * Maximum number of simultaneous connections to a wiki through the MediaWiki API
+   * (HttpClient allows only 2 connections per host by default).
+   */
+  public final static int MAX_CONNECTIONS_PER_HOST = 8;
+
+  /** Maximum number of simultaneous connections through the MediaWiki API */
+  private final static int MAX_CONNECTIONS = 4 * MAX_CONNECTIONS_PER_HOST;
+
   /** MediaWiki API */
   private static API api;
 
@@ -34,6 +43,8 @@ public class APIFactory {
 
     // Initialize MediaWiki API
     HttpConnectionManager connectionManager = new MultiThreadedHttpConnectionManager();
+    connectionManager.getParams().setDefaultMaxConnectionsPerHost(MAX_CONNECTIONS_PER_HOST);
+    connectionManager.getParams().setMaxTotalConnections(MAX_CONNECTIONS);
     HttpClient httpClient = createHttpClient(connectionManager);
     httpClient.getParams().setParameter("http.protocol.single-cookie-header", Boolean.TRUE);
     api = new MediaWikiAPI(httpClient);
@@ -60,6 +71,15 @@ public class APIFactory {
     return api;
   }
 
+  /**
+   * Replace the MediaWiki API implementation (only for tests working without the wiki).
+   * 
+   * @param newApi MediaWiki API implementation.
+   */
+  static void setAPI(API newApi) {
+    api = newApi;
+  }
+
   /**
    * @return MediaWiki REST API implementation.
    */
@@ -0,0 +1,343 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.constants.EnumQueryResult;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.QueryResult;
+import org.wikipediacleaner.api.data.User;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
+
+
+/**
+ * Scheduler for the edits made on a wiki.
+ *
+ * Each edit takes a token from a bucket holding as many tokens as edits
+ * allowed per minute, the token going back to the bucket one minute later.
+ * Edits are also spaced by the minimum time between edits.
+ * Time slots are reserved without holding a lock, so threads waiting
+ * for their slot don't block threads editing other wikis.
+ *
+ * Edits can also be submitted to a queue processed by a dedicated thread,
+ * so that the submitter can keep working while edits are saved.
+ * Queued edits can be cancelled with {@link Edit#cancel()} as long as
+ * they haven't been started.
+ */
+public class EditScheduler {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(EditScheduler.class);
+
+  /** Maximum number of attempts for an edit ending in edit conflicts */
+  private final static int MAX_CONFLICT_ATTEMPTS = 3;
+
+  /** Schedulers for each wiki */
+  private final static Map<EnumWikipedia, EditScheduler> schedulers =
+      new HashMap<EnumWikipedia, EditScheduler>();
+
+  /** Wiki */
+  private final EnumWikipedia wiki;
+
+  /** Times of the edits during the last minute (or reserved in the future) */
+  private final LinkedList<Long> editTimes;
+
+  /** Executor for the queued edits */
+  private ExecutorService executor;
+
+  /**
+   * @param wiki Wiki.
+   * @return Edit scheduler for the wiki.
+   */
+  public static EditScheduler getScheduler(EnumWikipedia wiki) {
+    synchronized (schedulers) {
+      EditScheduler scheduler = schedulers.get(wiki);
+      if (scheduler == null) {
+        scheduler = new EditScheduler(wiki);
+        schedulers.put(wiki, scheduler);
+      }
+      return scheduler;
+    }
+  }
+
+  /**
+   * @param wiki Wiki.
+   */
+  private EditScheduler(EnumWikipedia wiki) {
+    this.wiki = wiki;
+    this.editTimes = new LinkedList<Long>();
+  }
+
+  /**
+   * Wait until an edit is authorized.
+   *
+   * @param user Current user.
+   * @param namespace Name space for the edit.
+   */
+  public void waitForEdit(User user, Integer namespace) {
+    Configuration config = Configuration.getConfiguration();
+    int minimumTime = config.getInt(null, ConfigurationValueInteger.TIME_BETWEEN_EDIT);
+    int maxEdits = 0;
+    if ((namespace == null) || (namespace.intValue() % 2 == 0)) {
+      maxEdits = config.getInt(null, ConfigurationValueInteger.MAX_EDITS_PER_MINUTE);
+      if ((maxEdits > ConfigurationValueInteger.MAX_EDITS_PER_MINUTE_NORMAL) ||
+          (maxEdits <= 0)) {
+        if ((user == null) ||
+            (!user.isMemberOf("admin") && !user.isMemberOf("bot"))) {
+          maxEdits = ConfigurationValueInteger.MAX_EDITS_PER_MINUTE_NORMAL;
+        }
+      }
+    }
+    if ((minimumTime <= 0) && (maxEdits <= 0)) {
+      return;
+    }
+    long slot = reserveSlot(minimumTime * 1000L, maxEdits);
+    long currentTime = System.currentTimeMillis();
+    while (currentTime < slot) {
+      try {
+        Thread.sleep(slot - currentTime);
+      } catch (InterruptedException e) {
+        // Nothing to do
+      }
+      currentTime = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Reserve a time slot for an edit.
+   *
+   * @param minimumTime Minimum time between edits (in milliseconds).
+   * @param maxEdits Maximum number of edits per minute.
+   * @return Time at which the edit can be done.
+   */
+  private synchronized long reserveSlot(long minimumTime, int maxEdits) {
+    long slot = System.currentTimeMillis();
+    if (!editTimes.isEmpty()) {
+      slot = Math.max(slot, editTimes.getLast().longValue() + Math.max(minimumTime, 0));
+    }
+    while (!editTimes.isEmpty() && (editTimes.getFirst().longValue() + 60 * 1000 <= slot)) {
+      editTimes.removeFirst();
+    }
+    if ((maxEdits > 0) && (editTimes.size() >= maxEdits)) {
+      slot = Math.max(slot, editTimes.get(editTimes.size() - maxEdits).longValue() + 60 * 1000);
+      while (!editTimes.isEmpty() && (editTimes.getFirst().longValue() + 60 * 1000 <= slot)) {
+        editTimes.removeFirst();
+      }
+    }
+    editTimes.add(Long.valueOf(slot));
+    return slot;
+  }
+
+  /**
+   * Add an edit to the queue.
+   *
+   * @param edit Edit.
+   * @return Future result of the edit (null result if nothing had to be saved or if cancelled).
+   */
+  public Future<QueryResult> submit(final Edit edit) {
+    return getExecutor().submit(new Callable<QueryResult>() {
+
+      @Override
+      public QueryResult call() throws APIException {
+        if (!edit.start()) {
+          return null;
+        }
+        return save(edit);
+      }
+    });
+  }
+
+  /**
+   * @return Executor for the queued edits.
+   */
+  private synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "EditScheduler-" + wiki);
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+
+  /**
+   * Save an edit, fixing the page again in case of edit conflicts.
+   *
+   * @param edit Edit.
+   * @return Result of the edit (null if nothing had to be saved).
+   * @throws APIException
+   */
+  QueryResult save(Edit edit) throws APIException {
+    API api = APIFactory.getAPI();
+    Page page = edit.getPage();
+    String contents = edit.getContents();
+    int attempt = 0;
+    while (true) {
+      attempt++;
+      try {
+        return api.updatePage(
+            wiki, page, contents, edit.getComment(),
+            edit.isMinor(), edit.isAutomatic(), false);
+      } catch (APIException e) {
+        if (!EnumQueryResult.EDIT_CONFLICT.equals(e.getQueryResult()) ||
+            (attempt >= MAX_CONFLICT_ATTEMPTS)) {
+          throw e;
+        }
+        log.info("Edit conflict on " + page.getTitle() + ", fixing the page again");
+        api.retrieveContents(wiki, Collections.singletonList(page), false, false);
+        String oldContents = page.getContents();
+        contents = (oldContents != null) ? edit.fix(oldContents) : null;
+        if ((contents == null) || contents.equals(oldContents)) {
+          return null;
+        }
+        edit.setContents(contents);
+      }
+    }
+  }
+
+  /**
+   * An edit to be saved.
+   */
+  public static class Edit {
+
+    /** Page */
+    private final Page page;
+
+    /** New contents */
+    private String contents;
+
+    /** Comment */
+    private String comment;
+
+    /** True if the modification should be tagged as minor */
+    private final boolean minor;
+
+    /** True if the modification is automatic */
+    private final boolean automatic;
+
+    /** True once the edit has been either started or cancelled */
+    private final AtomicBoolean decided;
+
+    /**
+     * @param page Page.
+     * @param contents New contents.
+     * @param comment Comment.
+     * @param minor True if the modification should be tagged as minor.
+     * @param automatic True if the modification is automatic.
+     */
+    public Edit(
+        Page page, String contents, String comment,
+        boolean minor, boolean automatic) {
+      this.page = page;
+      this.contents = contents;
+      this.comment = comment;
+      this.minor = minor;
+      this.automatic = automatic;
+      this.decided = new AtomicBoolean(false);
+    }
+
+    /**
+     * Cancel the edit if it hasn't been started yet.
+     * An edit being saved is not interrupted.
+     *
+     * @return True if the edit won't be saved, false if it has been started.
+     */
+    public boolean cancel() {
+      return decided.compareAndSet(false, true);
+    }
+
+    /**
+     * Start the edit if it hasn't been cancelled.
+     *
+     * @return True if the edit can be saved.
+     */
+    boolean start() {
+      return decided.compareAndSet(false, true);
+    }
+
+    /**
+     * Fix the page again after an edit conflict.
+     * Sub classes should update the new contents and comment,
+     * this implementation doesn't fix anything.
+     *
+     * @param oldContents Current contents of the page.
+     * @return New contents (null if the page shouldn't be modified).
+     */
+    protected String fix(String oldContents) {
+      return null;
+    }
+
+    /**
+     * @return Page.
+     */
+    public Page getPage() {
+      return page;
+    }
+
+    /**
+     * @return New contents.
+     */
+    public String getContents() {
+      return contents;
+    }
+
+    /**
+     * @param contents New contents.
+     */
+    protected void setContents(String contents) {
+      this.contents = contents;
+    }
+
+    /**
+     * @return Comment.
+     */
+    public String getComment() {
+      return comment;
+    }
+
+    /**
+     * @param comment Comment.
+     */
+    protected void setComment(String comment) {
+      this.comment = comment;
+    }
+
+    /**
+     * @return True if the modification should be tagged as minor.
+     */
+    public boolean isMinor() {
+      return minor;
+    }
+
+    /**
+     * @return True if the modification is automatic.
+     */
+    public boolean isAutomatic() {
+      return automatic;
+    }
+  }
+}
@@ -69,12 +69,29 @@ public class HttpServer {
       String              path,
       Map<String, String> properties,
       ResponseManager     manager) throws APIException {
+    sendPost(path, properties, manager, MAX_ATTEMPTS);
+  }
+
+  /**
+   * Send a POST request to the Tool Server.
+   * 
+   * @param path Path on the tool server.
+   * @param properties Request properties.
+   * @param manager Response manager.
+   * @param maxAttempts Maximum number of attempts (1 to let the caller manage retries).
+   * @throws APIException
+   */
+  public void sendPost(
+      String              path,
+      Map<String, String> properties,
+      ResponseManager     manager,
+      int                 maxAttempts) throws APIException {
     HttpMethod method = null;
     InputStream inputStream = null;
     int statusCode = HttpStatus.SC_SEE_OTHER;
     int count = 0;
     while ((statusCode != HttpStatus.SC_OK) &&
-           (count < MAX_ATTEMPTS)) {
+           (count < maxAttempts)) {
       if (count > 0) {
         try {
           Thread.sleep(2000 * count);
@@ -101,7 +118,9 @@ public class HttpServer {
           }
         } else {
           log.warn("Error accessing url: " + statusCode + "-" + HttpStatus.getStatusText(statusCode));
-          waitBeforeRetrying(count);
+          if (count < maxAttempts) {
+            waitBeforeRetrying(count);
+          }
         }
         try {
           while (inputStream.read() >= 0) {
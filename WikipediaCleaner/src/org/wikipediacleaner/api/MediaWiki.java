@@ -11,7 +11,9 @@ import java.awt.Component;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -31,6 +33,7 @@ import org.wikipediacleaner.api.execution.DisambiguationStatusCallable;
 import org.wikipediacleaner.api.execution.EmbeddedInCallable;
 import org.wikipediacleaner.api.execution.ExpandTemplatesCallable;
 import org.wikipediacleaner.api.execution.LinksWRCallable;
+import org.wikipediacleaner.api.execution.LinksWRListCallable;
 import org.wikipediacleaner.api.execution.ParseTextCallable;
 import org.wikipediacleaner.api.execution.TemplatesCallable;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
@@ -46,6 +49,12 @@ import org.wikipediacleaner.utils.ConfigurationValueInteger;
  */
 public class MediaWiki extends MediaWikiController {
 
+  /**
+   * Minimum number of pages retrieved together for keeping their contents compact.
+   * Pages are then processed one after the other, so most of them wait in memory.
+   */
+  private final static int COMPACT_MIN_PAGES = 20;
+
   /**
    * @param listener Listener to MediaWiki events.
    * @return Access to MediaWiki.
@@ -126,12 +135,13 @@ public class MediaWiki extends MediaWikiController {
       return;
     }
     final API api = APIFactory.getAPI();
+    boolean compact = (pages.size() >= COMPACT_MIN_PAGES);
     for (Page page : pages) {
       addTask(new ContentsCallable(
           wikipedia, this, api,
           page, null,
           usePageId, withRedirects, null,
-          doAnalysis));
+          doAnalysis, compact));
     }
     block(block);
   }
@@ -445,6 +455,48 @@ public class MediaWiki extends MediaWikiController {
     block(block);
   }
 
+  /**
+   * Retrieve all links (with redirects) of several pages.
+   * 
+   * Pages are grouped so that there's one task per thread,
+   * each task retrieving redirects and disambiguation information
+   * for the links of all its pages together.
+   * 
+   * @param wikipedia Wikipedia.
+   * @param pages Pages.
+   * @param namespace If set, retrieve only links in this namespace.
+   * @param knownPages Already known pages.
+   * @param disambigNeeded True if disambiguation information is needed.
+   * @param block Flag indicating if the call should block until completed.
+   * @throws APIException
+   */
+  public void retrieveAllLinks(
+      EnumWikipedia wikipedia,
+      Collection<Page> pages, Integer namespace,
+      List<Page> knownPages,
+      boolean disambigNeeded,
+      boolean block) throws APIException {
+    if ((pages == null) || pages.isEmpty()) {
+      return;
+    }
+    final API api = APIFactory.getAPI();
+    Configuration config = Configuration.getConfiguration();
+    int nThreads = Math.max(1, config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD));
+    int groupSize = (pages.size() + nThreads - 1) / nThreads;
+    List<Page> group = new ArrayList<Page>(groupSize);
+    for (Page page : pages) {
+      group.add(page);
+      if (group.size() >= groupSize) {
+        addTask(new LinksWRListCallable(wikipedia, this, api, group, namespace, knownPages, disambigNeeded));
+        group = new ArrayList<Page>(groupSize);
+      }
+    }
+    if (!group.isEmpty()) {
+      addTask(new LinksWRListCallable(wikipedia, this, api, group, namespace, knownPages, disambigNeeded));
+    }
+    block(block);
+  }
+
   /**
    * Retrieve all templates of a page.
    * 
@@ -573,9 +625,9 @@ public class MediaWiki extends MediaWikiController {
     // Retrieving disambiguation status
     final int maxPages = api.getMaxPagesPerQuery();
     List<Page> filteredList = pageList;
-    if (knownPages != null) {
+    if ((knownPages != null) && !knownPages.isEmpty()) {
       filteredList = new ArrayList<Page>(pageList);
-      filteredList.removeAll(knownPages);
+      filteredList.removeAll(new HashSet<Page>(knownPages));
     }
     if (filteredList.size() <= maxPages) {
       addTask(new DisambiguationStatusCallable(wikipedia, this, api, filteredList, forceApiCall));
@@ -593,6 +645,7 @@ public class MediaWiki extends MediaWikiController {
 
     // Retrieving possible disambiguations
     if (disambiguations) {
+      Collection<Page> dabPages = new LinkedHashSet<Page>();
       for (Page p : pageList) {
         Iterator<Page> iter = p.getRedirectIteratorWithPage();
         while (iter.hasNext()) {
@@ -601,11 +654,12 @@ public class MediaWiki extends MediaWikiController {
               (!p.isRedirect())) {
             List<Page> links = p.getLinks();
             if ((links == null) || (links.size() == 0)) {
-              addTask(new LinksWRCallable(wikipedia, this, api, p, null, null, false));
+              dabPages.add(p);
             }
           }
         }
       }
+      retrieveAllLinks(wikipedia, dabPages, null, null, false, false);
     }
     block(block);
   }
@@ -0,0 +1,30 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.util.List;
+
+import org.wikipediacleaner.api.data.PageRef;
+
+
+/**
+ * Consumer interface for lists of pages retrieved progressively.
+ *
+ * Calls are never concurrent, even when the list is retrieved
+ * with several parallel requests.
+ */
+public interface PageListConsumer {
+
+  /**
+   * Invoked each time a part of the list has been retrieved.
+   * 
+   * @param pages References to the pages just retrieved.
+   * @return True if the retrieval should continue.
+   */
+  public boolean pagesRetrieved(List<PageRef> pages);
+}
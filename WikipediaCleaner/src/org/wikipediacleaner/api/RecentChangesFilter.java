@@ -0,0 +1,93 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.RecentChange;
+
+
+/**
+ * Filter on recent changes for a listener.
+ * 
+ * Namespaces and types of changes are also used to restrict
+ * the recent changes requested to the source.
+ */
+public class RecentChangesFilter {
+
+  /** Namespaces of interest (null for all namespaces) */
+  private final Set<Integer> namespaces;
+
+  /** Types of changes of interest (null for all types) */
+  private final Set<String> types;
+
+  /** Titles of interest (null for all titles) */
+  private final Set<String> titles;
+
+  /**
+   * @param namespaces Namespaces of interest (null for all namespaces).
+   * @param types Types of changes of interest (null for all types).
+   * @param titles Titles of interest (null for all titles).
+   */
+  public RecentChangesFilter(
+      Collection<Integer> namespaces,
+      Collection<String> types,
+      Collection<String> titles) {
+    this.namespaces = (namespaces != null) ?
+        Collections.unmodifiableSet(new HashSet<Integer>(namespaces)) : null;
+    this.types = (types != null) ?
+        Collections.unmodifiableSet(new HashSet<String>(types)) : null;
+    Set<String> tmpTitles = null;
+    if (titles != null) {
+      tmpTitles = new HashSet<String>();
+      for (String title : titles) {
+        tmpTitles.add(Page.normalizeTitle(title));
+      }
+    }
+    this.titles = tmpTitles;
+  }
+
+  /**
+   * @return Namespaces of interest (null for all namespaces).
+   */
+  public Set<Integer> getNamespaces() {
+    return namespaces;
+  }
+
+  /**
+   * @return Types of changes of interest (null for all types).
+   */
+  public Set<String> getTypes() {
+    return types;
+  }
+
+  /**
+   * @param rc Recent change.
+   * @return True if the recent change is accepted by the filter.
+   */
+  public boolean accept(RecentChange rc) {
+    if (rc == null) {
+      return false;
+    }
+    if ((namespaces != null) &&
+        !namespaces.contains(Integer.valueOf(rc.getNamespace()))) {
+      return false;
+    }
+    if ((types != null) && !types.contains(rc.getType())) {
+      return false;
+    }
+    if ((titles != null) && !titles.contains(Page.normalizeTitle(rc.getTitle()))) {
+      return false;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.wikipediacleaner.api.data.RecentChange;
+
+
+/**
+ * Source of recent changes for a wiki.
+ * 
+ * The default source regularly queries the API, but other sources
+ * (event streams, replay of a local file, ...) can be used instead.
+ */
+public interface RecentChangesSource {
+
+  /**
+   * Retrieve recent changes that occurred since the previous call.
+   * 
+   * @param namespaces Namespaces of interest (null for all namespaces).
+   * @param types Types of changes of interest (null for all types).
+   * @param recentChanges The list of recent changes to be filled, oldest first.
+   * @return Current time for the source (null if unknown).
+   * @throws APIException Error retrieving recent changes.
+   */
+  public Date getRecentChanges(
+      Set<Integer> namespaces, Set<String> types,
+      List<RecentChange> recentChanges) throws APIException;
+
+  /**
+   * @return True if the source waits for recent changes by itself (event stream, replay, ...),
+   *         false if it has to be polled regularly.
+   */
+  public boolean isStreaming();
+
+  /**
+   * @return True if the source doesn't have any more recent changes (end of a replay, ...).
+   */
+  public boolean isFinished();
+}
@@ -14,17 +14,25 @@ import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithms;
 import org.wikipediacleaner.api.constants.CWConfigurationError;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
-import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueBoolean;
 import org.wikipediacleaner.utils.Performance;
 
 
@@ -48,6 +56,26 @@ public class CheckError {
       Collection<CheckErrorAlgorithm> algorithms,
       PageAnalysis pageAnalysis,
       boolean onlyAutomatic) {
+    Configuration config = Configuration.getConfiguration();
+    boolean parallel = config.getBoolean(
+        null, ConfigurationValueBoolean.CHECK_PARALLEL_ANALYSIS);
+    return analyzeErrors(algorithms, pageAnalysis, onlyAutomatic, parallel);
+  }
+
+  /**
+   * Analyze a page to find error types.
+   * 
+   * @param algorithms Possible algorithms.
+   * @param pageAnalysis Page analysis.
+   * @param onlyAutomatic True if analysis could be restricted to errors automatically fixed.
+   * @param parallel True if algorithms should be run in parallel.
+   * @return Errors found in the page.
+   */
+  public static List<CheckErrorPage> analyzeErrors(
+      Collection<CheckErrorAlgorithm> algorithms,
+      PageAnalysis pageAnalysis,
+      boolean onlyAutomatic,
+      boolean parallel) {
     Performance perf = null;
     if (traceTime) {
       perf = Performance.getInstance("CheckError.analyzeErrors");
@@ -57,12 +85,148 @@ public class CheckError {
     if ((algorithms != null) &&
         (pageAnalysis != null) &&
         (pageAnalysis.getContents() != null)) {
+
+      // Select algorithms
+      List<AlgorithmCallable> tasks = new ArrayList<AlgorithmCallable>();
       for (CheckErrorAlgorithm algorithm : algorithms) {
         if ((algorithm != null) &&
             (algorithm.isAvailable()) &&
             (CWConfigurationError.isPriorityActive(algorithm.getPriority()))) {
-          List<CheckErrorResult> results = new ArrayList<CheckErrorResult>();
-          boolean errorFound = false;
+          tasks.add(new AlgorithmCallable(algorithm, pageAnalysis, onlyAutomatic));
+        }
+      }
+
+      // Run algorithms
+      if (parallel && (tasks.size() > 1)) {
+        runParallel(tasks);
+      } else {
+        for (AlgorithmCallable task : tasks) {
+          task.call();
+        }
+      }
+
+      // Merge results in the order of the algorithms (tasks cancelled by an interruption are ignored)
+      for (AlgorithmCallable task : tasks) {
+        if (task.done && task.errorFound) {
+          CheckErrorPage errorPage = new CheckErrorPage(pageAnalysis.getPage(), task.algorithm);
+          errorPage.setResults(true, task.results);
+          errorsFound.add(errorPage);
+        }
+      }
+    }
+    if (perf != null) {
+      perf.printEnd();
+      perf.release();
+    }
+    return errorsFound;
+  }
+
+  /** Pool of threads for running algorithms in parallel. */
+  private static ForkJoinPool pool;
+
+  /**
+   * @return Pool of threads for running algorithms in parallel.
+   */
+  private static synchronized ForkJoinPool getPool() {
+    if (pool == null) {
+      pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+    return pool;
+  }
+
+  /**
+   * Run algorithms in parallel.
+   * 
+   * If the current thread is interrupted, the remaining algorithms are cancelled.
+   * 
+   * @param tasks Algorithms to run.
+   */
+  private static void runParallel(List<AlgorithmCallable> tasks) {
+    ForkJoinPool currentPool = getPool();
+    List<Future<Boolean>> results = new ArrayList<Future<Boolean>>(tasks.size());
+    for (AlgorithmCallable task : tasks) {
+      results.add(currentPool.submit(task));
+    }
+    for (int i = 0; i < tasks.size(); i++) {
+      try {
+        results.get(i).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        for (Future<Boolean> result : results) {
+          result.cancel(false);
+        }
+        return;
+      } catch (ExecutionException e) {
+        for (Future<Boolean> result : results) {
+          result.cancel(false);
+        }
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+    }
+  }
+
+  /**
+   * Task for running one algorithm on a page.
+   */
+  private static class AlgorithmCallable implements Callable<Boolean> {
+
+    /** Algorithm */
+    final CheckErrorAlgorithm algorithm;
+
+    /** Page analysis */
+    private final PageAnalysis pageAnalysis;
+
+    /** True if analysis could be restricted to errors automatically fixed */
+    private final boolean onlyAutomatic;
+
+    /** List of errors found */
+    final List<CheckErrorResult> results;
+
+    /** True if errors have been found */
+    volatile boolean errorFound;
+
+    /** True if the algorithm has been run */
+    volatile boolean done;
+
+    /**
+     * @param algorithm Algorithm.
+     * @param pageAnalysis Page analysis.
+     * @param onlyAutomatic True if analysis could be restricted to errors automatically fixed.
+     */
+    AlgorithmCallable(
+        CheckErrorAlgorithm algorithm,
+        PageAnalysis pageAnalysis,
+        boolean onlyAutomatic) {
+      this.algorithm = algorithm;
+      this.pageAnalysis = pageAnalysis;
+      this.onlyAutomatic = onlyAutomatic;
+      this.results = new ArrayList<CheckErrorResult>();
+    }
+
+    /**
+     * Run the algorithm on the page.
+     * 
+     * @return True if errors have been found.
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public Boolean call() {
+      synchronized (results) {
+        if (!done) {
+
+          // Each task measures its own duration, tasks may run in parallel
+          Performance perf = null;
+          if (traceTime) {
+            perf = Performance.getInstance("CheckError.analyzeErrors");
+            perf.printStart();
+          }
           int errorNumber = algorithm.getErrorNumber();
           PageAnalysis.Result result = pageAnalysis.getCheckWikiErrors(errorNumber);
           if (result != null) {
@@ -71,26 +235,17 @@ public class CheckError {
             errorFound = algorithm.analyze(pageAnalysis, results, onlyAutomatic);
             pageAnalysis.setCheckWikiErrors(errorNumber, errorFound, results);
           }
-          if (errorFound) {
-            CheckErrorPage errorPage = new CheckErrorPage(pageAnalysis.getPage(), algorithm);
-            errorPage.setResults(true, results);
-            errorsFound.add(errorPage);
-          }
+          done = true;
           if (perf != null) {
-            String message =
-                "Error n°" + algorithm.getErrorNumber() +
-                ", " + errorFound +
-                ", " + results.size() + " occurrences";
-            perf.printStep(message);
+            perf.printEnd(
+                "Error n°" + errorNumber + ", " + errorFound +
+                ", " + results.size() + " occurrences");
+            perf.release();
           }
         }
+        return Boolean.valueOf(errorFound);
       }
     }
-    if (perf != null) {
-      perf.printEnd();
-      perf.release();
-    }
-    return errorsFound;
   }
 
   /**
@@ -336,7 +491,8 @@ public class CheckError {
   private final EnumWikipedia wikipedia;
   private final int errorNumber;
   private final CheckErrorAlgorithm algorithm;
-  private final List<Page> errors;
+  private final List<PageRef> errors;
+  private final Set<PageRef> errorsSet;
 
   /**
    * Constructor
@@ -349,7 +505,8 @@ public class CheckError {
     this.wikipedia = wikipedia;
     this.algorithm = CheckErrorAlgorithms.getAlgorithm(wikipedia, errorNumber);
     this.errorNumber = errorNumber;
-    this.errors = new ArrayList<Page>();
+    this.errors = new ArrayList<PageRef>();
+    this.errorsSet = new HashSet<PageRef>();
   }
   
   /**
@@ -381,7 +538,18 @@ public class CheckError {
     if ((index < 0) || (index >= errors.size())) {
       return null;
     }
-    return errors.get(index);
+    return errors.get(index).getPage(wikipedia);
+  }
+
+  /**
+   * @param index Page index.
+   * @return Title of the error page.
+   */
+  public String getPageTitle(int index) {
+    if ((index < 0) || (index >= errors.size())) {
+      return null;
+    }
+    return errors.get(index).getTitle();
   }
 
   /**
@@ -391,8 +559,8 @@ public class CheckError {
    * @param pageId Page id.
    */
   private void addPage(String page, Integer pageId) {
-    Page tmpPage = DataManager.getPage(wikipedia, page, pageId, null, null);
-    if (!errors.contains(tmpPage)) {
+    PageRef tmpPage = new PageRef(page, null, pageId);
+    if (errorsSet.add(tmpPage)) {
       errors.add(tmpPage);
     }
   }
@@ -430,7 +598,7 @@ public class CheckError {
     synchronized (errors) {
       for (int i = errors.size(); i > 0; i--) {
         if (Page.areSameTitle(page.getTitle(), errors.get(i - 1).getTitle())) {
-          errors.remove(i - 1);
+          errorsSet.remove(errors.remove(i - 1));
           removed = true;
         }
       }
@@ -54,12 +54,18 @@ public class CheckWiki {
    */
   private final List<WeakReference<CheckWikiListener>> listeners;
 
+  /**
+   * Queue of notifications for pages marked as fixed.
+   */
+  private final MarkAsFixedQueue markAsFixedQueue;
+
   /**
    * @param labs WMF Labs
    */
   public CheckWiki(HttpServer labs) {
     this.labs = labs;
     this.listeners = new ArrayList<WeakReference<CheckWikiListener>>();
+    this.markAsFixedQueue = new MarkAsFixedQueue(this);
   }
 
   /**
@@ -111,39 +117,64 @@ public class CheckWiki {
   /**
    * Mark a page as fixed.
    * 
+   * The notification is sent to Check Wiki in the background,
+   * so the result doesn't tell if Check Wiki has actually been notified.
+   * 
    * @param page Page.
    * @param errorNumber Error number.
-   * @return True if it has been done.
+   * @return True if the notification has been queued (or isn't needed for this error).
    */
   public boolean markAsFixed(Page page, String errorNumber) {
+    if (page == null) {
+      return false;
+    }
     try {
       int error = Integer.parseInt(errorNumber);
       notifyPageFixed(page, error);
       if (error > CheckErrorAlgorithm.MAX_ERROR_NUMBER_WITH_LIST) {
         return true;
       }
-      EnumWikipedia wiki = page.getWikipedia();
-      String code = wiki.getSettings().getCodeCheckWiki().replace("-", "_");
-      Map<String, String> properties = new HashMap<String, String>();
-      properties.put("id", Integer.toString(error));
-      properties.put("project", code);
-
-      // WMF Labs
-      properties.put("title", page.getTitle());
-      if (!useBotList) {
-        properties.put("view", "only");
-        labs.sendPost("checkwiki/cgi-bin/checkwiki.cgi", properties, null);
-      } else {
-        properties.put("action", "mark");
-        labs.sendPost("checkwiki/cgi-bin/checkwiki_bots.cgi", properties, null);
-      }
-
+      return markAsFixedQueue.add(page.getWikipedia(), page.getTitle(), error);
     } catch (NumberFormatException e) {
       return false;
-    } catch (APIException e) {
-      return false;
     }
-    return true;
+  }
+
+  /**
+   * Wait for the notifications of pages marked as fixed to be sent.
+   * Notifications that couldn't be sent are memorized for the next start.
+   * 
+   * @param timeout Maximum time to wait (in milliseconds).
+   * @return True if all notifications have been sent.
+   */
+  public boolean flush(long timeout) {
+    return markAsFixedQueue.flush(timeout);
+  }
+
+  /**
+   * Send to Check Wiki that a page is fixed.
+   * A single attempt is made: retries are managed by the queue of notifications.
+   * 
+   * @param wiki Wiki.
+   * @param title Page title.
+   * @param error Error number.
+   * @throws APIException
+   */
+  void sendMarkAsFixed(EnumWikipedia wiki, String title, int error) throws APIException {
+    String code = wiki.getSettings().getCodeCheckWiki().replace("-", "_");
+    Map<String, String> properties = new HashMap<String, String>();
+    properties.put("id", Integer.toString(error));
+    properties.put("project", code);
+
+    // WMF Labs
+    properties.put("title", title);
+    if (!useBotList) {
+      properties.put("view", "only");
+      labs.sendPost("checkwiki/cgi-bin/checkwiki.cgi", properties, null, 1);
+    } else {
+      properties.put("action", "mark");
+      labs.sendPost("checkwiki/cgi-bin/checkwiki_bots.cgi", properties, null, 1);
+    }
   }
 
   /**
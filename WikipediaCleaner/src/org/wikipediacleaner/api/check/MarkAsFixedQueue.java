@@ -0,0 +1,331 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.check;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.utils.Configuration;
+
+
+/**
+ * Queue of notifications sent to Check Wiki for pages marked as fixed.
+ * 
+ * Notifications are sent in the background by a few threads,
+ * so that editing is not slowed down by the Check Wiki server.
+ * Identical notifications are sent only once, failed notifications
+ * are retried with an increasing delay, and pending notifications
+ * are memorized in the configuration to be sent after a restart.
+ * Before exiting, {@link #flush(long)} waits for the pending notifications,
+ * and a shutdown hook memorizes the ones that couldn't be sent.
+ */
+class MarkAsFixedQueue {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(MarkAsFixedQueue.class);
+
+  /** Number of notifications sent concurrently */
+  private final static int THREADS_COUNT = 4;
+
+  /** Maximum number of attempts for a notification */
+  private final static int MAX_ATTEMPTS = 8;
+
+  /** Delay before the first retry (in milliseconds) */
+  private final static long RETRY_DELAY = 5000;
+
+  /** Maximum delay between two retries (in milliseconds) */
+  private final static long MAX_RETRY_DELAY = 600000;
+
+  /** Delay before memorizing pending notifications (in milliseconds) */
+  private final static long SAVE_DELAY = 1000;
+
+  /** Separator in memorized notifications */
+  private final static char SEPARATOR = '\t';
+
+  /** Check Wiki */
+  private final CheckWiki checkWiki;
+
+  /** Executor for sending notifications */
+  private final ScheduledThreadPoolExecutor executor;
+
+  /** Pending notifications (including the ones being sent) */
+  private final Map<String, Notification> pending;
+
+  /** True if a save of the pending notifications is scheduled */
+  private boolean saveScheduled;
+
+  /** True if the pending notifications have been loaded from the configuration */
+  private boolean loaded;
+
+  /**
+   * @param checkWiki Check Wiki.
+   */
+  MarkAsFixedQueue(CheckWiki checkWiki) {
+    this.checkWiki = checkWiki;
+    this.pending = new LinkedHashMap<String, Notification>();
+    this.executor = new ScheduledThreadPoolExecutor(THREADS_COUNT, new ThreadFactory() {
+
+      /** Thread number */
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "CheckWiki notifications " + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    executor.execute(new Runnable() {
+
+      @Override
+      public void run() {
+        load();
+      }
+    });
+    Runtime.getRuntime().addShutdownHook(new Thread("CheckWiki notifications save") {
+
+      @Override
+      public void run() {
+        save();
+      }
+    });
+  }
+
+  /**
+   * Add a notification to the queue.
+   * 
+   * @param wiki Wiki.
+   * @param title Page title.
+   * @param error Error number.
+   * @return True if the notification is in the queue.
+   */
+  boolean add(EnumWikipedia wiki, String title, int error) {
+    if ((wiki == null) || (title == null)) {
+      return false;
+    }
+    Notification notification = new Notification(wiki, title, error);
+    synchronized (pending) {
+      if (pending.containsKey(notification.getKey())) {
+        return true;
+      }
+      pending.put(notification.getKey(), notification);
+      scheduleSave();
+    }
+    schedule(notification, 0);
+    return true;
+  }
+
+  /**
+   * Wait for the pending notifications to be sent, and memorize the remaining ones.
+   * 
+   * Notifications waiting for a retry are usually not sent before the timeout,
+   * they are memorized to be sent after a restart.
+   * 
+   * @param timeout Maximum time to wait (in milliseconds).
+   * @return True if all notifications have been sent.
+   */
+  boolean flush(long timeout) {
+    long endTime = System.currentTimeMillis() + timeout;
+    boolean done = false;
+    synchronized (pending) {
+      long remaining = timeout;
+      while ((!loaded || !pending.isEmpty()) && (remaining > 0)) {
+        try {
+          pending.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        remaining = endTime - System.currentTimeMillis();
+      }
+      done = loaded && pending.isEmpty();
+    }
+    save();
+    return done;
+  }
+
+  /**
+   * Schedule sending a notification.
+   * 
+   * @param notification Notification.
+   * @param delay Delay before sending the notification (in milliseconds).
+   */
+  private void schedule(final Notification notification, long delay) {
+    executor.schedule(new Runnable() {
+
+      @Override
+      public void run() {
+        send(notification);
+      }
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Send a notification.
+   * 
+   * @param notification Notification.
+   */
+  void send(Notification notification) {
+    boolean done = false;
+    try {
+      checkWiki.sendMarkAsFixed(notification.wiki, notification.title, notification.error);
+      done = true;
+    } catch (APIException e) {
+      notification.attempts++;
+      if (notification.attempts >= MAX_ATTEMPTS) {
+        log.warn(
+            "Unable to mark " + notification.title + " as fixed for error " +
+            notification.error + ": " + e.getMessage());
+        done = true;
+      }
+    }
+    if (!done) {
+      long delay = Math.min(RETRY_DELAY << (notification.attempts - 1), MAX_RETRY_DELAY);
+      schedule(notification, delay);
+      return;
+    }
+    synchronized (pending) {
+      pending.remove(notification.getKey());
+      scheduleSave();
+      pending.notifyAll();
+    }
+  }
+
+  /**
+   * Schedule memorizing the pending notifications.
+   * Must be called with the lock on pending notifications.
+   */
+  private void scheduleSave() {
+    if (saveScheduled) {
+      return;
+    }
+    saveScheduled = true;
+    executor.schedule(new Runnable() {
+
+      @Override
+      public void run() {
+        save();
+      }
+    }, SAVE_DELAY, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Memorize the pending notifications in the configuration.
+   */
+  void save() {
+    List<String> values = null;
+    synchronized (pending) {
+      saveScheduled = false;
+      if (!loaded) {
+        // Don't overwrite the notifications memorized before they are loaded
+        return;
+      }
+      values = new ArrayList<String>(pending.size());
+      for (Notification notification : pending.values()) {
+        values.add(notification.getKey());
+      }
+    }
+    Configuration config = Configuration.getConfiguration();
+    config.setStringList(null, Configuration.ARRAY_CHECK_PENDING_FIXED, values);
+    config.save();
+  }
+
+  /**
+   * Load the pending notifications memorized in the configuration.
+   * 
+   * The memorized notifications are put back in the queue before it is marked as loaded,
+   * so that a save can't overwrite them with an incomplete list.
+   */
+  void load() {
+    Configuration config = Configuration.getConfiguration();
+    List<String> values = config.getStringList(null, Configuration.ARRAY_CHECK_PENDING_FIXED);
+    List<Notification> notifications = new ArrayList<Notification>();
+    if (values != null) {
+      for (String value : values) {
+        int first = value.indexOf(SEPARATOR);
+        int second = (first >= 0) ? value.indexOf(SEPARATOR, first + 1) : -1;
+        if (second > 0) {
+          String code = value.substring(0, first);
+          EnumWikipedia wiki = EnumWikipedia.getWikipedia(code);
+          if (!code.equals(wiki.getSettings().getCode())) {
+            continue;
+          }
+          try {
+            int error = Integer.parseInt(value.substring(first + 1, second));
+            notifications.add(new Notification(wiki, value.substring(second + 1), error));
+          } catch (NumberFormatException e) {
+            // Nothing to do
+          }
+        }
+      }
+    }
+    List<Notification> added = new ArrayList<Notification>(notifications.size());
+    synchronized (pending) {
+      for (Notification notification : notifications) {
+        if (!pending.containsKey(notification.getKey())) {
+          pending.put(notification.getKey(), notification);
+          added.add(notification);
+        }
+      }
+      loaded = true;
+      scheduleSave();
+      pending.notifyAll();
+    }
+    for (Notification notification : added) {
+      schedule(notification, 0);
+    }
+  }
+
+  /**
+   * Notification for a page marked as fixed.
+   */
+  private static class Notification {
+
+    /** Wiki */
+    final EnumWikipedia wiki;
+
+    /** Page title */
+    final String title;
+
+    /** Error number */
+    final int error;
+
+    /** Number of failed attempts */
+    int attempts;
+
+    /**
+     * @param wiki Wiki.
+     * @param title Page title.
+     * @param error Error number.
+     */
+    Notification(EnumWikipedia wiki, String title, int error) {
+      this.wiki = wiki;
+      this.title = title;
+      this.error = error;
+      this.attempts = 0;
+    }
+
+    /**
+     * @return Key identifying the notification (also used to memorize it).
+     */
+    String getKey() {
+      return wiki.getSettings().getCode() + SEPARATOR + error + SEPARATOR + title;
+    }
+  }
+}
@@ -7,14 +7,14 @@
 
 package org.wikipediacleaner.api.constants;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
 import org.wikipediacleaner.api.constants.CWConfiguration.Origin;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.TitleSet;
 import org.wikipediacleaner.i18n.GT;
 
 
@@ -567,26 +567,28 @@ public class CWConfigurationError {
   /**
    * White list.
    */
-  private Set<String> whiteListPages = null;
+  private volatile TitleSet whiteListPages = null;
 
   /**
    * @param whiteListPage Page containing the white list.
    */
   public void setWhiteList(Page whiteListPage) {
     List<Page> pages = whiteListPage.getLinks();
-    whiteListPages = null;
+    TitleSet tmpWhiteList = null;
     if ((pages != null) && (pages.size() > 0)) {
-      whiteListPages = new HashSet<String>();
+      List<String> titles = new ArrayList<String>(pages.size());
       for (Page page : pages) {
-        whiteListPages.add(page.getTitle());
+        titles.add(page.getTitle());
       }
+      tmpWhiteList = TitleSet.create(titles, true);
     }
+    whiteListPages = tmpWhiteList;
   }
 
   /**
    * White list.
    */
-  private Set<String> whiteListWiki = null;
+  private volatile TitleSet whiteListWiki = null;
 
   /**
    * @param value White list value.
@@ -596,27 +598,25 @@ public class CWConfigurationError {
     if (origin == Origin.GENERAL_CONFIGURATION) {
       return;
     }
-    whiteListWiki = null;
+    TitleSet tmpWhiteList = null;
     if (value != null) {
       List<String> tmp = WPCConfiguration.convertPropertyToStringList(value);
       if (tmp != null) {
-        whiteListWiki = new HashSet<String>();
-        whiteListWiki.addAll(tmp);
+        tmpWhiteList = TitleSet.create(tmp, true);
       }
     }
+    whiteListWiki = tmpWhiteList;
   }
 
   /**
-   * @return White list.
+   * @return White list (immutable).
    */
   public Set<String> getWhiteList() {
-    if (whiteListPages != null) {
-      return Collections.unmodifiableSet(whiteListPages);
+    TitleSet whiteList = whiteListPages;
+    if (whiteList != null) {
+      return whiteList;
     }
-    if (whiteListWiki != null) {
-      return Collections.unmodifiableSet(whiteListWiki);
-    }
-    return null;
+    return whiteListWiki;
   }
 
   /**
@@ -626,7 +626,10 @@ public class CWConfigurationError {
    * @return Page among the white list ?
    */
   public boolean isInWhiteList(String title) {
-    Set<String> whiteList = getWhiteList();
+    TitleSet whiteList = whiteListPages;
+    if (whiteList == null) {
+      whiteList = whiteListWiki;
+    }
     if ((whiteList == null) || (title == null)) {
       return false;
     }
@@ -19,6 +19,7 @@ import java.util.Set;
 import org.wikipediacleaner.Version;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.PageListConsumer;
 import org.wikipediacleaner.api.constants.wiki.AbstractWikiSettings;
 import org.wikipediacleaner.api.constants.wiki.Waze;
 import org.wikipediacleaner.api.constants.wiki.WazeopediaUSA;
@@ -32,6 +33,7 @@ import org.wikipediacleaner.api.constants.wiki.Wiktionary;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.api.impl.CommentDecorator;
 import org.wikipediacleaner.api.impl.ProgramCommentDecorator;
 import org.wikipediacleaner.utils.Configuration;
@@ -333,9 +335,8 @@ public enum EnumWikipedia {
    */
   public List<Page> constuctDisambiguationPages(API api) throws APIException {
 
-    WPCConfiguration config = getConfiguration();
-
     // Use __DISAMBIG__ magic word if set
+    WPCConfiguration config = getConfiguration();
     boolean useDisambig = config.getBoolean(WPCConfigurationBoolean.DAB_USE_DISAMBIG_MAGIC_WORD);
     if (useDisambig) {
       List<Page> tmpResult = api.retrievePagesWithProp(this, "disambiguation", false);
@@ -351,44 +352,51 @@ public enum EnumWikipedia {
       return tmpResult;
     }
 
-    // Use categories if they are defined
-    List<Page> dabCategories = config.getDisambiguationCategories();
-    if ((dabCategories != null) && (dabCategories.size() > 0)) {
-      ArrayList<Page> tmpResult = new ArrayList<Page>();
-      for (Page dabCategory : dabCategories) {
-        api.retrieveCategoryMembers(
-            this, dabCategory, 0, false, Integer.MAX_VALUE);
-        List<Page> tmpPages = dabCategory.getRelatedPages(Page.RelatedPages.CATEGORY_MEMBERS);
-        if (tmpPages != null) {
-          tmpResult.ensureCapacity(tmpResult.size() + tmpPages.size());
-          for (Page page : tmpPages) {
-            if (page.isInMainNamespace()) {
-              tmpResult.add(page);
-            }
+    // Use categories or templates
+    return PageRef.getPages(this, constructDisambiguationPageRefs(api));
+  }
+
+  /**
+   * Construct list of references to disambiguation pages
+   * from disambiguation categories or templates.
+   * 
+   * @param api Wikipedia API
+   * @return List of references to disambiguation pages
+   * @throws APIException
+   */
+  private List<PageRef> constructDisambiguationPageRefs(API api) throws APIException {
+
+    // Consumer keeping pages in the main namespace
+    final List<PageRef> tmpResult = new ArrayList<PageRef>();
+    PageListConsumer consumer = new PageListConsumer() {
+
+      @Override
+      public boolean pagesRetrieved(List<PageRef> pages) {
+        for (PageRef page : pages) {
+          if (page.isInMainNamespace()) {
+            tmpResult.add(page);
           }
         }
+        return true;
       }
+    };
+
+    // Use categories if they are defined
+    WPCConfiguration config = getConfiguration();
+    List<Page> dabCategories = config.getDisambiguationCategories();
+    if ((dabCategories != null) && (dabCategories.size() > 0)) {
+      api.retrieveCategoryMembers(this, dabCategories, false, consumer);
+      Collections.sort(tmpResult);
       return tmpResult;
     }
 
     // Use disambiguation templates
     if (disambiguationTemplates != null) {
-      ArrayList<Page> tmpResult = new ArrayList<Page>();
-      for (Page dabTemplate : disambiguationTemplates) {
-        api.retrieveEmbeddedIn(
-            this, dabTemplate,
-            Collections.singletonList(Namespace.MAIN),
-            false);
-        List<Page> tmpPages = dabTemplate.getRelatedPages(Page.RelatedPages.EMBEDDED_IN);
-        if (tmpPages != null) {
-          tmpResult.ensureCapacity(tmpResult.size() + tmpPages.size());
-          for (Page page : tmpPages) {
-            if (page.isInMainNamespace()) {
-              tmpResult.add(page);
-            }
-          }
-        }
-      }
+      api.retrieveEmbeddedIn(
+          this, disambiguationTemplates,
+          Collections.singletonList(Namespace.MAIN),
+          false, consumer);
+      Collections.sort(tmpResult);
       return tmpResult;
     }
 
@@ -403,10 +411,17 @@ public enum EnumWikipedia {
    */
   public void loadDisambiguationPages(API api) throws APIException {
     try {
-      List<Page> tmpPages = constuctDisambiguationPages(api);
       HashSet<String> tmpResult = new HashSet<String>();
-      for (Page page : tmpPages) {
-        tmpResult.add(page.getTitle());
+      if (getConfiguration().getBoolean(WPCConfigurationBoolean.DAB_USE_DISAMBIG_MAGIC_WORD)) {
+        List<Page> tmpPages = constuctDisambiguationPages(api);
+        for (Page page : tmpPages) {
+          tmpResult.add(page.getTitle());
+        }
+      } else {
+        List<PageRef> tmpPages = constructDisambiguationPageRefs(api);
+        for (PageRef page : tmpPages) {
+          tmpResult.add(page.getTitle());
+        }
       }
       disambiguationPages = tmpResult;
     } catch (APIException e) {
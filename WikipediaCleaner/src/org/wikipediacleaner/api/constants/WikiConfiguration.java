@@ -144,6 +144,7 @@ public class WikiConfiguration {
     if (namespaces != null) {
       Collections.sort(namespaces);
     }
+    updateLexicon();
   }
 
   /**
@@ -151,15 +152,15 @@ public class WikiConfiguration {
    * @return Matching namespace.
    */
   public Namespace getNamespace(int id) {
-    if (namespaces == null) {
-      return null;
-    }
-    for (Namespace n : namespaces) {
-      if ((n != null) && (n.getId() != null) && (id == n.getId().intValue())) {
-        return n;
-      }
-    }
-    return null;
+    return lexicon.getNamespace(id);
+  }
+
+  /**
+   * @param name Namespace name or alias.
+   * @return Matching namespace.
+   */
+  public Namespace getNamespace(String name) {
+    return lexicon.getNamespace(name);
   }
 
   /**
@@ -182,10 +183,9 @@ public class WikiConfiguration {
       }
       if (colonIndex > 0) {
         String possibleNamespace = title.substring(0, colonIndex);
-        for (Namespace n : namespaces) {
-          if (n.isPossibleName(possibleNamespace)) {
-            return n.getTitle() + ":" + n.getCaseSensitiveness().normalize(title.substring(colonIndex + 1));
-          }
+        Namespace n = lexicon.getNamespace(possibleNamespace);
+        if (n != null) {
+          return n.getTitle() + ":" + n.getCaseSensitiveness().normalize(title.substring(colonIndex + 1));
         }
       }
       return namespace.getTitle() + ":" + namespace.getCaseSensitiveness().normalize(title);
@@ -214,6 +214,15 @@ public class WikiConfiguration {
    */
   public void setLanguages(List<Language> languages) {
     this.languages = languages;
+    updateLexicon();
+  }
+
+  /**
+   * @param code Language code.
+   * @return True if the code is a language code.
+   */
+  public boolean isLanguageCode(String code) {
+    return lexicon.isLanguageCode(code);
   }
 
   // ==========================================================================
@@ -237,6 +246,23 @@ public class WikiConfiguration {
    */
   public void setInterwikis(List<Interwiki> interwikis) {
     this.interwikis = interwikis;
+    updateLexicon();
+  }
+
+  /**
+   * @param prefix Interwiki prefix.
+   * @return Interwikis with this prefix.
+   */
+  public List<Interwiki> getInterwikis(String prefix) {
+    return lexicon.getInterwikis(prefix);
+  }
+
+  /**
+   * @param prefix Interwiki prefix.
+   * @return True if the prefix is an interwiki prefix.
+   */
+  public boolean isInterwikiPrefix(String prefix) {
+    return lexicon.isInterwikiPrefix(prefix);
   }
 
   // ==========================================================================
@@ -264,15 +290,7 @@ public class WikiConfiguration {
    * @return Magic word.
    */
   public MagicWord getMagicWordByAlias(String value) {
-    if ((value == null) || (magicWords == null)) {
-      return null;
-    }
-    for (MagicWord magicWord : magicWords.values()) {
-      if (magicWord.isPossibleAlias(value)) {
-        return magicWord;
-      }
-    }
-    return null; 
+    return lexicon.getMagicWordByAlias(value);
   }
 
   /**
@@ -281,20 +299,7 @@ public class WikiConfiguration {
    * @return Matching Magic Word if the text is an alias for a Function Magic Word.
    */
   public MagicWord getFunctionMagicWord(String text, boolean colon) {
-    List<String> functionMagicWords = MagicWord.getFunctionMagicWords();
-    String colonText = text + ":";
-    for (String functionMagicWord : functionMagicWords) {
-      MagicWord magicWord = getMagicWordByName(functionMagicWord);
-      if (magicWord != null) {
-        if (magicWord.isPossibleAlias(text)) {
-          return magicWord;
-        }
-        if (colon && magicWord.isPossibleAlias(colonText)) {
-          return magicWord;
-        }
-      }
-    }
-    return null;
+    return lexicon.getFunctionMagicWord(text, colon);
   }
 
   /**
@@ -302,14 +307,7 @@ public class WikiConfiguration {
    * @return Matching Magic Word if the text is an alias for a Image Magic Word.
    */
   public MagicWord getImgMagicWord(String text) {
-    List<String> imgMagicWords = MagicWord.getImgMagicWords();
-    for (String imgMagicWord : imgMagicWords) {
-      MagicWord magicWord = getMagicWordByName(imgMagicWord);
-      if ((magicWord != null) && magicWord.isPossibleAlias(text)) {
-        return magicWord;
-      }
-    }
-    return null;
+    return lexicon.getImgMagicWord(text);
   }
 
   /**
@@ -317,6 +315,30 @@ public class WikiConfiguration {
    */
   public void setMagicWords(Map<String, MagicWord> magicWords) {
     this.magicWords = magicWords;
+    updateLexicon();
+  }
+
+  // ==========================================================================
+  // Lexicon
+  // ==========================================================================
+
+  /**
+   * Lexicon built from namespaces, languages, interwikis and magic words.
+   */
+  private volatile WikiLexicon lexicon = new WikiLexicon(null, null, null, null);
+
+  /**
+   * @return Lexicon built from namespaces, languages, interwikis and magic words.
+   */
+  public WikiLexicon getLexicon() {
+    return lexicon;
+  }
+
+  /**
+   * Build the lexicon again after a modification of the configuration.
+   */
+  private void updateLexicon() {
+    lexicon = new WikiLexicon(namespaces, languages, interwikis, magicWords);
   }
 
   // ==========================================================================
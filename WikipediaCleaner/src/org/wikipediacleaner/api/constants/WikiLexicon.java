@@ -0,0 +1,391 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.constants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.wikipediacleaner.api.data.Interwiki;
+import org.wikipediacleaner.api.data.Language;
+import org.wikipediacleaner.api.data.MagicWord;
+import org.wikipediacleaner.api.data.Namespace;
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Indexes on the names used in a wiki (namespaces, languages, interwikis, magic words).
+ *
+ * The lexicon is built once from the wiki configuration, so that parsing
+ * page contents doesn't need to scan the lists of the configuration.
+ */
+public class WikiLexicon {
+
+  /** Namespaces indexed by id */
+  private final Map<Integer, Namespace> namespacesById;
+
+  /** Namespaces indexed by name and aliases */
+  private final Map<String, Namespace> namespacesByName;
+
+  /** Language codes (with first letter in upper case) */
+  private final Set<String> languageCodes;
+
+  /** Interwikis indexed by prefix */
+  private final Map<String, List<Interwiki>> interwikis;
+
+  /** Index on all magic words */
+  private final MagicWordIndex magicWords;
+
+  /** Index on magic words that can be used as variables / functions */
+  private final MagicWordIndex functionMagicWords;
+
+  /** Index on magic words that can be used in images */
+  private final MagicWordIndex imgMagicWords;
+
+  /**
+   * @param namespaces Namespaces.
+   * @param languages Languages.
+   * @param interwikis Interwikis.
+   * @param magicWords Magic words.
+   */
+  public WikiLexicon(
+      Collection<Namespace> namespaces,
+      Collection<Language> languages,
+      Collection<Interwiki> interwikis,
+      Map<String, MagicWord> magicWords) {
+
+    // Namespaces
+    this.namespacesById = new HashMap<Integer, Namespace>();
+    this.namespacesByName = new HashMap<String, Namespace>();
+    if (namespaces != null) {
+      for (Namespace namespace : namespaces) {
+        if (namespace != null) {
+          if ((namespace.getId() != null) &&
+              !namespacesById.containsKey(namespace.getId())) {
+            namespacesById.put(namespace.getId(), namespace);
+          }
+          for (String alias : namespace.getAliases()) {
+            if (!namespacesByName.containsKey(alias)) {
+              namespacesByName.put(alias, namespace);
+            }
+          }
+        }
+      }
+    }
+
+    // Languages
+    this.languageCodes = new HashSet<String>();
+    if (languages != null) {
+      for (Language language : languages) {
+        if ((language != null) && (language.getCode() != null)) {
+          languageCodes.add(normalizeLanguageCode(language.getCode()));
+        }
+      }
+    }
+
+    // Interwikis
+    this.interwikis = new HashMap<String, List<Interwiki>>();
+    if (interwikis != null) {
+      for (Interwiki interwiki : interwikis) {
+        if ((interwiki != null) && (interwiki.getPrefix() != null)) {
+          List<Interwiki> list = this.interwikis.get(interwiki.getPrefix());
+          if (list == null) {
+            list = new ArrayList<Interwiki>(1);
+            this.interwikis.put(interwiki.getPrefix(), list);
+          }
+          list.add(interwiki);
+        }
+      }
+    }
+
+    // Magic words
+    this.magicWords = new MagicWordIndex();
+    this.functionMagicWords = new MagicWordIndex();
+    this.imgMagicWords = new MagicWordIndex();
+    if (magicWords != null) {
+      for (MagicWord magicWord : magicWords.values()) {
+        this.magicWords.add(magicWord);
+      }
+      for (String name : MagicWord.getFunctionMagicWords()) {
+        functionMagicWords.add(magicWords.get(name));
+      }
+      for (String name : MagicWord.getImgMagicWords()) {
+        imgMagicWords.add(magicWords.get(name));
+      }
+    }
+  }
+
+  // ==========================================================================
+  // Name spaces
+  // ==========================================================================
+
+  /**
+   * @param id Namespace id.
+   * @return Matching namespace.
+   */
+  public Namespace getNamespace(int id) {
+    return namespacesById.get(Integer.valueOf(id));
+  }
+
+  /**
+   * @param name Namespace name or alias.
+   * @return Matching namespace.
+   * @see Namespace#isPossibleName(String)
+   */
+  public Namespace getNamespace(String name) {
+    if (name == null) {
+      return null;
+    }
+    return namespacesByName.get(Page.getStringUcFirst(name.trim()));
+  }
+
+  /**
+   * @param name Namespace name or alias.
+   * @param id Namespace id.
+   * @return True if the name can represent the namespace.
+   */
+  public boolean isPossibleName(String name, int id) {
+    Namespace namespace = getNamespace(name);
+    return (namespace != null) &&
+        (namespace.getId() != null) &&
+        (namespace.getId().intValue() == id);
+  }
+
+  // ==========================================================================
+  // Languages
+  // ==========================================================================
+
+  /**
+   * @param code Language code.
+   * @return True if the code is a language code.
+   * @see Language#areCodesEqual(String, String)
+   */
+  public boolean isLanguageCode(String code) {
+    if (code == null) {
+      return false;
+    }
+    return languageCodes.contains(normalizeLanguageCode(code));
+  }
+
+  /**
+   * @param code Language code.
+   * @return Normalized language code.
+   */
+  private static String normalizeLanguageCode(String code) {
+    if ((code.length() == 0) || Character.isUpperCase(code.charAt(0))) {
+      return code;
+    }
+    return Character.toUpperCase(code.charAt(0)) + code.substring(1);
+  }
+
+  // ==========================================================================
+  // Interwikis
+  // ==========================================================================
+
+  /**
+   * @param prefix Interwiki prefix.
+   * @return Interwikis with this prefix.
+   */
+  public List<Interwiki> getInterwikis(String prefix) {
+    if (prefix == null) {
+      return Collections.emptyList();
+    }
+    List<Interwiki> result = interwikis.get(prefix);
+    if (result == null) {
+      return Collections.emptyList();
+    }
+    return result;
+  }
+
+  /**
+   * @param prefix Interwiki prefix.
+   * @return True if the prefix is an interwiki prefix.
+   */
+  public boolean isInterwikiPrefix(String prefix) {
+    return (prefix != null) && interwikis.containsKey(prefix);
+  }
+
+  // ==========================================================================
+  // Magic words
+  // ==========================================================================
+
+  /**
+   * @param text Magic word alias.
+   * @return Magic word.
+   */
+  public MagicWord getMagicWordByAlias(String text) {
+    return magicWords.get(text);
+  }
+
+  /**
+   * @param text Text
+   * @param colon True if a colon can be added to the text.
+   * @return Matching Magic Word if the text is an alias for a Function Magic Word.
+   */
+  public MagicWord getFunctionMagicWord(String text, boolean colon) {
+    if (text == null) {
+      return null;
+    }
+    MagicWord result = functionMagicWords.get(text);
+    if ((result == null) && colon) {
+      result = functionMagicWords.get(text + ":");
+    }
+    return result;
+  }
+
+  /**
+   * @param text Text
+   * @return Matching Magic Word if the text is an alias for a Image Magic Word.
+   */
+  public MagicWord getImgMagicWord(String text) {
+    return imgMagicWords.get(text);
+  }
+
+  /**
+   * Index on a set of magic words.
+   */
+  private static class MagicWordIndex {
+
+    /** Magic words used without # */
+    private final Aliases aliases;
+
+    /** Magic words that can be used with # */
+    private final Aliases sharpAliases;
+
+    MagicWordIndex() {
+      this.aliases = new Aliases();
+      this.sharpAliases = new Aliases();
+    }
+
+    /**
+     * @param magicWord Magic word to be added to the index.
+     */
+    void add(MagicWord magicWord) {
+      if ((magicWord == null) || (magicWord.getAliases() == null)) {
+        return;
+      }
+      if (magicWord.isSharp()) {
+        sharpAliases.add(magicWord);
+      } else {
+        aliases.add(magicWord);
+      }
+    }
+
+    /**
+     * @param text Text.
+     * @return Magic word for which the text is an alias.
+     * @see MagicWord#isPossibleAlias(String)
+     */
+    MagicWord get(String text) {
+      if (text == null) {
+        return null;
+      }
+      if ((text.length() > 0) && (text.charAt(0) == '#')) {
+        MagicWord result = sharpAliases.get(text.substring(1));
+        if (result == null) {
+          result = aliases.get(text);
+        }
+        return result;
+      }
+      MagicWord result = aliases.get(text);
+      if (result == null) {
+        result = sharpAliases.get(text);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Aliases of a set of magic words.
+   */
+  private static class Aliases {
+
+    /** Magic words indexed by alias */
+    private final Map<String, MagicWord> exact;
+
+    /** Case insensitive magic words indexed by case folded alias */
+    private final Map<String, MagicWord> folded;
+
+    /** Magic words with aliases containing a $1 place holder */
+    private final List<MagicWord> patterns;
+
+    Aliases() {
+      this.exact = new HashMap<String, MagicWord>();
+      this.folded = new HashMap<String, MagicWord>();
+      this.patterns = new ArrayList<MagicWord>();
+    }
+
+    /**
+     * @param magicWord Magic word to be added.
+     */
+    void add(MagicWord magicWord) {
+      if (magicWord.hasPatternAliases()) {
+        patterns.add(magicWord);
+      }
+      for (String alias : magicWord.getAliases()) {
+        if (!alias.contains("$1")) {
+          if (!exact.containsKey(alias)) {
+            exact.put(alias, magicWord);
+          }
+          if (!magicWord.isCaseSensitive()) {
+            String key = fold(alias);
+            if (!folded.containsKey(key)) {
+              folded.put(key, magicWord);
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * @param text Text.
+     * @return Magic word for which the text is an alias.
+     */
+    MagicWord get(String text) {
+      MagicWord result = exact.get(text);
+      if ((result == null) && !folded.isEmpty()) {
+        result = folded.get(fold(text));
+      }
+      if (result == null) {
+        for (MagicWord magicWord : patterns) {
+          if (magicWord.isPossiblePatternAlias(text)) {
+            return magicWord;
+          }
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Fold the case of a text, consistently with String.equalsIgnoreCase().
+     *
+     * @param text Text.
+     * @return Case folded text.
+     */
+    private static String fold(String text) {
+      StringBuilder result = null;
+      for (int index = 0; index < text.length(); index++) {
+        char currentChar = text.charAt(index);
+        char foldedChar = Character.toLowerCase(Character.toUpperCase(currentChar));
+        if ((result == null) && (foldedChar != currentChar)) {
+          result = new StringBuilder(text.length());
+          result.append(text, 0, index);
+        }
+        if (result != null) {
+          result.append(foldedChar);
+        }
+      }
+      return (result != null) ? result.toString() : text;
+    }
+  }
+}
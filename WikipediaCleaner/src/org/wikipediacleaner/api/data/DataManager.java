@@ -9,8 +9,12 @@ package org.wikipediacleaner.api.data;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.utils.Configuration;
@@ -46,6 +50,76 @@ public class DataManager {
       }
     }
 
+    return createPage(wikipedia, title, pageId, revisionId);
+  }
+
+  /**
+   * @param pages Pages.
+   * @return Pages indexed by normalized title, in their original order, for use with
+   *         {@link #getIndexedPage(EnumWikipedia, String, Integer, String, Map)}.
+   */
+  public static Map<String, List<Page>> indexPages(Collection<Page> pages) {
+    if (pages == null) {
+      return null;
+    }
+    Map<String, List<Page>> index = new HashMap<String, List<Page>>(2 * pages.size());
+    for (Page page : pages) {
+      if ((page != null) && (page.getTitle() != null)) {
+        String title = Page.normalizeTitle(page.getTitle());
+        List<Page> samePages = index.get(title);
+        if (samePages == null) {
+          samePages = new ArrayList<Page>(1);
+          index.put(title, samePages);
+        }
+        samePages.add(page);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * @param wikipedia Wikipedia.
+   * @param title Page title.
+   * @param pageId Page id.
+   * @param revisionId Revision id.
+   * @param knownPages Already known pages, indexed by normalized title.
+   * @return The requested page: the first known page with the same title, wiki
+   *         and revision, as {@link #getPage(EnumWikipedia, String, Integer, String, List)}.
+   * @see #indexPages(Collection)
+   */
+  public static Page getIndexedPage(
+      EnumWikipedia wikipedia,
+      String title, Integer pageId, String revisionId,
+      Map<String, List<Page>> knownPages) {
+
+    // Check in the known pages
+    if ((knownPages != null) && (title != null)) {
+      List<Page> samePages = knownPages.get(Page.normalizeTitle(title));
+      if (samePages != null) {
+        for (Page page : samePages) {
+          if ((page.getWikipedia() == wikipedia) &&
+              ((revisionId == null) ||
+               ((page.getRevisionId() != null) && revisionId.equals(page.getRevisionId().toString())))) {
+            return page;
+          }
+        }
+      }
+    }
+
+    return createPage(wikipedia, title, pageId, revisionId);
+  }
+
+  /**
+   * @param wikipedia Wikipedia.
+   * @param title Page title.
+   * @param pageId Page id.
+   * @param revisionId Revision id.
+   * @return A new page.
+   */
+  private static Page createPage(
+      EnumWikipedia wikipedia,
+      String title, Integer pageId, String revisionId) {
+
     // Retrieve page
     Page page = new Page(wikipedia, title);
     page.setPageId(pageId);
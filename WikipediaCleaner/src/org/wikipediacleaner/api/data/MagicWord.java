@@ -31,6 +31,16 @@ public class MagicWord implements Comparable<MagicWord> {
    */
   private boolean caseSensitive;
 
+  /**
+   * Flag indicating if the magic word can be used with a #.
+   */
+  private final boolean sharp;
+
+  /**
+   * Aliases with a $1 place holder, split around the place holder.
+   */
+  private final List<String[]> patternAliases;
+
   public final static String ABBREVIATE                  = "abbreviate";
   public final static String ARTICLE_PATH                = "articlepath";
   public final static String ANCHOR_ENCODE               = "anchorencode";
@@ -436,6 +446,25 @@ public class MagicWord implements Comparable<MagicWord> {
     this.name = name;
     this.aliases = aliases;
     this.caseSensitive = caseSensitive;
+    boolean tmpSharp = false;
+    for (String magicWord : sharpMagicWords) {
+      if (magicWord.equals(name)) {
+        tmpSharp = true;
+      }
+    }
+    this.sharp = tmpSharp;
+    List<String[]> tmpPatternAliases = new ArrayList<String[]>();
+    if (aliases != null) {
+      for (String alias : aliases) {
+        if (isSinglePlaceHolder(alias)) {
+          int placeHolder = alias.indexOf("$1");
+          tmpPatternAliases.add(new String[] {
+              alias.substring(0, placeHolder),
+              alias.substring(placeHolder + 2) });
+        }
+      }
+    }
+    this.patternAliases = tmpPatternAliases;
   }
 
   /**
@@ -452,12 +481,96 @@ public class MagicWord implements Comparable<MagicWord> {
     return aliases;
   }
 
+  /**
+   * @return True if the name is case sensitive.
+   */
+  public boolean isCaseSensitive() {
+    return caseSensitive;
+  }
+
+  /**
+   * @return True if the magic word can be used with a #.
+   */
+  public boolean isSharp() {
+    return sharp;
+  }
+
+  /**
+   * @return True if some aliases contain a $1 place holder.
+   */
+  public boolean hasPatternAliases() {
+    return !patternAliases.isEmpty();
+  }
+
   /**
    * @param text Text to check.
    * @return Flag indicating if the text is a possible alias.
    */
   public boolean isPossibleAlias(String text) {
-    return isPossibleAlias(text, ".*");
+    if (text == null) {
+      return false;
+    }
+    if (sharp && (text.length() > 0) && (text.charAt(0) == '#')) {
+      text = text.substring(1);
+    }
+    for (String alias : aliases) {
+      if (alias.contains("$1")) {
+        // Aliases with a single place holder are checked by isPossiblePatternAlias()
+        if (!isSinglePlaceHolder(alias) &&
+            text.matches(alias.replaceAll("\\$1", ".*"))) {
+          return true;
+        }
+      } else if (alias.equals(text)) {
+        return true;
+      } else if (!caseSensitive && alias.equalsIgnoreCase(text)) {
+        return true;
+      }
+    }
+    return isPossiblePatternAlias(text);
+  }
+
+  /**
+   * Check if a text matches an alias with a $1 place holder,
+   * the place holder accepting any text on a single line.
+   * 
+   * @param text Text to check (without the # for magic words used with a #).
+   * @return Flag indicating if the text matches an alias with a $1 place holder.
+   */
+  public boolean isPossiblePatternAlias(String text) {
+    if (text == null) {
+      return false;
+    }
+    for (String[] patternAlias : patternAliases) {
+      String prefix = patternAlias[0];
+      String suffix = patternAlias[1];
+      if ((text.length() >= prefix.length() + suffix.length()) &&
+          text.startsWith(prefix) &&
+          text.endsWith(suffix)) {
+        boolean lineTerminator = false;
+        int end = text.length() - suffix.length();
+        for (int index = prefix.length(); (index < end) && !lineTerminator; index++) {
+          char currentChar = text.charAt(index);
+          if ((currentChar == '\n') || (currentChar == '\r') ||
+              (currentChar == '\u0085') || (currentChar == '\u2028') ||
+              (currentChar == '\u2029')) {
+            lineTerminator = true;
+          }
+        }
+        if (!lineTerminator) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param alias Alias.
+   * @return True if the alias contains a single $1 place holder.
+   */
+  private static boolean isSinglePlaceHolder(String alias) {
+    int placeHolder = alias.indexOf("$1");
+    return (placeHolder >= 0) && (alias.indexOf("$1", placeHolder + 2) < 0);
   }
 
   /**
@@ -469,16 +582,8 @@ public class MagicWord implements Comparable<MagicWord> {
     if (text == null) {
       return false;
     }
-    if ((text.length() > 0) && (text.charAt(0) == '#')) {
-      boolean sharp = false;
-      for (String magicWord : sharpMagicWords) {
-        if (magicWord.equals(name)) {
-          sharp = true;
-        }
-      }
-      if (sharp) {
-        text = text.substring(1);
-      }
+    if (sharp && (text.length() > 0) && (text.charAt(0) == '#')) {
+      text = text.substring(1);
     }
     for (String alias : aliases) {
       if (alias.contains("$1")) {
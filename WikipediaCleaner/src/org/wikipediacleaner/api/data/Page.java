@@ -21,6 +21,7 @@ import java.util.regex.Pattern;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.constants.WPCConfiguration;
 import org.wikipediacleaner.api.constants.WikiConfiguration;
+import org.wikipediacleaner.utils.CompactText;
 
 
 /**
@@ -45,10 +46,12 @@ public class Page implements Comparable<Page> {
   private Integer pageId;
   private Integer namespace;
   private String  title;
-  private String  contents;
+  private volatile String contents;
+  private volatile CompactText compactContents;
   private Integer revisionId;
   private String  contentsTimestamp;
   private String  startTimestamp;
+  private String  touchedTimestamp;
   private String  editProtectionLevel;
   private Boolean disambiguation;
   private Boolean wiktionaryLink;
@@ -116,13 +119,38 @@ public class Page implements Comparable<Page> {
     if (pageTitle == null) {
       return null;
     }
+    // Equivalent to: trim, replace non breaking spaces by spaces,
+    // remove trailing LRM, replace underscores by spaces, collapse spaces, trim
     String result = pageTitle.trim();
-    result = result.replaceAll(" ", " ");
-    while ((result.length() > 0) && (result.charAt(result.length() - 1) == 0x200E)) {
-      result = result.substring(0, result.length() - 1);
+    int end = result.length();
+    while ((end > 0) && (result.charAt(end - 1) == 0x200E)) {
+      end--;
+    }
+    StringBuilder buffer = null;
+    boolean space = false;
+    for (int index = 0; index < end; index++) {
+      char currentChar = result.charAt(index);
+      if ((currentChar == ' ') || (currentChar == '_') || (currentChar == '\u00A0')) {
+        if ((buffer == null) && ((currentChar != ' ') || space || (index == 0))) {
+          buffer = new StringBuilder(end);
+          buffer.append(result, 0, space ? index - 1 : index);
+        }
+        space = true;
+      } else {
+        if (space && (buffer != null) && (buffer.length() > 0)) {
+          buffer.append(' ');
+        }
+        space = false;
+        if (buffer != null) {
+          buffer.append(currentChar);
+        }
+      }
+    }
+    if (buffer != null) {
+      result = buffer.toString();
+    } else if (space || (end < result.length())) {
+      result = result.substring(0, space ? end - 1 : end);
     }
-    result = result.replaceAll("_", " ");
-    result = result.replaceAll(" +", " ");
     result = result.trim();
     result = Page.getStringUcFirst(result);
     return result;
@@ -244,14 +272,54 @@ public class Page implements Comparable<Page> {
    * @return Page contents.
    */
   public String getContents() {
-    return contents;
+    String result = contents;
+    if (result == null) {
+      // Both fields are read under the lock, as they are updated together
+      result = inflateContents();
+    }
+    return result;
   }
 
   /**
    * @param contents Page contents.
    */
-  public void setContents(String contents) {
+  public synchronized void setContents(String contents) {
     this.contents = contents;
+    this.compactContents = null;
+  }
+
+  /**
+   * Keep page contents in a compact form until they are used again.
+   * 
+   * Useful for pages waiting in a queue before being processed.
+   * Contents are compacted only if they are long enough and not referenced by an analysis.
+   * The contents of an analysis are never compacted: analyses are only kept for pages
+   * being processed (or in the size-limited analysis cache), which need the text anyway.
+   */
+  public synchronized void compactContents() {
+    String tmpContents = contents;
+    if ((tmpContents == null) ||
+        (tmpContents.length() < CompactText.MIN_LENGTH) ||
+        (analysis != null)) {
+      return;
+    }
+    compactContents = CompactText.create(tmpContents);
+    contents = null;
+  }
+
+  /**
+   * @return Page contents restored from their compact form
+   *         (null if they can't be restored, the compact form being kept).
+   */
+  private synchronized String inflateContents() {
+    if ((contents == null) && (compactContents != null)) {
+      String text = compactContents.getText();
+      if (text != null) {
+        contents = text;
+        compactContents = null;
+      }
+    }
+    return contents;
   }
 
   /**
@@ -328,6 +396,21 @@ public class Page implements Comparable<Page> {
     this.startTimestamp = timestamp;
   }
 
+  /**
+   * @return Time stamp of the last time the page was touched
+   *         (modified, or rendered again after a modification of a transcluded page).
+   */
+  public String getTouchedTimestamp() {
+    return touchedTimestamp;
+  }
+
+  /**
+   * @param timestamp Time stamp of the last time the page was touched.
+   */
+  public void setTouchedTimestamp(String timestamp) {
+    this.touchedTimestamp = timestamp;
+  }
+
   /**
    * @return Edit protection level.
    */
@@ -596,7 +679,7 @@ public class Page implements Comparable<Page> {
    * @return Links from the page (working if the page is a redirection).
    */
   public List<Page> getLinksWithRedirect(Map<Page, List<String>> anchors) {
-    PageAnalysis pageAnalysis = getAnalysis(contents, false);
+    PageAnalysis pageAnalysis = getAnalysis(getContents(), false);
     if (redirects != null) {
       for (int i = 0; i < redirects.size(); i++) {
         Page page = redirects.get(i);
@@ -787,6 +870,7 @@ public class Page implements Comparable<Page> {
    */
   public List<String> getWiktionaryLinks() {
     List<String> wiktionary = null;
+    String contents = getContents();
     if ((contents != null) && (wikipedia != null)) {
       WPCConfiguration configuration = wikipedia.getConfiguration();
       for (int i = 0; i < configuration.getWiktionaryMatchesCount(); i++) {
@@ -918,7 +1002,7 @@ public class Page implements Comparable<Page> {
     }
     Page to = redirects.get(redirects.size() - 1);
     String toTitle = to.getTitle();
-    String pageContents = contents;
+    String pageContents = getContents();
     if ((pageContents != null) && (pageContents.length() > 0)) {
       boolean redirectFound = false;
       int startIndex = 0;
@@ -998,11 +1082,11 @@ public class Page implements Comparable<Page> {
    */
   public PageAnalysis getAnalysis(String currentContents, boolean update) {
     if (currentContents == null) {
-      return new PageAnalysis(this, null);
+      return new PageAnalysis(this, (String) null);
     }
     PageAnalysis result = null;
     if ((analysis == null) || (!currentContents.equals(analysis.getContents()))) {
-      result = new PageAnalysis(this, currentContents);
+      result = PageAnalysisCache.getInstance().getAnalysis(this, currentContents);
       if ((update) || (analysis == null)) {
         analysis = result;
       }
@@ -1012,6 +1096,20 @@ public class Page implements Comparable<Page> {
     return result;
   }
 
+  /**
+   * Create a new analysis of the page contents.
+   * 
+   * Unlike {@link #getAnalysis(String, boolean)}, the page isn't modified
+   * and the analysis isn't shared through the cache,
+   * so it can be used outside of the thread managing the page.
+   * 
+   * @param currentContents Current contents.
+   * @return Page analysis.
+   */
+  public PageAnalysis createAnalysis(String currentContents) {
+    return new PageAnalysis(this, currentContents);
+  }
+
   /**
    * @return Last page analysis.
    */
@@ -1019,6 +1117,15 @@ public class Page implements Comparable<Page> {
     return analysis;
   }
 
+  /**
+   * @param analysis Last page analysis.
+   */
+  public void setLastAnalysis(PageAnalysis analysis) {
+    if ((analysis != null) && (analysis.getPage() == this)) {
+      this.analysis = analysis;
+    }
+  }
+
   // ==========================================================================
   // General methods
   // ==========================================================================
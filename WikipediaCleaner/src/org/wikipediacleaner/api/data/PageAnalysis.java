@@ -21,6 +21,7 @@ import org.wikipediacleaner.api.constants.wiki.AbstractWikiSettings;
 import org.wikipediacleaner.utils.Configuration;
 import org.wikipediacleaner.utils.ConfigurationValueBoolean;
 import org.wikipediacleaner.utils.Performance;
+import org.wikipediacleaner.utils.StripedCounter;
 
 
 /**
@@ -43,6 +44,9 @@ public class PageAnalysis {
   /** True if spelling should be checked */
   private boolean checkSpelling;
 
+  /** Analysis of the same contents providing the elements (null if elements are computed) */
+  private final PageAnalysis shared;
+
   /**
    * @param page Page.
    * @param contents Page contents (may differ from page.getContents()).
@@ -51,6 +55,26 @@ public class PageAnalysis {
     this.page = page;
     this.contents = (contents != null) ? contents : page.getContents();
     this.areas = new PageElementAreas();
+    this.shared = null;
+
+    // Default configuration
+    Configuration config = Configuration.getConfiguration();
+    checkSpelling = config.getBoolean(
+        null, ConfigurationValueBoolean.SPELLING);
+  }
+
+  /**
+   * Create an analysis for a page, sharing the elements found by an analysis
+   * of the same contents for the same title.
+   * 
+   * @param page Page.
+   * @param shared Analysis of the same contents.
+   */
+  PageAnalysis(Page page, PageAnalysis shared) {
+    this.page = page;
+    this.contents = shared.contents;
+    this.areas = shared.areas;
+    this.shared = shared;
 
     // Default configuration
     Configuration config = Configuration.getConfiguration();
@@ -157,11 +181,11 @@ public class PageAnalysis {
     fifthLevelAnalysis();
     long fifthTime = System.nanoTime();
     if (perf != null) {
-      perf.firstLevel += (firstTime - beginTime);
-      perf.secondLevel += (secondTime - firstTime);
-      perf.thirdLevel += (thirdTime - secondTime);
-      perf.fourthLevel += (fourthTime - thirdTime);
-      perf.fifthLevel += (fifthTime - fourthTime);
+      perf.firstLevel.add(firstTime - beginTime);
+      perf.secondLevel.add(secondTime - firstTime);
+      perf.thirdLevel.add(thirdTime - secondTime);
+      perf.fourthLevel.add(fourthTime - thirdTime);
+      perf.fifthLevel.add(fifthTime - fourthTime);
     }
   }
 
@@ -169,18 +193,18 @@ public class PageAnalysis {
    * Bean for holding information about analysis performance.
    */
   public static class AnalysisPerformance {
-    long firstLevel;
-    long secondLevel;
-    long thirdLevel;
-    long fourthLevel;
-    long fifthLevel;
+    final StripedCounter firstLevel;
+    final StripedCounter secondLevel;
+    final StripedCounter thirdLevel;
+    final StripedCounter fourthLevel;
+    final StripedCounter fifthLevel;
 
     public AnalysisPerformance() {
-      firstLevel = 0;
-      secondLevel = 0;
-      thirdLevel = 0;
-      fourthLevel = 0;
-      fifthLevel = 0;
+      firstLevel = new StripedCounter();
+      secondLevel = new StripedCounter();
+      thirdLevel = new StripedCounter();
+      fourthLevel = new StripedCounter();
+      fifthLevel = new StripedCounter();
     }
 
     /**
@@ -189,11 +213,11 @@ public class PageAnalysis {
      */
     @Override
     public String toString() {
-      long first = firstLevel / 1000000000;
-      long second = secondLevel / 1000000000;
-      long third = thirdLevel / 1000000000;
-      long fourth = fourthLevel / 1000000000;
-      long fifth = fifthLevel / 1000000000;
+      long first = firstLevel.sum() / 1000000000;
+      long second = secondLevel.sum() / 1000000000;
+      long third = thirdLevel.sum() / 1000000000;
+      long fourth = fourthLevel.sum() / 1000000000;
+      long fifth = fifthLevel.sum() / 1000000000;
       StringBuilder result = new StringBuilder();
       result.append(first + second + third + fourth + fifth);
       result.append(" s (");
@@ -396,6 +420,11 @@ public class PageAnalysis {
       if (comments != null) {
         return;
       }
+      if (shared != null) {
+        shared.firstLevelAnalysis();
+        comments = shared.comments;
+        return;
+      }
 
       Performance perf = null;
       if (traceTime) {
@@ -444,6 +473,11 @@ public class PageAnalysis {
         return;
       }
       firstLevelAnalysis();
+      if (shared != null) {
+        shared.secondLevelAnalysis();
+        tags = shared.tags;
+        return;
+      }
 
       Performance perf = null;
       if (traceTime) {
@@ -518,6 +552,20 @@ public class PageAnalysis {
         return;
       }
       secondLevelAnalysis();
+      if (shared != null) {
+        shared.thirdLevelAnalysis();
+        images = shared.images;
+        categories = shared.categories;
+        interwikiLinks = shared.interwikiLinks;
+        languageLinks = shared.languageLinks;
+        functions = shared.functions;
+        magicWords = shared.magicWords;
+        templates = shared.templates;
+        parameters = shared.parameters;
+        titles = shared.titles;
+        internalLinks = shared.internalLinks;
+        return;
+      }
 
       Performance perf = null;
       if (traceTime) {
@@ -628,6 +676,11 @@ public class PageAnalysis {
         return;
       }
       thirdLevelAnalysis();
+      if (shared != null) {
+        shared.fourthLevelAnalysis();
+        externalLinks = shared.externalLinks;
+        return;
+      }
 
       Performance perf = null;
       if (traceTime) {
@@ -692,6 +745,14 @@ public class PageAnalysis {
         return;
       }
       fourthLevelAnalysis();
+      if (shared != null) {
+        shared.fifthLevelAnalysis();
+        issns = shared.issns;
+        pmids = shared.pmids;
+        rfcs = shared.rfcs;
+        isbns = shared.isbns;
+        return;
+      }
 
       Performance perf = null;
       if (traceTime) {
@@ -1094,21 +1155,23 @@ public class PageAnalysis {
   /**
    * Links count.
    */
-  private Map<String, InternalLinkCount> linksCount = new HashMap<String, InternalLinkCount>();
+  private final Map<String, InternalLinkCount> linksCount = new HashMap<String, InternalLinkCount>();
 
   /**
    * @param link Link.
    * @return Number of links to the page.
    */
   public InternalLinkCount getLinkCount(Page link) {
-    InternalLinkCount result = linksCount.get(link.getTitle());
-    if (result != null) {
-      return result;
+    synchronized (linksCount) {
+      InternalLinkCount result = linksCount.get(link.getTitle());
+      if (result != null) {
+        return result;
+      }
+      List<Page> links = Collections.singletonList(link);
+      InternalLinkCounter counter = new InternalLinkCounter(linksCount, links);
+      PageAnalysisUtils.findInternalLinks(this, links, counter);
+      return linksCount.get(link.getTitle());
     }
-    List<Page> links = Collections.singletonList(link);
-    InternalLinkCounter counter = new InternalLinkCounter(linksCount, links);
-    PageAnalysisUtils.findInternalLinks(this, links, counter);
-    return linksCount.get(link.getTitle());
   }
 
   /**
@@ -1120,15 +1183,17 @@ public class PageAnalysis {
     if ((links == null) || (links.size() == 0)) {
       return;
     }
-    List<Page> interestingLinks = new ArrayList<Page>();
-    for (Page link : links) {
-      if (!linksCount.containsKey(link.getTitle())) {
-        interestingLinks.add(link);
+    synchronized (linksCount) {
+      List<Page> interestingLinks = new ArrayList<Page>();
+      for (Page link : links) {
+        if (!linksCount.containsKey(link.getTitle())) {
+          interestingLinks.add(link);
+        }
+      }
+      if (interestingLinks.size() > 0) {
+        InternalLinkCounter counter = new InternalLinkCounter(linksCount, interestingLinks);
+        PageAnalysisUtils.findInternalLinks(this, interestingLinks, counter);
       }
-    }
-    if (interestingLinks.size() > 0) {
-      InternalLinkCounter counter = new InternalLinkCounter(linksCount, interestingLinks);
-      PageAnalysisUtils.findInternalLinks(this, interestingLinks, counter);
     }
   }
 
@@ -1883,6 +1948,11 @@ public class PageAnalysis {
     }
   }
 
+  /**
+   * Lock for memorizing Check Wiki errors.
+   */
+  private final Object lockCheckWikiErrors = new Object();
+
   /**
    * Memorizing Check Wiki errors.
    */
@@ -1896,10 +1966,13 @@ public class PageAnalysis {
    * @param errors List of errors found.
    */
   public void setCheckWikiErrors(int errorNumber, boolean found, List<CheckErrorResult> errors) {
-    if (checkWikiErrors == null) {
-      checkWikiErrors = new HashMap<Integer, PageAnalysis.Result>();
+    Result result = new Result(found, errors);
+    synchronized (lockCheckWikiErrors) {
+      if (checkWikiErrors == null) {
+        checkWikiErrors = new HashMap<Integer, PageAnalysis.Result>();
+      }
+      checkWikiErrors.put(Integer.valueOf(errorNumber), result);
     }
-    checkWikiErrors.put(Integer.valueOf(errorNumber), new Result(found, errors));
   }
 
   /**
@@ -1907,9 +1980,11 @@ public class PageAnalysis {
    * @return Errors for this error number.
    */
   public Result getCheckWikiErrors(int errorNumber) {
-    if (checkWikiErrors == null) {
-      return null;
+    synchronized (lockCheckWikiErrors) {
+      if (checkWikiErrors == null) {
+        return null;
+      }
+      return checkWikiErrors.get(Integer.valueOf(errorNumber));
     }
-    return checkWikiErrors.get(Integer.valueOf(errorNumber));
   }
 }
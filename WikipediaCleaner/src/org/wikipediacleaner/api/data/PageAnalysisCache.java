@@ -0,0 +1,260 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
+
+
+/**
+ * A bounded cache of page analysis, shared by all pages.
+ *
+ * Page analysis are indexed by wiki, page title and contents,
+ * so that identical contents are analyzed only once even after
+ * intermediate modifications or for different Page instances.
+ * Analysis in the cache are bound to a replica of the page without its contents,
+ * so that the cache doesn't keep the pages in memory:
+ * each request gets its own analysis bound to the requesting page
+ * and sharing the elements found in the contents.
+ * The least recently used analysis are evicted when either the number
+ * of analysis or the memory used by the contents exceeds the limits.
+ */
+public class PageAnalysisCache {
+
+  /** Unique instance of the cache */
+  private static PageAnalysisCache instance;
+
+  /**
+   * @return Unique instance of the cache.
+   */
+  public static synchronized PageAnalysisCache getInstance() {
+    if (instance == null) {
+      Configuration config = Configuration.getConfiguration();
+      int maxCount = config.getInt(
+          null, ConfigurationValueInteger.ANALYSIS_CACHE_SIZE);
+      int maxMemory = config.getInt(
+          null, ConfigurationValueInteger.ANALYSIS_CACHE_MEMORY);
+      instance = new PageAnalysisCache(maxCount, maxMemory * 1024L * 1024L);
+    }
+    return instance;
+  }
+
+  /** Maximum number of analysis in the cache */
+  private final int maxCount;
+
+  /** Maximum memory used by the contents in the cache (in bytes) */
+  private final long maxSize;
+
+  /** Analysis in the cache, in access order */
+  private final LinkedHashMap<Key, PageAnalysis> cache;
+
+  /** Memory used by the contents in the cache (in bytes) */
+  private long currentSize;
+
+  /** Number of requests served from the cache */
+  private long hits;
+
+  /** Number of requests requiring a new analysis */
+  private long misses;
+
+  /** Number of analysis evicted from the cache */
+  private long evictions;
+
+  /**
+   * @param maxCount Maximum number of analysis in the cache.
+   * @param maxSize Maximum memory used by the contents in the cache (in bytes).
+   */
+  PageAnalysisCache(int maxCount, long maxSize) {
+    this.maxCount = maxCount;
+    this.maxSize = maxSize;
+    this.cache = new LinkedHashMap<Key, PageAnalysis>(16, 0.75f, true);
+    this.currentSize = 0;
+  }
+
+  /**
+   * Retrieve an analysis for the page and its contents.
+   *
+   * @param page Page.
+   * @param contents Page contents.
+   * @return Analysis of the page contents, sharing elements with the cached analysis.
+   */
+  public PageAnalysis getAnalysis(Page page, String contents) {
+    if ((page == null) || (contents == null) ||
+        (maxCount <= 0) || (getMemory(contents) > maxSize)) {
+      return new PageAnalysis(page, contents);
+    }
+    Key key = new Key(page, contents);
+    PageAnalysis shared = null;
+    synchronized (cache) {
+      shared = cache.get(key);
+      if (shared != null) {
+        hits++;
+      } else {
+        misses++;
+        shared = new PageAnalysis(page.replicatePage(), contents);
+        cache.put(key, shared);
+        currentSize += getMemory(contents);
+        evict();
+      }
+    }
+    return new PageAnalysis(page, shared);
+  }
+
+  /**
+   * Evict the least recently used analysis until the cache fits in its limits.
+   */
+  private void evict() {
+    Iterator<Map.Entry<Key, PageAnalysis>> itEntry = cache.entrySet().iterator();
+    while (((cache.size() > maxCount) || (currentSize > maxSize)) && itEntry.hasNext()) {
+      Map.Entry<Key, PageAnalysis> entry = itEntry.next();
+      currentSize -= getMemory(entry.getKey().contents);
+      itEntry.remove();
+      evictions++;
+    }
+  }
+
+  /**
+   * @param contents Page contents.
+   * @return Memory used by the contents (in bytes, 2 bytes per character).
+   */
+  private static long getMemory(String contents) {
+    return 2L * contents.length();
+  }
+
+  /**
+   * Remove all analysis from the cache.
+   */
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+      currentSize = 0;
+    }
+  }
+
+  /**
+   * @return Number of requests served from the cache.
+   */
+  public long getHits() {
+    synchronized (cache) {
+      return hits;
+    }
+  }
+
+  /**
+   * @return Number of requests requiring a new analysis.
+   */
+  public long getMisses() {
+    synchronized (cache) {
+      return misses;
+    }
+  }
+
+  /**
+   * @return Ratio of requests served from the cache.
+   */
+  public double getHitRate() {
+    synchronized (cache) {
+      long total = hits + misses;
+      return (total > 0) ? ((double) hits) / total : 0;
+    }
+  }
+
+  /**
+   * @return Textual description of the cache statistics.
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    synchronized (cache) {
+      long total = hits + misses;
+      StringBuilder result = new StringBuilder();
+      result.append(cache.size());
+      result.append(" analysis (");
+      result.append(currentSize / 1024);
+      result.append(" KB), ");
+      result.append(hits);
+      result.append(" hits / ");
+      result.append(total);
+      result.append(" requests (");
+      result.append((total > 0) ? (100 * hits) / total : 0);
+      result.append("%), ");
+      result.append(evictions);
+      result.append(" evictions");
+      return result.toString();
+    }
+  }
+
+  /**
+   * Key for indexing analysis in the cache.
+   */
+  private static class Key {
+
+    /** Wiki */
+    private final EnumWikipedia wiki;
+
+    /** Page title */
+    private final String title;
+
+    /** Page contents */
+    final String contents;
+
+    /** Hash code */
+    private final int hash;
+
+    /**
+     * @param page Page.
+     * @param contents Page contents.
+     */
+    Key(Page page, String contents) {
+      this.wiki = page.getWikipedia();
+      this.title = page.getTitle();
+      this.contents = contents;
+      int tmpHash = contents.hashCode();
+      tmpHash = 31 * tmpHash + ((title != null) ? title.hashCode() : 0);
+      tmpHash = 31 * tmpHash + ((wiki != null) ? wiki.hashCode() : 0);
+      this.hash = tmpHash;
+    }
+
+    /**
+     * @return Hash code.
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    /**
+     * @param o Other object.
+     * @return True if both keys are equal.
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      if ((hash != other.hash) || (wiki != other.wiki)) {
+        return false;
+      }
+      if ((title == null) ? (other.title != null) : !title.equals(other.title)) {
+        return false;
+      }
+      return contents.equals(other.contents);
+    }
+  }
+}
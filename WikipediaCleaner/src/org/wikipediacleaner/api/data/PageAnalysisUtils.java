@@ -81,97 +81,96 @@ public class PageAnalysisUtils {
     String contents = pageAnalysis.getContents();
     int maxSize = contents.length();
     boolean firstLink = true;
+    PageIndex linkIndex = new PageIndex(links);
     for (PageElementInternalLink internalLink : internalLinks) {
-      for (Page link : links) {
-        if (Page.areSameTitle(link.getTitle(), internalLink.getLink())) {
-          int currentPos = internalLink.getEndIndex();
-          while ((currentPos < maxSize) && (contents.charAt(currentPos) == ' ')) {
-            currentPos++;
-          }
+      for (Page link : linkIndex.getPages(internalLink.getLink())) {
+        int currentPos = internalLink.getEndIndex();
+        while ((currentPos < maxSize) && (contents.charAt(currentPos) == ' ')) {
+          currentPos++;
+        }
 
-          // Check if link is marked as needing help
-          boolean helpNeeded = false;
-          if (templatesAfter != null) {
-            if ((currentPos < maxSize) && (contents.charAt(currentPos) == '{')) {
-              PageElementTemplate nextTemplate = pageAnalysis.isInTemplate(currentPos);
-              if (nextTemplate != null) {
-                for (String templateAfter : templatesAfter) {
-                  if (Page.areSameTitle(templateAfter, nextTemplate.getTemplateName())) {
-                    helpNeeded = true;
-                  }
+        // Check if link is marked as needing help
+        boolean helpNeeded = false;
+        if (templatesAfter != null) {
+          if ((currentPos < maxSize) && (contents.charAt(currentPos) == '{')) {
+            PageElementTemplate nextTemplate = pageAnalysis.isInTemplate(currentPos);
+            if (nextTemplate != null) {
+              for (String templateAfter : templatesAfter) {
+                if (Page.areSameTitle(templateAfter, nextTemplate.getTemplateName())) {
+                  helpNeeded = true;
                 }
               }
             }
           }
+        }
 
-          // Check if link is marked as normal
-          boolean good = false;
-          if ((currentPos < maxSize) && (contents.charAt(currentPos) == '<')) {
-            PageElementComment nextComment = pageAnalysis.isInComment(currentPos);
-            if ((nextComment != null) && (nextComment.getComment() != null)) {
-              if (commentsAfter != null) {
-                for (String commentAfter : commentsAfter) {
-                  if (nextComment.getComment().length() >= commentAfter.length()) {
-                    String comment = nextComment.getComment().substring(0, commentAfter.length());
-                    if (comment.equalsIgnoreCase(commentAfter)) {
-                      good = true;
-                    }
+        // Check if link is marked as normal
+        boolean good = false;
+        if ((currentPos < maxSize) && (contents.charAt(currentPos) == '<')) {
+          PageElementComment nextComment = pageAnalysis.isInComment(currentPos);
+          if ((nextComment != null) && (nextComment.getComment() != null)) {
+            if (commentsAfter != null) {
+              for (String commentAfter : commentsAfter) {
+                if (nextComment.getComment().length() >= commentAfter.length()) {
+                  String comment = nextComment.getComment().substring(0, commentAfter.length());
+                  if (comment.equalsIgnoreCase(commentAfter)) {
+                    good = true;
                   }
                 }
               }
             }
           }
-          if (!good &&
-              (templatesIgnoreDab != null) &&
-              !templatesIgnoreDab.isEmpty()) {
-            PageElementTemplate template = pageAnalysis.isInTemplate(currentPos);
-            if (template != null) {
-              for (String[] currentTemplate : templatesIgnoreDab) {
-                if ((currentTemplate != null) &&
-                    (currentTemplate.length > 1) &&
-                    Page.areSameTitle(currentTemplate[0], template.getTemplateName())) {
-                  Parameter parameter = template.getParameterAtIndex(currentPos);
-                  if (parameter != null) {
-                    for (int index = 1; index < currentTemplate.length; index++) {
-                      if (parameter.getComputedName().equals(currentTemplate[index])) {
-                        good = true;
-                      }
+        }
+        if (!good &&
+            (templatesIgnoreDab != null) &&
+            !templatesIgnoreDab.isEmpty()) {
+          PageElementTemplate template = pageAnalysis.isInTemplate(currentPos);
+          if (template != null) {
+            for (String[] currentTemplate : templatesIgnoreDab) {
+              if ((currentTemplate != null) &&
+                  (currentTemplate.length > 1) &&
+                  Page.areSameTitle(currentTemplate[0], template.getTemplateName())) {
+                Parameter parameter = template.getParameterAtIndex(currentPos);
+                if (parameter != null) {
+                  for (int index = 1; index < currentTemplate.length; index++) {
+                    if (parameter.getComputedName().equals(currentTemplate[index])) {
+                      good = true;
                     }
                   }
                 }
               }
             }
           }
+        }
 
-          // Check if link is in fact a redirection
-          if (firstLink && (redirect != null)) {
-            int tmpPos = 0;
-            while ((contents.charAt(tmpPos) == ' ') &&
-                   (tmpPos < internalLink.getBeginIndex())) {
-              tmpPos++;
-            }
-            String redirectTag = null;
-            for (String alias : redirect.getAliases()) {
-              if (contents.startsWith(alias, tmpPos)) {
-                char next = contents.charAt(tmpPos + alias.length());
-                if ((next == ' ') || (next == '[')) {
-                  redirectTag = alias;
-                }
+        // Check if link is in fact a redirection
+        if (firstLink && (redirect != null)) {
+          int tmpPos = 0;
+          while ((contents.charAt(tmpPos) == ' ') &&
+                 (tmpPos < internalLink.getBeginIndex())) {
+            tmpPos++;
+          }
+          String redirectTag = null;
+          for (String alias : redirect.getAliases()) {
+            if (contents.startsWith(alias, tmpPos)) {
+              char next = contents.charAt(tmpPos + alias.length());
+              if ((next == ' ') || (next == '[')) {
+                redirectTag = alias;
               }
             }
-            if (redirectTag != null) {
-              tmpPos += redirectTag.length();
-              while (contents.charAt(tmpPos) == ' ') {
-                tmpPos++;
-              }
-              if (tmpPos == internalLink.getBeginIndex()) {
-                good = true;
-              }
+          }
+          if (redirectTag != null) {
+            tmpPos += redirectTag.length();
+            while (contents.charAt(tmpPos) == ' ') {
+              tmpPos++;
+            }
+            if (tmpPos == internalLink.getBeginIndex()) {
+              good = true;
             }
           }
-
-          notification.linkFound(link, internalLink, good, helpNeeded);
         }
+
+        notification.linkFound(link, internalLink, good, helpNeeded);
       }
       firstLink = false;
     }
@@ -187,10 +186,8 @@ public class PageAnalysisUtils {
           for (TemplateMatcher matcher : matchers) {
             String linkTo = matcher.linksTo(pageAnalysis.getPage(), template);
             if (linkTo != null) {
-              for (Page link : links) {
-                if (Page.areSameTitle(link.getTitle(), linkTo)) {
-                  notification.linkFound(link, template, matcher);
-                }
+              for (Page link : linkIndex.getPages(linkTo)) {
+                notification.linkFound(link, template, matcher);
               }
             }
           }
@@ -219,22 +216,23 @@ public class PageAnalysisUtils {
 
     // Check each internal link
     List<PageElementInternalLink> links = pageAnalysis.getInternalLinks();
+    PageIndex linkIndex = null;
     for (PageElementInternalLink internalLink : links) {
       String anchor = internalLink.getAnchor();
       if ((anchor != null) && (anchor.trim().length() > 0)) {
         String fullAnchor = internalLink.getFullLink();
         // Check if the internal link is for one of the links
-        for (Page link : pageLinks) {
-          if ((link != null) &&
-              (Page.areSameTitle(link.getTitle(), internalLink.getLink()))) {
-            List<String> listAnchors = anchors.get(link);
-            if (listAnchors == null) {
-              listAnchors = new ArrayList<String>();
-              anchors.put(link, listAnchors);
-            }
-            if (!listAnchors.contains(fullAnchor)) {
-              listAnchors.add(fullAnchor);
-            }
+        if (linkIndex == null) {
+          linkIndex = new PageIndex(pageLinks);
+        }
+        for (Page link : linkIndex.getPages(internalLink.getLink())) {
+          List<String> listAnchors = anchors.get(link);
+          if (listAnchors == null) {
+            listAnchors = new ArrayList<String>();
+            anchors.put(link, listAnchors);
+          }
+          if (!listAnchors.contains(fullAnchor)) {
+            listAnchors.add(fullAnchor);
           }
         }
       }
@@ -69,7 +69,8 @@ public class PageElementCategory extends PageElement {
     // Check that name space is a category
     int colonIndex = tmpIndex;
     Namespace categoryNS = wikipedia.getWikiConfiguration().getNamespace(Namespace.CATEGORY);
-    if (!categoryNS.isPossibleName(contents.substring(beginIndex, colonIndex).trim())) {
+    if (!wikipedia.getWikiConfiguration().getLexicon().isPossibleName(
+        contents.substring(beginIndex, colonIndex), Namespace.CATEGORY)) {
       return null;
     }
 
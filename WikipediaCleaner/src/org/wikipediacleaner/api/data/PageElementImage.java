@@ -71,8 +71,8 @@ public class PageElementImage extends PageElement {
 
     // Check that namespace is Image
     int colonIndex = tmpIndex;
-    Namespace imageNamespace = wikipedia.getWikiConfiguration().getNamespace(Namespace.IMAGE);
-    if (!imageNamespace.isPossibleName(contents.substring(beginIndex, colonIndex).trim())) {
+    if (!wikipedia.getWikiConfiguration().getLexicon().isPossibleName(
+        contents.substring(beginIndex, colonIndex), Namespace.IMAGE)) {
       return null;
     }
 
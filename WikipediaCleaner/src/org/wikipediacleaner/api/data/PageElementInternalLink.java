@@ -181,21 +181,17 @@ public class PageElementInternalLink extends PageElement {
     if (colonIndex > 0) {
       String namespaceName = linkTrimmed.substring(0, colonIndex);
 
-      // Is it a category ?
-      Namespace category = wiki.getWikiConfiguration().getNamespace(Namespace.CATEGORY);
-      if ((category != null) && (category.isPossibleName(namespaceName))) {
-        return null;
-      }
-
-      // Is it a file / image ?
-      Namespace image = wiki.getWikiConfiguration().getNamespace(Namespace.IMAGE);
-      if ((image != null) && (image.isPossibleName(namespaceName))) {
-        return null;
+      // Is it a category or a file / image ?
+      Namespace namespace = wiki.getWikiConfiguration().getNamespace(namespaceName);
+      if ((namespace != null) && (namespace.getId() != null)) {
+        int namespaceId = namespace.getId().intValue();
+        if ((namespaceId == Namespace.CATEGORY) || (namespaceId == Namespace.IMAGE)) {
+          return null;
+        }
       }
 
       // Is it a language link ?
-      if (Language.isLanguageCode(
-          wiki.getWikiConfiguration().getLanguages(), namespaceName)) {
+      if (wiki.getWikiConfiguration().isLanguageCode(namespaceName)) {
         return null;
       }
     }
@@ -215,12 +211,8 @@ public class PageElementInternalLink extends PageElement {
       }
       if ((namespaceName != null) &&
           (wiki.getWikiConfiguration() != null) &&
-          (wiki.getWikiConfiguration().getInterwikis() != null)) {
-        for (Interwiki iw : wiki.getWikiConfiguration().getInterwikis()) {
-          if (iw.getPrefix().equals(namespaceName)) {
-            return null;
-          }
-        }
+          wiki.getWikiConfiguration().isInterwikiPrefix(namespaceName)) {
+        return null;
       }
     }
 
@@ -81,10 +81,7 @@ public class PageElementInterwikiLink extends PageElement {
       return null;
     }
     String interwikiText = contents.substring(beginIndex, colonIndex);
-    List<Interwiki> interwikis = wikipedia.getWikiConfiguration().getInterwikis();
-    if (interwikis == null) {
-      return null;
-    }
+    List<Interwiki> interwikis = wikipedia.getWikiConfiguration().getInterwikis(interwikiText);
     Interwiki interwiki = null;
     for (Interwiki tmpInterwiki : interwikis) {
       if ((tmpInterwiki != null) &&
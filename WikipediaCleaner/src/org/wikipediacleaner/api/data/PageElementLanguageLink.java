@@ -7,8 +7,6 @@
 
 package org.wikipediacleaner.api.data;
 
-import java.util.List;
-
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 
 
@@ -67,8 +65,8 @@ public class PageElementLanguageLink extends PageElement {
 
     // Check that namespace is language
     int colonIndex = tmpIndex;
-    List<Language> languages = wikipedia.getWikiConfiguration().getLanguages();
-    if (!Language.isLanguageCode(languages, contents.substring(beginIndex, colonIndex).trim())) {
+    if (!wikipedia.getWikiConfiguration().isLanguageCode(
+        contents.substring(beginIndex, colonIndex).trim())) {
       return null;
     }
 
@@ -0,0 +1,131 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Index of pages by normalized title.
+ *
+ * Useful to find quickly which pages are targeted by links in a page,
+ * instead of comparing each link with each page.
+ */
+public class PageIndex {
+
+  /** Pages indexed by normalized title */
+  private final Map<String, List<Page>> pages;
+
+  /**
+   * Create an empty index.
+   */
+  public PageIndex() {
+    this.pages = new HashMap<String, List<Page>>();
+  }
+
+  /**
+   * Create an index on the titles of pages.
+   * 
+   * @param pages Pages.
+   */
+  public PageIndex(Collection<Page> pages) {
+    this.pages = new HashMap<String, List<Page>>(
+        (pages != null) ? Math.max(16, pages.size() * 2) : 16);
+    if (pages != null) {
+      for (Page page : pages) {
+        if (page != null) {
+          add(page.getTitle(), page);
+        }
+      }
+    }
+  }
+
+  /**
+   * Add a page to the index.
+   * 
+   * @param title Title under which the page is indexed (page title, redirect title, ...).
+   * @param page Page.
+   */
+  public void add(String title, Page page) {
+    if ((title == null) || (page == null)) {
+      return;
+    }
+    String key = Page.normalizeTitle(title);
+    List<Page> list = pages.get(key);
+    if (list == null) {
+      list = new ArrayList<Page>(1);
+      pages.put(key, list);
+    }
+    list.add(page);
+  }
+
+  /**
+   * Add a page and its redirects to the index.
+   * 
+   * @param page Page.
+   */
+  public void addWithRedirects(Page page) {
+    if (page == null) {
+      return;
+    }
+    add(page.getTitle(), page);
+    List<Page> redirects = page.getRedirects();
+    if (redirects != null) {
+      for (Page redirect : redirects) {
+        if (redirect != null) {
+          add(redirect.getTitle(), page);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param title Title.
+   * @return Pages indexed under this title, in the order they were added.
+   */
+  public List<Page> getPages(String title) {
+    if (title == null) {
+      return Collections.emptyList();
+    }
+    List<Page> result = pages.get(Page.normalizeTitle(title));
+    if (result == null) {
+      return Collections.emptyList();
+    }
+    return result;
+  }
+
+  /**
+   * @param title Title.
+   * @return First page indexed under this title.
+   */
+  public Page getFirstPage(String title) {
+    List<Page> result = getPages(title);
+    return result.isEmpty() ? null : result.get(0);
+  }
+
+  /**
+   * @param title Title.
+   * @return Last page indexed under this title.
+   */
+  public Page getLastPage(String title) {
+    List<Page> result = getPages(title);
+    return result.isEmpty() ? null : result.get(result.size() - 1);
+  }
+
+  /**
+   * @return True if the index is empty.
+   */
+  public boolean isEmpty() {
+    return pages.isEmpty();
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+
+
+/**
+ * Lightweight reference to a page, as returned by lists of pages.
+ *
+ * Only the title, the name space and the page id are kept,
+ * a full <code>Page</code> can be created when it's really needed.
+ */
+public final class PageRef implements Comparable<PageRef> {
+
+  /** Value used when the name space is unknown */
+  private final static int UNKNOWN_NAMESPACE = Integer.MIN_VALUE;
+
+  /** Value used when the page id is unknown */
+  private final static int UNKNOWN_PAGE_ID = 0;
+
+  /** Title (interned) */
+  private final String title;
+
+  /** Name space */
+  private final int namespace;
+
+  /** Page id */
+  private final int pageId;
+
+  /**
+   * @param title Title.
+   * @param namespace Name space.
+   * @param pageId Page id.
+   */
+  public PageRef(String title, Integer namespace, Integer pageId) {
+    this.title = (title != null) ? title.intern() : null;
+    this.namespace = (namespace != null) ? namespace.intValue() : UNKNOWN_NAMESPACE;
+    this.pageId = (pageId != null) ? pageId.intValue() : UNKNOWN_PAGE_ID;
+  }
+
+  /**
+   * @param title Title.
+   * @param namespace Name space (as returned by the API).
+   * @param pageId Page id (as returned by the API).
+   * @return Reference to the page.
+   */
+  public static PageRef create(String title, String namespace, String pageId) {
+    return new PageRef(title, parseInteger(namespace), parseInteger(pageId));
+  }
+
+  /**
+   * @param page Page.
+   * @return Reference to the page.
+   */
+  public static PageRef create(Page page) {
+    return new PageRef(page.getTitle(), page.getNamespace(), page.getPageId());
+  }
+
+  /**
+   * @param value Value.
+   * @return Integer value.
+   */
+  private static Integer parseInteger(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(value);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return Title.
+   */
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * @return Name space number.
+   */
+  public Integer getNamespace() {
+    if (namespace == UNKNOWN_NAMESPACE) {
+      return null;
+    }
+    return Integer.valueOf(namespace);
+  }
+
+  /**
+   * @return Flag indicating if the page is an article (not a talk page).
+   */
+  public boolean isArticle() {
+    return (namespace != UNKNOWN_NAMESPACE) && (namespace % 2 == 0);
+  }
+
+  /**
+   * @return Flag indicating if the page is in the main name space.
+   */
+  public boolean isInMainNamespace() {
+    return (namespace == Namespace.MAIN);
+  }
+
+  /**
+   * @return Page id.
+   */
+  public Integer getPageId() {
+    if (pageId == UNKNOWN_PAGE_ID) {
+      return null;
+    }
+    return Integer.valueOf(pageId);
+  }
+
+  /**
+   * Create a full page from the reference.
+   *
+   * @param wiki Wiki.
+   * @return Page.
+   */
+  public Page getPage(EnumWikipedia wiki) {
+    Page page = DataManager.getPage(wiki, title, getPageId(), null, null);
+    if (namespace != UNKNOWN_NAMESPACE) {
+      page.setNamespace(Integer.valueOf(namespace));
+    }
+    return page;
+  }
+
+  /**
+   * Create full pages from references.
+   *
+   * @param wiki Wiki.
+   * @param refs References to pages.
+   * @return Pages.
+   */
+  public static List<Page> getPages(EnumWikipedia wiki, Collection<PageRef> refs) {
+    if (refs == null) {
+      return null;
+    }
+    List<Page> pages = new ArrayList<Page>(refs.size());
+    for (PageRef ref : refs) {
+      pages.add(ref.getPage(wiki));
+    }
+    return pages;
+  }
+
+  /**
+   * @param o The reference to be compared.
+   * @return a negative integer, zero, or a positive integer as this reference
+   *         is less than, equal to, or greater the specified reference.
+   * @see java.lang.Comparable#compareTo(java.lang.Object)
+   * @see Page#compareTo(Page)
+   */
+  @Override
+  public int compareTo(PageRef o) {
+    if (namespace != o.namespace) {
+      if (namespace == UNKNOWN_NAMESPACE) {
+        return -1;
+      }
+      if (o.namespace == UNKNOWN_NAMESPACE) {
+        return 1;
+      }
+      return (namespace < o.namespace) ? -1 : 1;
+    }
+    if (title == null) {
+      return (o.title == null) ? 0 : -1;
+    }
+    if (o.title == null) {
+      return 1;
+    }
+    return title.compareTo(o.title);
+  }
+
+  /**
+   * @param o The reference with which to compare.
+   * @return <code>true</code> if both references are for the same page.
+   * @see java.lang.Object#equals(java.lang.Object)
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PageRef)) {
+      return false;
+    }
+    PageRef ref = (PageRef) o;
+    return (namespace == ref.namespace) &&
+        ((title == null) ? (ref.title == null) : title.equals(ref.title));
+  }
+
+  /**
+   * @return A hash code value for this reference.
+   * @see java.lang.Object#hashCode()
+   */
+  @Override
+  public int hashCode() {
+    return 31 * namespace + ((title != null) ? title.hashCode() : 0);
+  }
+
+  /**
+   * @return Title.
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return title;
+  }
+}
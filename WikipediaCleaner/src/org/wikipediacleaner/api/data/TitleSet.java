@@ -0,0 +1,241 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Immutable set of page titles, optimized for membership tests.
+ *
+ * Titles are stored in an open addressing hash table.
+ * For large sets, an optional Bloom filter rejects most titles
+ * which are not in the set without looking at the table.
+ */
+public final class TitleSet extends AbstractSet<String> {
+
+  /** Empty set */
+  public final static TitleSet EMPTY = new TitleSet(null, false);
+
+  /** Minimum size of the set for using a Bloom filter */
+  private final static int BLOOM_MIN_SIZE = 1024;
+
+  /** Number of bits per title in the Bloom filter */
+  private final static int BLOOM_BITS_PER_TITLE = 8;
+
+  /** Number of hash functions used by the Bloom filter */
+  private final static int BLOOM_HASHES = 3;
+
+  /** Hash table (power of 2 size, null for empty slots) */
+  private final String[] table;
+
+  /** Number of titles */
+  private final int size;
+
+  /** Bloom filter (null if not used) */
+  private final long[] bloom;
+
+  /** Mask for the bits of the Bloom filter */
+  private final int bloomMask;
+
+  /**
+   * @param titles Titles.
+   * @param useBloom True to use a Bloom filter if the set is large enough.
+   */
+  private TitleSet(Collection<String> titles, boolean useBloom) {
+    int count = (titles != null) ? titles.size() : 0;
+    int capacity = 2;
+    while (capacity < 2 * count) {
+      capacity <<= 1;
+    }
+    this.table = new String[capacity];
+    int tmpSize = 0;
+    if (titles != null) {
+      for (String title : titles) {
+        if ((title != null) && insert(title)) {
+          tmpSize++;
+        }
+      }
+    }
+    this.size = tmpSize;
+
+    // Bloom filter
+    if (useBloom && (tmpSize >= BLOOM_MIN_SIZE)) {
+      int bits = 64;
+      while (bits < BLOOM_BITS_PER_TITLE * tmpSize) {
+        bits <<= 1;
+      }
+      this.bloom = new long[bits >>> 6];
+      this.bloomMask = bits - 1;
+      for (String title : table) {
+        if (title != null) {
+          int hash = title.hashCode();
+          int hash2 = mix(hash) | 1;
+          for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (hash + i * hash2) & bloomMask;
+            bloom[bit >>> 6] |= (1L << bit);
+          }
+        }
+      }
+    } else {
+      this.bloom = null;
+      this.bloomMask = 0;
+    }
+  }
+
+  /**
+   * @param titles Titles.
+   * @return Set of titles.
+   */
+  public static TitleSet create(Collection<String> titles) {
+    return create(titles, false);
+  }
+
+  /**
+   * @param titles Titles.
+   * @param useBloom True to use a Bloom filter if the set is large enough.
+   * @return Set of titles.
+   */
+  public static TitleSet create(Collection<String> titles, boolean useBloom) {
+    if ((titles == null) || titles.isEmpty()) {
+      return EMPTY;
+    }
+    if ((titles instanceof TitleSet) &&
+        (!useBloom || (((TitleSet) titles).bloom != null))) {
+      return (TitleSet) titles;
+    }
+    return new TitleSet(titles, useBloom);
+  }
+
+  /**
+   * @param title Title to be inserted in the hash table.
+   * @return True if the title has been inserted.
+   */
+  private boolean insert(String title) {
+    int mask = table.length - 1;
+    int index = mix(title.hashCode()) & mask;
+    while (table[index] != null) {
+      if (table[index].equals(title)) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    table[index] = title;
+    return true;
+  }
+
+  /**
+   * @param hash Hash code.
+   * @return Hash code with bits spread.
+   */
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * @param title Title.
+   * @return True if the title is in the set.
+   */
+  public boolean contains(String title) {
+    if ((title == null) || (size == 0)) {
+      return false;
+    }
+    int hash = title.hashCode();
+    if (bloom != null) {
+      int hash2 = mix(hash) | 1;
+      for (int i = 0; i < BLOOM_HASHES; i++) {
+        int bit = (hash + i * hash2) & bloomMask;
+        if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+    }
+    int mask = table.length - 1;
+    int index = mix(hash) & mask;
+    String current = table[index];
+    while (current != null) {
+      if (current.equals(title)) {
+        return true;
+      }
+      index = (index + 1) & mask;
+      current = table[index];
+    }
+    return false;
+  }
+
+  /**
+   * @param o Object.
+   * @return True if the object is a title in the set.
+   * @see java.util.AbstractCollection#contains(java.lang.Object)
+   */
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof String)) {
+      return false;
+    }
+    return contains((String) o);
+  }
+
+  /**
+   * @return Number of titles.
+   * @see java.util.AbstractCollection#size()
+   */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return Iterator on the titles (in no particular order).
+   * @see java.util.AbstractCollection#iterator()
+   */
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+
+      /** Index of the next title */
+      private int index = advance(0);
+
+      /**
+       * @param start Start index.
+       * @return Index of the first title at or after the start index.
+       */
+      private int advance(int start) {
+        int tmpIndex = start;
+        while ((tmpIndex < table.length) && (table[tmpIndex] == null)) {
+          tmpIndex++;
+        }
+        return tmpIndex;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return index < table.length;
+      }
+
+      @Override
+      public String next() {
+        if (index >= table.length) {
+          throw new NoSuchElementException();
+        }
+        String result = table[index];
+        index = advance(index + 1);
+        return result;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
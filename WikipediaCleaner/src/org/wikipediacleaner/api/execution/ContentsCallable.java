@@ -29,6 +29,7 @@ public class ContentsCallable extends MediaWikiCallable<Page> {
   private final boolean withRedirects;
   private final Integer section;
   private final boolean doAnalysis;
+  private final boolean compact;
 
   /**
    * @param wikipedia Wikipedia.
@@ -46,6 +47,28 @@ public class ContentsCallable extends MediaWikiCallable<Page> {
       Page page, Page returnPage, boolean usePageId,
       boolean withRedirects, Integer section,
       boolean doAnalysis) {
+    this(
+        wikipedia, listener, api, page, returnPage,
+        usePageId, withRedirects, section, doAnalysis, false);
+  }
+
+  /**
+   * @param wikipedia Wikipedia.
+   * @param listener Listener of MediaWiki events.
+   * @param api MediaWiki API.
+   * @param page Page.
+   * @param returnPage Page to return at the end of the processing.
+   * @param usePageId True if page identifiers should be used.
+   * @param withRedirects Flag indicating if redirects information should be retrieved.
+   * @param section (Optional) Section of the page.
+   * @param doAnalysis True if page analysis should be done.
+   * @param compact True if page contents should be kept compact until used.
+   */
+  public ContentsCallable(
+      EnumWikipedia wikipedia, MediaWikiListener listener, API api,
+      Page page, Page returnPage, boolean usePageId,
+      boolean withRedirects, Integer section,
+      boolean doAnalysis, boolean compact) {
     super(wikipedia, listener, api);
     this.page = page;
     this.returnPage = returnPage;
@@ -53,6 +76,7 @@ public class ContentsCallable extends MediaWikiCallable<Page> {
     this.withRedirects = withRedirects;
     this.section = section;
     this.doAnalysis = doAnalysis;
+    this.compact = compact && !doAnalysis;
   }
 
   /* (non-Javadoc)
@@ -78,6 +102,9 @@ public class ContentsCallable extends MediaWikiCallable<Page> {
       PageAnalysis analysis = page.getAnalysis(page.getContents(), true);
       analysis.performFullPageAnalysis(null);
     }
+    if (compact) {
+      page.compactContents();
+    }
     return returnPage;
   }
 
@@ -0,0 +1,123 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.impl;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.wikipediacleaner.api.API;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.RecentChangesSource;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.RecentChange;
+
+
+/**
+ * Source of recent changes querying the API.
+ */
+class ApiRecentChangesSource implements RecentChangesSource {
+
+  /**
+   * Wiki.
+   */
+  private final EnumWikipedia wiki;
+
+  /**
+   * API.
+   */
+  private final API api;
+
+  /**
+   * Start for next recent changes request.
+   */
+  private String start;
+
+  /**
+   * Identifiers of the recent changes already retrieved at the start time.
+   */
+  private final Set<Integer> startIds;
+
+  /**
+   * @param wiki Wiki.
+   * @param api API.
+   */
+  public ApiRecentChangesSource(EnumWikipedia wiki, API api) {
+    this.wiki = wiki;
+    this.api = api;
+    this.startIds = new HashSet<Integer>();
+  }
+
+  /**
+   * Retrieve recent changes that occurred since the previous call.
+   * 
+   * @param namespaces Namespaces of interest (null for all namespaces).
+   * @param types Types of changes of interest (null for all types).
+   * @param recentChanges The list of recent changes to be filled, oldest first.
+   * @return Current time for the source (null if unknown).
+   * @throws APIException Error retrieving recent changes.
+   * @see org.wikipediacleaner.api.RecentChangesSource#getRecentChanges(java.util.Set, java.util.Set, java.util.List)
+   */
+  @Override
+  public Date getRecentChanges(
+      Set<Integer> namespaces, Set<String> types,
+      List<RecentChange> recentChanges) throws APIException {
+    List<RecentChange> tmpRecentChanges = new ArrayList<RecentChange>();
+    String nextStart = api.getRecentChanges(
+        wiki, start, namespaces, types, tmpRecentChanges);
+    if (nextStart == null) {
+      return null;
+    }
+    Date currentTime = null;
+    try {
+      currentTime = DataManager.convertIso8601DateTime(nextStart);
+    } catch (ParseException e) {
+      return null;
+    }
+
+    // Ignore recent changes already retrieved by the previous call
+    Set<Integer> nextStartIds = new HashSet<Integer>();
+    for (RecentChange rc : tmpRecentChanges) {
+      Integer id = Integer.valueOf(rc.getId());
+      if (currentTime.equals(rc.getTimestamp())) {
+        nextStartIds.add(id);
+      }
+      if (!startIds.contains(id)) {
+        recentChanges.add(rc);
+      }
+    }
+    if (!nextStart.equals(start)) {
+      startIds.clear();
+    }
+    startIds.addAll(nextStartIds);
+    start = nextStart;
+    return currentTime;
+  }
+
+  /**
+   * @return False as the API has to be polled regularly.
+   * @see org.wikipediacleaner.api.RecentChangesSource#isStreaming()
+   */
+  @Override
+  public boolean isStreaming() {
+    return false;
+  }
+
+  /**
+   * @return True if the source doesn't have any more recent changes.
+   * @see org.wikipediacleaner.api.RecentChangesSource#isFinished()
+   */
+  @Override
+  public boolean isFinished() {
+    return false;
+  }
+}
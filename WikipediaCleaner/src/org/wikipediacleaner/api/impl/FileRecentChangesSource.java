@@ -0,0 +1,127 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.impl;
+
+import java.io.File;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.RecentChangesSource;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.RecentChange;
+import org.wikipediacleaner.api.request.query.list.ApiRecentChangesRequest;
+import org.wikipediacleaner.api.request.query.list.ApiXmlFileRecentChangesResult;
+
+
+/**
+ * Source of recent changes replaying answers of the API saved in local files.
+ * 
+ * Each call returns the recent changes of the next file,
+ * which is useful for testing or replaying a monitoring session without accessing the wiki.
+ */
+public class FileRecentChangesSource implements RecentChangesSource {
+
+  /**
+   * Wiki.
+   */
+  private final EnumWikipedia wiki;
+
+  /**
+   * Files containing answers of the API for recent changes, in chronological order.
+   */
+  private final List<File> files;
+
+  /**
+   * Index of the next file.
+   */
+  private int index;
+
+  /**
+   * Identifiers of the recent changes retrieved by the previous call.
+   */
+  private Set<Integer> previousIds;
+
+  /**
+   * @param wiki Wiki.
+   * @param files Files containing answers of the API for recent changes, in chronological order.
+   */
+  public FileRecentChangesSource(EnumWikipedia wiki, List<File> files) {
+    this.wiki = wiki;
+    this.files = new ArrayList<File>(files);
+    this.index = 0;
+    this.previousIds = new HashSet<Integer>();
+  }
+
+  /**
+   * Retrieve recent changes of the next file.
+   * 
+   * @param namespaces Namespaces of interest (null for all namespaces).
+   * @param types Types of changes of interest (null for all types).
+   * @param recentChanges The list of recent changes to be filled, oldest first.
+   * @return Current time for the source (null if unknown).
+   * @throws APIException Error retrieving recent changes.
+   * @see org.wikipediacleaner.api.RecentChangesSource#getRecentChanges(java.util.Set, java.util.Set, java.util.List)
+   */
+  @Override
+  public synchronized Date getRecentChanges(
+      Set<Integer> namespaces, Set<String> types,
+      List<RecentChange> recentChanges) throws APIException {
+    if (index >= files.size()) {
+      return null;
+    }
+    File file = files.get(index);
+    index++;
+    List<RecentChange> tmpRecentChanges = new ArrayList<RecentChange>();
+    ApiRecentChangesRequest request = new ApiRecentChangesRequest(
+        wiki, new ApiXmlFileRecentChangesResult(wiki, file));
+    String nextStart = request.loadRecentChanges(null, tmpRecentChanges);
+    Set<Integer> ids = new HashSet<Integer>();
+    for (RecentChange rc : tmpRecentChanges) {
+      Integer id = Integer.valueOf(rc.getId());
+      ids.add(id);
+      if (!previousIds.contains(id) &&
+          ((namespaces == null) || namespaces.contains(Integer.valueOf(rc.getNamespace()))) &&
+          ((types == null) || types.contains(rc.getType()))) {
+        recentChanges.add(rc);
+      }
+    }
+    previousIds = ids;
+    if (nextStart == null) {
+      return null;
+    }
+    try {
+      return DataManager.convertIso8601DateTime(nextStart);
+    } catch (ParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return True as the files are replayed without waiting.
+   * @see org.wikipediacleaner.api.RecentChangesSource#isStreaming()
+   */
+  @Override
+  public boolean isStreaming() {
+    return true;
+  }
+
+  /**
+   * @return True if all the files have been replayed.
+   * @see org.wikipediacleaner.api.RecentChangesSource#isFinished()
+   */
+  @Override
+  public synchronized boolean isFinished() {
+    return index >= files.size();
+  }
+}
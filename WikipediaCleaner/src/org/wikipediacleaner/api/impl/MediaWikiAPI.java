@@ -12,12 +12,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
@@ -41,8 +41,12 @@ import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.CaptchaException;
+import org.wikipediacleaner.api.EditScheduler;
 import org.wikipediacleaner.api.HttpUtils;
+import org.wikipediacleaner.api.PageListConsumer;
+import org.wikipediacleaner.api.RecentChangesFilter;
 import org.wikipediacleaner.api.RecentChangesListener;
+import org.wikipediacleaner.api.RecentChangesSource;
 import org.wikipediacleaner.api.constants.ConnectionInformation;
 import org.wikipediacleaner.api.constants.EnumQueryPage;
 import org.wikipediacleaner.api.constants.EnumQueryResult;
@@ -53,6 +57,7 @@ import org.wikipediacleaner.api.data.AbuseFilter;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.LoginResult;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.api.data.QueryResult;
 import org.wikipediacleaner.api.data.RecentChange;
 import org.wikipediacleaner.api.data.Section;
@@ -157,6 +162,7 @@ import org.wikipediacleaner.api.request.query.prop.ApiXmlTemplatesResult;
 import org.wikipediacleaner.api.request.templatedata.ApiJsonTemplateDataResult;
 import org.wikipediacleaner.api.request.templatedata.ApiTemplateDataRequest;
 import org.wikipediacleaner.api.request.templatedata.ApiTemplateDataResult;
+import org.wikipediacleaner.api.request.templatedata.TemplateDataCache;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.i18n.GT;
 import org.wikipediacleaner.utils.Configuration;
@@ -179,10 +185,15 @@ public class MediaWikiAPI implements API {
   private HttpClient httpClient;
 
   /**
-   * Time of last edit.
+   * Maximum time waited for other single page requests to be coalesced (in milliseconds).
    */
-  private LinkedList<Long> lastEditTimes = new LinkedList<Long>();
-  private final Object editLock = new Object();
+  private final static long COALESCE_WINDOW = 20;
+
+  /**
+   * Coalescer for single page requests.
+   */
+  private final PageRequestCoalescer coalescer =
+      new PageRequestCoalescer(MAX_PAGES_PER_QUERY, COALESCE_WINDOW);
 
   /**
    * Constructor.
@@ -400,7 +411,8 @@ public class MediaWikiAPI implements API {
       if (commentDecorator != null) {
         commentDecorator.manageComment(properties, "summary", "tags", automatic);
       }
-      checkTimeForEdit(wikipedia.getConnection().getUser(), page.getNamespace());
+      EditScheduler.getScheduler(wikipedia).waitForEdit(
+          wikipedia.getConnection().getUser(), page.getNamespace());
       try {
         boolean hasCaptcha = false;
         do {
@@ -558,7 +570,8 @@ public class MediaWikiAPI implements API {
       if (commentDecorator != null) {
         commentDecorator.manageComment(properties, "summary", "tags", automatic);
       }
-      checkTimeForEdit(wikipedia.getConnection().getUser(), page.getNamespace());
+      EditScheduler.getScheduler(wikipedia).waitForEdit(
+          wikipedia.getConnection().getUser(), page.getNamespace());
       try {
         boolean hasCaptcha = false;
         do {
@@ -757,6 +770,18 @@ public class MediaWikiAPI implements API {
         query, Filters.element());
     XPathExpression<Element> xpaRev = XPathFactory.instance().compile(
         "./revisions/rev", Filters.element());
+    Map<String, List<Page>> pagesByTitle = new HashMap<String, List<Page>>();
+    for (Page page : pages) {
+      if (page.getTitle() != null) {
+        String title = Page.normalizeTitle(page.getTitle());
+        List<Page> list = pagesByTitle.get(title);
+        if (list == null) {
+          list = new ArrayList<Page>(1);
+          pagesByTitle.put(title, list);
+        }
+        list.add(page);
+      }
+    }
     List<Element> resultPages = xpaPage.evaluate(root);
     Iterator<Element> iterPages = resultPages.iterator();
     while (iterPages.hasNext()) {
@@ -765,8 +790,9 @@ public class MediaWikiAPI implements API {
       Element currentRev = xpaRev.evaluateFirst(currentPage);
       String contents = currentRev.getText();
       
-      for (Page page : pages) {
-        if (Page.areSameTitle(page.getTitle(), title)) {
+      List<Page> list = (title != null) ? pagesByTitle.get(Page.normalizeTitle(title)) : null;
+      if (list != null) {
+        for (Page page : list) {
           page.setContents(contents);
         }
       }
@@ -956,6 +982,31 @@ public class MediaWikiAPI implements API {
    */
   @Override
   public void retrieveInfo(
+      final EnumWikipedia wiki,
+      Collection<Page> pages) throws APIException {
+    if (pages.size() == 1) {
+      coalescer.load(
+          Arrays.asList(wiki, "info"),
+          pages.iterator().next(),
+          new PageRequestCoalescer.Loader() {
+            @Override
+            public void load(List<Page> batch) throws APIException {
+              doRetrieveInfo(wiki, batch);
+            }
+          });
+      return;
+    }
+    doRetrieveInfo(wiki, pages);
+  }
+
+  /**
+   * Retrieves the informations of a list of pages.
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @throws APIException
+   */
+  private void doRetrieveInfo(
       EnumWikipedia wiki,
       Collection<Page> pages) throws APIException {
     ApiInfoResult result = new ApiXmlInfoResult(wiki, httpClient);
@@ -976,6 +1027,35 @@ public class MediaWikiAPI implements API {
    */
   @Override
   public void retrieveContents(
+      final EnumWikipedia wiki,
+      Collection<Page> pages, final boolean usePageId,
+      final boolean withRedirects)
+      throws APIException {
+    if (pages.size() == 1) {
+      coalescer.load(
+          Arrays.asList(wiki, "contents", usePageId, withRedirects),
+          pages.iterator().next(),
+          new PageRequestCoalescer.Loader() {
+            @Override
+            public void load(List<Page> batch) throws APIException {
+              doRetrieveContents(wiki, batch, usePageId, withRedirects);
+            }
+          });
+      return;
+    }
+    doRetrieveContents(wiki, pages, usePageId, withRedirects);
+  }
+
+  /**
+   * Retrieves the contents of a list of pages.
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @param usePageId True if page identifiers should be used.
+   * @param withRedirects Flag indicating if redirects information should be retrieved.
+   * @throws APIException
+   */
+  private void doRetrieveContents(
       EnumWikipedia wiki,
       Collection<Page> pages, boolean usePageId,
       boolean withRedirects)
@@ -1092,12 +1172,41 @@ public class MediaWikiAPI implements API {
       List<Page> knownPages,
       boolean redirects, boolean disambigNeeded)
       throws APIException {
+    retrieveLinks(
+        wiki, Collections.singletonList(page), namespace,
+        knownPages, redirects, disambigNeeded);
+  }
+
+  /**
+   * Retrieves internal links of several pages.
+   * (<code>action=query</code>, <code>generator=links</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages Pages.
+   * @param namespace Restrict the list to a given namespace.
+   * @param knownPages Already known pages.
+   * @param redirects True if redirects are requested.
+   * @param disambigNeeded True if disambiguation information is needed.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Properties#links_.2F_pl">API:Properties#links</a>
+   */
+  @Override
+  public void retrieveLinks(
+      EnumWikipedia wiki, Collection<Page> pages, Integer namespace,
+      List<Page> knownPages,
+      boolean redirects, boolean disambigNeeded)
+      throws APIException {
+    if ((pages == null) || pages.isEmpty()) {
+      return;
+    }
     ApiLinksResult result = new ApiXmlLinksResult(wiki, httpClient);
     ApiLinksRequest request = new ApiLinksRequest(wiki, result);
     boolean useDisambig = wiki.getConfiguration().getBoolean(
         WPCConfigurationBoolean.DAB_USE_DISAMBIG_MAGIC_WORD);
+    Map<String, List<Page>> indexedPages = DataManager.indexPages(knownPages);
     List<Page> redirections = redirects ? new ArrayList<Page>() : null;
-    request.loadLinks(page, namespace, knownPages, redirections, useDisambig);
+    List<Page> links = request.loadLinks(
+        pages, namespace, indexedPages, redirections, useDisambig);
 
     // TODO: Better management of redirections (class)
     if ((redirections != null) && !redirections.isEmpty()) {
@@ -1106,8 +1215,8 @@ public class MediaWikiAPI implements API {
     }
 
     // Retrieve disambiguation information if needed
-    if (disambigNeeded && !useDisambig) {
-      initializeDisambiguationStatus(wiki, page.getLinks(), false);
+    if (disambigNeeded && !useDisambig && !links.isEmpty()) {
+      initializeDisambiguationStatus(wiki, links, false);
     }
   }
 
@@ -1235,6 +1344,49 @@ public class MediaWikiAPI implements API {
     request.loadCategoryMembers(category, depth, limit, max);
   }
 
+  /**
+   * Retrieves references to the members of a category, without creating full pages.
+   * (<code>action=query</code>, <code>list=categorymembers</code>).
+   * 
+   * @param wiki Wiki.
+   * @param category Category.
+   * @param depth Depth of lookup for sub-categories.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param max Absolute maximum number of results
+   * @return Sorted list of references to the category members.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Categorymembers">API:Categorymembers</a>
+   */
+  @Override
+  public List<PageRef> retrieveCategoryMemberRefs(
+      EnumWikipedia wiki, Page category,
+      int depth, boolean limit, int max) throws APIException {
+    ApiCategoryMembersResult result = new ApiXmlCategoryMembersResult(wiki, httpClient);
+    ApiCategoryMembersRequest request = new ApiCategoryMembersRequest(wiki, result);
+    return request.loadCategoryMemberRefs(category, depth, limit, max);
+  }
+
+  /**
+   * Retrieves the members of categories, using parallel requests,
+   * and sends them to a consumer as they are retrieved.
+   * (<code>action=query</code>, <code>list=categorymembers</code>).
+   * 
+   * @param wiki Wiki.
+   * @param categories Categories.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param consumer Consumer of the category members.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Categorymembers">API:Categorymembers</a>
+   */
+  @Override
+  public void retrieveCategoryMembers(
+      EnumWikipedia wiki, Collection<Page> categories,
+      boolean limit, PageListConsumer consumer) throws APIException {
+    ApiCategoryMembersResult result = new ApiXmlCategoryMembersResult(wiki, httpClient);
+    ApiCategoryMembersRequest request = new ApiCategoryMembersRequest(wiki, result);
+    request.loadCategoryMembers(categories, limit, consumer);
+  }
+
   /**
    * Retrieves the pages in which <code>page</code> is embedded.
    * (<code>action=query</code>, <code>list=embeddedin</code>).
@@ -1255,6 +1407,51 @@ public class MediaWikiAPI implements API {
     request.loadEmbeddedIn(page, namespaces, limit);
   }
 
+  /**
+   * Retrieves references to the pages in which <code>page</code> is embedded,
+   * without creating full pages.
+   * (<code>action=query</code>, <code>list=embeddedin</code>).
+   * 
+   * @param wiki Wiki.
+   * @param page Page.
+   * @param namespaces Limit to some name spaces.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @return Sorted list of references to the embedding pages.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Embeddedin">API:Embeddedin</a>
+   */
+  @Override
+  public List<PageRef> retrieveEmbeddedInRefs(
+      EnumWikipedia wiki, Page page,
+      List<Integer> namespaces, boolean limit) throws APIException {
+    ApiEmbeddedInResult result = new ApiXmlEmbeddedInResult(wiki, httpClient);
+    ApiEmbeddedInRequest request = new ApiEmbeddedInRequest(wiki, result);
+    return request.loadEmbeddedInRefs(page, namespaces, limit);
+  }
+
+  /**
+   * Retrieves the pages in which some pages are embedded, using parallel requests,
+   * and sends them to a consumer as they are retrieved.
+   * (<code>action=query</code>, <code>list=embeddedin</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages Pages.
+   * @param namespaces Limit to some name spaces.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param consumer Consumer of the embedding pages.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Embeddedin">API:Embeddedin</a>
+   */
+  @Override
+  public void retrieveEmbeddedIn(
+      EnumWikipedia wiki, Collection<Page> pages,
+      List<Integer> namespaces, boolean limit,
+      PageListConsumer consumer) throws APIException {
+    ApiEmbeddedInResult result = new ApiXmlEmbeddedInResult(wiki, httpClient);
+    ApiEmbeddedInRequest request = new ApiEmbeddedInRequest(wiki, result);
+    request.loadEmbeddedIn(pages, namespaces, limit, consumer);
+  }
+
   /**
    * Retrieves the pages in the <code>category</code> Linter category.
    * (<code>action=query</code>, <code>list=linterrors</code>).
@@ -1372,6 +1569,29 @@ public class MediaWikiAPI implements API {
     return request.loadRecentChanges(start, recentChanges);
   }
 
+  /**
+   * Retrieves recent changes.
+   * (<code>action=query</code>, <code>list=recentchanges</code>).
+   * 
+   * @param wiki Wiki.
+   * @param start The timestamp to start listing from.
+   * @param namespaces Namespaces of interest (null for all namespaces).
+   * @param types Types of changes of interest (null for all types).
+   * @param recentChanges The list of recent changes to be filled.
+   * @return The timestamp to use as a starting point for the next call.
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Recentchanges">API:Recentchanges</a>
+   */
+  @Override
+  public String getRecentChanges(
+      EnumWikipedia wiki, String start,
+      Collection<Integer> namespaces, Collection<String> types,
+      List<RecentChange> recentChanges) throws APIException {
+    ApiRecentChangesResult result = new ApiXmlRecentChangesResult(wiki, httpClient);
+    ApiRecentChangesRequest request = new ApiRecentChangesRequest(wiki, result);
+    return request.loadRecentChanges(start, namespaces, types, recentChanges);
+  }
+
   /**
    * Retrieves similar pages.
    * (<code>action=query</code>, <code>list=search</code>).
@@ -1557,9 +1777,71 @@ public class MediaWikiAPI implements API {
   @Override
   public TemplateData retrieveTemplateData(EnumWikipedia wiki, Page page)
       throws APIException {
+    Map<String, TemplateData> result = retrieveTemplateData(
+        wiki, Collections.singletonList(page));
+    return result.get(page.getTitle());
+  }
+
+  /**
+   * Retrieve the TemplateData for a list of pages.
+   * (<code>action=templatedata</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @return TemplateData indexed by page title (null for pages without TemplateData).
+   * @throws APIException
+   */
+  @Override
+  public Map<String, TemplateData> retrieveTemplateData(
+      EnumWikipedia wiki, Collection<Page> pages) throws APIException {
+    TemplateDataCache cache = TemplateDataCache.getCache(wiki);
+
+    // Retrieve the touched time of the templates for outdated and missing entries
+    List<Page> outdated = new ArrayList<Page>();
+    List<Page> unchecked = new ArrayList<Page>();
+    for (Page page : pages) {
+      if (!cache.contains(page.getTitle())) {
+        unchecked.add(page);
+      } else if (!cache.isRecent(page.getTitle())) {
+        outdated.add(page);
+        unchecked.add(page);
+      }
+    }
+    if (unchecked.isEmpty()) {
+      return getTemplateData(cache, pages);
+    }
+    retrieveInfo(wiki, unchecked);
+    Map<String, String> touched = new HashMap<String, String>();
+    for (Page page : unchecked) {
+      touched.put(page.getTitle(), page.getTouchedTimestamp());
+    }
+
+    // Check outdated entries against the touched time of the templates,
+    // which also changes when the documentation holding TemplateData is modified
+    for (Page page : outdated) {
+      cache.validate(page.getTitle(), page.getTouchedTimestamp());
+    }
+
+    // Retrieve missing entries in batches
     ApiTemplateDataResult result = new ApiJsonTemplateDataResult(wiki, httpClient);
     ApiTemplateDataRequest request = new ApiTemplateDataRequest(wiki, result);
-    return request.retrieveTemplateData(page);
+    request.retrieveTemplateData(pages, cache, touched);
+    cache.save();
+    return getTemplateData(cache, pages);
+  }
+
+  /**
+   * @param cache Cache of TemplateData.
+   * @param pages List of pages.
+   * @return TemplateData in the cache indexed by page title.
+   */
+  private Map<String, TemplateData> getTemplateData(
+      TemplateDataCache cache, Collection<Page> pages) {
+    Map<String, TemplateData> templateData = new HashMap<String, TemplateData>();
+    for (Page page : pages) {
+      templateData.put(page.getTitle(), cache.get(page.getTitle()));
+    }
+    return templateData;
   }
 
   // ==========================================================================
@@ -1582,12 +1864,22 @@ public class MediaWikiAPI implements API {
   public void addRecentChangesListener(
       EnumWikipedia wiki,
       RecentChangesListener listener) {
-    RecentChangesManager rcManager = rcManagers.get(wiki);
-    if (rcManager == null) {
-      rcManager = new RecentChangesManager(wiki, this);
-      rcManagers.put(wiki, rcManager);
-    }
-    rcManager.addRecentChangesListener(listener);
+    addRecentChangesListener(wiki, listener, null);
+  }
+
+  /**
+   * Adds a <code>RecentChangesListener</code> to the API.
+   * 
+   * @param wiki Wiki.
+   * @param listener Recent changes listener.
+   * @param filter Filter on recent changes (null for all recent changes).
+   */
+  @Override
+  public void addRecentChangesListener(
+      EnumWikipedia wiki,
+      RecentChangesListener listener,
+      RecentChangesFilter filter) {
+    getRecentChangesManager(wiki).addRecentChangesListener(listener, filter);
   }
 
   /**
@@ -1606,6 +1898,34 @@ public class MediaWikiAPI implements API {
     }
   }
 
+  /**
+   * Changes the source of recent changes for a wiki.
+   * 
+   * @param wiki Wiki.
+   * @param source Source of recent changes (null to query the API).
+   */
+  @Override
+  public void setRecentChangesSource(
+      EnumWikipedia wiki,
+      RecentChangesSource source) {
+    getRecentChangesManager(wiki).setSource(source);
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @return Recent changes manager for the wiki.
+   */
+  private RecentChangesManager getRecentChangesManager(EnumWikipedia wiki) {
+    synchronized (rcManagers) {
+      RecentChangesManager rcManager = rcManagers.get(wiki);
+      if (rcManager == null) {
+        rcManager = new RecentChangesManager(wiki, this);
+        rcManagers.put(wiki, rcManager);
+      }
+      return rcManager;
+    }
+  }
+
   // ==========================================================================
   // General methods
   // ==========================================================================
@@ -1722,58 +2042,6 @@ public class MediaWikiAPI implements API {
     }
   }
 
-  /**
-   * Check current time to see if edit is authorized (wait if needed).
-   * 
-   * @param user Current user.
-   * @param namespace Name space for the edit.
-   */
-  private void checkTimeForEdit(User user, Integer namespace) {
-    Configuration config = Configuration.getConfiguration();
-    int minimumTime = config.getInt(null, ConfigurationValueInteger.TIME_BETWEEN_EDIT);
-    int maxEdits = 0;
-    if ((namespace == null) || (namespace.intValue() % 2 == 0)) {
-      config.getInt(null, ConfigurationValueInteger.MAX_EDITS_PER_MINUTE);
-      if ((maxEdits > ConfigurationValueInteger.MAX_EDITS_PER_MINUTE_NORMAL) ||
-          (maxEdits <= 0)) {
-        if (!user.isMemberOf("admin") &&
-            !user.isMemberOf("bot")) {
-          maxEdits = ConfigurationValueInteger.MAX_EDITS_PER_MINUTE_NORMAL;
-        }
-      }
-    }
-    if ((minimumTime <= 0) && (maxEdits <= 0)) {
-      return;
-    }
-    synchronized (editLock) {
-      long currentTime = System.currentTimeMillis();
-      if ((minimumTime > 0) && (!lastEditTimes.isEmpty())) {
-        long lastEditTime = lastEditTimes.getLast();
-        if (currentTime < lastEditTime + minimumTime * 1000) {
-          try {
-            Thread.sleep(lastEditTime + minimumTime * 1000 - currentTime);
-          } catch (InterruptedException e) {
-            // Nothing to do
-          }
-          currentTime = System.currentTimeMillis();
-        }
-      }
-      while ((!lastEditTimes.isEmpty()) &&
-             (lastEditTimes.getFirst() + 60 * 1000 <= currentTime)) {
-        lastEditTimes.removeFirst();
-      }
-      if ((maxEdits > 0) && (lastEditTimes.size() >= maxEdits)) {
-        try {
-          Thread.sleep(lastEditTimes.getFirst() + 60 * 1000 - currentTime);
-        } catch (InterruptedException e) {
-          // Nothing to do
-        }
-        currentTime = System.currentTimeMillis();
-      }
-      lastEditTimes.add(currentTime);
-    }
-  }
-
   /**
    * Create an HttpMethod.
    * 
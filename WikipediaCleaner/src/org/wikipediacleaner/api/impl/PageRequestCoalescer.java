@@ -0,0 +1,233 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Coalesce requests made for a single page into requests for several pages.
+ *
+ * When several threads ask for the same kind of information on different pages
+ * at the same time, the first one waits a short time for the others to join,
+ * sends one request for all the pages and wakes the other threads up.
+ * A thread alone doesn't wait (no other thread is requesting the same kind
+ * of information), so sequential callers aren't slowed down.
+ */
+class PageRequestCoalescer {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(PageRequestCoalescer.class);
+
+  /**
+   * Loader for a list of pages.
+   */
+  static interface Loader {
+
+    /**
+     * @param pages List of pages.
+     * @throws APIException
+     */
+    public void load(List<Page> pages) throws APIException;
+  }
+
+  /** Maximum number of pages in one batch */
+  private final int maxPages;
+
+  /** Maximum time waited for other pages to join a batch (in milliseconds) */
+  private final long window;
+
+  /** Batches being filled, indexed by key */
+  private final Map<Object, Batch> batches;
+
+  /** Number of threads currently waiting for a page, indexed by key */
+  private final Map<Object, Integer> activeCallers;
+
+  /** Lock */
+  private final Object lock;
+
+  /**
+   * @param maxPages Maximum number of pages in one batch.
+   * @param window Maximum time waited for other pages to join a batch (in milliseconds).
+   */
+  PageRequestCoalescer(int maxPages, long window) {
+    this.maxPages = maxPages;
+    this.window = window;
+    this.batches = new HashMap<Object, Batch>();
+    this.activeCallers = new HashMap<Object, Integer>();
+    this.lock = new Object();
+  }
+
+  /**
+   * Load a page, possibly in the same request as pages loaded by other threads.
+   * 
+   * @param key Key identifying the kind of request (pages with the same key can be coalesced).
+   * @param page Page.
+   * @param loader Loader used if the current thread sends the request.
+   * @throws APIException
+   */
+  void load(Object key, Page page, Loader loader) throws APIException {
+    Batch batch = null;
+    boolean leader = false;
+    synchronized (lock) {
+      updateActiveCallers(key, 1);
+      batch = batches.get(key);
+      if (batch == null) {
+        batch = new Batch();
+        batches.put(key, batch);
+        leader = true;
+      }
+      if (!batch.pageSet.containsKey(page)) {
+        batch.pageSet.put(page, Boolean.TRUE);
+        batch.pages.add(page);
+      }
+      if (batch.pages.size() >= maxPages) {
+        batches.remove(key);
+        lock.notifyAll();
+      }
+    }
+    try {
+      if (leader) {
+        runBatch(key, batch, loader);
+      } else {
+        waitBatch(batch);
+      }
+    } finally {
+      synchronized (lock) {
+        updateActiveCallers(key, -1);
+      }
+    }
+    if (batch.error != null) {
+      if (batch.pages.size() > 1) {
+        // Retry alone, so that a failure isn't caused by an other page
+        List<Page> single = new ArrayList<Page>(1);
+        single.add(page);
+        loader.load(single);
+        return;
+      }
+      throw batch.error;
+    }
+  }
+
+  /**
+   * Update the number of threads waiting for a page (lock must be held).
+   * 
+   * @param key Key identifying the kind of request.
+   * @param delta Variation of the number of threads.
+   */
+  private void updateActiveCallers(Object key, int delta) {
+    Integer count = activeCallers.get(key);
+    int newCount = ((count != null) ? count.intValue() : 0) + delta;
+    if (newCount > 0) {
+      activeCallers.put(key, Integer.valueOf(newCount));
+    } else {
+      activeCallers.remove(key);
+    }
+  }
+
+  /**
+   * @param key Key identifying the kind of request.
+   * @return Number of threads waiting for a page (lock must be held).
+   */
+  private int getActiveCallers(Object key) {
+    Integer count = activeCallers.get(key);
+    return (count != null) ? count.intValue() : 0;
+  }
+
+  /**
+   * Wait for other pages to join the batch and send the request.
+   * 
+   * @param key Key of the batch.
+   * @param batch Batch.
+   * @param loader Loader.
+   */
+  private void runBatch(Object key, Batch batch, Loader loader) {
+    List<Page> pages = null;
+    synchronized (lock) {
+      long limit = System.currentTimeMillis() + window;
+      while ((batches.get(key) == batch) && (getActiveCallers(key) > 1)) {
+        long remaining = limit - System.currentTimeMillis();
+        if (remaining <= 0) {
+          break;
+        }
+        try {
+          lock.wait(remaining);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+      if (batches.get(key) == batch) {
+        batches.remove(key);
+      }
+      pages = new ArrayList<Page>(batch.pages);
+    }
+    APIException error = null;
+    try {
+      loader.load(pages);
+    } catch (APIException e) {
+      if (pages.size() > 1) {
+        log.warn("Error loading " + pages.size() + " pages together, retrying separately");
+      }
+      error = e;
+    } catch (RuntimeException e) {
+      error = new APIException("Error loading pages", e);
+    }
+    synchronized (lock) {
+      batch.error = error;
+      batch.done = true;
+      lock.notifyAll();
+    }
+  }
+
+  /**
+   * Wait for a batch to be sent.
+   * 
+   * @param batch Batch.
+   * @throws APIException
+   */
+  private void waitBatch(Batch batch) throws APIException {
+    synchronized (lock) {
+      while (!batch.done) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new APIException("Interrupted while waiting for pages", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Batch of pages requested together.
+   */
+  private static class Batch {
+
+    /** Pages */
+    final List<Page> pages = new ArrayList<Page>();
+
+    /** Pages, indexed by identity (different instances for a title are all loaded) */
+    final Map<Page, Boolean> pageSet = new IdentityHashMap<Page, Boolean>();
+
+    /** True when the request has been sent */
+    boolean done;
+
+    /** Error returned by the request */
+    APIException error;
+  }
+}
@@ -9,19 +9,39 @@ package org.wikipediacleaner.api.impl;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wikipediacleaner.api.API;
+import org.wikipediacleaner.api.RecentChangesFilter;
 import org.wikipediacleaner.api.RecentChangesListener;
+import org.wikipediacleaner.api.RecentChangesSource;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.RecentChange;
 
 
 /**
  * Utility class to manage Recent changes.
+ * 
+ * Recent changes are retrieved from a source (the API by default) by a dedicated thread.
+ * Each listener has its own filter and its own bounded queue, emptied by a
+ * dedicated thread, so that a slow listener doesn't delay the other ones.
  */
 class RecentChangesManager {
 
+  /** Logs */
+  private final static Log log = LogFactory.getLog(RecentChangesManager.class);
+
+  /**
+   * Maximum number of recent changes waiting for a listener.
+   */
+  private final static int MAX_QUEUE_SIZE = 10000;
+
   /**
    * Wiki.
    */
@@ -33,15 +53,25 @@ class RecentChangesManager {
   private final API api;
 
   /**
-   * Listeners.
+   * Subscriptions of the listeners.
    */
-  private final List<RecentChangesListener> listeners = new ArrayList<RecentChangesListener>();
+  private final List<Subscription> subscriptions = new ArrayList<Subscription>();
 
   /**
-   * Runnabel for querying recent changes.
+   * Source of recent changes.
+   */
+  private RecentChangesSource source;
+
+  /**
+   * Runnable for querying recent changes.
    */
   private RecentChangesRunnable runnable;
 
+  /**
+   * Counter for naming threads.
+   */
+  private int threadCount;
+
   /**
    * @param wiki Wiki.
    * @param api API.
@@ -55,10 +85,21 @@ class RecentChangesManager {
    * Adds a <code>RecentChangesListener</code> to the API.
    * 
    * @param listener Recent changes listener.
+   * @param filter Filter on recent changes (null for all recent changes).
    */
-  public void addRecentChangesListener(
-      RecentChangesListener listener) {
-    listeners.add(listener);
+  public synchronized void addRecentChangesListener(
+      RecentChangesListener listener, RecentChangesFilter filter) {
+    if (listener == null) {
+      return;
+    }
+    Subscription subscription = new Subscription(listener, filter);
+    subscriptions.add(subscription);
+    threadCount++;
+    Thread thread = new Thread(
+        subscription,
+        "RecentChanges-" + wiki.getSettings().getCode() + "-" + threadCount);
+    thread.setDaemon(true);
+    thread.start();
     listenersChanged();
   }
 
@@ -67,12 +108,72 @@ class RecentChangesManager {
    * 
    * @param listener Recent changes listener.
    */
-  public void removeRecentChangesListener(
+  public synchronized void removeRecentChangesListener(
       RecentChangesListener listener) {
-    listeners.remove(listener);
+    Iterator<Subscription> itSubscription = subscriptions.iterator();
+    while (itSubscription.hasNext()) {
+      Subscription subscription = itSubscription.next();
+      if (subscription.listener == listener) {
+        subscription.shouldStop();
+        itSubscription.remove();
+      }
+    }
     listenersChanged();
   }
 
+  /**
+   * @param source Source of recent changes (null to query the API).
+   */
+  public synchronized void setSource(RecentChangesSource source) {
+    this.source = source;
+    if (runnable != null) {
+      runnable.shouldStop();
+      runnable = null;
+    }
+    listenersChanged();
+  }
+
+  /**
+   * Invoked when a runnable for querying recent changes has ended.
+   * 
+   * @param ended Runnable that has ended.
+   */
+  synchronized void runnableEnded(RecentChangesRunnable ended) {
+    if (runnable == ended) {
+      runnable = null;
+    }
+  }
+
+  /**
+   * @return Namespaces of interest for all listeners (null for all namespaces).
+   */
+  synchronized Set<Integer> getNamespaces() {
+    Set<Integer> result = new HashSet<Integer>();
+    for (Subscription subscription : subscriptions) {
+      if ((subscription.filter == null) ||
+          (subscription.filter.getNamespaces() == null)) {
+        return null;
+      }
+      result.addAll(subscription.filter.getNamespaces());
+    }
+    return result;
+  }
+
+  /**
+   * @return Types of changes of interest for all listeners (null for all types).
+   */
+  synchronized Set<String> getTypes() {
+    Set<String> result = new HashSet<String>();
+    for (Subscription subscription : subscriptions) {
+      if ((subscription.filter == null) ||
+          (subscription.filter.getTypes() == null)) {
+        return null;
+      }
+      result.addAll(subscription.filter.getTypes());
+    }
+    return result;
+  }
+
   /**
    * Invoked when Recent changes occured.
    * 
@@ -80,8 +181,12 @@ class RecentChangesManager {
    * @param currentTime Current time.
    */
   public void fireRecentChanges(List<RecentChange> rc, Date currentTime) {
-    for (RecentChangesListener listener : listeners) {
-      listener.recentChanges(rc, currentTime);
+    List<Subscription> tmpSubscriptions = null;
+    synchronized (this) {
+      tmpSubscriptions = new ArrayList<Subscription>(subscriptions);
+    }
+    for (Subscription subscription : tmpSubscriptions) {
+      subscription.offer(rc, currentTime);
     }
   }
 
@@ -89,15 +194,126 @@ class RecentChangesManager {
    * Event fired when the list of listeners has changed.
    */
   private void listenersChanged() {
-    if (listeners.isEmpty()) {
+    if (subscriptions.isEmpty()) {
       if (runnable != null) {
         runnable.shouldStop();
+        runnable = null;
       }
     } else {
       if (runnable == null) {
-        runnable = new RecentChangesRunnable(this, wiki, api);
+        RecentChangesSource tmpSource = source;
+        if (tmpSource == null) {
+          tmpSource = new ApiRecentChangesSource(wiki, api);
+        }
+        runnable = new RecentChangesRunnable(this, tmpSource);
         new Thread(runnable, "RecentChanges-" + wiki.getSettings().getCode()).start();
       }
     }
   }
+
+  /**
+   * Subscription of a listener to recent changes.
+   */
+  private static class Subscription implements Runnable {
+
+    /** Listener */
+    final RecentChangesListener listener;
+
+    /** Filter on recent changes */
+    final RecentChangesFilter filter;
+
+    /** Recent changes waiting to be delivered */
+    private final LinkedList<RecentChange> queue;
+
+    /** Current time for the last recent changes */
+    private Date currentTime;
+
+    /** Number of recent changes dropped because the queue was full */
+    private int dropped;
+
+    /** Flag set when it is requested to stop delivering recent changes */
+    private boolean shouldStop;
+
+    /**
+     * @param listener Listener.
+     * @param filter Filter on recent changes.
+     */
+    Subscription(RecentChangesListener listener, RecentChangesFilter filter) {
+      this.listener = listener;
+      this.filter = filter;
+      this.queue = new LinkedList<RecentChange>();
+      this.dropped = 0;
+      this.shouldStop = false;
+    }
+
+    /**
+     * Add recent changes to the queue.
+     * 
+     * @param rc Recent changes.
+     * @param time Current time.
+     */
+    synchronized void offer(List<RecentChange> rc, Date time) {
+      boolean added = false;
+      for (RecentChange change : rc) {
+        if ((filter == null) || filter.accept(change)) {
+          queue.addLast(change);
+          added = true;
+        }
+      }
+      while (queue.size() > MAX_QUEUE_SIZE) {
+        queue.removeFirst();
+        dropped++;
+      }
+      if (added) {
+        currentTime = time;
+        notifyAll();
+      }
+    }
+
+    /**
+     * Stop delivering recent changes.
+     */
+    synchronized void shouldStop() {
+      shouldStop = true;
+      queue.clear();
+      notifyAll();
+    }
+
+    /**
+     * Deliver recent changes to the listener.
+     * 
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+      while (true) {
+        List<RecentChange> rc = null;
+        Date time = null;
+        synchronized (this) {
+          while (!shouldStop && queue.isEmpty()) {
+            try {
+              wait();
+            } catch (InterruptedException e) {
+              return;
+            }
+          }
+          if (shouldStop) {
+            return;
+          }
+          rc = new ArrayList<RecentChange>(queue);
+          queue.clear();
+          time = currentTime;
+          if (dropped > 0) {
+            log.warn("Recent changes dropped for a slow listener: " + dropped);
+            dropped = 0;
+          }
+        }
+        try {
+          listener.recentChanges(rc, time);
+        } catch (RuntimeException e) {
+          log.error("Error delivering recent changes", e);
+        }
+      }
+    }
+  }
 }
@@ -7,42 +7,53 @@
 
 package org.wikipediacleaner.api.impl;
 
-import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
-import org.wikipediacleaner.api.constants.EnumWikipedia;
-import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.RecentChangesSource;
 import org.wikipediacleaner.api.data.RecentChange;
 
 
 /**
  * Runnable for querying recent changes.
+ * 
+ * For sources that have to be polled, the delay between two queries adapts to the activity:
+ * it decreases when many recent changes are retrieved,
+ * and increases when nothing happens or when errors occur.
  */
 class RecentChangesRunnable implements Runnable {
 
   /**
-   * Recent changes manager.
+   * Minimum delay between two queries (in milliseconds).
    */
-  private final RecentChangesManager manager;
+  private final static long MIN_DELAY = 5000;
+
+  /**
+   * Default delay between two queries (in milliseconds).
+   */
+  private final static long DEFAULT_DELAY = 30000;
 
   /**
-   * Wiki.
+   * Maximum delay between two queries (in milliseconds).
    */
-  private final EnumWikipedia wiki;
+  private final static long MAX_DELAY = 120000;
 
   /**
-   * API.
+   * Number of recent changes above which the delay is decreased.
    */
-  private final API api;
+  private final static int BUSY_COUNT = 100;
 
   /**
-   * Start for next recent changes request.
+   * Recent changes manager.
    */
-  private String start;
+  private final RecentChangesManager manager;
+
+  /**
+   * Source of recent changes.
+   */
+  private final RecentChangesSource source;
 
   /**
    * Flag set when it is requested to stop querying for recent changes.
@@ -51,49 +62,96 @@ class RecentChangesRunnable implements Runnable {
 
   /**
    * @param manager Recent changes manager.
-   * @param wiki Wiki.
-   * @param api API.
+   * @param source Source of recent changes.
    */
   public RecentChangesRunnable(
       RecentChangesManager manager,
-      EnumWikipedia wiki, API api) {
+      RecentChangesSource source) {
     this.manager = manager;
-    this.wiki = wiki;
-    this.api = api;
+    this.source = source;
   }
 
   /**
-   * Regularly query the API for recent changes.
+   * Regularly query the source for recent changes.
    * 
    * @see java.lang.Runnable#run()
    */
   @Override
   public void run() {
-    while (!shouldStop) {
+    try {
+      query();
+    } finally {
+      manager.runnableEnded(this);
+    }
+  }
+
+  /**
+   * Query the source for recent changes until stopped or finished.
+   */
+  private void query() {
+    long delay = DEFAULT_DELAY;
+    while (!isStopped()) {
+      boolean error = false;
       try {
         List<RecentChange> recentChanges = new ArrayList<RecentChange>();
-        start = api.getRecentChanges(wiki, start, recentChanges);
-        if (!recentChanges.isEmpty()) {
-          Date currentTime = DataManager.convertIso8601DateTime(start);
+        Date currentTime = source.getRecentChanges(
+            manager.getNamespaces(), manager.getTypes(), recentChanges);
+        if (!recentChanges.isEmpty() && (currentTime != null)) {
           manager.fireRecentChanges(recentChanges, currentTime);
         }
+        delay = computeDelay(delay, recentChanges.size());
       } catch (APIException e) {
-        // Nothing to do.
-      } catch (ParseException e) {
-        // Nothing to do.
+        delay = MAX_DELAY;
+        error = true;
       }
-      try {
-        Thread.sleep(30000);
-      } catch (InterruptedException e) {
-        // Nothing to do.
+      if (source.isFinished()) {
+        return;
+      }
+      if (source.isStreaming() && !error) {
+        continue;
+      }
+      synchronized (this) {
+        if (!shouldStop) {
+          try {
+            wait(delay);
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
       }
     }
   }
 
+  /**
+   * @param delay Current delay between two queries.
+   * @param count Number of recent changes retrieved by the last query.
+   * @return Delay before the next query.
+   */
+  private static long computeDelay(long delay, int count) {
+    if (count >= BUSY_COUNT) {
+      return Math.max(MIN_DELAY, delay / 2);
+    }
+    if (count == 0) {
+      return Math.min(MAX_DELAY, delay * 3 / 2);
+    }
+    if (delay > DEFAULT_DELAY) {
+      return Math.max(DEFAULT_DELAY, delay / 2);
+    }
+    return delay;
+  }
+
+  /**
+   * @return True if it is requested to stop querying for recent changes.
+   */
+  private synchronized boolean isStopped() {
+    return shouldStop;
+  }
+
   /**
    * Called to stop querying for recent changes.
    */
-  public void shouldStop() {
+  public synchronized void shouldStop() {
     shouldStop = true;
+    notifyAll();
   }
 }
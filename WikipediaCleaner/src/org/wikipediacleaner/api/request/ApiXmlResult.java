@@ -296,19 +296,65 @@ public abstract class ApiXmlResult extends BasicApiResult {
     if (pageNode == null) {
       return null;
     }
-    String title = pageNode.getAttributeValue("title");
+    Integer pageId = getPageId(pageNode);
+    Page page = DataManager.getPage(
+        wiki, pageNode.getAttributeValue("title"), pageId,
+        pageNode.getAttributeValue("lastrevid"), knownPages);
+    updatePage(page, pageNode, pageId, useDisambig);
+    return page;
+  }
+
+  /**
+   * Get a page corresponding to a page node.
+   * 
+   * @param wiki Wiki.
+   * @param pageNode Page node.
+   * @param knownPages Already known pages, indexed by normalized title.
+   * @param useDisambig True if disambiguation property should be used.
+   * @return Page.
+   */
+  protected static Page getPage(
+      EnumWikipedia wiki,
+      Element pageNode, Map<String, List<Page>> knownPages,
+      boolean useDisambig) {
+    if (pageNode == null) {
+      return null;
+    }
+    Integer pageId = getPageId(pageNode);
+    Page page = DataManager.getIndexedPage(
+        wiki, pageNode.getAttributeValue("title"), pageId,
+        pageNode.getAttributeValue("lastrevid"), knownPages);
+    updatePage(page, pageNode, pageId, useDisambig);
+    return page;
+  }
+
+  /**
+   * @param pageNode Page node.
+   * @return Page id.
+   */
+  private static Integer getPageId(Element pageNode) {
     Attribute pageIdAttr = pageNode.getAttribute("pageid");
-    Integer pageId = null;
     if (pageIdAttr != null) {
       try {
-        String tmp = pageIdAttr.getValue();
-        pageId = Integer.valueOf(tmp);
+        return Integer.valueOf(pageIdAttr.getValue());
       } catch (NumberFormatException e) {
         //
       }
     }
-    String revisionId = pageNode.getAttributeValue("lastrevid");
-    Page page = DataManager.getPage(wiki, title, pageId, revisionId, knownPages);
+    return null;
+  }
+
+  /**
+   * Update a page with the information of a page node.
+   * 
+   * @param page Page.
+   * @param pageNode Page node.
+   * @param pageId Page id.
+   * @param useDisambig True if disambiguation property should be used.
+   */
+  private static void updatePage(
+      Page page, Element pageNode, Integer pageId,
+      boolean useDisambig) {
     page.setNamespace(pageNode.getAttributeValue("ns"));
     if (pageNode.getAttribute("missing") != null) {
       page.setExisting(Boolean.FALSE);
@@ -323,7 +369,6 @@ public abstract class ApiXmlResult extends BasicApiResult {
       boolean dabPage = (pageProps != null) && (pageProps.getAttribute("disambiguation") != null);
       page.setDisambiguationPage(Boolean.valueOf(dabPage));
     }
-    return page;
   }
 
   /**
@@ -8,16 +8,22 @@
 package org.wikipediacleaner.api.request.query.list;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.PageListConsumer;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
@@ -165,6 +171,13 @@ public class ApiCategoryMembersRequest extends ApiListRequest {
    */
   public final static String PROPERTY_TYPE_SUBCAT = "subcat";
 
+  /**
+   * Boundaries between the ranges of sort key prefixes retrieved in parallel.
+   */
+  private final static String[] SORTKEY_BOUNDARIES = {
+    "D", "G", "K", "N", "R", "U"
+  };
+
   // ==========================================================================
   // Request management
   // ==========================================================================
@@ -183,38 +196,80 @@ public class ApiCategoryMembersRequest extends ApiListRequest {
   /**
    * Load list of category members.
    * 
+   * Each category analyzed (the category and its sub-categories up to the depth)
+   * receives its own members, limited to the maximum number of results.
+   * 
    * @param category Category for which members are requested.
    * @param depth Depth of lookup for sub-categories.
    * @param limit Flag indicating if the number of results should be limited.
-   * @param max Absolute maximum number of results
+   * @param max Absolute maximum number of results (for each category)
    */
   public void loadCategoryMembers(
       Page category,
       int depth, boolean limit, int max) throws APIException {
+    Map<PageRef, List<PageRef>> membersByCategory = new HashMap<PageRef, List<PageRef>>();
+    PageRef categoryRef = PageRef.create(category);
+    loadCategoryMemberRefs(categoryRef, depth, limit, max, membersByCategory);
+    for (Entry<PageRef, List<PageRef>> entry : membersByCategory.entrySet()) {
+      Page currentCategory = categoryRef.equals(entry.getKey()) ?
+          category : entry.getKey().getPage(getWiki());
+      currentCategory.setRelatedPages(
+          Page.RelatedPages.CATEGORY_MEMBERS,
+          PageRef.getPages(getWiki(), entry.getValue()));
+    }
+  }
+
+  /**
+   * Load list of references to category members.
+   * 
+   * @param category Category for which members are requested.
+   * @param depth Depth of lookup for sub-categories.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param max Absolute maximum number of results (for each category)
+   * @return Sorted list of references to the members of the category and its sub-categories
+   *         (the union of the members of each category, each limited to the maximum).
+   */
+  public List<PageRef> loadCategoryMemberRefs(
+      Page category,
+      int depth, boolean limit, int max) throws APIException {
+    Map<PageRef, List<PageRef>> membersByCategory = new HashMap<PageRef, List<PageRef>>();
+    loadCategoryMemberRefs(PageRef.create(category), depth, limit, max, membersByCategory);
+    Set<PageRef> members = new HashSet<PageRef>();
+    for (List<PageRef> categoryMembers : membersByCategory.values()) {
+      members.addAll(categoryMembers);
+    }
+    List<PageRef> list = new ArrayList<PageRef>(members);
+    Collections.sort(list);
+    return list;
+  }
+
+  /**
+   * Load references to category members, for each category.
+   * 
+   * @param category Category for which members are requested.
+   * @param depth Depth of lookup for sub-categories.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param max Absolute maximum number of results (for each category)
+   * @param membersByCategory Sorted members of each category analyzed.
+   */
+  private void loadCategoryMemberRefs(
+      PageRef category,
+      int depth, boolean limit, int max,
+      Map<PageRef, List<PageRef>> membersByCategory) throws APIException {
 
     List<String> categoriesAnalyzed = new ArrayList<String>();
-    Map<Page, Integer> categories = new HashMap<Page, Integer>();
+    Map<PageRef, Integer> categories = new HashMap<PageRef, Integer>();
     categories.put(category, Integer.valueOf(0));
     int maxSize = getMaxSize(limit, ConfigurationValueInteger.MAX_CATEGORY_MEMBERS);
     maxSize = Math.min(maxSize, max);
     while (!categories.isEmpty()) {
 
       // Find which category to analyze
-      Entry<Page, Integer> entry = categories.entrySet().iterator().next();
-      Page currentCategory = entry.getKey();
+      Entry<PageRef, Integer> entry = categories.entrySet().iterator().next();
+      PageRef currentCategory = entry.getKey();
       categories.remove(currentCategory);
       int currentDepth = entry.getValue().intValue();
-      String categoryName = currentCategory.getTitle();
-      int colonIndex = categoryName.indexOf(':');
-      if (colonIndex < 0) {
-        categoryName = getWiki().getWikiConfiguration().getPageTitle(
-            Namespace.CATEGORY, categoryName);
-      } else {
-        Namespace namespaceCategory = getWiki().getWikiConfiguration().getNamespace(Namespace.CATEGORY);
-        if (!namespaceCategory.isPossibleName(categoryName.substring(0, colonIndex))) {
-          categoryName = getWiki().getWikiConfiguration().getPageTitle(Namespace.CATEGORY, categoryName);
-        }
-      }
+      String categoryName = getCategoryTitle(currentCategory.getTitle());
       boolean shouldAnalyze = true;
       if (currentDepth > depth) {
         shouldAnalyze = false;
@@ -231,15 +286,77 @@ public class ApiCategoryMembersRequest extends ApiListRequest {
         properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
         properties.put(PROPERTY_LIMIT, LIMIT_MAX);
         properties.put(PROPERTY_TITLE, categoryName);
-        List<Page> list = new ArrayList<Page>();
+        Set<PageRef> members = new LinkedHashSet<PageRef>();
         while (result.executeCategoryMembers(
-            properties, list, categories, currentDepth) &&
-            (list.size() < maxSize)) {
+            properties, members, categories, currentDepth) &&
+            (members.size() < maxSize)) {
           //
         }
+        List<PageRef> list = new ArrayList<PageRef>(members);
         Collections.sort(list);
-        currentCategory.setRelatedPages(Page.RelatedPages.CATEGORY_MEMBERS, list);
+        membersByCategory.put(currentCategory, list);
       }
     }
   }
+
+  /**
+   * Load members of categories (without sub-categories).
+   * 
+   * Each category is split in ranges of sort keys,
+   * the ranges being retrieved in parallel.
+   * This is intended for large categories.
+   * The number of results is limited for each category,
+   * keeping the first members in sort key order.
+   * 
+   * @param categories Categories for which members are requested.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param consumer Consumer receiving the members as they are retrieved.
+   */
+  public void loadCategoryMembers(
+      Collection<Page> categories,
+      boolean limit, PageListConsumer consumer) throws APIException {
+    List<List<Map<String, String>>> groups = new ArrayList<List<Map<String, String>>>();
+    for (Page category : categories) {
+      Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
+      properties.put(PROPERTY_LIST, PROPERTY_LIST_CATEGORYMEMBERS);
+      properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
+      properties.put(PROPERTY_LIMIT, LIMIT_MAX);
+      properties.put(PROPERTY_SORT, PROPERTY_SORT_SORTKEY);
+      properties.put(PROPERTY_TITLE, getCategoryTitle(category.getTitle()));
+      groups.add(ApiListExecutor.splitByRange(
+          Collections.singletonList(properties),
+          PROPERTY_STARTSORTKEYPREFIX, PROPERTY_ENDSORTKEYPREFIX,
+          SORTKEY_BOUNDARIES));
+    }
+    int maxSize = getMaxSize(limit, ConfigurationValueInteger.MAX_CATEGORY_MEMBERS);
+    ApiListExecutor executor = new ApiListExecutor(
+        new ApiListExecutor.Query() {
+
+          @Override
+          public boolean execute(
+              Map<String, String> properties,
+              List<PageRef> list) throws APIException {
+            return result.executeCategoryMembers(
+                properties, list, new HashMap<PageRef, Integer>(), 0);
+          }
+        },
+        consumer, maxSize);
+    executor.execute(groups);
+  }
+
+  /**
+   * @param title Title of a category, with or without the namespace.
+   * @return Full title of the category.
+   */
+  private String getCategoryTitle(String title) {
+    int colonIndex = title.indexOf(':');
+    if (colonIndex < 0) {
+      return getWiki().getWikiConfiguration().getPageTitle(Namespace.CATEGORY, title);
+    }
+    Namespace namespaceCategory = getWiki().getWikiConfiguration().getNamespace(Namespace.CATEGORY);
+    if (!namespaceCategory.isPossibleName(title.substring(0, colonIndex))) {
+      return getWiki().getWikiConfiguration().getPageTitle(Namespace.CATEGORY, title);
+    }
+    return title;
+  }
 }
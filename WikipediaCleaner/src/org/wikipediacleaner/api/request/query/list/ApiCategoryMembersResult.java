@@ -7,11 +7,11 @@
 
 package org.wikipediacleaner.api.request.query.list;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
-import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.api.request.ApiResult;
 
 
@@ -32,6 +32,6 @@ public interface ApiCategoryMembersResult extends ApiResult {
    */
   public boolean executeCategoryMembers(
       Map<String, String> properties,
-      List<Page> list,
-      Map<Page, Integer> categories, int depth) throws APIException;
+      Collection<PageRef> list,
+      Map<PageRef, Integer> categories, int depth) throws APIException;
 }
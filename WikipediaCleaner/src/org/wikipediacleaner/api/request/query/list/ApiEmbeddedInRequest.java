@@ -8,13 +8,16 @@
 package org.wikipediacleaner.api.request.query.list;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.PageListConsumer;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
@@ -87,21 +90,75 @@ public class ApiEmbeddedInRequest extends ApiListRequest {
   public void loadEmbeddedIn(
       Page page, List<Integer> namespaces,
       boolean limit) throws APIException {
-    Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
-    properties.put(PROPERTY_LIST, PROPERTY_LIST_EMBEDDEDIN);
-    properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
-    properties.put(PROPERTY_LIMIT, LIMIT_MAX);
-    if ((namespaces != null) && (namespaces.size() > 0)) {
-      properties.put(PROPERTY_NAMESPACE, constructList(namespaces));
+    List<PageRef> list = loadEmbeddedInRefs(page, namespaces, limit);
+    page.setRelatedPages(
+        Page.RelatedPages.EMBEDDED_IN,
+        PageRef.getPages(getWiki(), list));
+  }
+
+  /**
+   * Load list of references to pages embedding a page.
+   * 
+   * @param page Page for list of embedding pages is requested.
+   * @param namespaces List of name spaces to restrict result.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @return Sorted list of references to the embedding pages.
+   */
+  public List<PageRef> loadEmbeddedInRefs(
+      Page page, List<Integer> namespaces,
+      boolean limit) throws APIException {
+    final List<PageRef> list = new ArrayList<PageRef>();
+    loadEmbeddedIn(
+        Collections.singletonList(page), namespaces, limit,
+        new PageListConsumer() {
+
+          @Override
+          public boolean pagesRetrieved(List<PageRef> pages) {
+            list.addAll(pages);
+            return true;
+          }
+        });
+    Collections.sort(list);
+    return list;
+  }
+
+  /**
+   * Load lists of pages embedding some pages.
+   * 
+   * One chain of requests is executed for each page and each name space,
+   * chains being executed in parallel.
+   * The number of results is limited for each page.
+   * 
+   * @param pages Pages for which list of embedding pages is requested.
+   * @param namespaces List of name spaces to restrict result.
+   * @param limit Flag indicating if the number of results should be limited.
+   * @param consumer Consumer receiving the embedding pages as they are retrieved.
+   */
+  public void loadEmbeddedIn(
+      Collection<Page> pages, List<Integer> namespaces,
+      boolean limit, PageListConsumer consumer) throws APIException {
+    List<List<Map<String, String>>> groups = new ArrayList<List<Map<String, String>>>();
+    for (Page page : pages) {
+      Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
+      properties.put(PROPERTY_LIST, PROPERTY_LIST_EMBEDDEDIN);
+      properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
+      properties.put(PROPERTY_LIMIT, LIMIT_MAX);
+      properties.put(PROPERTY_TITLE, page.getTitle());
+      groups.add(ApiListExecutor.splitByNamespace(
+          Collections.singletonList(properties), PROPERTY_NAMESPACE, namespaces));
     }
-    properties.put(PROPERTY_TITLE, page.getTitle());
-    List<Page> list = new ArrayList<Page>();
     int maxSize = getMaxSize(limit, ConfigurationValueInteger.MAX_EMBEDDED_IN);
-    while (result.executeEmbeddedIn(properties, list) &&
-           (list.size() < maxSize)) {
-      //
-    }
-    Collections.sort(list);
-    page.setRelatedPages(Page.RelatedPages.EMBEDDED_IN, list);
+    ApiListExecutor executor = new ApiListExecutor(
+        new ApiListExecutor.Query() {
+
+          @Override
+          public boolean execute(
+              Map<String, String> properties,
+              List<PageRef> list) throws APIException {
+            return result.executeEmbeddedIn(properties, list);
+          }
+        },
+        consumer, maxSize);
+    executor.execute(groups);
   }
 }
@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
-import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.api.request.ApiResult;
 
 
@@ -30,5 +30,5 @@ public interface ApiEmbeddedInResult extends ApiResult {
    */
   public boolean executeEmbeddedIn(
       Map<String, String> properties,
-      List<Page> list) throws APIException;
+      List<PageRef> list) throws APIException;
 }
@@ -0,0 +1,377 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.request.query.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.APIFactory;
+import org.wikipediacleaner.api.PageListConsumer;
+import org.wikipediacleaner.api.data.PageRef;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
+
+
+/**
+ * Execution of list queries split in several partitions.
+ *
+ * Each partition (a namespace, a range of titles, ...) follows its own chain
+ * of continuation requests, partitions being executed on parallel connections.
+ * Partitions are organized in groups (one for each page or category requested):
+ * the maximum number of results applies to each group, and the results of a group
+ * are sent to the consumer in the order of its partitions.
+ * Results of the first unfinished partition of a group are sent as soon as they
+ * are retrieved, results of the following partitions are kept until it finishes.
+ */
+public class ApiListExecutor {
+
+  /** Maximum number of partitions executed in parallel (one connection each) */
+  private final static int MAX_THREADS = APIFactory.MAX_CONNECTIONS_PER_HOST;
+
+  /** Executor shared by all list queries */
+  private static ExecutorService executor;
+
+  /**
+   * @return Executor for list queries.
+   */
+  private static synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      Configuration config = Configuration.getConfiguration();
+      int nThreads = Math.min(
+          MAX_THREADS,
+          Math.max(1, config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD)));
+      executor = Executors.newFixedThreadPool(nThreads, new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "List query");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+
+  /**
+   * A list query, executing one request of the chain of continuation requests.
+   */
+  public static interface Query {
+
+    /**
+     * @param properties Properties defining the request (updated for the continuation).
+     * @param list List to be filled with the pages.
+     * @return True if the request should be continued.
+     * @throws APIException Error executing the request.
+     */
+    public boolean execute(
+        Map<String, String> properties,
+        List<PageRef> list) throws APIException;
+  }
+
+  /** Query */
+  private final Query query;
+
+  /** Consumer of the results */
+  private final PageListConsumer consumer;
+
+  /** Maximum number of results for each group */
+  private final int maxSize;
+
+  /** True if the execution should stop */
+  private volatile boolean stop;
+
+  /**
+   * @param query Query.
+   * @param consumer Consumer of the results.
+   * @param maxSize Maximum number of results for each group.
+   */
+  public ApiListExecutor(Query query, PageListConsumer consumer, int maxSize) {
+    this.query = query;
+    this.consumer = consumer;
+    this.maxSize = maxSize;
+    this.stop = false;
+  }
+
+  /**
+   * Execute the query on every partition.
+   * 
+   * @param groups Groups of partitions, each partition being defined by its properties.
+   * @throws APIException Error executing a request.
+   */
+  public void execute(List<List<Map<String, String>>> groups) throws APIException {
+    if (groups == null) {
+      return;
+    }
+    List<Partition> partitions = new ArrayList<Partition>();
+    for (List<Map<String, String>> groupPartitions : groups) {
+      if ((groupPartitions != null) && !groupPartitions.isEmpty()) {
+        Group group = new Group(groupPartitions.size());
+        for (int index = 0; index < groupPartitions.size(); index++) {
+          partitions.add(new Partition(group, index, groupPartitions.get(index)));
+        }
+      }
+    }
+    if (partitions.isEmpty()) {
+      return;
+    }
+
+    // Execute a single partition in the current thread
+    if (partitions.size() == 1) {
+      executePartition(partitions.get(0));
+      return;
+    }
+
+    // Execute partitions in parallel
+    List<Future<Void>> futures = new ArrayList<Future<Void>>(partitions.size());
+    for (final Partition partition : partitions) {
+      futures.add(getExecutor().submit(new Callable<Void>() {
+
+        @Override
+        public Void call() throws APIException {
+          executePartition(partition);
+          return null;
+        }
+      }));
+    }
+    APIException error = null;
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        stop = true;
+        if (error == null) {
+          error = new APIException("Interrupted while retrieving list", e);
+        }
+      } catch (ExecutionException e) {
+        stop = true;
+        if (error == null) {
+          if (e.getCause() instanceof APIException) {
+            error = (APIException) e.getCause();
+          } else {
+            error = new APIException("Error retrieving list", e.getCause());
+          }
+        }
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * Execute the chain of continuation requests for a partition.
+   * 
+   * @param partition Partition.
+   * @throws APIException Error executing a request.
+   */
+  void executePartition(Partition partition) throws APIException {
+    Map<String, String> properties = new HashMap<String, String>(partition.properties);
+    boolean shouldContinue = isNeeded(partition);
+    while (shouldContinue) {
+      List<PageRef> list = new ArrayList<PageRef>();
+      boolean finished = !query.execute(properties, list);
+      shouldContinue = deliver(partition, list, finished);
+    }
+  }
+
+  /**
+   * @param partition Partition.
+   * @return True if results are still needed for the partition.
+   */
+  private synchronized boolean isNeeded(Partition partition) {
+    return !stop && (partition.group.count < maxSize);
+  }
+
+  /**
+   * Send results of a partition to the consumer, or keep them until
+   * the previous partitions of the group are finished.
+   * 
+   * @param partition Partition.
+   * @param list Results.
+   * @param finished True if the partition has no more results.
+   * @return True if the execution of the partition should continue.
+   */
+  private synchronized boolean deliver(Partition partition, List<PageRef> list, boolean finished) {
+    Group group = partition.group;
+    if (stop || (group.count >= maxSize)) {
+      return false;
+    }
+    if (partition.index == group.current) {
+      send(group, list);
+    } else {
+      List<PageRef> buffer = group.buffers.get(partition.index);
+      if (buffer == null) {
+        buffer = new ArrayList<PageRef>(list);
+        group.buffers.set(partition.index, buffer);
+      } else {
+        buffer.addAll(list);
+      }
+
+      // Previous partitions can only reduce the number of results still needed
+      if (buffer.size() >= maxSize - group.count) {
+        finished = true;
+      }
+    }
+    if (finished) {
+      group.finished[partition.index] = true;
+      while (!stop &&
+             (group.current < group.finished.length) &&
+             group.finished[group.current]) {
+        group.current++;
+        if (group.current < group.finished.length) {
+          List<PageRef> buffer = group.buffers.set(group.current, null);
+          if (buffer != null) {
+            send(group, buffer);
+          }
+        }
+      }
+    }
+    return !finished && !stop && (group.count < maxSize);
+  }
+
+  /**
+   * Send results to the consumer, limited to the maximum number of results of the group.
+   * Must be called with the lock on the executor.
+   * 
+   * @param group Group.
+   * @param list Results.
+   */
+  private void send(Group group, List<PageRef> list) {
+    if (group.count + list.size() > maxSize) {
+      list = list.subList(0, maxSize - group.count);
+    }
+    group.count += list.size();
+    if (!list.isEmpty() && !consumer.pagesRetrieved(list)) {
+      stop = true;
+    }
+  }
+
+  /**
+   * Split partitions by namespace.
+   * 
+   * @param partitions Partitions.
+   * @param property Property for the namespace.
+   * @param namespaces Namespaces (one partition is created for each namespace).
+   * @return Partitions split by namespace.
+   */
+  public static List<Map<String, String>> splitByNamespace(
+      List<Map<String, String>> partitions,
+      String property, List<Integer> namespaces) {
+    if ((namespaces == null) || namespaces.isEmpty()) {
+      return partitions;
+    }
+    List<Map<String, String>> result = new ArrayList<Map<String, String>>(
+        partitions.size() * namespaces.size());
+    for (Map<String, String> partition : partitions) {
+      for (Integer namespace : namespaces) {
+        Map<String, String> newPartition = new HashMap<String, String>(partition);
+        newPartition.put(property, namespace.toString());
+        result.add(newPartition);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Split partitions by ranges of keys.
+   * 
+   * @param partitions Partitions.
+   * @param startProperty Property for the start of the range (included).
+   * @param endProperty Property for the end of the range (excluded).
+   * @param boundaries Ordered boundaries between ranges.
+   * @return Partitions split by ranges.
+   */
+  public static List<Map<String, String>> splitByRange(
+      List<Map<String, String>> partitions,
+      String startProperty, String endProperty,
+      String[] boundaries) {
+    if ((boundaries == null) || (boundaries.length == 0)) {
+      return partitions;
+    }
+    List<Map<String, String>> result = new ArrayList<Map<String, String>>(
+        partitions.size() * (boundaries.length + 1));
+    for (Map<String, String> partition : partitions) {
+      for (int i = 0; i <= boundaries.length; i++) {
+        Map<String, String> newPartition = new HashMap<String, String>(partition);
+        if (i > 0) {
+          newPartition.put(startProperty, boundaries[i - 1]);
+        }
+        if (i < boundaries.length) {
+          newPartition.put(endProperty, boundaries[i]);
+        }
+        result.add(newPartition);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Group of partitions sharing the maximum number of results.
+   */
+  private static class Group {
+
+    /** Number of results sent to the consumer */
+    int count;
+
+    /** Index of the partition whose results are sent directly */
+    int current;
+
+    /** Results kept for the following partitions */
+    final List<List<PageRef>> buffers;
+
+    /** Partitions without more results */
+    final boolean[] finished;
+
+    /**
+     * @param size Number of partitions.
+     */
+    Group(int size) {
+      this.count = 0;
+      this.current = 0;
+      this.buffers = new ArrayList<List<PageRef>>(Collections.<List<PageRef>>nCopies(size, null));
+      this.finished = new boolean[size];
+    }
+  }
+
+  /**
+   * Partition of a list query.
+   */
+  private static class Partition {
+
+    /** Group of the partition */
+    final Group group;
+
+    /** Index of the partition in its group */
+    final int index;
+
+    /** Properties defining the partition */
+    final Map<String, String> properties;
+
+    /**
+     * @param group Group of the partition.
+     * @param index Index of the partition in its group.
+     * @param properties Properties defining the partition.
+     */
+    Partition(Group group, int index, Map<String, String> properties) {
+      this.group = group;
+      this.index = index;
+      this.properties = properties;
+    }
+  }
+}
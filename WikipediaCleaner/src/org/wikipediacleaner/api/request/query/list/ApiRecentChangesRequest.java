@@ -7,6 +7,7 @@
 
 package org.wikipediacleaner.api.request.query.list;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -232,6 +233,22 @@ public class ApiRecentChangesRequest extends ApiListRequest {
    * @return The timestamp to use as a starting point for the next call.
    */
   public String loadRecentChanges(String start, List<RecentChange> recentChanges) throws APIException {
+    return loadRecentChanges(start, null, null, recentChanges);
+  }
+
+  /**
+   * Load list of recent changes.
+   * 
+   * @param start The timestamp to start listing from.
+   * @param namespaces Namespaces of interest (null for all namespaces).
+   * @param types Types of changes of interest (null for all types).
+   * @param recentChanges The list of recent changes to be filled.
+   * @return The timestamp to use as a starting point for the next call.
+   */
+  public String loadRecentChanges(
+      String start,
+      Collection<Integer> namespaces, Collection<String> types,
+      List<RecentChange> recentChanges) throws APIException {
     Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
     properties.put(
         PROPERTY_LIST,
@@ -249,6 +266,26 @@ public class ApiRecentChangesRequest extends ApiListRequest {
     if (start != null) {
       properties.put(PROPERTY_END, start);
     }
+    if ((namespaces != null) && !namespaces.isEmpty()) {
+      StringBuilder buffer = new StringBuilder();
+      for (Integer namespace : namespaces) {
+        if (buffer.length() > 0) {
+          buffer.append('|');
+        }
+        buffer.append(namespace);
+      }
+      properties.put(PROPERTY_NAMESPACE, buffer.toString());
+    }
+    if ((types != null) && !types.isEmpty()) {
+      StringBuilder buffer = new StringBuilder();
+      for (String type : types) {
+        if (buffer.length() > 0) {
+          buffer.append('|');
+        }
+        buffer.append(type);
+      }
+      properties.put(PROPERTY_TYPE, buffer.toString());
+    }
     properties.put(PROPERTY_LIMIT, LIMIT_MAX);
     String nextStart = result.executeRecentChanges(properties, recentChanges);
     return nextStart;
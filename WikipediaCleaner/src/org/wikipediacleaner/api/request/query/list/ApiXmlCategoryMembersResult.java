@@ -7,6 +7,7 @@
 
 package org.wikipediacleaner.api.request.query.list;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -19,9 +20,8 @@ import org.jdom2.xpath.XPathExpression;
 import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
-import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Namespace;
-import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.api.request.ApiRequest;
 import org.wikipediacleaner.api.request.ApiXmlResult;
 
@@ -54,8 +54,8 @@ public class ApiXmlCategoryMembersResult extends ApiXmlResult implements ApiCate
   @Override
   public boolean executeCategoryMembers(
       Map<String, String> properties,
-      List<Page> list,
-      Map<Page, Integer> categories, int depth) throws APIException {
+      Collection<PageRef> list,
+      Map<PageRef, Integer> categories, int depth) throws APIException {
     try {
       Element root = getRoot(properties, ApiRequest.MAX_ATTEMPTS);
 
@@ -66,17 +66,15 @@ public class ApiXmlCategoryMembersResult extends ApiXmlResult implements ApiCate
       Iterator<Element> iter = results.iterator();
       while (iter.hasNext()) {
         Element currentNode = iter.next();
-        Page page = DataManager.getPage(
-            getWiki(), currentNode.getAttributeValue("title"), null, null, null);
-        page.setNamespace(currentNode.getAttributeValue("ns"));
-        page.setPageId(currentNode.getAttributeValue("pageid"));
+        PageRef page = PageRef.create(
+            currentNode.getAttributeValue("title"),
+            currentNode.getAttributeValue("ns"),
+            currentNode.getAttributeValue("pageid"));
         if ((page.getNamespace() != null) &&
             (page.getNamespace().intValue() == Namespace.CATEGORY)) {
           categories.put(page, depth + 1);
         } else {
-          if (!list.contains(page)) {
-            list.add(page);
-          }
+          list.add(page);
         }
       }
 
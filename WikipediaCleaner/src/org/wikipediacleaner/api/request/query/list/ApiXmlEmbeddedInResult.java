@@ -19,8 +19,7 @@ import org.jdom2.xpath.XPathExpression;
 import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
-import org.wikipediacleaner.api.data.DataManager;
-import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageRef;
 import org.wikipediacleaner.api.request.ApiRequest;
 import org.wikipediacleaner.api.request.ApiXmlResult;
 
@@ -51,7 +50,7 @@ public class ApiXmlEmbeddedInResult extends ApiXmlResult implements ApiEmbeddedI
   @Override
   public boolean executeEmbeddedIn(
       Map<String, String> properties,
-      List<Page> list) throws APIException {
+      List<PageRef> list) throws APIException {
     try {
       Element root = getRoot(properties, ApiRequest.MAX_ATTEMPTS);
 
@@ -62,11 +61,10 @@ public class ApiXmlEmbeddedInResult extends ApiXmlResult implements ApiEmbeddedI
       Iterator<Element> iter = results.iterator();
       while (iter.hasNext()) {
         Element currentNode = iter.next();
-        Page page = DataManager.getPage(
-            getWiki(), currentNode.getAttributeValue("title"), null, null, null);
-        page.setNamespace(currentNode.getAttributeValue("ns"));
-        page.setPageId(currentNode.getAttributeValue("pageid"));
-        list.add(page);
+        list.add(PageRef.create(
+            currentNode.getAttributeValue("title"),
+            currentNode.getAttributeValue("ns"),
+            currentNode.getAttributeValue("pageid")));
       }
 
       // Retrieve continue
@@ -0,0 +1,65 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.request.query.list;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.input.JDOMParseException;
+import org.jdom2.input.SAXBuilder;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+
+
+/**
+ * MediaWiki API XML recent changes results read from a local file.
+ * 
+ * Useful for replaying recent changes without any access to the wiki.
+ */
+public class ApiXmlFileRecentChangesResult extends ApiXmlRecentChangesResult {
+
+  /** File containing the answer of the API for recent changes */
+  private final File file;
+
+  /**
+   * @param wiki Wiki.
+   * @param file File containing the answer of the API for recent changes.
+   */
+  public ApiXmlFileRecentChangesResult(EnumWikipedia wiki, File file) {
+    super(wiki, null);
+    this.file = file;
+  }
+
+  /**
+   * Read the answer from the file.
+   *
+   * @param properties Properties defining the request.
+   * @param maxTry Maximum number of tries.
+   * @return Answer read from the file.
+   * @throws JDOMParseException
+   * @throws APIException
+   * @see org.wikipediacleaner.api.request.ApiXmlResult#getRoot(java.util.Map, int)
+   */
+  @Override
+  protected Element getRoot(Map<String, String> properties, int maxTry)
+      throws JDOMParseException, APIException {
+    try {
+      SAXBuilder sxb = new SAXBuilder();
+      return sxb.build(file).getRootElement();
+    } catch (JDOMParseException e) {
+      throw e;
+    } catch (JDOMException e) {
+      throw new APIException("Error parsing " + file.getName(), e);
+    } catch (IOException e) {
+      throw new APIException("Error reading " + file.getName(), e);
+    }
+  }
+}
@@ -90,13 +90,13 @@ public class ApiLinksRequest extends ApiPropertiesRequest {
    * 
    * @param page Page for which links are requested.
    * @param namespace Restrict the list to a given namespace.
-   * @param knownPages Already known pages.
+   * @param knownPages Already known pages, indexed by normalized title.
    * @param redirects List of redirects filled by the method.
    * @param disambig True if disambiguation information is requested.
    */
   public void loadLinks(
       Page page, Integer namespace,
-      List<Page> knownPages,
+      Map<String, List<Page>> knownPages,
       List<Page> redirects, boolean disambig) throws APIException {
     Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
     properties.put(PROPERTY_GENERATOR, PROPERTY_PROP_LINKS);
@@ -124,4 +124,28 @@ public class ApiLinksRequest extends ApiPropertiesRequest {
     }
     page.setLinks(links);
   }
+
+  /**
+   * Load list of links of several pages.
+   * 
+   * @param pages Pages for which links are requested.
+   * @param namespace Restrict the list to a given namespace.
+   * @param knownPages Already known pages, indexed by normalized title.
+   * @param redirects List of redirects filled by the method.
+   * @param disambig True if disambiguation information is requested.
+   * @return Links of all the pages.
+   */
+  public List<Page> loadLinks(
+      Collection<Page> pages, Integer namespace,
+      Map<String, List<Page>> knownPages,
+      List<Page> redirects, boolean disambig) throws APIException {
+    List<Page> links = new ArrayList<Page>();
+    for (Page page : pages) {
+      loadLinks(page, namespace, knownPages, redirects, disambig);
+      if (page.getLinks() != null) {
+        links.addAll(page.getLinks());
+      }
+    }
+    return links;
+  }
 }
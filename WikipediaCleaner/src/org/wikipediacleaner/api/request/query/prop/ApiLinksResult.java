@@ -38,7 +38,7 @@ public interface ApiLinksResult extends ApiPropertiesResult {
    * 
    * @param properties Properties defining request.
    * @param links List to be filled with links.
-   * @param knownPages Already known pages.
+   * @param knownPages Already known pages, indexed by normalized title.
    * @param normalization Map containing information about title normalization (From => To).
    * @param redirects List of redirects filled by the method.
    * @param useDisambig Flag indicating if disambiguation property should be used.
@@ -48,7 +48,7 @@ public interface ApiLinksResult extends ApiPropertiesResult {
   public boolean executeLinks(
       Map<String, String> properties,
       List<Page> links,
-      List<Page> knownPages,
+      Map<String, List<Page>> knownPages,
       Map<String, String> normalization,
       List<Page> redirects, boolean useDisambig) throws APIException;
 }
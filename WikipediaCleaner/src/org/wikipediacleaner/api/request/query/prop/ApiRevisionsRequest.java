@@ -196,14 +196,82 @@ public class ApiRevisionsRequest extends ApiPropertiesRequest {
       }
     }
 
+    // Use contents from the cache when the revision is still the current one
+    ContentsCache cache = ContentsCache.getCache(getWiki());
+    Collection<Page> pagesToLoad = pages;
+    if (cache != null) {
+      pagesToLoad = loadContentFromCache(pages, usePageId, cache);
+    }
+
+    if (!pagesToLoad.isEmpty()) {
+      Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
+      properties.put(
+          PROPERTY_PROP,
+          PROPERTY_PROP_REVISIONS + "|" + PROPERTY_PROP_INFO);
+      properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
+      properties.put(
+          PROPERTY_PROPERTIES,
+          PROPERTY_PROPERTIES_CONTENT + "|" + PROPERTY_PROPERTIES_IDS + "|" + PROPERTY_PROPERTIES_TIMESTAMP);
+      properties.put(
+          ApiInfoRequest.PROPERTY_PROPERTIES,
+          ApiInfoRequest.PROPERTY_PROPERTIES_PROTECTION);
+      properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
+      if (usePageId) {
+        properties.put(PROPERTY_PAGEIDS, constructListIds(pagesToLoad));
+      } else {
+        properties.put(PROPERTY_TITLES, constructListTitles(pagesToLoad));
+      }
+      while (result.executeLastRevision(properties, pagesToLoad)) {
+        //
+      }
+      if (cache != null) {
+        for (Page page : pagesToLoad) {
+          if (Boolean.TRUE.equals(page.isExisting()) && !page.isRedirect()) {
+            cache.put(page.getPageId(), page.getRevisionId(), page.getContents());
+          }
+        }
+      }
+    }
+
+    // TODO: move this to a base class ?
+    if (withRedirects) {
+      List<Page> redirectPages = new ArrayList<Page>();
+      for (Page page : pages) {
+        if (page.isRedirect()) {
+          redirectPages.add(page);
+        }
+      }
+      if (!redirectPages.isEmpty()) {
+        Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
+        properties.put(PROPERTY_REDIRECTS, "");
+        properties.put(PROPERTY_TITLES, constructListTitles(redirectPages));
+        result.executeRedirect(properties, redirectPages);
+      }
+    }
+  }
+
+  /**
+   * Load content of pages from the cache.
+   * 
+   * Only the current revision of each page is requested,
+   * the content being retrieved from the cache if it matches this revision.
+   * 
+   * @param pages Pages for which content is requested.
+   * @param usePageId True if page identifiers should be used.
+   * @param cache Cache of contents.
+   * @return Pages for which content still needs to be retrieved.
+   * @throws APIException
+   */
+  private Collection<Page> loadContentFromCache(
+      Collection<Page> pages, boolean usePageId,
+      ContentsCache cache) throws APIException {
     Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
     properties.put(
         PROPERTY_PROP,
         PROPERTY_PROP_REVISIONS + "|" + PROPERTY_PROP_INFO);
-    properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
     properties.put(
         PROPERTY_PROPERTIES,
-        PROPERTY_PROPERTIES_CONTENT + "|" + PROPERTY_PROPERTIES_IDS + "|" + PROPERTY_PROPERTIES_TIMESTAMP);
+        PROPERTY_PROPERTIES_IDS + "|" + PROPERTY_PROPERTIES_TIMESTAMP);
     properties.put(
         ApiInfoRequest.PROPERTY_PROPERTIES,
         ApiInfoRequest.PROPERTY_PROPERTIES_PROTECTION);
@@ -216,21 +284,20 @@ public class ApiRevisionsRequest extends ApiPropertiesRequest {
     while (result.executeLastRevision(properties, pages)) {
       //
     }
-
-    // TODO: move this to a base class ?
-    if (withRedirects) {
-      List<Page> redirectPages = new ArrayList<Page>();
-      for (Page page : pages) {
-        if (page.isRedirect()) {
-          redirectPages.add(page);
+    List<Page> pagesToLoad = new ArrayList<Page>();
+    for (Page page : pages) {
+      if (!Boolean.FALSE.equals(page.isExisting())) {
+        String contents = null;
+        if (!page.isRedirect()) {
+          contents = cache.get(page.getPageId(), page.getRevisionId());
+        }
+        if (contents != null) {
+          page.setContents(contents);
+        } else {
+          pagesToLoad.add(page);
         }
-      }
-      if (!redirectPages.isEmpty()) {
-        properties = getProperties(ACTION_QUERY, result.getFormat());
-        properties.put(PROPERTY_REDIRECTS, "");
-        properties.put(PROPERTY_TITLES, constructListTitles(redirectPages));
-        result.executeRedirect(properties, redirectPages);
       }
     }
+    return pagesToLoad;
   }
 }
@@ -8,11 +8,16 @@
 package org.wikipediacleaner.api.request.query.prop;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathExpression;
+import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.Page;
@@ -52,6 +57,25 @@ public class ApiXmlInfoResult extends ApiXmlPropertiesResult implements ApiInfoR
       // Manage redirects and missing pages
       updateRedirect(root, pages);
 
+      // Retrieve revision and touched time stamp
+      XPathExpression<Element> xpaPages = XPathFactory.instance().compile(
+          "/api/query/pages/page", Filters.element());
+      List<Element> listPages = xpaPages.evaluate(root);
+      Map<String, String> normalization = new HashMap<String, String>();
+      retrieveNormalization(root, normalization);
+      for (Page page : pages) {
+        String title = getNormalizedTitle(page.getTitle(), normalization);
+        for (Element pageNode : listPages) {
+          if (Page.areSameTitle(title, pageNode.getAttributeValue("title"))) {
+            String revisionId = pageNode.getAttributeValue("lastrevid");
+            if (revisionId != null) {
+              page.setRevisionId(revisionId);
+            }
+            page.setTouchedTimestamp(pageNode.getAttributeValue("touched"));
+          }
+        }
+      }
+
       // Retrieve continue
       return false;
     } catch (JDOMException e) {
@@ -62,6 +62,17 @@ public class ApiXmlRevisionsResult extends ApiXmlPropertiesResult implements Api
       Map<String, String> normalization = new HashMap<String, String>();
       retrieveNormalization(root, normalization);
 
+      // Contents is available only if requested (only ids may be requested)
+      boolean withContent = false;
+      String rvProperties = properties.get(ApiRevisionsRequest.PROPERTY_PROPERTIES);
+      if (rvProperties != null) {
+        for (String rvProperty : rvProperties.split("\\|")) {
+          if (ApiRevisionsRequest.PROPERTY_PROPERTIES_CONTENT.equals(rvProperty)) {
+            withContent = true;
+          }
+        }
+      }
+
       // Retrieve pages
       XPathExpression<Element> xpa = XPathFactory.instance().compile(
           "/api/query/pages/page", Filters.element());
@@ -104,7 +115,9 @@ public class ApiXmlRevisionsResult extends ApiXmlPropertiesResult implements Api
                     "revisions/rev", Filters.element());
                 Element revNode = xpaRevisions.evaluateFirst(pageNode);
                 if (revNode != null) {
-                  page.setContents(revNode.getText());
+                  if (withContent) {
+                    page.setContents(revNode.getText());
+                  }
                   page.setExisting(Boolean.TRUE);
                   page.setRevisionId(revNode.getAttributeValue("revid"));
                   page.setContentsTimestamp(revNode.getAttributeValue("timestamp"));
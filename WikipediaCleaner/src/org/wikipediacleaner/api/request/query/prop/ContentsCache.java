@@ -0,0 +1,368 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.request.query.prop;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
+
+
+/**
+ * Cache of page contents for a wiki, memorized on disk between sessions.
+ *
+ * Contents are appended to a single file, each record being identified by
+ * the page id and the revision id, so a cached text can only be used
+ * for the revision it was retrieved for.
+ * Only the last record of each page is kept in the index, and when the file
+ * exceeds the maximum size, it's rewritten with the most recently used records.
+ */
+public class ContentsCache {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(ContentsCache.class);
+
+  /** Name of the file in which the contents are memorized */
+  private final static String FILE_NAME = "contents.dat";
+
+  /** Header at the beginning of the file (with format version) */
+  private final static int HEADER = 0x57504301;
+
+  /** Size of the header of each record: length, page id, revision id */
+  private final static int RECORD_HEADER = 12;
+
+  /** Encoding of the contents */
+  private final static Charset UTF8 = Charset.forName("UTF-8");
+
+  /** Caches for each wiki */
+  private final static Map<EnumWikipedia, ContentsCache> caches =
+      new HashMap<EnumWikipedia, ContentsCache>();
+
+  /** File in which the contents are memorized */
+  private final File file;
+
+  /** Maximum size of the file */
+  private final long maxSize;
+
+  /** Records indexed by page id, in access order */
+  private final LinkedHashMap<Integer, Record> records;
+
+  /** Access to the file */
+  private RandomAccessFile access;
+
+  /** Channel for the file */
+  private FileChannel channel;
+
+  /**
+   * @param wiki Wiki.
+   * @return Cache of contents for the wiki (null if the cache is not used).
+   */
+  public static ContentsCache getCache(EnumWikipedia wiki) {
+    if (wiki == null) {
+      return null;
+    }
+    synchronized (caches) {
+      if (caches.containsKey(wiki)) {
+        return caches.get(wiki);
+      }
+      ContentsCache cache = null;
+      Configuration config = Configuration.getConfiguration();
+      int size = config.getInt(null, ConfigurationValueInteger.CONTENTS_CACHE_SIZE);
+      if (size > 0) {
+        cache = new ContentsCache(
+            new File(Configuration.getCacheDirectory(wiki), FILE_NAME),
+            size * 1024L * 1024L);
+        if (!cache.open()) {
+          cache = null;
+        }
+      }
+      caches.put(wiki, cache);
+      return cache;
+    }
+  }
+
+  /**
+   * @param file File in which the contents are memorized.
+   * @param maxSize Maximum size of the file.
+   */
+  ContentsCache(File file, long maxSize) {
+    this.file = file;
+    this.maxSize = maxSize;
+    this.records = new LinkedHashMap<Integer, Record>(1000, 0.75f, true);
+  }
+
+  /**
+   * @param pageId Page id.
+   * @param revisionId Revision id.
+   * @return Contents of the page for this revision (null if not in the cache).
+   */
+  public synchronized String get(Integer pageId, Integer revisionId) {
+    if ((pageId == null) || (revisionId == null) || (channel == null)) {
+      return null;
+    }
+    Record record = records.get(pageId);
+    if ((record == null) || (record.revisionId != revisionId.intValue())) {
+      return null;
+    }
+    try {
+      ByteBuffer buffer = ByteBuffer.allocate(record.length - RECORD_HEADER);
+      read(buffer, record.offset + RECORD_HEADER);
+      return new String(buffer.array(), UTF8);
+    } catch (IOException e) {
+      log.error("Error reading contents cache", e);
+      records.remove(pageId);
+      return null;
+    }
+  }
+
+  /**
+   * @param pageId Page id.
+   * @param revisionId Revision id.
+   * @param contents Contents of the page for this revision.
+   */
+  public synchronized void put(Integer pageId, Integer revisionId, String contents) {
+    if ((pageId == null) || (revisionId == null) || (contents == null) || (channel == null)) {
+      return;
+    }
+    Record record = records.get(pageId);
+    if ((record != null) && (record.revisionId == revisionId.intValue())) {
+      return;
+    }
+    byte[] bytes = contents.getBytes(UTF8);
+    if (RECORD_HEADER + bytes.length > maxSize / 4) {
+      return;
+    }
+    try {
+      long offset = channel.size();
+      ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER + bytes.length);
+      buffer.putInt(RECORD_HEADER + bytes.length);
+      buffer.putInt(pageId.intValue());
+      buffer.putInt(revisionId.intValue());
+      buffer.put(bytes);
+      buffer.flip();
+      write(buffer, offset);
+      records.put(pageId, new Record(revisionId.intValue(), offset, buffer.limit()));
+      if (offset + buffer.limit() > maxSize) {
+        compact();
+      }
+    } catch (IOException e) {
+      log.error("Error writing contents cache", e);
+      close();
+    }
+  }
+
+  /**
+   * Open the file and index the records.
+   *
+   * @return True if the file has been opened.
+   */
+  boolean open() {
+    try {
+      File directory = file.getParentFile();
+      if ((directory != null) && !directory.isDirectory() && !directory.mkdirs()) {
+        log.warn("Unable to create directory " + directory);
+        return false;
+      }
+      access = new RandomAccessFile(file, "rw");
+      channel = access.getChannel();
+      if (channel.tryLock() == null) {
+        log.warn("Contents cache " + file + " is already used by an other process");
+        close();
+        return false;
+      }
+      ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+
+      // Check file format
+      long size = channel.size();
+      boolean valid = false;
+      if (size >= 4) {
+        header.limit(4);
+        read(header, 0);
+        valid = (header.getInt(0) == HEADER);
+      }
+      if (!valid) {
+        channel.truncate(0);
+        header.clear();
+        header.putInt(HEADER);
+        header.flip();
+        write(header, 0);
+        return true;
+      }
+
+      // Index records, the last record of each page being the current one
+      long offset = 4;
+      while (offset + RECORD_HEADER <= size) {
+        header.clear();
+        read(header, offset);
+        int length = header.getInt(0);
+        if ((length < RECORD_HEADER) || (offset + length > size)) {
+          break;
+        }
+        records.put(
+            Integer.valueOf(header.getInt(4)),
+            new Record(header.getInt(8), offset, length));
+        offset += length;
+      }
+      if (offset < size) {
+        log.warn("Truncating contents cache after incomplete record");
+        channel.truncate(offset);
+      }
+      return true;
+    } catch (IOException e) {
+      log.error("Error opening contents cache", e);
+      close();
+      return false;
+    }
+  }
+
+  /**
+   * Rewrite the file with the most recently used records.
+   *
+   * @throws IOException
+   */
+  private void compact() throws IOException {
+    long remaining = maxSize / 2;
+    List<Map.Entry<Integer, Record>> kept = new ArrayList<Map.Entry<Integer, Record>>(records.entrySet());
+    int first = kept.size();
+    while ((first > 0) && (kept.get(first - 1).getValue().length <= remaining)) {
+      first--;
+      remaining -= kept.get(first).getValue().length;
+    }
+    kept = kept.subList(first, kept.size());
+    log.info(
+        "Compacting contents cache: keeping " + kept.size() +
+        " pages out of " + records.size());
+
+    File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+    Map<Integer, Record> newRecords = new LinkedHashMap<Integer, Record>();
+    RandomAccessFile tmpAccess = new RandomAccessFile(tmpFile, "rw");
+    try {
+      FileChannel tmpChannel = tmpAccess.getChannel();
+      tmpChannel.truncate(0);
+      ByteBuffer header = ByteBuffer.allocate(4);
+      header.putInt(HEADER);
+      header.flip();
+      while (header.hasRemaining()) {
+        tmpChannel.write(header);
+      }
+      for (Map.Entry<Integer, Record> entry : kept) {
+        Record record = entry.getValue();
+        ByteBuffer buffer = ByteBuffer.allocate(record.length);
+        read(buffer, record.offset);
+        buffer.flip();
+        long offset = tmpChannel.position();
+        while (buffer.hasRemaining()) {
+          tmpChannel.write(buffer);
+        }
+        newRecords.put(entry.getKey(), new Record(record.revisionId, offset, record.length));
+      }
+    } finally {
+      tmpAccess.close();
+    }
+
+    close();
+    if ((!file.exists() || file.delete()) && tmpFile.renameTo(file)) {
+      access = new RandomAccessFile(file, "rw");
+      channel = access.getChannel();
+      if (channel.tryLock() == null) {
+        close();
+        return;
+      }
+      records.putAll(newRecords);
+    } else {
+      log.warn("Unable to replace contents cache " + file);
+    }
+  }
+
+  /**
+   * Close the file, the cache is not used afterwards.
+   */
+  void close() {
+    records.clear();
+    channel = null;
+    if (access != null) {
+      try {
+        access.close();
+      } catch (IOException e) {
+        log.error("Error closing contents cache", e);
+      }
+      access = null;
+    }
+  }
+
+  /**
+   * Read bytes from the file.
+   *
+   * @param buffer Buffer to fill up completely.
+   * @param offset Offset in the file.
+   * @throws IOException
+   */
+  private void read(ByteBuffer buffer, long offset) throws IOException {
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      int count = channel.read(buffer, position);
+      if (count < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+      position += count;
+    }
+  }
+
+  /**
+   * Write bytes to the file.
+   *
+   * @param buffer Buffer to write completely.
+   * @param offset Offset in the file.
+   * @throws IOException
+   */
+  private void write(ByteBuffer buffer, long offset) throws IOException {
+    long position = offset;
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  /**
+   * Location of a record in the file.
+   */
+  private static class Record {
+
+    /** Revision id */
+    final int revisionId;
+
+    /** Offset of the record in the file */
+    final long offset;
+
+    /** Length of the record (including its header) */
+    final int length;
+
+    /**
+     * @param revisionId Revision id.
+     * @param offset Offset of the record in the file.
+     * @param length Length of the record.
+     */
+    Record(int revisionId, long offset, int length) {
+      this.revisionId = revisionId;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
@@ -8,6 +8,8 @@
 package org.wikipediacleaner.api.request.templatedata;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -66,11 +68,72 @@ public class ApiJsonTemplateDataResult extends ApiJsonResult implements ApiTempl
     return result;
   }
 
+  /**
+   * Execute TemplateData request for several pages.
+   * 
+   * @param properties Properties defining request.
+   * @param titles Titles of the pages.
+   * @return TemplateData as returned by the API, indexed by page title
+   *         (titles of pages without TemplateData are associated to null).
+   * @throws APIException
+   */
+  @Override
+  public Map<String, JsonNode> executeTemplateData(
+      Map<String, String> properties,
+      Collection<String> titles) throws APIException {
+    JsonNode root = getRoot(properties, ApiRequest.MAX_ATTEMPTS);
+    Map<String, JsonNode> result = new HashMap<String, JsonNode>();
+    if (root == null) {
+      return result;
+    }
+
+    // TemplateData indexed by the titles returned by the API
+    Map<String, JsonNode> nodes = new HashMap<String, JsonNode>();
+    Iterator<JsonNode> itPages = root.path("pages").iterator();
+    while (itPages.hasNext()) {
+      JsonNode page = itPages.next();
+      if (page.path("params").isObject()) {
+        nodes.put(page.path("title").asText(), page);
+      }
+    }
+
+    // Title conversions (normalization, redirects)
+    Map<String, String> conversions = new HashMap<String, String>();
+    addConversions(root.path("normalized"), conversions);
+    addConversions(root.path("redirects"), conversions);
+
+    // Associate TemplateData to the requested titles
+    for (String title : titles) {
+      String currentTitle = title;
+      for (int count = 0; (count < 3) && conversions.containsKey(currentTitle); count++) {
+        currentTitle = conversions.get(currentTitle);
+      }
+      result.put(title, nodes.get(currentTitle));
+    }
+    return result;
+  }
+
+  /**
+   * @param node JSON node for a list of title conversions.
+   * @param conversions Title conversions.
+   */
+  private static void addConversions(JsonNode node, Map<String, String> conversions) {
+    Iterator<JsonNode> itConversions = node.iterator();
+    while (itConversions.hasNext()) {
+      JsonNode conversion = itConversions.next();
+      String from = conversion.path("from").asText();
+      String to = conversion.path("to").asText();
+      if ((from.length() > 0) && (to.length() > 0)) {
+        conversions.put(from, to);
+      }
+    }
+  }
+
   /**
    * @param page JSON node for the page.
    * @return TemplateData.
    */
-  private TemplateData createTemplateData(JsonNode page) {
+  static TemplateData createTemplateData(JsonNode page) {
     if ((page == null) || page.isMissingNode()) {
       return null;
     }
@@ -119,7 +182,7 @@ public class ApiJsonTemplateDataResult extends ApiJsonResult implements ApiTempl
    * @param node JSON node.
    * @return InterfaceText.
    */
-  private InterfaceText createInterfaceText(JsonNode node) {
+  private static InterfaceText createInterfaceText(JsonNode node) {
     if ((node == null) || (node.isMissingNode())) {
       return null;
     }
@@ -7,6 +7,9 @@
 
 package org.wikipediacleaner.api.request.templatedata;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
@@ -15,6 +18,8 @@ import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.TemplateData;
 import org.wikipediacleaner.api.request.ApiRequest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 
 /**
  * MediaWiki API TemplateData requests.
@@ -67,4 +72,33 @@ public class ApiTemplateDataRequest extends ApiRequest {
     properties.put(PROPERTY_REDIRECTS, "");
     return result.executeTemplateData(properties);
   }
+
+  /**
+   * Retrieve TemplateData for several pages, using the cache when possible.
+   * 
+   * @param pages Pages for which TemplateData is requested.
+   * @param cache Cache of TemplateData.
+   * @param touched Time stamps of the last time the pages were touched when known.
+   */
+  public void retrieveTemplateData(
+      Collection<Page> pages, TemplateDataCache cache,
+      Map<String, String> touched) throws APIException {
+    List<String> titles = new ArrayList<String>();
+    for (Page page : pages) {
+      if (!cache.contains(page.getTitle()) && !titles.contains(page.getTitle())) {
+        titles.add(page.getTitle());
+      }
+    }
+    Map<String, String> properties = getProperties(ACTION_TEMPLATE_DATA, result.getFormat());
+    properties.put(PROPERTY_REDIRECTS, "");
+    for (int index = 0; index < titles.size(); index += MAX_PAGES_PER_QUERY) {
+      List<String> tmpTitles = titles.subList(
+          index, Math.min(index + MAX_PAGES_PER_QUERY, titles.size()));
+      properties.put(PROPERTY_TITLES, constructList(tmpTitles));
+      Map<String, JsonNode> nodes = result.executeTemplateData(properties, tmpTitles);
+      for (String title : tmpTitles) {
+        cache.put(title, nodes.get(title), (touched != null) ? touched.get(title) : null);
+      }
+    }
+  }
 }
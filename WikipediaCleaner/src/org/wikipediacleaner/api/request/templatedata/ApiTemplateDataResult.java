@@ -7,12 +7,15 @@
 
 package org.wikipediacleaner.api.request.templatedata;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.data.TemplateData;
 import org.wikipediacleaner.api.request.ApiResult;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 
 /**
  * Base interface for MediaWiki API TemplateData results.
@@ -27,4 +30,17 @@ public interface ApiTemplateDataResult extends ApiResult {
    * @throws APIException
    */
   public TemplateData executeTemplateData(Map<String, String> properties) throws APIException;
+
+  /**
+   * Execute TemplateData request for several pages.
+   * 
+   * @param properties Properties defining request.
+   * @param titles Titles of the pages.
+   * @return TemplateData as returned by the API, indexed by page title
+   *         (titles of pages without TemplateData are associated to null).
+   * @throws APIException
+   */
+  public Map<String, JsonNode> executeTemplateData(
+      Map<String, String> properties,
+      Collection<String> titles) throws APIException;
 }
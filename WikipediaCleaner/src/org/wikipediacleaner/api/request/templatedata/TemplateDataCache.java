@@ -0,0 +1,246 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.request.templatedata;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.TemplateData;
+import org.wikipediacleaner.utils.Configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+
+/**
+ * Cache of TemplateData for a wiki, indexed by template title.
+ * 
+ * TemplateData is kept as returned by the API, so that the cache can be
+ * memorized on disk between sessions. Entries older than the validity delay
+ * must be checked against the time the template was last touched:
+ * unlike the revision of the template, it also changes when a transcluded page
+ * (like the documentation subpage holding the TemplateData) is modified.
+ * The cache is memorized again only when entries are added or removed:
+ * the time of the last check isn't worth rewriting the file.
+ */
+public class TemplateDataCache {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(TemplateDataCache.class);
+
+  /** Delay before an entry must be checked against the template touched time (in milliseconds) */
+  private final static long VALIDITY = 3600000L;
+
+  /** Name of the file in which the cache is memorized */
+  private final static String FILE_NAME = "templatedata.json";
+
+  /** Caches for each wiki */
+  private final static Map<EnumWikipedia, TemplateDataCache> caches =
+      new HashMap<EnumWikipedia, TemplateDataCache>();
+
+  /** File in which the cache is memorized */
+  private final File file;
+
+  /** Entries indexed by template title */
+  private final Map<String, CacheEntry> entries;
+
+  /** True if the cache has been modified since it was memorized */
+  private boolean modified;
+
+  /**
+   * @param wiki Wiki.
+   * @return Cache of TemplateData for the wiki.
+   */
+  public static TemplateDataCache getCache(EnumWikipedia wiki) {
+    synchronized (caches) {
+      TemplateDataCache cache = caches.get(wiki);
+      if (cache == null) {
+        cache = new TemplateDataCache(
+            new File(Configuration.getCacheDirectory(wiki), FILE_NAME));
+        cache.load();
+        caches.put(wiki, cache);
+      }
+      return cache;
+    }
+  }
+
+  /**
+   * @param file File in which the cache is memorized.
+   */
+  private TemplateDataCache(File file) {
+    this.file = file;
+    this.entries = new HashMap<String, CacheEntry>();
+  }
+
+  /**
+   * @param title Template title.
+   * @return True if the cache has an entry for the template.
+   */
+  public synchronized boolean contains(String title) {
+    return entries.containsKey(title);
+  }
+
+  /**
+   * @param title Template title.
+   * @return True if the entry for the template can be used without checking the touched time.
+   */
+  public synchronized boolean isRecent(String title) {
+    CacheEntry entry = entries.get(title);
+    return (entry != null) &&
+        (System.currentTimeMillis() - entry.time < VALIDITY);
+  }
+
+  /**
+   * Check an entry against the time the template was last touched.
+   * 
+   * @param title Template title.
+   * @param touched Time stamp of the last time the template was touched.
+   * @return True if the entry is still valid, otherwise it's removed from the cache.
+   */
+  public synchronized boolean validate(String title, String touched) {
+    CacheEntry entry = entries.get(title);
+    if (entry == null) {
+      return false;
+    }
+    if ((touched == null) || !touched.equals(entry.touched)) {
+      entries.remove(title);
+      modified = true;
+      return false;
+    }
+    entry.time = System.currentTimeMillis();
+    return true;
+  }
+
+  /**
+   * @param title Template title.
+   * @return TemplateData for the template (null if not in the cache or if the template has none).
+   */
+  public synchronized TemplateData get(String title) {
+    CacheEntry entry = entries.get(title);
+    if ((entry == null) || (entry.node == null)) {
+      return null;
+    }
+    if (entry.templateData == null) {
+      entry.templateData = ApiJsonTemplateDataResult.createTemplateData(entry.node);
+    }
+    return entry.templateData;
+  }
+
+  /**
+   * @param title Template title.
+   * @param node TemplateData as returned by the API (null if the template has none).
+   * @param touched Time stamp of the last time the template was touched (may be null).
+   */
+  public synchronized void put(String title, JsonNode node, String touched) {
+    entries.put(title, new CacheEntry(node, touched, System.currentTimeMillis()));
+    modified = true;
+  }
+
+  /**
+   * Load the cache from the disk.
+   */
+  private void load() {
+    if (!file.isFile()) {
+      return;
+    }
+    try {
+      JsonNode root = new ObjectMapper().readTree(file);
+      Iterator<Entry<String, JsonNode>> itEntries = root.fields();
+      while (itEntries.hasNext()) {
+        Entry<String, JsonNode> entry = itEntries.next();
+        JsonNode value = entry.getValue();
+        JsonNode node = value.path("data");
+        JsonNode touchedNode = value.path("touched");
+        entries.put(entry.getKey(), new CacheEntry(
+            node.isObject() ? node : null,
+            touchedNode.isTextual() ? touchedNode.asText() : null,
+            value.path("time").asLong(0)));
+      }
+    } catch (IOException e) {
+      log.warn("Unable to read TemplateData cache " + file + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Memorize the cache on the disk if it has been modified.
+   */
+  public synchronized void save() {
+    if (!modified) {
+      return;
+    }
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode root = mapper.createObjectNode();
+    for (Entry<String, CacheEntry> entry : entries.entrySet()) {
+      ObjectNode value = root.putObject(entry.getKey());
+      if (entry.getValue().node != null) {
+        value.set("data", entry.getValue().node);
+      }
+      if (entry.getValue().touched != null) {
+        value.put("touched", entry.getValue().touched);
+      }
+      value.put("time", entry.getValue().time);
+    }
+    try {
+      File directory = file.getParentFile();
+      if ((directory != null) && !directory.isDirectory() && !directory.mkdirs()) {
+        log.warn("Unable to create directory " + directory);
+        return;
+      }
+      File tmpFile = new File(directory, FILE_NAME + ".tmp");
+      mapper.writeValue(tmpFile, root);
+      if (file.exists() && !file.delete()) {
+        log.warn("Unable to replace TemplateData cache " + file);
+        return;
+      }
+      if (!tmpFile.renameTo(file)) {
+        log.warn("Unable to replace TemplateData cache " + file);
+        return;
+      }
+      modified = false;
+    } catch (IOException e) {
+      log.warn("Unable to write TemplateData cache " + file + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Entry in the cache.
+   */
+  private static class CacheEntry {
+
+    /** TemplateData as returned by the API (null if the template has none) */
+    final JsonNode node;
+
+    /** Time stamp of the last time the template was touched (null if unknown) */
+    final String touched;
+
+    /** Time when the entry was retrieved or last checked */
+    long time;
+
+    /** TemplateData created from the node */
+    TemplateData templateData;
+
+    /**
+     * @param node TemplateData as returned by the API.
+     * @param touched Time stamp of the last time the template was touched.
+     * @param time Time when the entry was retrieved or last checked.
+     */
+    CacheEntry(JsonNode node, String touched, long time) {
+      this.node = node;
+      this.touched = touched;
+      this.time = time;
+    }
+  }
+}
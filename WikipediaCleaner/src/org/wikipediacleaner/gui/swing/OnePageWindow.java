@@ -684,6 +684,9 @@ public abstract class OnePageWindow
         textPane.getUndoManager().setUndoLevels(config.getInt(
             null,
             ConfigurationValueInteger.ANALYSIS_UNDO_LVL));
+        textPane.getUndoManager().setUndoMemory(config.getInt(
+            null,
+            ConfigurationValueInteger.ANALYSIS_UNDO_MEMORY) * 1024L * 1024L);
       }
       textPane.addPropertyChangeListener(
           MWPane.PROPERTY_MODIFIED,
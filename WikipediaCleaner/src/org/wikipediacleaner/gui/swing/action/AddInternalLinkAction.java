@@ -19,6 +19,7 @@ import javax.swing.text.TextAction;
 import org.wikipediacleaner.api.data.PageElementInternalLink;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.gui.swing.component.MWPaneFormatter;
+import org.wikipediacleaner.gui.swing.component.MWPaneFormattingManager;
 import org.wikipediacleaner.utils.StringChecker;
 import org.wikipediacleaner.utils.TextProvider;
 
@@ -91,7 +92,20 @@ public class AddInternalLinkAction extends TextAction {
    * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
    */
   @Override
-  public void actionPerformed(ActionEvent e) {
+  public void actionPerformed(final ActionEvent e) {
+
+    // Wait for the formatting to be complete, attributes are needed
+    if (!MWPaneFormattingManager.complete(
+        (textPane != null) ? textPane : getTextComponent(e),
+        new Runnable() {
+
+          @Override
+          public void run() {
+            actionPerformed(e);
+          }
+        })) {
+      return;
+    }
     JTextPane localTextPane = textPane;
     if (localTextPane == null) {
       JTextComponent textComponent = getTextComponent(e);
@@ -25,6 +25,7 @@ import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageElementCategory;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
+import org.wikipediacleaner.gui.swing.component.MWPaneFormattingManager;
 import org.wikipediacleaner.i18n.GT;
 
 
@@ -61,7 +62,20 @@ public class CheckCategoryLinkAction extends TextAction {
    * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
    */
   @Override
-  public void actionPerformed(@SuppressWarnings("unused") ActionEvent e) {
+  public void actionPerformed(final ActionEvent e) {
+
+    // Wait for the formatting to be complete, attributes are needed
+    if (!MWPaneFormattingManager.complete(
+        (textPane != null) ? textPane : getTextComponent(e),
+        new Runnable() {
+
+          @Override
+          public void run() {
+            actionPerformed(e);
+          }
+        })) {
+      return;
+    }
     try {
       Namespace categoryNamespace = toWikipedia.getWikiConfiguration().getNamespace(Namespace.CATEGORY);
       String categoryName = PageElementCategory.DEFAULT_NAME;
@@ -25,6 +25,7 @@ import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageElementInternalLink;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
+import org.wikipediacleaner.gui.swing.component.MWPaneFormattingManager;
 import org.wikipediacleaner.i18n.GT;
 
 
@@ -68,7 +69,20 @@ public class CheckLanguageLinkAction extends TextAction {
    * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
    */
   @Override
-  public void actionPerformed(@SuppressWarnings("unused") ActionEvent e) {
+  public void actionPerformed(final ActionEvent e) {
+
+    // Wait for the formatting to be complete, attributes are needed
+    if (!MWPaneFormattingManager.complete(
+        (textPane != null) ? textPane : getTextComponent(e),
+        new Runnable() {
+
+          @Override
+          public void run() {
+            actionPerformed(e);
+          }
+        })) {
+      return;
+    }
     try {
       API api = APIFactory.getAPI();
       StringBuilder message = new StringBuilder();
@@ -23,6 +23,7 @@ import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementFunction;
 import org.wikipediacleaner.gui.swing.component.MWPaneFormatter;
+import org.wikipediacleaner.gui.swing.component.MWPaneFormattingManager;
 
 
 /**
@@ -53,7 +54,20 @@ public class MarkLinkAction implements ActionListener {
    * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
    */
   @Override
-  public void actionPerformed(@SuppressWarnings("unused") ActionEvent e) {
+  public void actionPerformed(final ActionEvent e) {
+
+    // Wait for the formatting to be complete, attributes are needed
+    if (!MWPaneFormattingManager.complete(
+        textPane,
+        new Runnable() {
+
+          @Override
+          public void run() {
+            actionPerformed(e);
+          }
+        })) {
+      return;
+    }
     if ((element != null) &&
         (textPane != null) &&
         (newText != null)) {
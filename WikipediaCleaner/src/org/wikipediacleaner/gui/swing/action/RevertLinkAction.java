@@ -14,6 +14,8 @@ import javax.swing.JTextPane;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Element;
 
+import org.wikipediacleaner.gui.swing.component.MWPaneFormattingManager;
+
 
 /**
  * An action listener for reverting internal links ([[xx|yy]] -> [[yy|xx]]).
@@ -40,7 +42,20 @@ public class RevertLinkAction implements ActionListener {
    * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
    */
   @Override
-  public void actionPerformed(@SuppressWarnings("unused") ActionEvent e) {
+  public void actionPerformed(final ActionEvent e) {
+
+    // Wait for the formatting to be complete, attributes are needed
+    if (!MWPaneFormattingManager.complete(
+        textPane,
+        new Runnable() {
+
+          @Override
+          public void run() {
+            actionPerformed(e);
+          }
+        })) {
+      return;
+    }
     if ((element == null) ||
         (textPane == null) ||
         (title == null) || (title.length() == 0) ||
@@ -9,11 +9,17 @@ package org.wikipediacleaner.gui.swing.bot;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.APIFactory;
+import org.wikipediacleaner.api.EditScheduler;
 import org.wikipediacleaner.api.check.CheckError;
 import org.wikipediacleaner.api.check.CheckErrorPage;
 import org.wikipediacleaner.api.check.CheckWiki;
@@ -25,6 +31,7 @@ import org.wikipediacleaner.api.data.AutomaticFormatter;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementTemplate;
+import org.wikipediacleaner.api.data.QueryResult;
 import org.wikipediacleaner.gui.swing.Controller;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
@@ -37,6 +44,12 @@ import org.wikipediacleaner.i18n.GT;
  */
 public class AutomaticCWWorker extends BasicWorker {
 
+  /** Logs */
+  private final static Log log = LogFactory.getLog(AutomaticCWWorker.class);
+
+  /** Maximum number of edits waiting to be saved before waiting for them. */
+  private final static int MAX_PENDING_EDITS = 20;
+
   /** Algorithms for which to fix pages. */
   private final List<CheckErrorAlgorithm> selectedAlgorithms;
 
@@ -67,6 +80,9 @@ public class AutomaticCWWorker extends BasicWorker {
   /** Count of marked pages for other algorithms. */
   private int countMarkedOther;
 
+  /** Edits waiting to be saved. */
+  private final LinkedList<FixingEdit> pendingEdits;
+
   /**
    * @param wiki Wiki.
    * @param window Window.
@@ -96,6 +112,7 @@ public class AutomaticCWWorker extends BasicWorker {
     this.countModified = 0;
     this.countMarked = 0;
     this.countMarkedOther = 0;
+    this.pendingEdits = new LinkedList<>();
   }
 
   /** 
@@ -115,6 +132,13 @@ public class AutomaticCWWorker extends BasicWorker {
       }
     } catch (APIException e) {
       return e;
+    } finally {
+      if (!shouldContinue()) {
+        for (FixingEdit edit : pendingEdits) {
+          edit.cancel();
+        }
+      }
+      processEdits(0);
     }
     return null;
   }
@@ -162,6 +186,7 @@ public class AutomaticCWWorker extends BasicWorker {
         } catch (APIException e) {
           //
         }
+        processEdits(MAX_PENDING_EDITS);
       }
     }
   }
@@ -189,18 +214,7 @@ public class AutomaticCWWorker extends BasicWorker {
     // Check that robots are authorized to change this page
     boolean preventBot = false;
     if (saveModifications) {
-      WPCConfiguration config = getWikipedia().getConfiguration();
-      List<String[]> nobotTemplates = config.getStringArrayList(
-          WPCConfigurationStringList.NOBOT_TEMPLATES);
-      if ((nobotTemplates != null) && (!nobotTemplates.isEmpty())) {
-        for (String[] nobotTemplate : nobotTemplates) {
-          String templateName = nobotTemplate[0];
-          List<PageElementTemplate> templates = analysis.getTemplates(templateName);
-          if ((templates != null) && (!templates.isEmpty())) {
-            preventBot = true;
-          }
-        }
-      }
+      preventBot = isBotPrevented(analysis);
     }
 
     // Analyze page to check if an error has been found
@@ -225,42 +239,12 @@ public class AutomaticCWWorker extends BasicWorker {
         newContents = AutomaticFormatter.tidyArticle(page, newContents, allAlgorithms, true, errorsFixed);
       }
 
-      // Check if error has been fixed
-      boolean isFixed = false;
-      if (!newContents.equals(page.getContents())) {
-        for (CheckError.Progress errorFixed : errorsFixed) {
-          if ((algorithm != null) && (algorithm.equals(errorFixed.algorithm))) {
-            isFixed = true;
-          }
-        }
-      }
-
       // Save page if errors have been fixed
-      if (isFixed) {
-        StringBuilder comment = new StringBuilder();
-        if ((extraComment != null) && (extraComment.trim().length() > 0)) {
-          comment.append(extraComment.trim());
-          comment.append(" - ");
-        }
-        comment.append(getWikipedia().getCWConfiguration().getComment(errorsFixed));
+      if (isFixed(page.getContents(), newContents, algorithm, errorsFixed)) {
         setText(prefix + " - " + GT._("Fixing page {0}", page.getTitle()));
-        api.updatePage(
-            getWikipedia(), page, newContents,
-            comment.toString(),
-            true, true, false);
-        countModified++;
-        for (CheckError.Progress errorFixed : errorsFixed) {
-          CheckErrorAlgorithm usedAlgorithm = errorFixed.algorithm;
-          errorPage = CheckError.analyzeError(usedAlgorithm, page.getAnalysis(newContents, true));
-          if ((errorPage != null) && (!errorPage.getErrorFound())) {
-            checkWiki.markAsFixed(page, usedAlgorithm.getErrorNumberString());
-            if (selectedAlgorithms.contains(usedAlgorithm)) {
-              countMarked++;
-            } else {
-              countMarkedOther++;
-            }
-          }
-        }
+        FixingEdit edit = new FixingEdit(page, newContents, algorithm, errorsFixed);
+        edit.future = EditScheduler.getScheduler(getWikipedia()).submit(edit);
+        pendingEdits.add(edit);
       } else if (analyzeNonFixed) {
         Controller.runFullAnalysis(page.getTitle(), null, getWikipedia());
       }
@@ -274,6 +258,151 @@ public class AutomaticCWWorker extends BasicWorker {
     }
   }
 
+  /**
+   * @param analysis Page analysis.
+   * @return True if robots are not authorized to change the page.
+   */
+  private boolean isBotPrevented(PageAnalysis analysis) {
+    WPCConfiguration config = getWikipedia().getConfiguration();
+    List<String[]> nobotTemplates = config.getStringArrayList(
+        WPCConfigurationStringList.NOBOT_TEMPLATES);
+    if ((nobotTemplates != null) && (!nobotTemplates.isEmpty())) {
+      for (String[] nobotTemplate : nobotTemplates) {
+        String templateName = nobotTemplate[0];
+        List<PageElementTemplate> templates = analysis.getTemplates(templateName);
+        if ((templates != null) && (!templates.isEmpty())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param oldContents Contents of the page.
+   * @param newContents Contents of the page after fixing.
+   * @param algorithm Main algorithm.
+   * @param errorsFixed Errors fixed.
+   * @return True if the error for the main algorithm has been fixed.
+   */
+  private static boolean isFixed(
+      String oldContents, String newContents,
+      CheckErrorAlgorithm algorithm, List<CheckError.Progress> errorsFixed) {
+    if (newContents.equals(oldContents)) {
+      return false;
+    }
+    for (CheckError.Progress errorFixed : errorsFixed) {
+      if ((algorithm != null) && (algorithm.equals(errorFixed.algorithm))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param errorsFixed Errors fixed.
+   * @return Comment for the modification.
+   */
+  String createComment(List<CheckError.Progress> errorsFixed) {
+    StringBuilder comment = new StringBuilder();
+    if ((extraComment != null) && (extraComment.trim().length() > 0)) {
+      comment.append(extraComment.trim());
+      comment.append(" - ");
+    }
+    comment.append(getWikipedia().getCWConfiguration().getComment(errorsFixed));
+    return comment.toString();
+  }
+
+  /**
+   * Process the edits that have been saved.
+   * 
+   * @param maxPending Maximum number of edits that can stay pending.
+   */
+  private void processEdits(int maxPending) {
+    CheckWiki checkWiki = APIFactory.getCheckWiki();
+    while (!pendingEdits.isEmpty() &&
+           ((pendingEdits.size() > maxPending) || pendingEdits.getFirst().future.isDone())) {
+      FixingEdit edit = pendingEdits.removeFirst();
+      QueryResult result = null;
+      try {
+        result = edit.future.get();
+      } catch (InterruptedException e) {
+        //
+      } catch (ExecutionException e) {
+        log.error("Unable to save page " + edit.getPage().getTitle(), e.getCause());
+      }
+      if (result == null) {
+        continue;
+      }
+      countModified++;
+      Page page = edit.getPage();
+      for (CheckError.Progress errorFixed : edit.errorsFixed) {
+        CheckErrorAlgorithm usedAlgorithm = errorFixed.algorithm;
+        CheckErrorPage errorPage = CheckError.analyzeError(
+            usedAlgorithm, page.getAnalysis(edit.getContents(), true));
+        if ((errorPage != null) && (!errorPage.getErrorFound())) {
+          checkWiki.markAsFixed(page, usedAlgorithm.getErrorNumberString());
+          if (selectedAlgorithms.contains(usedAlgorithm)) {
+            countMarked++;
+          } else {
+            countMarkedOther++;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Edit fixing a page, fixed again in case of edit conflict.
+   */
+  private class FixingEdit extends EditScheduler.Edit {
+
+    /** Main algorithm. */
+    private final CheckErrorAlgorithm algorithm;
+
+    /** Errors fixed. */
+    List<CheckError.Progress> errorsFixed;
+
+    /** Future result of the edit. */
+    Future<QueryResult> future;
+
+    /**
+     * @param page Page.
+     * @param contents Contents of the page after fixing.
+     * @param algorithm Main algorithm.
+     * @param errorsFixed Errors fixed.
+     */
+    FixingEdit(
+        Page page, String contents,
+        CheckErrorAlgorithm algorithm, List<CheckError.Progress> errorsFixed) {
+      super(page, contents, createComment(errorsFixed), true, true);
+      this.algorithm = algorithm;
+      this.errorsFixed = errorsFixed;
+    }
+
+    /**
+     * @param oldContents Current contents of the page.
+     * @return New contents (null if the page shouldn't be modified).
+     * @see org.wikipediacleaner.api.EditScheduler.Edit#fix(java.lang.String)
+     */
+    @Override
+    protected String fix(String oldContents) {
+      Page page = getPage();
+      if (isBotPrevented(page.getAnalysis(oldContents, true))) {
+        return null;
+      }
+      List<CheckError.Progress> tmpErrorsFixed = new ArrayList<>();
+      String newContents = AutomaticFormatter.tidyArticle(
+          page, oldContents, allAlgorithms, true, tmpErrorsFixed);
+      if (!isFixed(oldContents, newContents, algorithm, tmpErrorsFixed)) {
+        return null;
+      }
+      errorsFixed = tmpErrorsFixed;
+      setComment(createComment(tmpErrorsFixed));
+      return newContents;
+    }
+  }
+
   /**
    * Called on the event dispatching thread (not on the worker thread)
    * after the <code>construct</code> method has returned.
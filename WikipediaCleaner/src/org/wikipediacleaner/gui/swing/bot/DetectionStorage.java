@@ -0,0 +1,564 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
+import org.wikipediacleaner.gui.swing.bot.ListCWWorker.Detection;
+
+
+/**
+ * Storage of the detections for an algorithm during a dump analysis.
+ *
+ * Detections are kept in memory up to a limit, then sorted by page and spilled
+ * to a temporary file.
+ * At the end of the analysis, the temporary files and the detections still
+ * in memory are merged in a single pass: only the last detection added for
+ * each page is kept, as with a map indexed by page title, and the detections
+ * are written to one temporary file per error level.
+ * Reading these files one after the other gives all the detections in their
+ * natural order without loading them all in memory.
+ */
+class DetectionStorage {
+
+  /** Maximum number of detections kept in memory */
+  private final static int MAX_COUNT = 10000;
+
+  /** Maximum number of characters of notices kept in memory */
+  private final static long MAX_SIZE = 4 * 1024 * 1024;
+
+  /** Encoding of the temporary files */
+  private final static Charset UTF8 = Charset.forName("UTF-8");
+
+  /** Error levels */
+  private final static ErrorLevel[] LEVELS = ErrorLevel.values();
+
+  /** Prefix for the temporary files */
+  private final String prefix;
+
+  /** Detections kept in memory */
+  private final List<Entry> detections;
+
+  /** Temporary files containing detections sorted by page */
+  private final List<File> files;
+
+  /** True if the temporary files are the result of a merge (one file per error level) */
+  private boolean merged;
+
+  /** Number of characters of notices kept in memory */
+  private long size;
+
+  /** Total number of detections added (including replaced ones) */
+  private int count;
+
+  /** Number of pages with a detection, computed by the last merge */
+  private int pageCount;
+
+  /**
+   * @param prefix Prefix for the temporary files.
+   */
+  DetectionStorage(String prefix) {
+    this.prefix = prefix;
+    this.detections = new ArrayList<>();
+    this.files = new ArrayList<>();
+    this.merged = true;
+    this.size = 0;
+    this.count = 0;
+    this.pageCount = 0;
+  }
+
+  /**
+   * @param detection Detection to be added (replacing a previous one for the same page).
+   * @throws IOException Error writing a temporary file.
+   */
+  public synchronized void add(Detection detection) throws IOException {
+    if (detection == null) {
+      return;
+    }
+    detections.add(new Entry(detection, count));
+    merged = false;
+    count++;
+    for (String notice : detection.notices) {
+      size += notice.length();
+    }
+    if ((detections.size() >= MAX_COUNT) || (size >= MAX_SIZE)) {
+      spill();
+    }
+  }
+
+  /**
+   * @return Total number of detections (one per page) at the last merge.
+   * @see #merge()
+   */
+  public synchronized int size() {
+    return pageCount;
+  }
+
+  /**
+   * Write the detections kept in memory to a temporary file.
+   *
+   * @throws IOException Error writing the temporary file.
+   */
+  private void spill() throws IOException {
+    Collections.sort(detections);
+    File file = createFile();
+    DataOutputStream output = null;
+    try {
+      output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      Entry previous = null;
+      for (Entry entry : detections) {
+        if ((previous != null) && !previous.isSamePage(entry)) {
+          write(output, previous);
+        }
+        previous = entry;
+      }
+      if (previous != null) {
+        write(output, previous);
+      }
+    } finally {
+      if (output != null) {
+        output.close();
+      }
+    }
+    detections.clear();
+    size = 0;
+  }
+
+  /**
+   * Merge the temporary files and the detections kept in memory,
+   * keeping only the last detection of each page.
+   *
+   * @throws IOException Error reading or writing a temporary file.
+   */
+  public synchronized void merge() throws IOException {
+    if (merged) {
+      return;
+    }
+    Collections.sort(detections);
+    File[] levelFiles = new File[LEVELS.length];
+    DataOutputStream[] outputs = new DataOutputStream[LEVELS.length];
+    PriorityQueue<Source> queue = new PriorityQueue<>(files.size() + 1);
+    List<Source> sources = new ArrayList<>(files.size() + 1);
+    int newPageCount = 0;
+    try {
+      sources.add(new MemorySource(detections));
+      for (File file : files) {
+        sources.add(new FileSource(file));
+      }
+      for (Source source : sources) {
+        if (source.advance()) {
+          queue.add(source);
+        }
+      }
+      Entry previous = null;
+      while (!queue.isEmpty()) {
+        Source source = queue.poll();
+        Entry entry = source.current;
+        if (source.advance()) {
+          queue.add(source);
+        }
+        if ((previous != null) && !previous.isSamePage(entry)) {
+          write(levelFiles, outputs, previous);
+          newPageCount++;
+        }
+        previous = entry;
+      }
+      if (previous != null) {
+        write(levelFiles, outputs, previous);
+        newPageCount++;
+      }
+    } catch (IOException e) {
+      for (File file : levelFiles) {
+        if (file != null) {
+          file.delete();
+        }
+      }
+      throw e;
+    } finally {
+      for (Source source : sources) {
+        source.close();
+      }
+      for (DataOutputStream output : outputs) {
+        if (output != null) {
+          output.close();
+        }
+      }
+    }
+
+    // Replace the previous temporary files
+    for (File file : files) {
+      file.delete();
+    }
+    files.clear();
+    for (File file : levelFiles) {
+      if (file != null) {
+        files.add(file);
+      }
+    }
+    detections.clear();
+    size = 0;
+    pageCount = newPageCount;
+    merged = true;
+  }
+
+  /**
+   * Open a reader on all the detections, in their natural order.
+   *
+   * @return Reader on the detections (to be closed after use).
+   * @throws IOException Error reading a temporary file.
+   */
+  public synchronized Reader open() throws IOException {
+    merge();
+    return new Reader(new ArrayList<>(files));
+  }
+
+  /**
+   * Delete the temporary files and forget the detections (the total number is kept).
+   */
+  public synchronized void dispose() {
+    for (File file : files) {
+      file.delete();
+    }
+    files.clear();
+    detections.clear();
+    size = 0;
+    merged = true;
+  }
+
+  /**
+   * @return New temporary file.
+   * @throws IOException Error creating the temporary file.
+   */
+  private File createFile() throws IOException {
+    File file = File.createTempFile(prefix, ".tmp");
+    file.deleteOnExit();
+    files.add(file);
+    return file;
+  }
+
+  /**
+   * Write a detection to the temporary file of its error level.
+   *
+   * @param levelFiles Temporary files for each error level.
+   * @param outputs Output streams for each error level.
+   * @param entry Detection to be written.
+   * @throws IOException Error writing the temporary file.
+   */
+  private void write(
+      File[] levelFiles, DataOutputStream[] outputs,
+      Entry entry) throws IOException {
+    int level = entry.detection.maxLevel.ordinal();
+    if (outputs[level] == null) {
+      levelFiles[level] = File.createTempFile(prefix, ".tmp");
+      levelFiles[level].deleteOnExit();
+      outputs[level] = new DataOutputStream(new BufferedOutputStream(
+          new FileOutputStream(levelFiles[level])));
+    }
+    write(outputs[level], entry);
+  }
+
+  /**
+   * @param output Output stream.
+   * @param entry Detection to be written.
+   * @throws IOException Error writing.
+   */
+  private static void write(DataOutputStream output, Entry entry) throws IOException {
+    Detection detection = entry.detection;
+    output.writeInt(entry.number);
+    output.writeByte(detection.maxLevel.ordinal());
+    writeString(output, detection.pageName);
+    output.writeInt(detection.notices.size());
+    for (String notice : detection.notices) {
+      writeString(output, notice);
+    }
+  }
+
+  /**
+   * @param output Output stream.
+   * @param value String to be written.
+   * @throws IOException Error writing.
+   */
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(UTF8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  /**
+   * @param input Input stream.
+   * @return String read.
+   * @throws IOException Error reading.
+   */
+  private static String readString(DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, UTF8);
+  }
+
+  /**
+   * Reader on the merged detections, one error level after the other.
+   */
+  public static class Reader {
+
+    /** Temporary files for each error level */
+    private final List<File> files;
+
+    /** Index of the next file to be read */
+    private int index;
+
+    /** Source currently read */
+    private Source source;
+
+    /**
+     * @param files Temporary files for each error level, in the order of the levels.
+     */
+    Reader(List<File> files) {
+      this.files = files;
+      this.index = 0;
+      this.source = null;
+    }
+
+    /**
+     * @return Next detection (null when all detections have been read).
+     * @throws IOException Error reading a source.
+     */
+    public Detection next() throws IOException {
+      while (true) {
+        if (source == null) {
+          if (index >= files.size()) {
+            return null;
+          }
+          source = new FileSource(files.get(index));
+          index++;
+        }
+        if (source.advance()) {
+          return source.current.detection;
+        }
+        source.close();
+        source = null;
+      }
+    }
+
+    /**
+     * Close the current source.
+     */
+    public void close() {
+      if (source != null) {
+        source.close();
+        source = null;
+      }
+      index = files.size();
+    }
+  }
+
+  /**
+   * Detection with its number.
+   */
+  private static class Entry implements Comparable<Entry> {
+
+    /** Detection */
+    final Detection detection;
+
+    /** Number of the detection (order in which detections have been added) */
+    final int number;
+
+    /**
+     * @param detection Detection.
+     * @param number Number of the detection.
+     */
+    Entry(Detection detection, int number) {
+      this.detection = detection;
+      this.number = number;
+    }
+
+    /**
+     * @param o Other entry.
+     * @return True if both detections are for the same page.
+     */
+    boolean isSamePage(Entry o) {
+      if (detection.pageName == null) {
+        return (o.detection.pageName == null);
+      }
+      return detection.pageName.equals(o.detection.pageName);
+    }
+
+    /**
+     * @param o Other entry.
+     * @return Comparison of the pages, then of the numbers.
+     * @see java.lang.Comparable#compareTo(java.lang.Object)
+     */
+    @Override
+    public int compareTo(Entry o) {
+      String pageName = detection.pageName;
+      String otherName = o.detection.pageName;
+      if (pageName == null) {
+        if (otherName != null) {
+          return 1;
+        }
+      } else {
+        if (otherName == null) {
+          return -1;
+        }
+        int result = pageName.compareTo(otherName);
+        if (result != 0) {
+          return result;
+        }
+      }
+      return (number < o.number) ? -1 : ((number == o.number) ? 0 : 1);
+    }
+  }
+
+  /**
+   * Sorted source of detections.
+   */
+  private static abstract class Source implements Comparable<Source> {
+
+    /** Current detection */
+    Entry current;
+
+    /**
+     * Move to the next detection.
+     *
+     * @return True if a detection is available.
+     * @throws IOException Error reading the source.
+     */
+    abstract boolean advance() throws IOException;
+
+    /**
+     * Close the source.
+     */
+    abstract void close();
+
+    /**
+     * @param o Other source.
+     * @return Comparison of the current detections.
+     * @see java.lang.Comparable#compareTo(java.lang.Object)
+     */
+    @Override
+    public int compareTo(Source o) {
+      return current.compareTo(o.current);
+    }
+  }
+
+  /**
+   * Source of detections kept in memory.
+   */
+  private static class MemorySource extends Source {
+
+    /** Sorted detections */
+    private final List<Entry> detections;
+
+    /** Index of the next detection */
+    private int index;
+
+    /**
+     * @param detections Sorted detections.
+     */
+    MemorySource(List<Entry> detections) {
+      this.detections = detections;
+      this.index = 0;
+    }
+
+    /**
+     * @see org.wikipediacleaner.gui.swing.bot.DetectionStorage.Source#advance()
+     */
+    @Override
+    boolean advance() {
+      if (index >= detections.size()) {
+        current = null;
+        return false;
+      }
+      current = detections.get(index);
+      index++;
+      return true;
+    }
+
+    /**
+     * @see org.wikipediacleaner.gui.swing.bot.DetectionStorage.Source#close()
+     */
+    @Override
+    void close() {
+      current = null;
+    }
+  }
+
+  /**
+   * Source of detections spilled to a temporary file.
+   */
+  private static class FileSource extends Source {
+
+    /** Input stream */
+    private final DataInputStream input;
+
+    /**
+     * @param file Temporary file.
+     * @throws IOException Error opening the file.
+     */
+    FileSource(File file) throws IOException {
+      this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    /**
+     * @see org.wikipediacleaner.gui.swing.bot.DetectionStorage.Source#advance()
+     */
+    @Override
+    boolean advance() throws IOException {
+      int number;
+      try {
+        number = input.readInt();
+      } catch (EOFException e) {
+        current = null;
+        return false;
+      }
+      int level = input.readByte();
+      String pageName = readString(input);
+      int noticesCount = input.readInt();
+      List<String> notices = new ArrayList<>(noticesCount);
+      for (int i = 0; i < noticesCount; i++) {
+        notices.add(readString(input));
+      }
+      current = new Entry(new Detection(pageName, notices, LEVELS[level]), number);
+      return true;
+    }
+
+    /**
+     * @see org.wikipediacleaner.gui.swing.bot.DetectionStorage.Source#close()
+     */
+    @Override
+    void close() {
+      current = null;
+      try {
+        input.close();
+      } catch (IOException e) {
+        // Nothing to do
+      }
+    }
+  }
+}
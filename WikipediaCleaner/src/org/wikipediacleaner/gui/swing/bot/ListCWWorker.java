@@ -12,16 +12,19 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.APIFactory;
@@ -35,8 +38,10 @@ import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.PageAnalysisCache;
 import org.wikipediacleaner.api.data.PageElementComment;
 import org.wikipediacleaner.api.data.PageElementInternalLink;
+import org.wikipediacleaner.api.data.TitleSet;
 import org.wikipediacleaner.api.dump.DumpProcessor;
 import org.wikipediacleaner.api.dump.PageProcessor;
 import org.wikipediacleaner.api.execution.MediaWikiCallable;
@@ -44,6 +49,7 @@ import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.StripedCounter;
 
 
 /**
@@ -51,6 +57,9 @@ import org.wikipediacleaner.i18n.GT;
  */
 public class ListCWWorker extends BasicWorker {
 
+  /** Logs */
+  private final static Log log = LogFactory.getLog(ListCWWorker.class);
+
   /** File containing the dump */
   private final File dumpFile;
 
@@ -72,11 +81,11 @@ public class ListCWWorker extends BasicWorker {
   /** Time spent in analysis. */
   PageAnalysis.AnalysisPerformance analysisTime;
 
-  /** Count of pages analyzed */
-  int countAnalyzed;
+  /** Counts of pages analyzed and found with errors */
+  final WorkerMetrics metrics;
 
-  /** Count of pages found with errors */
-  int countDetections;
+  /** Interval between two progress reports (in milliseconds) */
+  private final static long REPORT_INTERVAL = 60000;
 
   /**
    * @param wiki Wiki.
@@ -97,8 +106,7 @@ public class ListCWWorker extends BasicWorker {
     this.pageName = null;
     this.selectedAlgorithms = AlgorithmInformation.createList(selectedAlgorithms);
     this.analysisTime = new PageAnalysis.AnalysisPerformance();
-    this.countAnalyzed = 0;
-    this.countDetections = 0;
+    this.metrics = createMetrics(this.selectedAlgorithms);
     this.checkWiki = checkWiki;
     this.onlyRecheck = false;
   }
@@ -123,12 +131,30 @@ public class ListCWWorker extends BasicWorker {
     this.pageName = pageName;
     this.selectedAlgorithms = AlgorithmInformation.createList(selectedAlgorithms);
     this.analysisTime = new PageAnalysis.AnalysisPerformance();
-    this.countAnalyzed = 0;
-    this.countDetections = 0;
+    this.metrics = createMetrics(this.selectedAlgorithms);
     this.checkWiki = checkWiki;
     this.onlyRecheck = onlyRecheck;
   }
 
+  /**
+   * @param algorithms Information about processing algorithms.
+   * @return Metrics with a timer for each algorithm.
+   */
+  private static WorkerMetrics createMetrics(List<AlgorithmInformation> algorithms) {
+    WorkerMetrics metrics = new WorkerMetrics();
+    for (AlgorithmInformation algorithm : algorithms) {
+      metrics.addTimer(algorithm.algorithm.getErrorNumberString(), algorithm.timeSpent);
+    }
+    return metrics;
+  }
+
+  /**
+   * @return Count of pages analyzed.
+   */
+  public int getCountAnalyzed() {
+    return (int) metrics.getPages();
+  }
+
   /** 
    * Compute the value to be returned by the <code>get</code> method. 
    * 
@@ -177,21 +203,28 @@ public class ListCWWorker extends BasicWorker {
         // Nothing to do
       }
     }
-    DumpProcessor dumpProcessor = new DumpProcessor(pageProcessor);
-    dumpProcessor.processDump(dumpFile);
-    while (!pageProcessor.hasFinished()) {
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        // Nothing to do
+    metrics.startReporting(this, REPORT_INTERVAL);
+    try {
+      DumpProcessor dumpProcessor = new DumpProcessor(pageProcessor);
+      dumpProcessor.processDump(dumpFile);
+      while (!pageProcessor.hasFinished()) {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          // Nothing to do
+        }
       }
+    } finally {
+      metrics.stopReporting();
     }
-    for (AlgorithmInformation algorithm : selectedAlgorithms) {
-      Map<String, Detection> pages = algorithm.getDetections();
-      if (pages == null) {
-        pages = new HashMap<>();
+    try {
+      for (AlgorithmInformation algorithm : selectedAlgorithms) {
+        outputResult(algorithm.algorithm, algorithm.getDetections());
+        algorithm.getDetections().dispose();
       }
-      outputResult(algorithm.algorithm, pages.values());
+    } catch (IOException e) {
+      log.error("Error writing the result of the dump analysis", e);
+      return e;
     }
     reportProgress();
 
@@ -203,9 +236,10 @@ public class ListCWWorker extends BasicWorker {
    */
   void reportProgress() {
     System.out.println(
-        "Pages processed: " + countAnalyzed +
-        " / errors detected: " + countDetections);
+        "Pages processed: " + metrics.getPages() +
+        " / errors detected: " + metrics.getDetections());
     System.out.println(" Analysis: " + analysisTime.toString());
+    System.out.println(" Analysis cache: " + PageAnalysisCache.getInstance().toString());
     for (AlgorithmInformation algorithm : selectedAlgorithms) {
       System.out.println(
           " Algorithm " + algorithm.algorithm.getErrorNumberString() +
@@ -214,137 +248,187 @@ public class ListCWWorker extends BasicWorker {
   }
 
   /**
-   * @param pages List of detections.
-   * @return Formatted result.
+   * Write the result for a list of detections.
+   *
+   * Detections are written in their natural order until the size limit is reached.
+   * 
+   * @param detections Detections.
+   * @param writer Writer for the result.
+   * @param maxSize Maximum size of the result in UTF-8 bytes (null for no limit).
+   * @param maxCount Maximum number of detections written.
+   * @return Number of detections written.
+   * @throws IOException Error reading the detections or writing the result.
    */
-  private String generateResult(List<Detection> pages, Long maxSize) {
-    StringBuilder buffer = new StringBuilder();
-    buffer.append("<!-- Generated using ");
-    buffer.append(dumpFile.getName());
-    buffer.append(" -->\n");
-    ErrorLevel lastLevel = null;
+  private int generateResult(
+      DetectionStorage detections, Writer writer,
+      Long maxSize, int maxCount) throws IOException {
     StringBuilder line = new StringBuilder();
-    List<Detection> pagesToRemove = new ArrayList<>();
-    for (Detection detection : pages) {
-      line.setLength(0);
-      if ((detection.maxLevel != null) &&
-          !detection.maxLevel.equals(lastLevel)) {
+    line.append("<!-- Generated using ");
+    line.append(dumpFile.getName());
+    line.append(" -->\n");
+    long size = getUTF8Length(line);
+    writer.append(line);
+    int count = 0;
+    ErrorLevel lastLevel = null;
+    DetectionStorage.Reader reader = detections.open();
+    try {
+      Detection detection = null;
+      while ((count < maxCount) && ((detection = reader.next()) != null)) {
+        line.setLength(0);
+        if ((detection.maxLevel != null) &&
+            !detection.maxLevel.equals(lastLevel)) {
+          line.append("<!-- ");
+          line.append(detection.maxLevel.toString());
+          line.append(" -->\n");
+        }
+        generateResult(detection, line);
+        long lineSize = getUTF8Length(line);
+        if ((maxSize != null) && (size + lineSize > maxSize.longValue())) {
+          break;
+        }
+        writer.append(line);
+        size += lineSize;
         lastLevel = detection.maxLevel;
-        line.append("<!-- ");
-        line.append(lastLevel.toString());
-        line.append(" -->\n");
+        count++;
       }
-      line.append("* ");
-      line.append(PageElementInternalLink.createInternalLink(
-          detection.pageName, null));
-      line.append(": ");
-      if (detection.notices != null) {
-        boolean first = true;
-        for (String notice : detection.notices) {
-          if (!first) {
-            line.append(", ");
-          }
-          first = false;
-          line.append("<nowiki>");
-          int index = 0;
-          while (index < notice.length()) {
-            int codePoint = notice.codePointAt(index);
-            switch (codePoint) {
-            case '\n': // Replace \n by a visual character
-              line.append('\u21b5');
-              break;
-            case '<': // Replace "<" by its HTML element
-              line.append("&lt;");
-              break;
-            case '\u007F': // Replace control characters by visible text
-              line.append("[DEL]");
-              break;
-            case '\u00A0': // Replace control characters by visible text
-              line.append("[NBSP]");
-              break;
-            case '\u00AD': // Replace control characters by visible text
-              line.append("[SHY]");
-              break;
-            case '\u2004': // Replace control characters by visible text
-              line.append("[3EM]");
-              break;
-            case '\u2005': // Replace control characters by visible text
-              line.append("[4EM]");
-              break;
-            case '\u2006': // Replace control characters by visible text
-              line.append("[6EM]");
-              break;
-            case '\u2007': // Replace control characters by visible text
-              line.append("[FS]");
-              break;
-            case '\u2008': // Replace control characters by visible text
-              line.append("[PS]");
-              break;
-            case '\u200B': // Replace control characters by visible text
-              line.append("[0WS]");
-              break;
-            case '\u200E': // Replace control characters by visible text
-              line.append("[LRM]");
-              break;
-            case '\u2028': // Replace control characters by visible text
-              line.append("[LS]");
-              break;
-            case '\u202A': // Replace control characters by visible text
-              line.append("[LRE]");
-              break;
-            case '\u202C': // Replace control characters by visible text
-              line.append("[POPD]");
-              break;
-            case '\uFEFF': // Replace control characters by visible text
-              line.append("[BOM]");
-              break;
-            case '\uFFFC': // Replace control characters by visible text
-              line.append("[ORC]");
-              break;
-            default:
-              if ((codePoint >= 0xE000) && (codePoint <= 0xF8FF)) {
-                line.append("[PUA]");
-              } else if ((codePoint >= 0XF0000) && (codePoint <= 0xFFFFD)) {
-                line.append("[PUA_A]");
-              } else if ((codePoint >= 0x100000) && (codePoint <= 0x10FFFD)) {
-                line.append("[PUA_B]");
-              } else {
-                line.appendCodePoint(codePoint);
-              }
-            } 
-            index = notice.offsetByCodePoints(index, 1);
-          }
-          line.append("</nowiki>");
+    } finally {
+      reader.close();
+    }
+    return count;
+  }
+
+  /**
+   * Format the line for a detection.
+   * 
+   * @param detection Detection.
+   * @param line Buffer for the line.
+   */
+  private void generateResult(Detection detection, StringBuilder line) {
+    line.append("* ");
+    line.append(PageElementInternalLink.createInternalLink(
+        detection.pageName, null));
+    line.append(": ");
+    if (detection.notices != null) {
+      boolean first = true;
+      for (String notice : detection.notices) {
+        if (!first) {
+          line.append(", ");
         }
+        first = false;
+        line.append("<nowiki>");
+        int index = 0;
+        while (index < notice.length()) {
+          int codePoint = notice.codePointAt(index);
+          switch (codePoint) {
+          case '\n': // Replace \n by a visual character
+            line.append('\u21b5');
+            break;
+          case '<': // Replace "<" by its HTML element
+            line.append("&lt;");
+            break;
+          case '\u007F': // Replace control characters by visible text
+            line.append("[DEL]");
+            break;
+          case '\u00A0': // Replace control characters by visible text
+            line.append("[NBSP]");
+            break;
+          case '\u00AD': // Replace control characters by visible text
+            line.append("[SHY]");
+            break;
+          case '\u2004': // Replace control characters by visible text
+            line.append("[3EM]");
+            break;
+          case '\u2005': // Replace control characters by visible text
+            line.append("[4EM]");
+            break;
+          case '\u2006': // Replace control characters by visible text
+            line.append("[6EM]");
+            break;
+          case '\u2007': // Replace control characters by visible text
+            line.append("[FS]");
+            break;
+          case '\u2008': // Replace control characters by visible text
+            line.append("[PS]");
+            break;
+          case '\u200B': // Replace control characters by visible text
+            line.append("[0WS]");
+            break;
+          case '\u200E': // Replace control characters by visible text
+            line.append("[LRM]");
+            break;
+          case '\u2028': // Replace control characters by visible text
+            line.append("[LS]");
+            break;
+          case '\u202A': // Replace control characters by visible text
+            line.append("[LRE]");
+            break;
+          case '\u202C': // Replace control characters by visible text
+            line.append("[POPD]");
+            break;
+          case '\uFEFF': // Replace control characters by visible text
+            line.append("[BOM]");
+            break;
+          case '\uFFFC': // Replace control characters by visible text
+            line.append("[ORC]");
+            break;
+          default:
+            if ((codePoint >= 0xE000) && (codePoint <= 0xF8FF)) {
+              line.append("[PUA]");
+            } else if ((codePoint >= 0XF0000) && (codePoint <= 0xFFFFD)) {
+              line.append("[PUA_A]");
+            } else if ((codePoint >= 0x100000) && (codePoint <= 0x10FFFD)) {
+              line.append("[PUA_B]");
+            } else {
+              line.appendCodePoint(codePoint);
+            }
+          } 
+          index = notice.offsetByCodePoints(index, 1);
+        }
+        line.append("</nowiki>");
       }
-      line.append("\n");
-      if ((maxSize == null) ||
-          (buffer.length() + line.length() < maxSize)) {
-        buffer.append(line);
+    }
+    line.append("\n");
+  }
+
+  /**
+   * @param text Text.
+   * @return Size of the text encoded in UTF-8.
+   */
+  private static long getUTF8Length(CharSequence text) {
+    long length = 0;
+    for (int index = 0; index < text.length(); index++) {
+      char currentChar = text.charAt(index);
+      if (currentChar < 0x80) {
+        length++;
+      } else if (currentChar < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(currentChar) &&
+                 (index + 1 < text.length()) &&
+                 Character.isLowSurrogate(text.charAt(index + 1))) {
+        length += 4;
+        index++;
       } else {
-        pagesToRemove.add(detection);
+        length += 3;
       }
     }
-    pages.removeAll(pagesToRemove);
-    return buffer.toString();
+    return length;
   }
 
   /**
    * Output result of the analysis.
    * 
    * @param algorithm Algorithm.
-   * @param pages List of pages with detections.
+   * @param detections Detections.
+   * @throws IOException Error reading the detections or writing the result.
    */
-  private void outputResult(CheckErrorAlgorithm algorithm, Collection<Detection> pages) {
-    if ((algorithm == null) || (pages == null)) {
+  private void outputResult(
+      CheckErrorAlgorithm algorithm,
+      DetectionStorage detections) throws IOException {
+    if ((algorithm == null) || (detections == null)) {
       return;
     }
-
-    // Prepare result
-    List<Detection> tmpPages = new ArrayList<>(pages);
-    Collections.sort(tmpPages);
-    int nbPages = tmpPages.size();
-    String result = generateResult(tmpPages, null);
+    detections.merge();
+    int nbPages = detections.size();
 
     // Output to file
     if (output != null) {
@@ -359,16 +443,10 @@ public class ListCWWorker extends BasicWorker {
       BufferedWriter writer = null;
       try {
         writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile, false), "UTF8"));
-        writer.write(result);
-      } catch (IOException e) {
-        // Nothing to do
+        generateResult(detections, writer, null, Integer.MAX_VALUE);
       } finally {
         if (writer != null) {
-          try {
-            writer.close();
-          } catch (IOException e) {
-            // Nothing to do
-          }
+          writer.close();
         }
       }
     }
@@ -376,6 +454,7 @@ public class ListCWWorker extends BasicWorker {
     // Output to a page
     if (pageName != null) {
       boolean finished = false;
+      int maxCount = Integer.MAX_VALUE;
       while (!finished) {
         try {
           finished = true;
@@ -398,41 +477,31 @@ public class ListCWWorker extends BasicWorker {
               }
             }
             if ((begin >= 0) && (end > begin)) {
-              String text = null;
-              finished = false;
-              while (!finished) {
-                StringBuilder newText = new StringBuilder();
-                newText.append(contents.substring(0, begin));
-                newText.append("\n");
-                newText.append(result);
-                newText.append(contents.substring(end));
-                text = newText.toString();
-                if (!getWikipedia().getWikiConfiguration().isArticleTooLong(text) ||
-                    tmpPages.isEmpty()) {
-                  finished = true; 
-                } else {
-                  tmpPages.remove(tmpPages.size() - 1);
-                  result = generateResult(
-                      tmpPages,
-                      getWikipedia().getWikiConfiguration().getMaxArticleSize());
-                }
+
+              // Generate the text in a single pass, truncated to the maximum size
+              String prefix = contents.substring(0, begin) + "\n";
+              String suffix = contents.substring(end);
+              Long maxSize = getWikipedia().getWikiConfiguration().getMaxArticleSize();
+              if (maxSize != null) {
+                maxSize = Long.valueOf(Math.max(
+                    0, maxSize.longValue() - getUTF8Length(prefix) - getUTF8Length(suffix)));
               }
+              StringWriter result = new StringWriter();
+              result.append(prefix);
+              int count = generateResult(detections, result, maxSize, maxCount);
+              result.append(suffix);
+              String text = result.toString();
+
               try {
                 api.updatePage(
                     getWikipedia(), page, text,
                     "Dump analysis for error n°" + algorithm.getErrorNumberString() + " (" + nbPages + " pages)",
                     true, true, false);
               } catch (APIException e) {
-                if (EnumQueryResult.CONTENT_TOO_BIG.equals(e.getQueryResult())) {
-                  for (int i = 0; i < 100; i++) {
-                    if (!tmpPages.isEmpty()) {
-                      finished = false;
-                      tmpPages.remove(tmpPages.size() - 1);
-                    }
-                  }
-                  result = generateResult(
-                      tmpPages,
-                      getWikipedia().getWikiConfiguration().getMaxArticleSize());
+                if (EnumQueryResult.CONTENT_TOO_BIG.equals(e.getQueryResult()) &&
+                    (count > 0)) {
+                  finished = false;
+                  maxCount = Math.max(0, count - 100);
                 } else {
                   throw e;
                 }
@@ -464,16 +533,16 @@ public class ListCWWorker extends BasicWorker {
       message.append(GT.__(
           "{0} page has been analyzed",
           "{0} pages have been analyzed",
-          countAnalyzed, Integer.toString(countAnalyzed)));
+          getCountAnalyzed(), Integer.toString(getCountAnalyzed())));
       for (AlgorithmInformation algorithmInfo : selectedAlgorithms) {
         CheckErrorAlgorithm algorithm = algorithmInfo.algorithm;
-        Map<String, Detection> pages = algorithmInfo.getDetections();
+        int nbPages = algorithmInfo.getDetections().size();
         message.append("\n");
         message.append(GT.__(
             "{0} page has been detected for algorithm {1}",
             "{0} pages have been detected for algorithm {1}",
-            pages.size(), new Object[] {
-              pages.size(),
+            nbPages, new Object[] {
+              nbPages,
               algorithm.getErrorNumberString() + " - " + algorithm.getShortDescription()}));
       }
       Utilities.displayInformationMessage(
@@ -599,22 +668,18 @@ public class ListCWWorker extends BasicWorker {
 
           // Memorize detection
           if (detectionConfirmed) {
-            System.out.println(
-                "Detection confirmed for " + page.getTitle() +
-                ": " + algorithm.algorithm.getErrorNumberString() +
-                " - " + algorithm.algorithm.getShortDescription());
-            algorithm.addDetection(currentPage, errors);
-            countDetections++;
+            try {
+              algorithm.addDetection(currentPage, errors);
+            } catch (IOException e) {
+              System.err.println(
+                  "Unable to memorize detection for " + page.getTitle() +
+                  ": " + e.getMessage());
+            }
+            metrics.addDetection();
           }
         }
       }
-      countAnalyzed++;
-      if (countAnalyzed % 100000 == 0) {
-        reportProgress();
-      }
-      if (countAnalyzed % 1000 == 0) {
-        setText(GT._("{0} pages processed", Integer.toString(countAnalyzed)));
-      }
+      metrics.addPage();
       return page;
     }
   }
@@ -636,8 +701,11 @@ public class ListCWWorker extends BasicWorker {
     /** API */
     private final API api;
 
+    /** Pages added to the list of pages to check */
+    private Set<String> pagesAdded;
+
     /** Restrict the processing to this list of pages */
-    private List<String> pagesList;
+    private TitleSet pagesList;
 
     /**
      * @param wiki Wiki.
@@ -668,13 +736,11 @@ public class ListCWWorker extends BasicWorker {
       if (page == null) {
         return;
       }
-      String title = page.getTitle();
-      if (pagesList == null) {
-        pagesList = new ArrayList<>();
-      }
-      if (!pagesList.contains(title)) {
-        pagesList.add(title);
+      if (pagesAdded == null) {
+        pagesAdded = new HashSet<>();
       }
+      pagesAdded.add(page.getTitle());
+      pagesList = null;
     }
 
     /**
@@ -684,6 +750,9 @@ public class ListCWWorker extends BasicWorker {
     @Override
     public void processPage(Page page) {
       if ((page != null) && page.isInMainNamespace()) {
+        if ((pagesList == null) && (pagesAdded != null)) {
+          pagesList = TitleSet.create(pagesAdded, true);
+        }
         if ((pagesList == null) || pagesList.contains(page.getTitle())) {
           controller.addTask(new CWPageCallable(wiki, listener, api, page));
         }
@@ -736,6 +805,17 @@ public class ListCWWorker extends BasicWorker {
       this.maxLevel = tmpLevel;
     }
 
+    /**
+     * @param pageName Page name.
+     * @param notices List of notices.
+     * @param maxLevel Maximum level for the errors.
+     */
+    Detection(String pageName, List<String> notices, ErrorLevel maxLevel) {
+      this.pageName = pageName;
+      this.notices = notices;
+      this.maxLevel = maxLevel;
+    }
+
     /**
      * @param o
      * @return
@@ -778,18 +858,19 @@ public class ListCWWorker extends BasicWorker {
     final CheckErrorAlgorithm algorithm;
 
     /** Errors found. */
-    private final Map<String, Detection> detections;
+    private final DetectionStorage detections;
 
     /** Time spent in analysis. */
-    private long timeSpent;
+    final StripedCounter timeSpent;
 
     /**
      * @param algorithm Algorithm.
      */
     private AlgorithmInformation(CheckErrorAlgorithm algorithm) {
       this.algorithm = algorithm;
-      this.detections = new HashMap<>();
-      this.timeSpent = 0;
+      this.detections = new DetectionStorage(
+          "WPCleaner_CW_" + algorithm.getErrorNumberString() + "_");
+      this.timeSpent = new StripedCounter();
     }
 
     /**
@@ -809,30 +890,31 @@ public class ListCWWorker extends BasicWorker {
     /**
      * @return Errors found.
      */
-    public Map<String, Detection> getDetections() {
+    public DetectionStorage getDetections() {
       return detections;
     }
 
     /**
      * @param page Page.
      * @param errors List of errors.
+     * @throws IOException Error memorizing the detection.
      */
-    public void addDetection(Page page, List<CheckErrorResult> errors) {
-      detections.put(page.getTitle(), new Detection(page, errors));
+    public void addDetection(Page page, List<CheckErrorResult> errors) throws IOException {
+      detections.add(new Detection(page, errors));
     }
 
     /**
      * @param time Time spent.
      */
     public void addTimeSpent(long time) {
-      timeSpent += time;
+      timeSpent.add(time);
     }
 
     /**
      * @return Time spent.
      */
     public long getTimeSpent() {
-      return timeSpent;
+      return timeSpent.sum();
     }
   }
 }
@@ -0,0 +1,413 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.API;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.APIFactory;
+import org.wikipediacleaner.api.RecentChangesFilter;
+import org.wikipediacleaner.api.RecentChangesListener;
+import org.wikipediacleaner.api.check.CheckErrorResult;
+import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.Namespace;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.RecentChange;
+import org.wikipediacleaner.gui.swing.basic.BasicWindow;
+import org.wikipediacleaner.gui.swing.basic.BasicWorker;
+import org.wikipediacleaner.i18n.GT;
+
+
+/**
+ * SwingWorker for analyzing pages modified in recent changes with Check Wiki algorithms.
+ *
+ * Titles of modified articles are collected from the recent changes feed,
+ * their contents are retrieved in batches, and each detection is sent to a sink.
+ */
+public class RecentChangesCWWorker extends BasicWorker {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(RecentChangesCWWorker.class);
+
+  /** Maximum number of pages analyzed in one batch (one revisions query) */
+  private final static int BATCH_SIZE = 50;
+
+  /** Maximum delay before analyzing an incomplete batch (in milliseconds) */
+  private final static long BATCH_DELAY = 60000;
+
+  /** Maximum number of failed attempts to retrieve the contents of a page */
+  private final static int MAX_FAILURES = 3;
+
+  /** Delay before retrying after a first failure (in milliseconds) */
+  private final static long RETRY_DELAY = 5000;
+
+  /** Maximum delay before retrying after failures (in milliseconds) */
+  private final static long MAX_RETRY_DELAY = 300000;
+
+  /** Algorithms */
+  private final List<CheckErrorAlgorithm> algorithms;
+
+  /** Sink for the detections */
+  private final DetectionSink sink;
+
+  /** Titles waiting to be analyzed */
+  private final Set<String> titles;
+
+  /** Lock for the titles waiting to be analyzed */
+  private final Object lock;
+
+  /** Number of failed attempts to retrieve the contents of each page */
+  private final Map<String, Integer> failures;
+
+  /** Number of consecutive failures to retrieve page contents */
+  private int consecutiveFailures;
+
+  /** Performance of the analysis */
+  private final PageAnalysis.AnalysisPerformance analysisTime;
+
+  /** Count of analyzed pages */
+  private int countAnalyzed;
+
+  /** Count of detections */
+  private int countDetections;
+
+  /**
+   * @param wiki Wiki.
+   * @param window Window.
+   * @param algorithms List of selected algorithms.
+   * @param output File to which detections are appended.
+   */
+  public RecentChangesCWWorker(
+      EnumWikipedia wiki, BasicWindow window,
+      List<CheckErrorAlgorithm> algorithms, File output) {
+    this(wiki, window, algorithms, new FileDetectionSink(output));
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param window Window.
+   * @param algorithms List of selected algorithms.
+   * @param sink Sink for the detections.
+   */
+  public RecentChangesCWWorker(
+      EnumWikipedia wiki, BasicWindow window,
+      List<CheckErrorAlgorithm> algorithms, DetectionSink sink) {
+    super(wiki, window);
+    this.algorithms = new ArrayList<>(algorithms);
+    this.sink = sink;
+    this.titles = new LinkedHashSet<>();
+    this.lock = new Object();
+    this.failures = new HashMap<>();
+    this.consecutiveFailures = 0;
+    this.analysisTime = new PageAnalysis.AnalysisPerformance();
+    this.countAnalyzed = 0;
+    this.countDetections = 0;
+  }
+
+  /**
+   * @return Object returned by the <code>get</code> method.
+   * @see org.wikipediacleaner.gui.swing.basic.BasicWorker#construct()
+   */
+  @Override
+  public Object construct() {
+    if (algorithms.isEmpty() || (sink == null)) {
+      return null;
+    }
+    EnumWikipedia wiki = getWikipedia();
+    API api = APIFactory.getAPI();
+    RecentChangesListener listener = new RecentChangesListener() {
+
+      @Override
+      public void recentChanges(List<RecentChange> rc, Date currentTime) {
+        addRecentChanges(rc);
+      }
+    };
+    api.addRecentChangesListener(
+        wiki, listener,
+        new RecentChangesFilter(
+            Collections.singleton(Namespace.MAIN),
+            Arrays.asList(RecentChange.TYPE_EDIT, RecentChange.TYPE_NEW),
+            null));
+    try {
+      while (shouldContinue()) {
+        List<Page> pages = waitForBatch();
+        if (!pages.isEmpty()) {
+          setText(GT._("Retrieving page contents"));
+          try {
+            api.retrieveContents(wiki, pages, false, false);
+          } catch (APIException e) {
+            log.error("Unable to retrieve page contents", e);
+            retryLater(pages);
+            continue;
+          }
+          consecutiveFailures = 0;
+          synchronized (lock) {
+            for (Page page : pages) {
+              failures.remove(page.getTitle());
+            }
+          }
+          setText(GT._("Analyzing pages"));
+          try {
+            for (Page page : pages) {
+              analyzePage(page);
+            }
+            sink.flush();
+          } catch (IOException e) {
+            log.error("Unable to write detections", e);
+            return null;
+          }
+          log.info(
+              "Pages analyzed: " + countAnalyzed +
+              " / errors detected: " + countDetections);
+        }
+      }
+    } finally {
+      api.removeRecentChangesListener(wiki, listener);
+      try {
+        sink.close();
+      } catch (IOException e) {
+        log.error("Unable to close the output for detections", e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Memorize the titles of pages modified in recent changes.
+   *
+   * @param rc Recent changes.
+   */
+  void addRecentChanges(List<RecentChange> rc) {
+    if (rc == null) {
+      return;
+    }
+    synchronized (lock) {
+      for (RecentChange change : rc) {
+        if (change.getTitle() != null) {
+          titles.add(change.getTitle());
+        }
+      }
+      if (titles.size() >= BATCH_SIZE) {
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Put back pages whose contents couldn't be retrieved, and wait before retrying.
+   * Pages are dropped after too many failed attempts.
+   *
+   * @param pages Pages.
+   */
+  private void retryLater(List<Page> pages) {
+    synchronized (lock) {
+      for (Page page : pages) {
+        String title = page.getTitle();
+        Integer count = failures.get(title);
+        int newCount = (count != null) ? count.intValue() + 1 : 1;
+        if (newCount >= MAX_FAILURES) {
+          log.warn("Giving up analysis of " + title + " after " + newCount + " failures");
+          failures.remove(title);
+        } else {
+          failures.put(title, Integer.valueOf(newCount));
+          titles.add(title);
+        }
+      }
+    }
+    consecutiveFailures++;
+    long delay = Math.min(RETRY_DELAY << Math.min(consecutiveFailures - 1, 16), MAX_RETRY_DELAY);
+    long limit = System.currentTimeMillis() + delay;
+    long remaining = delay;
+    while ((remaining > 0) && shouldContinue()) {
+      try {
+        Thread.sleep(Math.min(remaining, 1000));
+      } catch (InterruptedException e) {
+        return;
+      }
+      remaining = limit - System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Wait until a full batch is available or the delay has expired.
+   *
+   * @return Pages to be analyzed.
+   */
+  private List<Page> waitForBatch() {
+    List<Page> pages = new ArrayList<>();
+    synchronized (lock) {
+      long limit = System.currentTimeMillis() + BATCH_DELAY;
+      long remaining = BATCH_DELAY;
+      while ((titles.size() < BATCH_SIZE) && (remaining > 0) && shouldContinue()) {
+        try {
+          lock.wait(Math.min(remaining, 1000));
+        } catch (InterruptedException e) {
+          return pages;
+        }
+        remaining = limit - System.currentTimeMillis();
+      }
+      Iterator<String> itTitles = titles.iterator();
+      while (itTitles.hasNext() && (pages.size() < BATCH_SIZE)) {
+        pages.add(DataManager.getPage(getWikipedia(), itTitles.next(), null, null, null));
+        itTitles.remove();
+      }
+    }
+    return pages;
+  }
+
+  /**
+   * Analyze a page with the selected algorithms.
+   *
+   * @param page Page.
+   * @throws IOException Error writing a detection.
+   */
+  private void analyzePage(Page page) throws IOException {
+    if (!Boolean.TRUE.equals(page.isExisting()) ||
+        page.isRedirect() ||
+        (page.getContents() == null)) {
+      return;
+    }
+    countAnalyzed++;
+    PageAnalysis analysis = page.getAnalysis(page.getContents(), false);
+    analysis.performFullPageAnalysis(analysisTime);
+    for (CheckErrorAlgorithm algorithm : algorithms) {
+      if (!algorithm.isInWhiteList(page.getTitle())) {
+        List<CheckErrorResult> errors = new ArrayList<>();
+        if (algorithm.analyze(analysis, errors, false)) {
+          countDetections++;
+          sink.addDetection(
+              algorithm, page.getTitle(),
+              new ListCWWorker.Detection(page, errors).maxLevel);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sink for the detections.
+   */
+  public static interface DetectionSink {
+
+    /**
+     * @param algorithm Algorithm.
+     * @param title Title of the page.
+     * @param level Maximum level for the errors.
+     * @throws IOException Error processing the detection.
+     */
+    public void addDetection(
+        CheckErrorAlgorithm algorithm, String title, ErrorLevel level) throws IOException;
+
+    /**
+     * Flush the detections sent since the last flush.
+     *
+     * @throws IOException Error processing the detections.
+     */
+    public void flush() throws IOException;
+
+    /**
+     * Close the sink.
+     *
+     * @throws IOException Error closing the sink.
+     */
+    public void close() throws IOException;
+  }
+
+  /**
+   * Sink appending detections to a file, one line per detection:
+   * timestamp, error number, page title and error level separated by tabs.
+   */
+  public static class FileDetectionSink implements DetectionSink {
+
+    /** File */
+    private final File file;
+
+    /** Writer */
+    private Writer writer;
+
+    /** Format for the timestamps */
+    private final SimpleDateFormat format;
+
+    /**
+     * @param file File to which detections are appended.
+     */
+    public FileDetectionSink(File file) {
+      this.file = file;
+      this.format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+    }
+
+    /**
+     * @param algorithm Algorithm.
+     * @param title Title of the page.
+     * @param level Maximum level for the errors.
+     * @throws IOException Error writing the detection.
+     * @see org.wikipediacleaner.gui.swing.bot.RecentChangesCWWorker.DetectionSink#addDetection(org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm, java.lang.String, org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel)
+     */
+    @Override
+    public void addDetection(
+        CheckErrorAlgorithm algorithm, String title, ErrorLevel level) throws IOException {
+      if (writer == null) {
+        writer = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(file, true), "UTF8"));
+      }
+      writer.write(format.format(new Date()));
+      writer.write('\t');
+      writer.write(algorithm.getErrorNumberString());
+      writer.write('\t');
+      writer.write(title);
+      writer.write('\t');
+      writer.write(level.toString());
+      writer.write('\n');
+    }
+
+    /**
+     * @throws IOException Error writing the detections.
+     * @see org.wikipediacleaner.gui.swing.bot.RecentChangesCWWorker.DetectionSink#flush()
+     */
+    @Override
+    public void flush() throws IOException {
+      if (writer != null) {
+        writer.flush();
+      }
+    }
+
+    /**
+     * @throws IOException Error closing the file.
+     * @see org.wikipediacleaner.gui.swing.bot.RecentChangesCWWorker.DetectionSink#close()
+     */
+    @Override
+    public void close() throws IOException {
+      if (writer != null) {
+        writer.close();
+        writer = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wikipediacleaner.gui.swing.basic.BasicWorker;
+import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.StripedCounter;
+
+
+/**
+ * Metrics for workers processing many pages in parallel.
+ *
+ * Counters can be updated by many threads without contention.
+ * A reporting thread periodically publishes a snapshot
+ * (pages/s, detections/s, most expensive timers) instead of
+ * having the processing threads write progress themselves.
+ */
+public class WorkerMetrics {
+
+  /** Interval between two updates of the worker text (in milliseconds) */
+  private final static long TEXT_INTERVAL = 1000;
+
+  /** Number of timers displayed in a snapshot */
+  private final static int SNAPSHOT_TIMERS = 5;
+
+  /** Count of processed pages */
+  private final StripedCounter pages;
+
+  /** Count of detections */
+  private final StripedCounter detections;
+
+  /** Timers (time spent in nanoseconds) */
+  private final Map<String, StripedCounter> timers;
+
+  /** Reporting thread */
+  private Thread reporter;
+
+  /** Time of the previous snapshot */
+  private long lastTime;
+
+  /** Count of pages at the previous snapshot */
+  private long lastPages;
+
+  /** Count of detections at the previous snapshot */
+  private long lastDetections;
+
+  /** Timers values at the previous snapshot */
+  private final Map<String, Long> lastTimers;
+
+  /**
+   * Create metrics.
+   */
+  public WorkerMetrics() {
+    this.pages = new StripedCounter();
+    this.detections = new StripedCounter();
+    this.timers = new LinkedHashMap<>();
+    this.lastTimers = new LinkedHashMap<>();
+    this.lastTime = System.nanoTime();
+    this.lastPages = 0;
+    this.lastDetections = 0;
+  }
+
+  /**
+   * Register a timer (before processing starts).
+   * 
+   * @param name Name of the timer.
+   * @param timer Timer.
+   */
+  public synchronized void addTimer(String name, StripedCounter timer) {
+    timers.put(name, timer);
+    lastTimers.put(name, Long.valueOf(timer.sum()));
+  }
+
+  /**
+   * Count a processed page.
+   */
+  public void addPage() {
+    pages.increment();
+  }
+
+  /**
+   * Count a detection.
+   */
+  public void addDetection() {
+    detections.increment();
+  }
+
+  /**
+   * @return Count of processed pages.
+   */
+  public long getPages() {
+    return pages.sum();
+  }
+
+  /**
+   * @return Count of detections.
+   */
+  public long getDetections() {
+    return detections.sum();
+  }
+
+  /**
+   * Compute a snapshot of the metrics since the previous snapshot.
+   * 
+   * @return Textual description of the snapshot.
+   */
+  public synchronized String snapshot() {
+    long currentTime = System.nanoTime();
+    long currentPages = pages.sum();
+    long currentDetections = detections.sum();
+    double seconds = Math.max(currentTime - lastTime, 1) / 1000000000.0;
+    StringBuilder result = new StringBuilder();
+    result.append("Pages processed: ");
+    result.append(currentPages);
+    result.append(String.format(" (%.1f/s)", Double.valueOf((currentPages - lastPages) / seconds)));
+    result.append(" / errors detected: ");
+    result.append(currentDetections);
+    result.append(String.format(" (%.1f/s)", Double.valueOf((currentDetections - lastDetections) / seconds)));
+
+    // Most expensive timers since the previous snapshot
+    final Map<String, Long> deltas = new LinkedHashMap<>();
+    for (Map.Entry<String, StripedCounter> timer : timers.entrySet()) {
+      long value = timer.getValue().sum();
+      Long previous = lastTimers.put(timer.getKey(), Long.valueOf(value));
+      deltas.put(timer.getKey(), Long.valueOf(value - ((previous != null) ? previous.longValue() : 0)));
+    }
+    List<String> names = new ArrayList<>(deltas.keySet());
+    Collections.sort(names, new Comparator<String>() {
+
+      @Override
+      public int compare(String o1, String o2) {
+        return deltas.get(o2).compareTo(deltas.get(o1));
+      }
+    });
+    for (int i = 0; (i < names.size()) && (i < SNAPSHOT_TIMERS); i++) {
+      long delta = deltas.get(names.get(i)).longValue();
+      if (delta > 0) {
+        result.append((i == 0) ? " / slowest: " : ", ");
+        result.append(names.get(i));
+        result.append(String.format(" %.1fs", Double.valueOf(delta / 1000000000.0)));
+      }
+    }
+
+    lastTime = currentTime;
+    lastPages = currentPages;
+    lastDetections = currentDetections;
+    return result.toString();
+  }
+
+  /**
+   * Start the reporting thread.
+   * 
+   * @param worker Worker whose text is updated with the progress (may be null).
+   * @param interval Interval between two snapshots printed on the standard output (in milliseconds).
+   */
+  public synchronized void startReporting(final BasicWorker worker, final long interval) {
+    if (reporter != null) {
+      return;
+    }
+    reporter = new Thread("Worker metrics") {
+
+      @Override
+      public void run() {
+        long nextSnapshot = System.currentTimeMillis() + interval;
+        while (!isInterrupted()) {
+          try {
+            Thread.sleep(TEXT_INTERVAL);
+          } catch (InterruptedException e) {
+            return;
+          }
+          if (worker != null) {
+            worker.setText(GT._("{0} pages processed", Long.toString(getPages())));
+          }
+          if (System.currentTimeMillis() >= nextSnapshot) {
+            System.out.println(snapshot());
+            nextSnapshot += interval;
+          }
+        }
+      }
+    };
+    reporter.setDaemon(true);
+    reporter.start();
+  }
+
+  /**
+   * Stop the reporting thread.
+   */
+  public void stopReporting() {
+    Thread tmpReporter;
+    synchronized (this) {
+      tmpReporter = reporter;
+      reporter = null;
+    }
+    if (tmpReporter != null) {
+      tmpReporter.interrupt();
+      try {
+        tmpReporter.join();
+      } catch (InterruptedException e) {
+        // Nothing to do
+      }
+    }
+  }
+}
@@ -860,8 +860,7 @@ public class CheckWikiWindow extends OnePageWindow implements CheckWikiListener
     Set<String> pagesWithError = new HashSet<String>();
     for (CheckError error : errors) {
       for (int pageNumber = 0; pageNumber < error.getPageCount(); pageNumber++) {
-        Page page = error.getPage(pageNumber);
-        String title = page.getTitle();
+        String title = error.getPageTitle(pageNumber);
         if (pagesWithError.contains(title)) {
           pagesWithMultipleErrors.add(title);
         } else {
@@ -883,8 +882,7 @@ public class CheckWikiWindow extends OnePageWindow implements CheckWikiListener
     if (pageTitle != null) {
       for (CheckError error : errors) {
         for (int pageNumber = 0; pageNumber < error.getPageCount(); pageNumber++) {
-          Page page = error.getPage(pageNumber);
-          String title = page.getTitle();
+          String title = error.getPageTitle(pageNumber);
           if (Page.areSameTitle(pageTitle, title)) {
             result.add(error);
           }
@@ -29,7 +29,6 @@ import javax.swing.text.StyledDocument;
 
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.Page;
-import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementTitle;
 import org.wikipediacleaner.gui.swing.action.FindTextAction;
 import org.wikipediacleaner.gui.swing.action.ReplaceLinkAction;
@@ -86,6 +85,7 @@ public class MWPane
     this.window = window;
     this.selectionManager = new MWPaneSelectionManager(this);
     this.undoManager = new MWPaneUndoManager(this);
+    this.formattingManager = new MWPaneFormattingManager(this);
     this.formatter = new MWPaneBasicFormatter();
     initialize();
   }
@@ -154,6 +154,8 @@ public class MWPane
        */
       @Override
       public void insertUpdate(@SuppressWarnings("unused") DocumentEvent e) {
+        formattingManager.textModified();
+        changeText();
         changeDocument();
       }
 
@@ -162,9 +164,17 @@ public class MWPane
        */
       @Override
       public void removeUpdate(@SuppressWarnings("unused") DocumentEvent e) {
+        formattingManager.textModified();
+        changeText();
         changeDocument();
       }
 
+      public void changeText() {
+        if (!isInInternalModification) {
+          undoManager.textModified();
+        }
+      }
+
       public void changeDocument() {
         if (!isModified() && !isInInternalModification) {
           setModified(true);
@@ -305,6 +315,18 @@ public class MWPane
   /* Formatting management                                                     */
   /* ========================================================================= */
 
+  /**
+   * Formatting manager.
+   */
+  private final MWPaneFormattingManager formattingManager;
+
+  /**
+   * @return Formatting manager.
+   */
+  public MWPaneFormattingManager getFormattingManager() {
+    return formattingManager;
+  }
+
   /**
    * @param formatter Formatter.
    */
@@ -323,6 +345,8 @@ public class MWPane
   /**
    * Reset attributes of the document.
    * This method should be called after modifications are done.
+   * For big documents, the formatting is done in the background
+   * (see {@link MWPaneFormattingManager}).
    */
   public void resetAttributes() {
 
@@ -334,10 +358,8 @@ public class MWPane
     boolean oldState = isInInternalModification;
     isInInternalModification = true;
 
-    // First remove MediaWiki styles
-    String contents = getText();
-    PageAnalysis pageAnalysis = (page != null) ? page.getAnalysis(contents, true) : null;
-    formatter.format(this, pageAnalysis);
+    // Format the document
+    formattingManager.format(formatter, page);
 
     isInInternalModification = oldState;
 
@@ -20,6 +20,7 @@ import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementComment;
 import org.wikipediacleaner.api.data.PageElementInternalLink;
 import org.wikipediacleaner.api.data.PageElementTemplate;
+import org.wikipediacleaner.api.data.PageIndex;
 import org.wikipediacleaner.api.data.TemplateMatcher;
 import org.wikipediacleaner.utils.ConfigurationValueStyle;
 
@@ -42,6 +43,7 @@ public class MWPaneDisambiguationFormatter extends
       EnumWikipedia wikipedia, List<Page> links) {
     this.wikipedia = wikipedia;
     this.links = links;
+    this.linkIndex = new PageIndex(links);
   }
 
   /**
@@ -447,6 +449,11 @@ public class MWPaneDisambiguationFormatter extends
    */
   private final List<Page> links;
 
+  /**
+   * Index on the links of interest.
+   */
+  private final PageIndex linkIndex;
+
   /**
    * Find the page matching a page name.
    * 
@@ -454,14 +461,7 @@ public class MWPaneDisambiguationFormatter extends
    * @return Page matching the page name.
    */
   private Page findPage(String pagename) {
-    if (links != null) {
-      for (Page page : links) {
-        if (Page.areSameTitle(page.getTitle(), pagename)) {
-          return page;
-        }
-      }
-    }
-    return null;
+    return linkIndex.getFirstPage(pagename);
   }
 
   /**
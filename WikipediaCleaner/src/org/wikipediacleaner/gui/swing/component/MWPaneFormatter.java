@@ -7,9 +7,12 @@
 
 package org.wikipediacleaner.gui.swing.component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.swing.JTextPane;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultStyledDocument;
 import javax.swing.text.Element;
 import javax.swing.text.Style;
@@ -33,6 +36,7 @@ import org.wikipediacleaner.api.data.PageElementParameter;
 import org.wikipediacleaner.api.data.PageElementTag;
 import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.PageElementTitle;
+import org.wikipediacleaner.api.data.PageIndex;
 import org.wikipediacleaner.api.data.PageElementAreas.Area;
 import org.wikipediacleaner.utils.Configuration;
 import org.wikipediacleaner.utils.ConfigurationValueInteger;
@@ -225,6 +229,7 @@ public abstract class MWPaneFormatter {
       PageAnalysis analysis,
       List<PageElement> elements,
       int begin, int end) {
+    PageIndex linkIndex = null;
     for (int i = begin; i < end; i++) {
       PageElement element = elements.get(i);
       int beginIndex = element.getBeginIndex();
@@ -245,7 +250,12 @@ public abstract class MWPaneFormatter {
       } else if (element instanceof PageElementImage) {
         style = doc.getStyle(ConfigurationValueStyle.IMAGE.getName());
       } else if (element instanceof PageElementInternalLink) {
-        style = getInternalLinkStyle(doc, analysis, (PageElementInternalLink) element);
+        if ((linkIndex == null) &&
+            (analysis != null) &&
+            (analysis.getPage() != null)) {
+          linkIndex = new PageIndex(analysis.getPage().getLinks());
+        }
+        style = getInternalLinkStyle(doc, linkIndex, (PageElementInternalLink) element);
       } else if (element instanceof PageElementLanguageLink) {
         style = doc.getStyle(ConfigurationValueStyle.LANGUAGE_LINK.getName());
       } else if (element instanceof PageElementParameter) {
@@ -278,21 +288,14 @@ public abstract class MWPaneFormatter {
 
   private Style getInternalLinkStyle(
       StyledDocument doc,
-      PageAnalysis analysis,
+      PageIndex linkIndex,
       PageElementInternalLink link) {
     Style style = null;
 
-    if ((analysis != null) &&
-        (analysis.getPage() != null) &&
-        (analysis.getPage().getLinks() != null)) {
+    if (linkIndex != null) {
 
       // Find link target
-      Page target = null;
-      for (Page tmpPage : analysis.getPage().getLinks()) {
-        if (Page.areSameTitle(tmpPage.getTitle(), link.getLink())) {
-          target = tmpPage;
-        }
-      }
+      Page target = linkIndex.getLastPage(link.getLink());
 
       // Specific styles
       if (target != null) {
@@ -322,17 +325,111 @@ public abstract class MWPaneFormatter {
     if (pane == null) {
       return;
     }
-    // TODO: Detach document from Pane to speed up formatting
     StyledDocument doc = pane.getStyledDocument();
-    //StyledDocument tmpDoc = new DefaultStyledDocument();
-    //pane.setDocument(tmpDoc);
+    synchronized (this) {
+
+      // Format document
+      format(doc, pageAnalysis);
+
+      // Move caret
+      moveCaret(pane);
+    }
+  }
+
+  /**
+   * Compute the style runs for a text, without modifying the pane.
+   * 
+   * The text is formatted in a detached document, so this method can be
+   * called outside of the event dispatch thread.
+   * The caret position memorized by the formatter is updated,
+   * {@link #moveCaret(MWPane)} can be called after applying the style runs.
+   * 
+   * @param contents Text to be formatted.
+   * @param pageAnalysis Page analysis.
+   * @return Style runs covering the whole text.
+   */
+  public final List<StyleRun> computeStyleRuns(
+      String contents, PageAnalysis pageAnalysis) {
+    List<StyleRun> runs = new ArrayList<StyleRun>();
+    if ((contents == null) || (contents.length() == 0)) {
+      return runs;
+    }
 
-    // Format document
-    format(doc, pageAnalysis);
+    // Format a detached document
+    StyledDocument doc = createDocument();
+    try {
+      doc.insertString(0, contents, null);
+    } catch (BadLocationException e) {
+      return runs;
+    }
+    synchronized (this) {
+      format(doc, pageAnalysis);
+    }
+
+    // Extract style runs
+    int length = doc.getLength();
+    int pos = 0;
+    while (pos < length) {
+      Element run = doc.getCharacterElement(pos);
+      int end = Math.min(run.getEndOffset(), length);
+      if (end <= pos) {
+        break;
+      }
+      runs.add(new StyleRun(pos, end, run.getAttributes()));
+      pos = end;
+    }
+    return runs;
+  }
 
-    // Attach document again before moving caret
-    //pane.setDocument(doc);
-    moveCaret(pane);
+  /**
+   * A range of text sharing the same attributes.
+   */
+  public static class StyleRun {
+
+    /** Begin of the run */
+    private final int beginIndex;
+
+    /** End of the run */
+    private final int endIndex;
+
+    /** Attributes of the run */
+    private final AttributeSet attributes;
+
+    /**
+     * @param beginIndex Begin of the run.
+     * @param endIndex End of the run.
+     * @param attributes Attributes of the run.
+     */
+    StyleRun(int beginIndex, int endIndex, AttributeSet attributes) {
+      this.beginIndex = beginIndex;
+      this.endIndex = endIndex;
+      this.attributes = attributes;
+    }
+
+    /**
+     * @return Begin of the run.
+     */
+    public int getBeginIndex() {
+      return beginIndex;
+    }
+
+    /**
+     * @return End of the run.
+     */
+    public int getEndIndex() {
+      return endIndex;
+    }
+
+    /**
+     * Apply the attributes of the run to a document.
+     * 
+     * @param doc Document.
+     */
+    public void apply(StyledDocument doc) {
+      doc.setCharacterAttributes(
+          beginIndex, endIndex - beginIndex,
+          attributes, true);
+    }
   }
 
   /**
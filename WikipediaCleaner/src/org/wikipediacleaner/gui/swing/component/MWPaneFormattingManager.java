@@ -0,0 +1,497 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.component;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.StyledDocument;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.gui.swing.component.MWPaneFormatter.StyleRun;
+
+
+/**
+ * Manage formatting operations on MWPane.
+ * 
+ * Small texts are analyzed and formatted directly.
+ * For bigger texts, the analysis and the computation of the style runs
+ * are done in a background thread, so that the event dispatch thread isn't blocked.
+ * The analysis done in the background is a separate analysis of a copy of the text,
+ * the page itself is only updated in the event dispatch thread.
+ * The style runs are then applied to the visible part of the text first,
+ * and to the rest of the text in small chunks.
+ * A new formatting request cancels the previous ones.
+ * A modification of the text during formatting cancels it too,
+ * and the text is formatted again after a short delay.
+ * Attributes of the text should only be read after {@link #complete(Runnable)},
+ * and the formatter is only used with the lock on the formatter.
+ */
+public class MWPaneFormattingManager {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(MWPaneFormattingManager.class);
+
+  /** Maximum length of a text formatted directly in the event dispatch thread */
+  private final static int DIRECT_FORMATTING_LIMIT = 20000;
+
+  /** Maximum number of style runs applied in each chunk */
+  private final static int RUNS_PER_CHUNK = 500;
+
+  /** Delay before formatting again a text modified during formatting (in milliseconds) */
+  private final static int REFORMAT_DELAY = 500;
+
+  /** Executor for background formatting, shared by all panes */
+  private static ExecutorService executor;
+
+  /**
+   * @return Executor for background formatting.
+   */
+  private static synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "MWPane formatting");
+          thread.setDaemon(true);
+          thread.setPriority(Thread.NORM_PRIORITY - 1);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+
+  /**
+   * MWPane.
+   */
+  private final MWPane textPane;
+
+  /**
+   * Generation of the last formatting request.
+   */
+  private volatile int generation;
+
+  /**
+   * Number of modifications of the text.
+   */
+  private int textVersion;
+
+  /**
+   * Background computation of the style runs in progress.
+   */
+  private Future<?> pendingTask;
+
+  /**
+   * Version of the text for the background computation in progress.
+   */
+  private int pendingTextVersion;
+
+  /**
+   * Formatter used by the background computation in progress.
+   */
+  private MWPaneFormatter pendingFormatter;
+
+  /**
+   * True if the caret should be moved after the background computation in progress.
+   */
+  private boolean pendingMoveCaret;
+
+  /**
+   * Style runs remaining to be applied.
+   */
+  private ArrayDeque<StyleRun> pendingRuns;
+
+  /**
+   * Timer for formatting again a text modified during formatting.
+   */
+  private Timer reformatTimer;
+
+  /**
+   * Actions waiting for the formatting to be complete.
+   */
+  private final List<Runnable> waitingActions;
+
+  /**
+   * @param textPane MWPane.
+   */
+  MWPaneFormattingManager(MWPane textPane) {
+    this.textPane = textPane;
+    this.generation = 0;
+    this.textVersion = 0;
+    this.waitingActions = new ArrayList<Runnable>();
+  }
+
+  /**
+   * Format the text of the pane.
+   * 
+   * @param formatter Formatter.
+   * @param page Page.
+   */
+  void format(MWPaneFormatter formatter, Page page) {
+    format(formatter, page, true);
+  }
+
+  /**
+   * Format the text of the pane.
+   * 
+   * @param formatter Formatter.
+   * @param page Page.
+   * @param moveCaret True if the caret should be moved by the formatter.
+   */
+  private void format(
+      final MWPaneFormatter formatter, final Page page,
+      boolean moveCaret) {
+
+    // Cancel previous formatting
+    cancel();
+    if (formatter == null) {
+      runWaitingActions();
+      return;
+    }
+
+    // Format small texts directly
+    final String contents = textPane.getText();
+    if ((page == null) || (contents.length() <= DIRECT_FORMATTING_LIMIT)) {
+      PageAnalysis pageAnalysis = (page != null) ? page.getAnalysis(contents, true) : null;
+      if (moveCaret) {
+        formatter.format(textPane, pageAnalysis);
+      } else {
+        synchronized (formatter) {
+          formatter.format(textPane.getStyledDocument(), pageAnalysis);
+        }
+      }
+      runWaitingActions();
+      return;
+    }
+
+    // Compute style runs in the background
+    final int taskGeneration = generation;
+    pendingTextVersion = textVersion;
+    pendingFormatter = formatter;
+    pendingMoveCaret = moveCaret;
+    pendingTask = getExecutor().submit(new Runnable() {
+
+      @Override
+      public void run() {
+        if (taskGeneration != generation) {
+          return;
+        }
+        BackgroundResult result = null;
+        try {
+          PageAnalysis pageAnalysis = page.createAnalysis(contents);
+          if (taskGeneration != generation) {
+            return;
+          }
+          List<StyleRun> runs = formatter.computeStyleRuns(contents, pageAnalysis);
+          result = new BackgroundResult(pageAnalysis, runs);
+        } catch (RuntimeException e) {
+          log.error("Error formatting text", e);
+        }
+        final BackgroundResult finalResult = result;
+        SwingUtilities.invokeLater(new Runnable() {
+
+          @Override
+          public void run() {
+            startApplying(taskGeneration, finalResult);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Format again the text of the pane after a modification.
+   */
+  void reformat() {
+    if (reformatTimer != null) {
+      reformatTimer.stop();
+    }
+    boolean oldState = textPane.isInInternalModification;
+    textPane.isInInternalModification = true;
+    format(textPane.getFormatter(), textPane.getWikiPage(), false);
+    textPane.isInInternalModification = oldState;
+  }
+
+  /**
+   * Cancel formatting in progress.
+   */
+  void cancel() {
+    generation++;
+    if (pendingTask != null) {
+      pendingTask.cancel(false);
+      pendingTask = null;
+    }
+    if (reformatTimer != null) {
+      reformatTimer.stop();
+    }
+    pendingFormatter = null;
+    pendingRuns = null;
+  }
+
+  /**
+   * Notify that the text has been modified.
+   * Formatting in progress is cancelled as the style runs are not valid any more,
+   * and the text will be formatted again after a short delay.
+   */
+  void textModified() {
+    textVersion++;
+    if (isFormatting()) {
+      cancel();
+      if (reformatTimer == null) {
+        reformatTimer = new Timer(REFORMAT_DELAY, new ActionListener() {
+
+          @Override
+          public void actionPerformed(@SuppressWarnings("unused") ActionEvent e) {
+            reformat();
+          }
+        });
+        reformatTimer.setRepeats(false);
+      }
+      reformatTimer.restart();
+    }
+  }
+
+  /**
+   * Complete formatting in progress, without waiting for the background computation.
+   * 
+   * If the style runs are still computed in the background, the action is
+   * memorized and will be run in the event dispatch thread once the formatting
+   * is complete: callers should then stop their processing and let the action
+   * do it again later.
+   * 
+   * @param action Action to run once the formatting is complete if it's not yet.
+   * @return True if the formatting is complete.
+   */
+  public boolean complete(Runnable action) {
+    if ((reformatTimer != null) && reformatTimer.isRunning()) {
+      reformat();
+    }
+    if (pendingTask != null) {
+      if (action != null) {
+        waitingActions.add(action);
+      }
+      return false;
+    }
+    if (pendingRuns != null) {
+      applyRuns(Integer.MAX_VALUE);
+    }
+    return true;
+  }
+
+  /**
+   * Complete formatting in progress for a text component, if it's a MWPane.
+   * 
+   * Every action reading the attributes of the text should call this method first.
+   * 
+   * @param textComponent Text component.
+   * @param action Action to run once the formatting is complete if it's not yet.
+   * @return True if the formatting is complete.
+   * @see #complete(Runnable)
+   */
+  public static boolean complete(JTextComponent textComponent, Runnable action) {
+    if (!(textComponent instanceof MWPane)) {
+      return true;
+    }
+    return ((MWPane) textComponent).getFormattingManager().complete(action);
+  }
+
+  /**
+   * Run the actions waiting for the formatting to be complete.
+   */
+  private void runWaitingActions() {
+    if (waitingActions.isEmpty()) {
+      return;
+    }
+    List<Runnable> actions = new ArrayList<Runnable>(waitingActions);
+    waitingActions.clear();
+    for (Runnable action : actions) {
+      action.run();
+    }
+  }
+
+  /**
+   * Start applying the style runs computed in the background.
+   * 
+   * @param taskGeneration Generation of the formatting request.
+   * @param result Result of the background computation.
+   */
+  void startApplying(int taskGeneration, BackgroundResult result) {
+    if ((taskGeneration != generation) ||
+        (pendingTask == null) ||
+        (pendingTextVersion != textVersion)) {
+      return;
+    }
+    MWPaneFormatter formatter = pendingFormatter;
+    pendingTask = null;
+    pendingFormatter = null;
+    if (result == null) {
+      runWaitingActions();
+      return;
+    }
+    List<StyleRun> runs = result.runs;
+
+    // Memorize the analysis in the page, now that we are in the event dispatch thread
+    Page page = result.analysis.getPage();
+    if (page != null) {
+      page.setLastAnalysis(result.analysis);
+    }
+
+    // Move caret first, so that the visible part of the text is known
+    if (pendingMoveCaret) {
+      boolean oldState = textPane.isInInternalModification;
+      textPane.isInInternalModification = true;
+      synchronized (formatter) {
+        formatter.moveCaret(textPane);
+      }
+      textPane.isInInternalModification = oldState;
+    }
+
+    // Order style runs: visible part first, then the following text, then the previous text
+    int first = 0;
+    int last = -1;
+    Rectangle visible = textPane.getVisibleRect();
+    if ((visible != null) && !visible.isEmpty()) {
+      int visibleBegin = textPane.viewToModel(visible.getLocation());
+      int visibleEnd = textPane.viewToModel(new Point(
+          visible.x + visible.width, visible.y + visible.height));
+      if ((visibleBegin >= 0) && (visibleEnd >= visibleBegin)) {
+        first = findRun(runs, visibleBegin);
+        last = findRun(runs, visibleEnd);
+      }
+    }
+    pendingRuns = new ArrayDeque<StyleRun>(runs.size());
+    pendingRuns.addAll(runs.subList(first, runs.size()));
+    pendingRuns.addAll(runs.subList(0, first));
+
+    // Apply everything if actions are waiting for the formatting
+    if (!waitingActions.isEmpty()) {
+      applyRuns(Integer.MAX_VALUE);
+      runWaitingActions();
+      return;
+    }
+
+    // Apply style runs for the visible part directly, then the others by chunks
+    applyRuns(last - first + 1);
+    scheduleChunk(generation);
+  }
+
+  /**
+   * @param runs Style runs.
+   * @param index Index in the text.
+   * @return Index of the style run containing the index in the text.
+   */
+  private static int findRun(List<StyleRun> runs, int index) {
+    int low = 0;
+    int high = runs.size() - 1;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (runs.get(middle).getEndIndex() <= index) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return Math.max(low, 0);
+  }
+
+  /**
+   * Schedule the application of the next chunk of style runs.
+   * 
+   * @param chunkGeneration Generation of the formatting request.
+   */
+  private void scheduleChunk(final int chunkGeneration) {
+    if ((pendingRuns == null) || pendingRuns.isEmpty()) {
+      pendingRuns = null;
+      return;
+    }
+    SwingUtilities.invokeLater(new Runnable() {
+
+      @Override
+      public void run() {
+        if ((chunkGeneration != generation) || (pendingRuns == null)) {
+          return;
+        }
+        applyRuns(RUNS_PER_CHUNK);
+        scheduleChunk(chunkGeneration);
+      }
+    });
+  }
+
+  /**
+   * Apply style runs.
+   * 
+   * @param count Maximum number of style runs to apply.
+   */
+  private void applyRuns(int count) {
+    if (pendingRuns == null) {
+      return;
+    }
+    boolean oldState = textPane.isInInternalModification;
+    textPane.isInInternalModification = true;
+    StyledDocument doc = textPane.getStyledDocument();
+    int length = doc.getLength();
+    while ((count > 0) && !pendingRuns.isEmpty()) {
+      StyleRun run = pendingRuns.removeFirst();
+      if (run.getEndIndex() <= length) {
+        run.apply(doc);
+      }
+      count--;
+    }
+    textPane.isInInternalModification = oldState;
+    if (pendingRuns.isEmpty()) {
+      pendingRuns = null;
+    }
+  }
+
+  /**
+   * @return True if formatting is in progress.
+   */
+  public boolean isFormatting() {
+    return (pendingTask != null) ||
+           (pendingRuns != null) ||
+           ((reformatTimer != null) && reformatTimer.isRunning());
+  }
+
+  /**
+   * Result of the background computation.
+   */
+  static class BackgroundResult {
+
+    /** Page analysis */
+    final PageAnalysis analysis;
+
+    /** Style runs */
+    final List<StyleRun> runs;
+
+    /**
+     * @param analysis Page analysis.
+     * @param runs Style runs.
+     */
+    BackgroundResult(PageAnalysis analysis, List<StyleRun> runs) {
+      this.analysis = analysis;
+      this.runs = runs;
+    }
+  }
+}
@@ -117,13 +117,26 @@ public abstract class MWPanePopupListener extends AbstractPopupListener {
    * @param x Position.
    * @param y Position.
    */
-  private void showPopup(MWPane textPane, int position, int x, int y) {
+  private void showPopup(
+      final MWPane textPane, final int position,
+      final int x, final int y) {
 
     // Basic checks
     if (textPane == null) {
       return;
     }
 
+    // Wait for the formatting to be complete, attributes are needed
+    if (!textPane.getFormattingManager().complete(new Runnable() {
+
+      @Override
+      public void run() {
+        showPopup(textPane, position, x, y);
+      }
+    })) {
+      return;
+    }
+
     // Create popup menu
     Page originalPage = textPane.getWikiPage();
     PageAnalysis pageAnalysis = originalPage.getAnalysis(textPane.getText(), true);
@@ -45,10 +45,30 @@ public class MWPaneReplaceAllAction extends MWPaneAction {
    */
   @Override
   public void actionPerformed(ActionEvent e) {
-    MWPane textPane = getMWPane(e);
+    final MWPane textPane = getMWPane(e);
     if (textPane == null) {
       return;
     }
+
+    // Wait for the formatting to be complete, attributes are needed
+    if (!textPane.getFormattingManager().complete(new Runnable() {
+
+      @Override
+      public void run() {
+        replaceAll(textPane);
+      }
+    })) {
+      return;
+    }
+    replaceAll(textPane);
+  }
+
+  /**
+   * Replace all occurrences.
+   * 
+   * @param textPane Text pane.
+   */
+  void replaceAll(MWPane textPane) {
     StyledDocument doc = textPane.getStyledDocument();
     if (doc == null) {
       return;
@@ -33,6 +33,15 @@ public class MWPaneSelectionManager {
    * Select first occurrence of text. 
    */
   public void selectFirstOccurrence() {
+    if (!textPane.getFormattingManager().complete(new Runnable() {
+
+      @Override
+      public void run() {
+        selectFirstOccurrence();
+      }
+    })) {
+      return;
+    }
     StyledDocument doc = textPane.getStyledDocument();
     int length = doc.getLength();
     int lastEnd = Integer.MAX_VALUE;
@@ -72,6 +81,15 @@ public class MWPaneSelectionManager {
    * Select previous occurrence of text. 
    */
   public void selectPreviousOccurrence() {
+    if (!textPane.getFormattingManager().complete(new Runnable() {
+
+      @Override
+      public void run() {
+        selectPreviousOccurrence();
+      }
+    })) {
+      return;
+    }
     StyledDocument doc = textPane.getStyledDocument();
     int lastStart = Integer.MIN_VALUE;
     for (int pos = textPane.getSelectionStart(); pos > 0; pos = lastStart) {
@@ -92,6 +110,15 @@ public class MWPaneSelectionManager {
    * Select next occurrence of text. 
    */
   public void selectNextOccurrence() {
+    if (!textPane.getFormattingManager().complete(new Runnable() {
+
+      @Override
+      public void run() {
+        selectNextOccurrence();
+      }
+    })) {
+      return;
+    }
     StyledDocument doc = textPane.getStyledDocument();
     int length = doc.getLength();
     int lastEnd = Integer.MAX_VALUE;
@@ -117,6 +144,15 @@ public class MWPaneSelectionManager {
    * Select last occurrence of text. 
    */
   public void selectLastOccurrence() {
+    if (!textPane.getFormattingManager().complete(new Runnable() {
+
+      @Override
+      public void run() {
+        selectLastOccurrence();
+      }
+    })) {
+      return;
+    }
     StyledDocument doc = textPane.getStyledDocument();
     int lastStart = Integer.MIN_VALUE;
     for (int pos = doc.getLength(); pos > 0; pos = lastStart) {
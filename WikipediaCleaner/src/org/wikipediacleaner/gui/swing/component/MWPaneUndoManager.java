@@ -16,9 +16,19 @@ import javax.swing.JButton;
 
 /**
  * Manage Undo/Redo operations on MWPane.
+ * 
+ * Undo/Redo history is kept as a list of deltas between successive validated texts,
+ * each delta representing the modifications done by a user action.
+ * The oldest deltas are forgotten when the history exceeds the number of levels
+ * or the memory budget.
  */
 public class MWPaneUndoManager implements ActionListener {
 
+  /**
+   * Approximate memory used by a delta, in addition to its texts.
+   */
+  private final static int DELTA_OVERHEAD = 64;
+
   /**
    * MWPane.
    */
@@ -27,8 +37,10 @@ public class MWPaneUndoManager implements ActionListener {
   MWPaneUndoManager(MWPane textPane) {
     this.textPane = textPane;
     this.undoLevels = 0;
-    this.undoTexts = new LinkedList<String>();
-    this.redoTexts = new LinkedList<String>();
+    this.undoMemory = Long.MAX_VALUE;
+    this.undoDeltas = new LinkedList<Delta>();
+    this.redoDeltas = new LinkedList<Delta>();
+    this.currentMemory = 0;
   }
 
   /* ======================================================================= */
@@ -40,11 +52,25 @@ public class MWPaneUndoManager implements ActionListener {
    */
   private int undoLevels;
 
+  /**
+   * Maximum memory used by the Undo/Redo history (in bytes).
+   */
+  private long undoMemory;
+
   /**
    * @param levels Number of undo levels.
    */
   public void setUndoLevels(int levels) {
     this.undoLevels = levels;
+    trimHistory();
+  }
+
+  /**
+   * @param memory Maximum memory used by the Undo/Redo history (in bytes).
+   */
+  public void setUndoMemory(long memory) {
+    this.undoMemory = memory;
+    trimHistory();
   }
 
   /* ======================================================================= */
@@ -52,21 +78,73 @@ public class MWPaneUndoManager implements ActionListener {
   /* ======================================================================= */
 
   /**
-   * Previous texts for Undo.
+   * Last validated text.
+   */
+  private String currentText;
+
+  /**
+   * Deltas for Undo, the last one leading to the last validated text.
+   */
+  private LinkedList<Delta> undoDeltas;
+
+  /**
+   * Deltas for Redo, the last one starting from the last validated text.
+   */
+  private LinkedList<Delta> redoDeltas;
+
+  /**
+   * Memory used by the deltas (in bytes).
    */
-  private LinkedList<String> undoTexts;
+  private long currentMemory;
 
   /**
-   * Previous texts for Redo.
+   * True if the text has been modified by the user since the last validation.
    */
-  private LinkedList<String> redoTexts;
+  private boolean modifiedSinceValidation;
 
   /**
-   * Clear Undo/Redo texts.
+   * Clear Undo/Redo history.
    */
   void clear() {
-    undoTexts.clear();
-    redoTexts.clear();
+    currentText = null;
+    undoDeltas.clear();
+    redoDeltas.clear();
+    currentMemory = 0;
+    modifiedSinceValidation = false;
+  }
+
+  /**
+   * Notify that the text has been modified by the user.
+   */
+  void textModified() {
+    if (!modifiedSinceValidation) {
+      modifiedSinceValidation = true;
+      updateUndoButtons();
+    }
+  }
+
+  /**
+   * Clear Redo history.
+   */
+  private void clearRedo() {
+    for (Delta delta : redoDeltas) {
+      currentMemory -= delta.getMemory();
+    }
+    redoDeltas.clear();
+  }
+
+  /**
+   * Forget the oldest deltas to respect the number of levels and the memory budget.
+   */
+  private void trimHistory() {
+    while (!undoDeltas.isEmpty() &&
+           ((undoDeltas.size() > undoLevels) ||
+            (currentMemory > undoMemory))) {
+      currentMemory -= undoDeltas.removeFirst().getMemory();
+    }
+    while (!redoDeltas.isEmpty() && (currentMemory > undoMemory)) {
+      currentMemory -= redoDeltas.removeFirst().getMemory();
+    }
   }
 
   /* ======================================================================= */
@@ -92,17 +170,25 @@ public class MWPaneUndoManager implements ActionListener {
     }
 
     // Check if memorizing text is useful
-    String currentText = textPane.getText();
-    if (!undoTexts.isEmpty() && currentText.equals(undoTexts.getLast())) {
+    String newText = textPane.getText();
+    modifiedSinceValidation = false;
+    if (currentText == null) {
+      currentText = newText;
+      updateUndoButtons();
       return;
     }
-
-    // Adding text
-    undoTexts.addLast(currentText);
-    while (undoTexts.size() > undoLevels) {
-      undoTexts.removeFirst();
+    if (currentText.equals(newText)) {
+      updateUndoButtons();
+      return;
     }
-    redoTexts.clear();
+
+    // Adding delta
+    Delta delta = Delta.create(currentText, newText);
+    undoDeltas.addLast(delta);
+    currentMemory += delta.getMemory();
+    currentText = newText;
+    clearRedo();
+    trimHistory();
     updateUndoButtons();
   }
 
@@ -110,24 +196,30 @@ public class MWPaneUndoManager implements ActionListener {
    * Undo last change.
    */
   private void undo() {
-    if (undoTexts.isEmpty()) {
+    if (currentText == null) {
       return;
     }
-    String newText = undoTexts.getLast();
     String oldText = textPane.getText();
-    if (oldText.equals(newText)) {
-      if (undoTexts.size() < 1) {
+    String newText = null;
+    if (!oldText.equals(currentText)) {
+      // Modifications done since last validation
+      Delta delta = Delta.create(currentText, oldText);
+      clearRedo();
+      redoDeltas.addLast(delta);
+      currentMemory += delta.getMemory();
+      newText = currentText;
+    } else {
+      if (undoDeltas.isEmpty()) {
         return;
       }
-      undoTexts.removeLast();
-      if (undoTexts.isEmpty()) {
-        return;
-      }
-      newText = undoTexts.getLast();
+      Delta delta = undoDeltas.removeLast();
+      redoDeltas.addLast(delta);
+      newText = delta.revert(currentText);
     }
-    undoTexts.removeLast();
-    redoTexts.addLast(oldText);
+    currentText = newText;
+    trimHistory();
     textPane.changeText(newText);
+    modifiedSinceValidation = false;
     updateUndoButtons();
   }
 
@@ -135,21 +227,21 @@ public class MWPaneUndoManager implements ActionListener {
    * Redo last change.
    */
   private void redo() {
-    if (redoTexts.isEmpty()) {
+    if ((currentText == null) || redoDeltas.isEmpty()) {
       return;
     }
-    String newText = redoTexts.getLast();
     String oldText = textPane.getText();
-    if (oldText.equals(newText)) {
-      if (redoTexts.size() < 1) {
-        return;
-      }
-      redoTexts.removeLast();
-      newText = redoTexts.getLast();
+    if (!oldText.equals(currentText)) {
+      // Modifications done since last validation replace the Redo history
+      validateCurrentText();
+      return;
     }
-    redoTexts.removeLast();
-    undoTexts.addLast(oldText);
+    Delta delta = redoDeltas.removeLast();
+    undoDeltas.addLast(delta);
+    String newText = delta.apply(currentText);
+    currentText = newText;
     textPane.changeText(newText);
+    modifiedSinceValidation = false;
     updateUndoButtons();
   }
 
@@ -169,6 +261,99 @@ public class MWPaneUndoManager implements ActionListener {
     }
   }
 
+  /* ======================================================================= */
+  /* Deltas                                                                  */
+  /* ======================================================================= */
+
+  /**
+   * Reversible modification between two texts.
+   */
+  private static class Delta {
+
+    /** Position of the modification */
+    private final int offset;
+
+    /** Text before the modification */
+    private final String oldText;
+
+    /** Text after the modification */
+    private final String newText;
+
+    /**
+     * @param offset Position of the modification.
+     * @param oldText Text before the modification.
+     * @param newText Text after the modification.
+     */
+    private Delta(int offset, String oldText, String newText) {
+      this.offset = offset;
+      this.oldText = oldText;
+      this.newText = newText;
+    }
+
+    /**
+     * Create a delta between two texts.
+     * 
+     * @param before Text before the modifications.
+     * @param after Text after the modifications.
+     * @return Delta covering the modified part of the text.
+     */
+    static Delta create(String before, String after) {
+      int maxPrefix = Math.min(before.length(), after.length());
+      int prefix = 0;
+      while ((prefix < maxPrefix) && (before.charAt(prefix) == after.charAt(prefix))) {
+        prefix++;
+      }
+      int maxSuffix = maxPrefix - prefix;
+      int suffix = 0;
+      while ((suffix < maxSuffix) &&
+             (before.charAt(before.length() - 1 - suffix) ==
+              after.charAt(after.length() - 1 - suffix))) {
+        suffix++;
+      }
+      return new Delta(
+          prefix,
+          before.substring(prefix, before.length() - suffix),
+          after.substring(prefix, after.length() - suffix));
+    }
+
+    /**
+     * @param text Text before the modification.
+     * @return Text after the modification.
+     */
+    String apply(String text) {
+      return replace(text, oldText, newText);
+    }
+
+    /**
+     * @param text Text after the modification.
+     * @return Text before the modification.
+     */
+    String revert(String text) {
+      return replace(text, newText, oldText);
+    }
+
+    /**
+     * @param text Text.
+     * @param from Text to be replaced at the position of the modification.
+     * @param to Replacement text.
+     * @return Modified text.
+     */
+    private String replace(String text, String from, String to) {
+      StringBuilder buffer = new StringBuilder(text.length() - from.length() + to.length());
+      buffer.append(text, 0, offset);
+      buffer.append(to);
+      buffer.append(text, offset + from.length(), text.length());
+      return buffer.toString();
+    }
+
+    /**
+     * @return Approximate memory used by the delta (in bytes).
+     */
+    long getMemory() {
+      return DELTA_OVERHEAD + 2L * (oldText.length() + newText.length());
+    }
+  }
+
   /* ======================================================================= */
   /* Buttons management                                                      */
   /* ======================================================================= */
@@ -185,13 +370,16 @@ public class MWPaneUndoManager implements ActionListener {
 
   /**
    * Update status of Undo / Redo buttons.
+   * Undo is possible if there are deltas to undo or modifications since the last validation.
    */
   void updateUndoButtons() {
     if (undoButton != null) {
-      undoButton.setEnabled(!undoTexts.isEmpty() && textPane.isModified());
+      undoButton.setEnabled(
+          (currentText != null) && textPane.isModified() &&
+          (!undoDeltas.isEmpty() || modifiedSinceValidation));
     }
     if (redoButton != null) {
-      redoButton.setEnabled(!redoTexts.isEmpty());
+      redoButton.setEnabled(!redoDeltas.isEmpty());
     }
   }
 
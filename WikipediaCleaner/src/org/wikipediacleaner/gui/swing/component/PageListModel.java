@@ -8,9 +8,12 @@
 package org.wikipediacleaner.gui.swing.component;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.AbstractListModel;
 import javax.swing.JLabel;
@@ -25,6 +28,10 @@ import org.wikipediacleaner.i18n.GT;
 
 /**
  * A list model for manipulating MediaWiki pages.
+ *
+ * The full list is kept sorted, and the kind of each page (disambiguation,
+ * missing, redirect, other) is indexed in bit sets, so that changing the
+ * filters only requires combining the bit sets instead of analyzing every page.
  */
 public class PageListModel extends AbstractListModel<Page> {
 
@@ -45,6 +52,24 @@ public class PageListModel extends AbstractListModel<Page> {
   private ArrayList<Page> fullList;
   private ArrayList<Page> filteredList;
 
+  /** Index of the full list: pages which are disambiguation pages */
+  private final BitSet indexDisambiguation;
+
+  /** Index of the full list: pages which are missing */
+  private final BitSet indexMissing;
+
+  /** Index of the full list: pages which are redirects */
+  private final BitSet indexRedirect;
+
+  /** Index of the full list: other pages */
+  private final BitSet indexOther;
+
+  /** Index of the full list: pages in a filtered name space */
+  private final BitSet indexFilteredNamespace;
+
+  /** True if the index matches the full list */
+  private boolean indexValid;
+
   private JLabel linkCount;
   private CompositeComparator<Page> comparator;
 
@@ -55,6 +80,12 @@ public class PageListModel extends AbstractListModel<Page> {
     super();
     fullList = new ArrayList<Page>();
     filteredList = new ArrayList<Page>();
+    indexDisambiguation = new BitSet();
+    indexMissing = new BitSet();
+    indexRedirect = new BitSet();
+    indexOther = new BitSet();
+    indexFilteredNamespace = new BitSet();
+    indexValid = true;
     showDisambiguation = true;
     showMissing = false;
     showOther = false;
@@ -75,6 +106,7 @@ public class PageListModel extends AbstractListModel<Page> {
   public void setComparator(CompositeComparator<Page> comparator) {
     this.comparator = comparator;
     Collections.sort(fullList, this.comparator);
+    indexValid = false;
     updateStatus();
   }
 
@@ -107,16 +139,13 @@ public class PageListModel extends AbstractListModel<Page> {
     if ((elements == null) || (elements.isEmpty())) {
       return;
     }
+    fullList.ensureCapacity(elements.size());
     fullList.addAll(elements);
     if (comparator != null) {
       Collections.sort(fullList, comparator);
     }
-    for (int i = 0; i < fullList.size(); i++) {
-      Page page = fullList.get(i);
-      if (filterPage(page)) {
-        filteredList.add(page);
-      }
-    }
+    indexValid = false;
+    filterPages();
     if (!filteredList.isEmpty()) {
       fireIntervalAdded(this, 0, filteredList.size() - 1);
     }
@@ -130,34 +159,11 @@ public class PageListModel extends AbstractListModel<Page> {
   public void addElement(Object element) {
     if (element instanceof Page) {
       Page page = (Page) element;
-      boolean added = false;
-      if (comparator != null) {
-        for (int i = 0; !added && (i < fullList.size()); i++) {
-          if (comparator.compare(page, fullList.get(i)) < 0) {
-            fullList.add(i, page);
-            added = true;
-          }
-        }
-      }
-      if (!added) {
-        fullList.add(page);
-      }
+      fullList.add(getInsertionIndex(fullList, page), page);
+      indexValid = false;
       if (filterPage(page)) {
-        int index = 0;
-        added = false;
-        if (comparator != null) {
-          for (int i = 0; !added && (i < filteredList.size()); i++) {
-            if (comparator.compare(page, filteredList.get(i)) < 0) {
-              filteredList.add(i, page);
-              index = i;
-              added = true;
-           }
-          }
-        }
-        if (!added) {
-          index = filteredList.size();
-          filteredList.add(page);
-        }
+        int index = getInsertionIndex(filteredList, page);
+        filteredList.add(index, page);
         fireIntervalAdded(this, index, index);
         updateLinkCount();
       }
@@ -172,12 +178,127 @@ public class PageListModel extends AbstractListModel<Page> {
     int index = filteredList.size() - 1;
     filteredList.clear();
     fullList.clear();
+    clearIndex();
+    indexValid = true;
     if (index >= 0) {
       fireIntervalRemoved(this, 0, index);
       updateLinkCount();
     }
   }
 
+  /**
+   * @param list Sorted list.
+   * @param page Page.
+   * @return Index at which the page should be inserted (after equal pages).
+   */
+  private int getInsertionIndex(List<Page> list, Page page) {
+    if (comparator == null) {
+      return list.size();
+    }
+    int low = 0;
+    int high = list.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (comparator.compare(page, list.get(middle)) < 0) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Clear the index of the full list.
+   */
+  private void clearIndex() {
+    indexDisambiguation.clear();
+    indexMissing.clear();
+    indexRedirect.clear();
+    indexOther.clear();
+    indexFilteredNamespace.clear();
+  }
+
+  /**
+   * Index the kind of each page of the full list.
+   */
+  private void updateIndex() {
+    clearIndex();
+    for (int i = 0; i < fullList.size(); i++) {
+      Page page = fullList.get(i);
+      if (page != null) {
+        if (!Boolean.FALSE.equals(page.isDisambiguationPage())) {
+          indexDisambiguation.set(i);
+        }
+        if (!Boolean.TRUE.equals(page.isExisting())) {
+          indexMissing.set(i);
+        }
+        if (!Boolean.FALSE.equals(page.isRedirect())) {
+          indexRedirect.set(i);
+        }
+        if (!Boolean.TRUE.equals(page.isDisambiguationPage()) &&
+            !Boolean.FALSE.equals(page.isExisting()) &&
+            !Boolean.TRUE.equals(page.isRedirect())) {
+          indexOther.set(i);
+        }
+      }
+    }
+    updateNamespaceIndex();
+    indexValid = true;
+  }
+
+  /**
+   * Index the pages of the full list which are in a filtered name space.
+   */
+  private void updateNamespaceIndex() {
+    indexFilteredNamespace.clear();
+    if ((filterNamespaces == null) || filterNamespaces.isEmpty()) {
+      return;
+    }
+    Set<Integer> filtered = new HashSet<Integer>();
+    for (String namespace : filterNamespaces) {
+      try {
+        filtered.add(Integer.valueOf(namespace));
+      } catch (NumberFormatException e) {
+        // Not a name space number, can't match a page
+      }
+    }
+    for (int i = 0; i < fullList.size(); i++) {
+      Page page = fullList.get(i);
+      if ((page != null) && filtered.contains(page.getNamespace())) {
+        indexFilteredNamespace.set(i);
+      }
+    }
+  }
+
+  /**
+   * Fill the filtered list from the full list, depending on the current options.
+   */
+  private void filterPages() {
+    if (!indexValid) {
+      updateIndex();
+    }
+    BitSet selected = new BitSet(fullList.size());
+    if (showDisambiguation) {
+      selected.or(indexDisambiguation);
+    }
+    if (showMissing) {
+      selected.or(indexMissing);
+    }
+    if (showRedirect) {
+      selected.or(indexRedirect);
+    }
+    if (showOther) {
+      selected.or(indexOther);
+    }
+    selected.andNot(indexFilteredNamespace);
+    filteredList.clear();
+    filteredList.ensureCapacity(selected.cardinality());
+    for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+      filteredList.add(fullList.get(i));
+    }
+  }
+
   /**
    * Filters pages depending on the current options.
    * 
@@ -261,6 +382,9 @@ public class PageListModel extends AbstractListModel<Page> {
 
   public void setFilterNamespace(List<String> filter) {
     this.filterNamespaces = filter;
+    if (indexValid) {
+      updateNamespaceIndex();
+    }
     updateStatus();
   }
 
@@ -271,7 +395,7 @@ public class PageListModel extends AbstractListModel<Page> {
   public void setCountDisambiguation(boolean count) {
     if (count != countDisambiguation) {
       countDisambiguation = count;
-      updateStatus();
+      updateLinkCount();
     }
   }
 
@@ -282,7 +406,7 @@ public class PageListModel extends AbstractListModel<Page> {
   public void setCountMissing(boolean count) {
     if (count != countMissing) {
       countMissing = count;
-      updateStatus();
+      updateLinkCount();
     }
   }
 
@@ -293,7 +417,7 @@ public class PageListModel extends AbstractListModel<Page> {
   public void setCountOther(boolean count) {
     if (count != countOther) {
       countOther = count;
-      updateStatus();
+      updateLinkCount();
     }
   }
 
@@ -304,7 +428,7 @@ public class PageListModel extends AbstractListModel<Page> {
   public void setCountRedirect(boolean count) {
     if (count != countRedirect) {
       countRedirect = count;
-      updateStatus();
+      updateLinkCount();
     }
   }
 
@@ -320,13 +444,9 @@ public class PageListModel extends AbstractListModel<Page> {
     }
 
     // Update the new list
-    for (int i = 0; i < fullList.size(); i++) {
-      if (filterPage(fullList.get(i))) {
-        filteredList.add(fullList.get(i));
-      }
-      if (filteredList.size() > 0) {
-        fireIntervalAdded(this, 0, filteredList.size() - 1);
-      }
+    filterPages();
+    if (filteredList.size() > 0) {
+      fireIntervalAdded(this, 0, filteredList.size() - 1);
     }
 
     updateLinkCount();
@@ -213,7 +213,7 @@ public class AnalysisOptionsPanel extends OptionsPanel {
     // Undo levels
     spin = createJSpinner(
         ConfigurationValueInteger.ANALYSIS_UNDO_LVL,
-        0, 99, 1);
+        0, 999, 1);
     JLabel labelUndoLevels = Utilities.createJLabel(GT._("Undo levels :"));
     labelUndoLevels.setLabelFor(spin);
     labelUndoLevels.setHorizontalAlignment(SwingConstants.TRAILING);
@@ -227,6 +227,24 @@ public class AnalysisOptionsPanel extends OptionsPanel {
     add(spin, constraints);
     constraints.gridy++;
 
+    // Undo memory
+    spin = createJSpinner(
+        ConfigurationValueInteger.ANALYSIS_UNDO_MEMORY,
+        1, 1000, 1);
+    JLabel labelUndoMemory = Utilities.createJLabel(
+        GT._("Maximum memory used by undo history (MB) :"));
+    labelUndoMemory.setLabelFor(spin);
+    labelUndoMemory.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelUndoMemory, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
     // Empty panel
     JPanel emptyPanel = new JPanel();
     emptyPanel.setMinimumSize(new Dimension(0, 0));
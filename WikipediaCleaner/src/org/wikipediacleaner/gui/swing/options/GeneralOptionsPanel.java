@@ -192,6 +192,15 @@ public class GeneralOptionsPanel extends OptionsPanel {
     add(chk, constraints);
     constraints.gridy++;
 
+    // Run Check Wiki algorithms in parallel
+    chk = createJCheckBox(
+        GT._("Run Check Wiki algorithms in parallel on each page"),
+        ConfigurationValueBoolean.CHECK_PARALLEL_ANALYSIS);
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(chk, constraints);
+    constraints.gridy++;
+
     // Force watching pages that have been edited
     chk = createJCheckBox(
         GT._("Watch all edited pages"),
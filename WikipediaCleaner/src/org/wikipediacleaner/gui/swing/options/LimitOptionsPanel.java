@@ -96,6 +96,42 @@ public class LimitOptionsPanel extends OptionsPanel {
     add(spin, constraints);
     constraints.gridy++;
 
+    // Analysis cache size
+    spin = createJSpinner(
+        ConfigurationValueInteger.ANALYSIS_CACHE_SIZE,
+        0, 1000, 10);
+    JLabel labelCacheSize = Utilities.createJLabel(
+        GT._("Maximum number of page analysis kept in memory :"));
+    labelCacheSize.setLabelFor(spin);
+    labelCacheSize.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelCacheSize, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
+    // Analysis cache memory
+    spin = createJSpinner(
+        ConfigurationValueInteger.ANALYSIS_CACHE_MEMORY,
+        0, 1000, 10);
+    JLabel labelCacheMemory = Utilities.createJLabel(
+        GT._("Maximum size of page analysis kept in memory (MB) :"));
+    labelCacheMemory.setLabelFor(spin);
+    labelCacheMemory.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelCacheMemory, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
     // Max errors for Check Wiki
     spin = createJSpinner(
         ConfigurationValueInteger.CHECK_NB_ERRORS,
@@ -183,6 +219,24 @@ public class LimitOptionsPanel extends OptionsPanel {
     add(spin, constraints);
     constraints.gridy++;
 
+    // Size of the contents cache
+    spin = createJSpinner(
+        ConfigurationValueInteger.CONTENTS_CACHE_SIZE,
+        0, 100000, 100);
+    JLabel labelContentsCache = Utilities.createJLabel(
+        GT._("Size of the cache for page contents on disk (MB, 0 to disable) :"));
+    labelContentsCache.setLabelFor(spin);
+    labelContentsCache.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelContentsCache, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
     // Add size limit for syntax highlighting
     spin = createJSpinner(
         ConfigurationValueInteger.SYNTAX_HIGHLIGHTING_LIMIT,
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -105,25 +106,31 @@ public class CheckArticleTools {
 
     // Check the existence of TemplateData blocks for every template
     CheckArticleElement element = step.setCurrentElement(GT._("Existence of {0} blocks", "TemplateData"));
-    Map<String, TemplateData> templateDataMap = new HashMap<String, TemplateData>();
-    Map<String, TemplateData> backupTemplateDataMap = new HashMap<String, TemplateData>();
+    Map<String, Page> templatePages = new LinkedHashMap<String, Page>();
     for (PageElementTemplate template : templates) {
       String templateName = template.getTemplateName();
-      if (!templateDataMap.containsKey(templateName)) {
-        TemplateData templateData = retrieveTemplateData(template);
-        templateDataMap.put(templateName, templateData);
-        if (templateData == null) {
-          String message = GT._(
-              "Template \"{0}\" has no {1} block defined.",
-              new Object[] { template.getTemplateName(), "TemplateData" });
-          element.addWarning(message);
-          templateData = computeTemplateData(template);
-          if (templateData != null) {
-            backupTemplateDataMap.put(templateName, templateData);
-          }
-        }
+      if (!templatePages.containsKey(templateName)) {
+        templatePages.put(templateName, getTemplatePage(template));
+      }
+    }
+    API api = APIFactory.getAPI();
+    Map<String, TemplateData> templateDataByTitle = api.retrieveTemplateData(
+        wiki, templatePages.values());
+    Map<String, TemplateData> templateDataMap = new HashMap<String, TemplateData>();
+    Map<String, Page> missingPages = new LinkedHashMap<String, Page>();
+    for (Map.Entry<String, Page> templatePage : templatePages.entrySet()) {
+      String templateName = templatePage.getKey();
+      TemplateData templateData = templateDataByTitle.get(templatePage.getValue().getTitle());
+      templateDataMap.put(templateName, templateData);
+      if (templateData == null) {
+        String message = GT._(
+            "Template \"{0}\" has no {1} block defined.",
+            new Object[] { templateName, "TemplateData" });
+        element.addWarning(message);
+        missingPages.put(templateName, templatePage.getValue());
       }
     }
+    Map<String, TemplateData> backupTemplateDataMap = computeTemplateData(missingPages);
 
     // Check each template
     for (PageElementTemplate template : templates) {
@@ -150,33 +157,44 @@ public class CheckArticleTools {
    */
   private TemplateData retrieveTemplateData(
       PageElementTemplate template) throws APIException {
-    String templateName = template.getTemplateName();
-    String title = wiki.getWikiConfiguration().getPageTitle(
-        Namespace.TEMPLATE, templateName);
-    Page templatePage = DataManager.getPage(
-        wiki, title, null, null, null);
     API api = APIFactory.getAPI();
-    return api.retrieveTemplateData(wiki, templatePage);
+    return api.retrieveTemplateData(wiki, getTemplatePage(template));
   }
 
   /**
-   * Compute TemplateData.
-   * 
    * @param template Template.
-   * @return TemplateData.
-   * @throws APIException
+   * @return Page of the template.
    */
-  private TemplateData computeTemplateData(
-      PageElementTemplate template) throws APIException {
-    String templateName = template.getTemplateName();
+  private Page getTemplatePage(PageElementTemplate template) {
     String title = wiki.getWikiConfiguration().getPageTitle(
-        Namespace.TEMPLATE, templateName);
-    Page templatePage = DataManager.getPage(
-        wiki, title, null, null, null);
+        Namespace.TEMPLATE, template.getTemplateName());
+    return DataManager.getPage(wiki, title, null, null, null);
+  }
+
+  /**
+   * Compute TemplateData from the contents of the templates.
+   * 
+   * @param templatePages Pages of the templates indexed by template name.
+   * @return TemplateData indexed by template name.
+   * @throws APIException
+   */
+  private Map<String, TemplateData> computeTemplateData(
+      Map<String, Page> templatePages) throws APIException {
+    Map<String, TemplateData> result = new HashMap<String, TemplateData>();
+    if (templatePages.isEmpty()) {
+      return result;
+    }
     API api = APIFactory.getAPI();
-    api.retrieveContents(wiki, Collections.singletonList(templatePage), false, true);
-    return TemplateData.createFromContent(
-        templatePage.getAnalysis(templatePage.getContents(), false));
+    api.retrieveContents(wiki, new ArrayList<Page>(templatePages.values()), false, true);
+    for (Map.Entry<String, Page> templatePage : templatePages.entrySet()) {
+      Page page = templatePage.getValue();
+      TemplateData templateData = TemplateData.createFromContent(
+          page.getAnalysis(page.getContents(), false));
+      if (templateData != null) {
+        result.put(templatePage.getKey(), templateData);
+      }
+    }
+    return result;
   }
 
   /**
@@ -75,13 +75,14 @@ public class FullAnalysisWorker extends BasicWorker {
       }
 
       // Retrieve more information on disambiguation pages
+      List<Page> dabPages = new ArrayList<Page>();
       for (Page link : page.getLinks()) {
         if (Boolean.TRUE.equals(link.isDisambiguationPage())) {
           Iterator<Page> itLink = link.getRedirectIteratorWithPage();
           while (itLink.hasNext()) {
             Page link2 = itLink.next();
             if (!link2.isRedirect()) {
-              mw.retrieveAllLinks(wiki, link2, null, knownPages, false, false);
+              dabPages.add(link2);
             }
             if (link.hasWiktionaryTemplate() &&
                 (link.getContents() == null)) {
@@ -90,6 +91,7 @@ public class FullAnalysisWorker extends BasicWorker {
           }
         }
       }
+      mw.retrieveAllLinks(wiki, dabPages, null, knownPages, false, false);
 
       if (CheckErrorAlgorithms.isAlgorithmActive(wiki, 508)) {
         mw.retrieveAllTemplates(wiki, page, false);
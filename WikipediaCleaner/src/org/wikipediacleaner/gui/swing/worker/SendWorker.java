@@ -193,57 +193,31 @@ public class SendWorker extends BasicWorker {
       getWikipedia().getContributions().increaseContributions(contributions);
     }
 
-    // Updating disambiguation warning
+    // Updating warnings (disambiguation, ISBN, ISSN, duplicate arguments)
+    UpdateAllWarningTools warningTools = new UpdateAllWarningTools(
+        getWikipedia(), this, false);
     if (params.updateDabWarning) {
-      try {
-        UpdateDabWarningTools dabWarningTools = new UpdateDabWarningTools(
-            getWikipedia(), this, params.createDabWarning, false);
-        PageAnalysis pageAnalysis = page.getAnalysis(text, true);
-        dabWarningTools.updateWarning(
-            pageAnalysis, queryResult.getPageNewRevId(),
-            null, null, null, null, null);
-      } catch (APIException e) {
-        return e;
-      }
+      warningTools.addTools(new UpdateDabWarningTools(
+          getWikipedia(), this, params.createDabWarning, false));
     }
-
-    // Updating ISBN warning
     if (params.updateISBNWarning) {
-      try {
-        UpdateISBNWarningTools isbnWarningTools = new UpdateISBNWarningTools(
-            getWikipedia(), this, params.createISBNWarning, false);
-        PageAnalysis pageAnalysis = page.getAnalysis(text, true);
-        isbnWarningTools.updateWarning(
-            pageAnalysis, queryResult.getPageNewRevId(),
-            null, null, null, null, null);
-      } catch (APIException e) {
-        return e;
-      }
+      warningTools.addTools(new UpdateISBNWarningTools(
+          getWikipedia(), this, params.createISBNWarning, false));
     }
-
-    // Updating ISSN warning
     if (params.updateISSNWarning) {
-      try {
-        UpdateISSNWarningTools issnWarningTools = new UpdateISSNWarningTools(
-            getWikipedia(), this, params.createISSNWarning, false);
-        PageAnalysis pageAnalysis = page.getAnalysis(text, true);
-        issnWarningTools.updateWarning(
-            pageAnalysis, queryResult.getPageNewRevId(),
-            null, null, null, null, null);
-      } catch (APIException e) {
-        return e;
-      }
+      warningTools.addTools(new UpdateISSNWarningTools(
+          getWikipedia(), this, params.createISSNWarning, false));
     }
-
-    // Updating duplicate arguments warning
     if (params.updateDuplicateArgsWarning) {
+      warningTools.addTools(new UpdateDuplicateArgsWarningTools(
+          getWikipedia(), this, params.createDuplicateArgsWarning, false));
+    }
+    if (!warningTools.isEmpty()) {
       try {
-        UpdateDuplicateArgsWarningTools duplicateArgsWarningTools = new UpdateDuplicateArgsWarningTools(
-            getWikipedia(), this, params.createDuplicateArgsWarning, false);
         PageAnalysis pageAnalysis = page.getAnalysis(text, true);
-        duplicateArgsWarningTools.updateWarning(
+        warningTools.updateWarning(
             pageAnalysis, queryResult.getPageNewRevId(),
-            null, null, null, null, null);
+            null, null, null);
       } catch (APIException e) {
         return e;
       }
@@ -0,0 +1,203 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2014  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.gui.swing.worker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.wikipediacleaner.api.API;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.APIFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.constants.WPCConfigurationString;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.User;
+import org.wikipediacleaner.gui.swing.basic.BasicWorker;
+import org.wikipediacleaner.i18n.GT;
+
+
+/**
+ * Tools for updating several kinds of warnings in a single pass.
+ * 
+ * The talk page and the "To do" sub-page are retrieved only once,
+ * each kind of warning is computed on the same page analysis,
+ * and at most one edit is sent for each page.
+ */
+public class UpdateAllWarningTools {
+
+  /** Wiki. */
+  private final EnumWikipedia wiki;
+
+  /** Worker. */
+  private final BasicWorker worker;
+
+  /** True if this is an automatic edit. */
+  private final boolean automaticEdit;
+
+  /** Tools for each kind of warning. */
+  private final List<UpdateWarningTools> tools;
+
+  /** MediaWiki API. */
+  private final API api;
+
+  /**
+   * @param wiki Wiki.
+   * @param worker Worker.
+   * @param automaticEdit True if the edits are automatic.
+   */
+  public UpdateAllWarningTools(
+      EnumWikipedia wiki, BasicWorker worker, boolean automaticEdit) {
+    this.wiki = wiki;
+    this.worker = worker;
+    this.automaticEdit = automaticEdit;
+    this.tools = new ArrayList<UpdateWarningTools>();
+    this.api = APIFactory.getAPI();
+  }
+
+  /**
+   * @param warningTools Tools for a kind of warning.
+   */
+  public void addTools(UpdateWarningTools warningTools) {
+    if ((warningTools != null) && warningTools.canUpdateWarning()) {
+      tools.add(warningTools);
+    }
+  }
+
+  /**
+   * @return True if no kind of warning can be updated.
+   */
+  public boolean isEmpty() {
+    return tools.isEmpty();
+  }
+
+  /**
+   * Update all kinds of warnings for a page.
+   * 
+   * @param pageAnalysis Page analysis (must have enough information to compute the elements for the warnings).
+   * @param pageRevId Page revision id.
+   * @param creator User who has created the page.
+   * @param modifiers Users who have modified the page.
+   * @param stats Statistics.
+   * @return True if a warning has been updated.
+   * @throws APIException
+   */
+  public boolean updateWarning(
+      PageAnalysis pageAnalysis, Integer pageRevId,
+      String creator, List<String> modifiers,
+      UpdateWarningTools.Stats stats) throws APIException {
+    if (tools.isEmpty() ||
+        (pageAnalysis == null) ||
+        (pageAnalysis.getPage() == null) ||
+        !pageAnalysis.getPage().isArticle()) {
+      return false;
+    }
+    Page page = pageAnalysis.getPage();
+
+    // Section 0 can be used only if all kinds of warnings use it
+    boolean section0 = true;
+    for (UpdateWarningTools warningTools : tools) {
+      section0 &= warningTools.section0;
+    }
+
+    // Retrieve talk page and "To do" sub-page contents only once
+    Page talkPage = page.getTalkPage();
+    Page todoSubpage = null;
+    String todoSubpageAttr = wiki.getConfiguration().getString(WPCConfigurationString.TODO_SUBPAGE);
+    if (todoSubpageAttr != null) {
+      todoSubpage = talkPage.getSubPage(todoSubpageAttr);
+    }
+    setText(GT._("Retrieving page contents - {0}", talkPage.getTitle()));
+    List<Page> toRetrieve = new ArrayList<Page>();
+    if (section0) {
+      api.retrieveSectionContents(wiki, talkPage, 0);
+    } else {
+      toRetrieve.add(talkPage);
+    }
+    if (todoSubpage != null) {
+      toRetrieve.add(todoSubpage);
+    }
+    if (!toRetrieve.isEmpty()) {
+      api.retrieveContents(wiki, toRetrieve, false, false);
+    }
+
+    // Compute each kind of warning on the same contents
+    UpdateWarningTools.PendingEdits edits = new UpdateWarningTools.PendingEdits();
+    boolean result = false;
+    for (UpdateWarningTools warningTools : tools) {
+      boolean previousSection0 = warningTools.section0;
+      warningTools.setSection0(section0);
+      warningTools.setPendingEdits(edits);
+      try {
+        result |= warningTools.updateWarning(
+            pageAnalysis, pageRevId, talkPage, todoSubpage,
+            creator, modifiers, stats);
+      } finally {
+        warningTools.setPendingEdits(null);
+        warningTools.setSection0(previousSection0);
+      }
+    }
+
+    // Send one edit for each modified page
+    for (UpdateWarningTools.Edit edit : edits.getEdits()) {
+      sendEdit(edit, edit.page == todoSubpage);
+    }
+    return result;
+  }
+
+  /**
+   * Send an edit.
+   * 
+   * @param edit Edit.
+   * @param todoSubpage True if the edit is for the "To do" sub-page.
+   * @throws APIException
+   */
+  private void sendEdit(
+      UpdateWarningTools.Edit edit, boolean todoSubpage) throws APIException {
+    String contents = edit.contents;
+    String comment = edit.getComment();
+    setText(GT._("Updating page contents"));
+    if (edit.section0) {
+      api.updateSection(
+          wiki, edit.page, comment, 0,
+          contents, true, automaticEdit, edit.forceWatch);
+      return;
+    }
+
+    // An empty "To do" sub-page is deleted if possible
+    if (todoSubpage && (contents.trim().length() == 0)) {
+      if (!edit.existing) {
+        return;
+      }
+      User user = wiki.getConnection().getUser();
+      if ((user != null) && (user.hasRight(User.RIGHT_DELETE))) {
+        api.deletePage(wiki, edit.page, comment, automaticEdit);
+        return;
+      }
+      String delete = wiki.getConfiguration().getString(WPCConfigurationString.TODO_SUBPAGE_DELETE);
+      if ((delete != null) && (delete.trim().length() > 0)) {
+        contents = delete;
+      }
+    }
+    api.updatePage(
+        wiki, edit.page, contents,
+        comment, true, automaticEdit, edit.forceWatch);
+  }
+
+  /**
+   * Display text.
+   * 
+   * @param text Text to display.
+   */
+  private void setText(String text) {
+    if (worker != null) {
+      worker.setText(text);
+    }
+  }
+}
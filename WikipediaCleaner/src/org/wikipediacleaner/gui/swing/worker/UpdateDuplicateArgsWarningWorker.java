@@ -171,8 +171,12 @@ public class UpdateDuplicateArgsWarningWorker extends UpdateWarningWorker {
         WPCConfigurationString.DUPLICATE_ARGS_WARNING_TEMPLATE,
         tmpWarningPages);
 
-    // Retrieve articles listed for duplicate arguments errors in Check Wiki
-    retrieveCheckWikiPages(524, tmpWarningPages, tools); // Duplicate template arguments
+    // Retrieve articles with duplicate arguments errors
+    if (dumpFile != null) {
+      retrieveDumpPages(tools, tmpWarningPages);
+    } else {
+      retrieveCheckWikiPages(524, tmpWarningPages, tools); // Duplicate template arguments
+    }
 
     // Fill up the list
     warningPages.clear();
@@ -77,6 +77,13 @@ public class UpdateISSNWarningWorker extends UpdateWarningWorker {
     UpdateISSNWarningTools tools = new UpdateISSNWarningTools(wiki, this, true, automaticEdit);
     try {
       if (!useList) {
+        if (simulation && (dumpFile != null)) {
+          // Errors are memorized while analyzing the dump, pages don't need to be retrieved
+          tools.prepareErrorsMap();
+          listWarningPages(tools);
+          displayResult(stats, startTime, tools.getErrorsMap());
+          return Integer.valueOf(0);
+        }
         listWarningPages(tools);
 
         // Ask for confirmation
@@ -177,6 +184,20 @@ public class UpdateISSNWarningWorker extends UpdateWarningWorker {
   protected void listWarningPages(UpdateWarningTools tools) throws APIException {
     Map<String, Page> tmpWarningPages = new HashMap<String, Page>();
 
+    // Retrieve articles with ISSN errors in the dump
+    if (dumpFile != null) {
+      if (!simulation) {
+        retrieveArticlesWithWarning(
+            WPCConfigurationString.ISSN_WARNING_TEMPLATE,
+            tmpWarningPages);
+      }
+      retrieveDumpPages(tools, tmpWarningPages);
+      warningPages.clear();
+      warningPages.addAll(tmpWarningPages.values());
+      tmpWarningPages.clear();
+      return;
+    }
+
     // Retrieve talk pages including a warning
     retrieveArticlesWithWarning(
         WPCConfigurationString.ISSN_WARNING_TEMPLATE,
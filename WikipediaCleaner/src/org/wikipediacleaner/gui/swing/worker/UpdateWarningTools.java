@@ -15,6 +15,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -73,7 +75,7 @@ public abstract class UpdateWarningTools {
   protected final boolean automaticEdit;
 
   /** Force use of section 0 in the talk page. */
-  protected final boolean section0;
+  protected boolean section0;
 
   /** MediaWiki API. */
   protected final API api;
@@ -93,6 +95,9 @@ public abstract class UpdateWarningTools {
   /** List of articles titles supposed to have the error. */
   private Set<String> articles;
 
+  /** Edits kept for being sent later (null to send edits immediately). */
+  private PendingEdits pendingEdits;
+
   /**
    * @param wiki Wiki.
    * @param worker Worker.
@@ -143,6 +148,20 @@ public abstract class UpdateWarningTools {
     this.simulation = simulation;
   }
 
+  /**
+   * @param section0 True if section 0 of the talk page should be used.
+   */
+  void setSection0(boolean section0) {
+    this.section0 = section0;
+  }
+
+  /**
+   * @param edits Edits kept for being sent later (null to send edits immediately).
+   */
+  void setPendingEdits(PendingEdits edits) {
+    this.pendingEdits = edits;
+  }
+
   /**
    * Initialize the errors map.
    */
@@ -264,6 +283,17 @@ public abstract class UpdateWarningTools {
     }
   }
 
+  /**
+   * Check if a page requires a warning, using only its contents.
+   * 
+   * @param analysis Page analysis.
+   * @return True if elements for a warning are found in the page.
+   */
+  public boolean hasWarningElements(PageAnalysis analysis) {
+    Collection<String> elements = constructWarningElements(analysis, null, null);
+    return (elements != null) && !elements.isEmpty();
+  }
+
   /**
    * @return true if warnings can be updated.
    */
@@ -549,10 +579,10 @@ public abstract class UpdateWarningTools {
       if (index < contents.length()) {
         tmp.append(contents.substring(index));
       }
-      api.updatePage(
-          wiki, todoSubpage, tmp.toString(),
+      updatePage(
+          todoSubpage, tmp.toString(),
           getWarningComment(elements),
-          true, automaticEdit, false);
+          false);
 
       return true;
     }
@@ -769,7 +799,10 @@ public abstract class UpdateWarningTools {
     // Remove the warning
     String newContents = tmp.toString();
     String reason = getWarningCommentDone();
-    if ((newContents.trim().length() == 0) &&
+    if (pendingEdits != null) {
+      // Deletion is decided when the edits are sent
+      updatePage(todoSubpage, newContents, reason, false);
+    } else if ((newContents.trim().length() == 0) &&
         (wiki.getConnection().getUser() != null) &&
         (wiki.getConnection().getUser().hasRight(User.RIGHT_DELETE))) {
       api.deletePage(wiki, todoSubpage, reason, automaticEdit);
@@ -1120,7 +1153,7 @@ public abstract class UpdateWarningTools {
    * @param error Error to memorize. 
    * @param title Page title in which the error is present.
    */
-  protected void memorizeError(String error, String title) {
+  protected synchronized void memorizeError(String error, String title) {
     if ((errorsMap == null) || (error == null) || (title == null)) {
       return;
     }
@@ -1495,6 +1528,10 @@ public abstract class UpdateWarningTools {
       Page page,
       String newContents, String comment,
       boolean forceWatch) throws APIException {
+    if (pendingEdits != null) {
+      pendingEdits.addEdit(page, false, newContents, comment, forceWatch);
+      return null;
+    }
     return api.updatePage(
         wiki, page, newContents,
         comment, true, automaticEdit, forceWatch);
@@ -1514,6 +1551,10 @@ public abstract class UpdateWarningTools {
   protected QueryResult updateSection(
       Page page, String title, int section,
       String contents, boolean forceWatch) throws APIException {
+    if ((pendingEdits != null) && (section == 0)) {
+      pendingEdits.addEdit(page, true, contents, title, forceWatch);
+      return null;
+    }
     return api.updateSection(
         wiki, page, title, section,
         contents, true, automaticEdit, forceWatch);
@@ -1614,6 +1655,113 @@ public abstract class UpdateWarningTools {
     return sublist;
   }
 
+  // ==========================================================================
+  // Pending edits
+  // ==========================================================================
+
+  /**
+   * Edits kept for being sent later, so that several updates
+   * of the same page can be sent as a single edit.
+   * 
+   * The contents of the pages are updated immediately,
+   * so that later updates are computed on the modified contents.
+   */
+  static class PendingEdits {
+
+    /** Edits for each page */
+    private final Map<Page, Edit> edits;
+
+    PendingEdits() {
+      this.edits = new LinkedHashMap<Page, Edit>();
+    }
+
+    /**
+     * Memorize an edit.
+     * 
+     * @param page Page.
+     * @param section0 True if only section 0 is modified.
+     * @param contents New contents.
+     * @param comment Comment.
+     * @param forceWatch Force watching the page.
+     */
+    void addEdit(
+        Page page, boolean section0,
+        String contents, String comment, boolean forceWatch) {
+      Edit edit = edits.get(page);
+      if (edit == null) {
+        edit = new Edit(page, section0);
+        edits.put(page, edit);
+      }
+      edit.contents = contents;
+      if (comment != null) {
+        edit.comments.add(comment);
+      }
+      edit.forceWatch |= forceWatch;
+      page.setContents(contents);
+      if (contents.trim().length() > 0) {
+        page.setExisting(Boolean.TRUE);
+      } else if (!section0) {
+        page.setExisting(Boolean.FALSE);
+      }
+    }
+
+    /**
+     * @return Edits to be sent.
+     */
+    Collection<Edit> getEdits() {
+      return edits.values();
+    }
+  }
+
+  /**
+   * Edit kept for being sent later.
+   */
+  static class Edit {
+
+    /** Page */
+    final Page page;
+
+    /** True if only section 0 is modified */
+    final boolean section0;
+
+    /** True if the page existed before the edit */
+    final boolean existing;
+
+    /** Comments */
+    final Set<String> comments;
+
+    /** New contents */
+    String contents;
+
+    /** Force watching the page */
+    boolean forceWatch;
+
+    /**
+     * @param page Page.
+     * @param section0 True if only section 0 is modified.
+     */
+    Edit(Page page, boolean section0) {
+      this.page = page;
+      this.section0 = section0;
+      this.existing = !Boolean.FALSE.equals(page.isExisting());
+      this.comments = new LinkedHashSet<String>();
+    }
+
+    /**
+     * @return Comment for the edit.
+     */
+    String getComment() {
+      StringBuilder result = new StringBuilder();
+      for (String comment : comments) {
+        if (result.length() > 0) {
+          result.append(", ");
+        }
+        result.append(comment);
+      }
+      return result.toString();
+    }
+  }
+
   // ==========================================================================
   // Statistics
   // ==========================================================================
@@ -8,10 +8,15 @@
 
 package org.wikipediacleaner.gui.swing.worker;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
@@ -28,10 +33,16 @@ import org.wikipediacleaner.api.constants.WikiConfiguration;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.PageRef;
+import org.wikipediacleaner.api.dump.DumpProcessor;
+import org.wikipediacleaner.api.dump.PageProcessor;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.gui.swing.worker.UpdateWarningTools.Stats;
 import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
 /**
@@ -57,6 +68,9 @@ public abstract class UpdateWarningWorker extends BasicWorker {
   /** True if this is a simulation. */
   protected final boolean simulation;
 
+  /** File containing a dump to analyze instead of retrieving lists of pages. */
+  protected File dumpFile;
+
   /**
    * @param wiki Wiki.
    * @param window Window.
@@ -95,6 +109,18 @@ public abstract class UpdateWarningWorker extends BasicWorker {
     this.simulation = false;
   }
 
+  /**
+   * Use a dump to find the pages requiring a warning.
+   * 
+   * Every article of the dump is analyzed locally, so the wiki is only
+   * accessed for the pages which really need a warning.
+   * 
+   * @param dumpFile File containing the dump.
+   */
+  public void setDumpFile(File dumpFile) {
+    this.dumpFile = dumpFile;
+  }
+
   /**
    * Generate the list of warning pages.
    * 
@@ -127,19 +153,17 @@ public abstract class UpdateWarningWorker extends BasicWorker {
           warningTemplateName);
       Page warningTemplate = DataManager.getPage(
           wiki, templateTitle, null, null, null);
-      api.retrieveEmbeddedIn(
+      List<PageRef> talkPages = api.retrieveEmbeddedInRefs(
           wiki, warningTemplate,
           configuration.getEncyclopedicTalkNamespaces(),
           false);
 
       // Convert them to article pages
       setText(GT._("Constructing list of articles with warning"));
-      List<Page> talkPages = warningTemplate.getRelatedPages(Page.RelatedPages.EMBEDDED_IN);
       if (talkPages != null) {
-        for (Page talkPage : talkPages) {
-          Page page=  null;
+        for (PageRef talkPage : talkPages) {
           if (talkPage.isArticle()) {
-            page = talkPage;
+            addPage(talkPage, pages);
           } else {
             String title = talkPage.getTitle();
             String todoSubpage = configuration.getString(WPCConfigurationString.TODO_SUBPAGE);
@@ -159,9 +183,8 @@ public abstract class UpdateWarningWorker extends BasicWorker {
                 }
               }
             }
-            page = DataManager.getPage(wiki, title, null, null, null);
+            addPage(DataManager.getPage(wiki, title, null, null, null), pages);
           }
-          addPage(page, pages);
         }
       }
     }
@@ -198,6 +221,27 @@ public abstract class UpdateWarningWorker extends BasicWorker {
     }
   }
 
+  /**
+   * Retrieve pages requiring a warning by analyzing the dump.
+   * 
+   * @param tools Update warning tools.
+   * @param pages Map of (title,page) to complete.
+   */
+  protected void retrieveDumpPages(
+      UpdateWarningTools tools,
+      Map<String, Page> pages) {
+    if ((dumpFile == null) || !dumpFile.canRead() || !dumpFile.isFile()) {
+      return;
+    }
+    setText(GT._("Analyzing dump {0}", dumpFile.getName()));
+    WarningPageProcessor processor = new WarningPageProcessor(tools);
+    DumpProcessor dumpProcessor = new DumpProcessor(processor);
+    dumpProcessor.processDump(dumpFile);
+    for (PageRef page : processor.finish()) {
+      addPage(page, pages);
+    }
+  }
+
   /**
    * Retrieve category members
    * 
@@ -217,11 +261,10 @@ public abstract class UpdateWarningWorker extends BasicWorker {
       for (String category : categories) {
         String categoryTitle = wikiConfiguration.getPageTitle(Namespace.CATEGORY, category);
         Page categoryPage = DataManager.getPage(wiki, categoryTitle, null, null, null);
-        api.retrieveCategoryMembers(wiki, categoryPage, 0, false, Integer.MAX_VALUE);
-        List<Page> categoryMembers = categoryPage.getRelatedPages(
-            Page.RelatedPages.CATEGORY_MEMBERS);
+        List<PageRef> categoryMembers = api.retrieveCategoryMemberRefs(
+            wiki, categoryPage, 0, false, Integer.MAX_VALUE);
         if (categoryMembers != null) {
-          for (Page page : categoryMembers) {
+          for (PageRef page : categoryMembers) {
             addPage(page, pages);
           }
         }
@@ -304,6 +347,114 @@ public abstract class UpdateWarningWorker extends BasicWorker {
     }
   }
 
+  /**
+   * Add a page to the list of pages, the full page being created only if needed.
+   * 
+   * @param page Reference to the page.
+   * @param pages Map of (title,page) to complete.
+   */
+  private void addPage(PageRef page, Map<String, Page> pages) {
+    if ((page == null) || (pages == null)) {
+      return;
+    }
+    String title = page.getTitle();
+    if (title == null) {
+      return;
+    }
+    if ((start.length() == 0) || (start.compareTo(title) <= 0)) {
+      if (!pages.containsKey(title)) {
+        pages.put(title, page.getPage(getWikipedia()));
+      }
+    }
+  }
+
+  /**
+   * Process pages in the dump.
+   */
+  private class WarningPageProcessor implements PageProcessor {
+
+    /** Update warning tools */
+    private final UpdateWarningTools tools;
+
+    /** Executor for the analysis */
+    private final ThreadPoolExecutor executor;
+
+    /** Pages requiring a warning */
+    private final List<PageRef> detected;
+
+    /** Count of pages submitted for analysis */
+    private int count;
+
+    /**
+     * @param tools Update warning tools.
+     */
+    WarningPageProcessor(UpdateWarningTools tools) {
+      this.tools = tools;
+      int nThreads = Math.max(1, Configuration.getConfiguration().getInt(
+          null, ConfigurationValueInteger.INTERROG_THREAD));
+      this.executor = new ThreadPoolExecutor(
+          nThreads, nThreads, 0, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<Runnable>(4 * nThreads),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+      this.detected = Collections.synchronizedList(new ArrayList<PageRef>());
+      this.count = 0;
+    }
+
+    /**
+     * @return Wiki.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#getWiki()
+     */
+    @Override
+    public EnumWikipedia getWiki() {
+      return getWikipedia();
+    }
+
+    /**
+     * @param page Page.
+     * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
+     */
+    @Override
+    public void processPage(final Page page) {
+      if ((page == null) || !page.isInMainNamespace() ||
+          (page.getContents() == null) || shouldStop()) {
+        return;
+      }
+      count++;
+      if (count % 10000 == 0) {
+        setText(GT._("Analyzing dump {0}", dumpFile.getName()) + " - " + count);
+      }
+      executor.execute(new Runnable() {
+
+        @Override
+        public void run() {
+
+          // Pages of the dump are analyzed only once: no need to go through the cache
+          PageAnalysis analysis = page.createAnalysis(page.getContents());
+          if (tools.hasWarningElements(analysis)) {
+            detected.add(PageRef.create(page));
+          }
+        }
+      });
+    }
+
+    /**
+     * Wait for the end of the analysis.
+     * 
+     * @return Pages requiring a warning.
+     */
+    List<PageRef> finish() {
+      executor.shutdown();
+      try {
+        while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+          // Nothing to do
+        }
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+      }
+      return detected;
+    }
+  }
+
   /**
    * Display statistics.
    * 
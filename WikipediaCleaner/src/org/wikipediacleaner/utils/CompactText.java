@@ -0,0 +1,134 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.utils;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * Compact representation of a text, for texts kept in memory without being used.
+ *
+ * The text is encoded in UTF-8 and compressed with the fastest compression level.
+ * If compression doesn't reduce the size, the UTF-8 bytes are kept as is.
+ * If the compressed text can't be restored completely, no text is returned
+ * rather than a partial one.
+ */
+public final class CompactText {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(CompactText.class);
+
+  /** Minimum length of a text for being worth compacting */
+  public final static int MIN_LENGTH = 2048;
+
+  /** Encoding of the text */
+  private final static Charset UTF8 = Charset.forName("UTF-8");
+
+  /** Encoded text */
+  private final byte[] data;
+
+  /** Length of the UTF-8 encoded text */
+  private final int byteLength;
+
+  /** True if the encoded text is compressed */
+  private final boolean compressed;
+
+  /**
+   * @param data Encoded text.
+   * @param byteLength Length of the UTF-8 encoded text.
+   * @param compressed True if the encoded text is compressed.
+   */
+  CompactText(byte[] data, int byteLength, boolean compressed) {
+    this.data = data;
+    this.byteLength = byteLength;
+    this.compressed = compressed;
+  }
+
+  /**
+   * @param text Text.
+   * @return Compact representation of the text.
+   */
+  public static CompactText create(String text) {
+    if (text == null) {
+      return null;
+    }
+    byte[] bytes = text.getBytes(UTF8);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      byte[] buffer = new byte[bytes.length];
+      int length = 0;
+      while (!deflater.finished() && (length < buffer.length)) {
+        length += deflater.deflate(buffer, length, buffer.length - length);
+      }
+      if (deflater.finished() && (length < bytes.length)) {
+        return new CompactText(Arrays.copyOf(buffer, length), bytes.length, true);
+      }
+    } finally {
+      deflater.end();
+    }
+    return new CompactText(bytes, bytes.length, false);
+  }
+
+  /**
+   * @return True if the encoded text is compressed.
+   */
+  boolean isCompressed() {
+    return compressed;
+  }
+
+  /**
+   * @return Text (null if the compressed text can't be restored).
+   */
+  public String getText() {
+    if (!compressed) {
+      return new String(data, UTF8);
+    }
+    byte[] bytes = new byte[byteLength];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data);
+      int length = 0;
+      while ((length < byteLength) && !inflater.finished()) {
+        int count = inflater.inflate(bytes, length, byteLength - length);
+        if ((count == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += count;
+      }
+      if (length < byteLength) {
+        log.error("Incomplete compact text: " + length + " bytes out of " + byteLength);
+        return null;
+      }
+    } catch (DataFormatException e) {
+      log.error("Error inflating compact text", e);
+      return null;
+    } finally {
+      inflater.end();
+    }
+    return new String(bytes, UTF8);
+  }
+
+  /**
+   * @return Text.
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    String text = getText();
+    return (text != null) ? text : "";
+  }
+}
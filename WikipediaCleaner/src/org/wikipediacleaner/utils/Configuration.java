@@ -12,6 +12,7 @@ import java.awt.Component;
 import java.awt.Window;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
+import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -45,6 +46,7 @@ public class Configuration implements WindowListener {
   // Array properties
   public  final static String  ARRAY_CHECK_SELECTION     = "CheckWikiSelection";
   public  final static String  ARRAY_CHECK_BOT_SELECTION = "CheckBotSelection";
+  public  final static String  ARRAY_CHECK_PENDING_FIXED = "CheckWikiPendingFixed";
   public  final static String  ARRAY_FILTER_NS           = "FilterNS";
   public  final static String  ARRAY_INTERESTING_PAGES   = "InterestingPages";
   public  final static String  ARRAY_SORT_ORDERS         = "SortOrders";
@@ -288,6 +290,18 @@ public class Configuration implements WindowListener {
     return null;
   }
 
+  /**
+   * @param wikipedia Wikipedia.
+   * @return Directory for data cached between sessions (may not exist yet).
+   */
+  public static File getCacheDirectory(EnumWikipedia wikipedia) {
+    File directory = new File(new File(System.getProperty("user.home"), ".wpcleaner"), "cache");
+    if (wikipedia != null) {
+      directory = new File(directory, wikipedia.getSettings().getCode());
+    }
+    return directory;
+  }
+
   /**
    * Write configuration.
    */
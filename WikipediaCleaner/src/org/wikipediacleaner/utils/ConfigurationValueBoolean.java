@@ -30,6 +30,7 @@ public enum ConfigurationValueBoolean {
   CHECK_SHOW_0_ERRORS("CheckShow0Errors", false),
   CHECK_LINK_ERRORS("CheckLinkErrors", false),
   CHECK_MARK_AS_FIXED("CheckMarkAsFixed", false),
+  CHECK_PARALLEL_ANALYSIS("CheckParallelAnalysis", false),
   CLOSE_DISAMBIG("CloseDisambiguation", false),
   CLOSE_FULL("CloseFullAnalysis", true),
   CREATE_DAB_WARNING("CreateDabWarning", true),
@@ -15,11 +15,15 @@ import java.util.prefs.Preferences;
  */
 public enum ConfigurationValueInteger {
 
+  ANALYSIS_CACHE_MEMORY("AnalysisCacheMemory", 50),
+  ANALYSIS_CACHE_SIZE("AnalysisCacheSize", 50),
   ANALYSIS_NB_PAGES("AnalysisNbPages", 10),
-  ANALYSIS_UNDO_LVL("AnalysisUndoLevels", 10),
+  ANALYSIS_UNDO_LVL("AnalysisUndoLevels", 100),
+  ANALYSIS_UNDO_MEMORY("AnalysisUndoMemory", 20),
   CHECK_BOT_NB_PAGES("CheckBotNbPages", 100),
   CHECK_NB_ERRORS("CheckNbErrors", 100),
   CONFIG_VERSION("ConfigurationVersion", 1),
+  CONTENTS_CACHE_SIZE("ContentsCacheSize", 0),
   EDITOR_FONT_SIZE("EditorFontSize", 12),
   FONT_SIZE("FontSize", 0),
   INTERROG_THREAD("InterrogationThreads", 30),
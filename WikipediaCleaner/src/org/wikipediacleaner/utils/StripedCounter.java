@@ -0,0 +1,81 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Counter updated concurrently by many threads.
+ *
+ * Updates are spread over several cells (selected by thread) placed on
+ * different cache lines, so that threads don't contend on a single value.
+ * The value of the counter is the sum of the cells.
+ */
+public class StripedCounter {
+
+  /** Number of cells (power of 2) */
+  private final static int CELLS;
+
+  /** Distance between two cells (one cache line) */
+  private final static int PADDING = 8;
+
+  static {
+    int target = Math.min(64, 2 * Runtime.getRuntime().availableProcessors());
+    int cells = 1;
+    while (cells < target) {
+      cells <<= 1;
+    }
+    CELLS = cells;
+  }
+
+  /** Cells */
+  private final AtomicLongArray cells;
+
+  /**
+   * Create a counter with an initial value of 0.
+   */
+  public StripedCounter() {
+    this.cells = new AtomicLongArray(CELLS * PADDING);
+  }
+
+  /**
+   * @param value Value to be added to the counter.
+   */
+  public void add(long value) {
+    int cell = (int) (Thread.currentThread().getId() & (CELLS - 1));
+    cells.addAndGet(cell * PADDING, value);
+  }
+
+  /**
+   * Increment the counter.
+   */
+  public void increment() {
+    add(1);
+  }
+
+  /**
+   * @return Current value of the counter.
+   */
+  public long sum() {
+    long result = 0;
+    for (int cell = 0; cell < CELLS; cell++) {
+      result += cells.get(cell * PADDING);
+    }
+    return result;
+  }
+
+  /**
+   * @return Current value of the counter.
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return Long.toString(sum());
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+
+/**
+ * Helper for tests working without any access to the wiki.
+ */
+public class APIFactoryTestHelper {
+
+  /**
+   * Replace the MediaWiki API by an implementation failing on every request.
+   * 
+   * @return MediaWiki API used before (to be restored with {@link #restoreAPI(API)}).
+   */
+  public static API installOfflineAPI() {
+    API previousApi = APIFactory.getAPI();
+    APIFactory.setAPI((API) Proxy.newProxyInstance(
+        API.class.getClassLoader(), new Class<?>[] { API.class },
+        new InvocationHandler() {
+
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args)
+              throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+              return method.invoke(this, args);
+            }
+            throw new APIException("No access to the wiki during tests: " + method.getName());
+          }
+        }));
+    return previousApi;
+  }
+
+  /**
+   * Restore the MediaWiki API.
+   * 
+   * @param api MediaWiki API returned by {@link #installOfflineAPI()}.
+   */
+  public static void restoreAPI(API api) {
+    APIFactory.setAPI(api);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+
+
+/**
+ * Test class for DataManager.
+ */
+public class DataManagerTest {
+
+  @Test
+  public void testIndexedPageSameAsScan() {
+    List<Page> knownPages = new ArrayList<Page>();
+    knownPages.add(createPage(EnumWikipedia.EN, "Title", "10"));
+    knownPages.add(createPage(EnumWikipedia.FR, "Title", "11"));
+    knownPages.add(createPage(EnumWikipedia.FR, "title", "12"));
+    knownPages.add(createPage(EnumWikipedia.FR, "Other", "13"));
+    Map<String, List<Page>> index = DataManager.indexPages(knownPages);
+
+    String[][] requests = {
+        { "Title", null },
+        { "Title", "11" },
+        { "Title", "12" },
+        { "title", "12" },
+        { "Title", "10" },
+        { "Other", null },
+        { "Missing", null },
+    };
+    for (String[] request : requests) {
+      Page scanned = DataManager.getPage(
+          EnumWikipedia.FR, request[0], null, request[1], knownPages);
+      Page indexed = DataManager.getIndexedPage(
+          EnumWikipedia.FR, request[0], null, request[1], index);
+      if (knownPages.contains(scanned)) {
+        assertSame(request[0] + "/" + request[1], scanned, indexed);
+      } else {
+        assertFalse(request[0] + "/" + request[1], knownPages.contains(indexed));
+        assertEquals(scanned.getTitle(), indexed.getTitle());
+      }
+    }
+  }
+
+  @Test
+  public void testIndexedPageFallsThrough() {
+    Page otherWiki = createPage(EnumWikipedia.EN, "Title", "10");
+    Page otherRevision = createPage(EnumWikipedia.FR, "Title", "11");
+    Page expected = createPage(EnumWikipedia.FR, "Title", "12");
+    List<Page> knownPages = new ArrayList<Page>();
+    knownPages.add(otherWiki);
+    knownPages.add(otherRevision);
+    knownPages.add(expected);
+    Map<String, List<Page>> index = DataManager.indexPages(knownPages);
+
+    assertSame(expected, DataManager.getIndexedPage(
+        EnumWikipedia.FR, "Title", null, "12", index));
+    assertSame(otherRevision, DataManager.getIndexedPage(
+        EnumWikipedia.FR, "Title", null, null, index));
+  }
+
+  @Test
+  public void testIndexedPageWithoutRevision() {
+    Page known = new Page(EnumWikipedia.FR, "Title");
+    List<Page> knownPages = new ArrayList<Page>();
+    knownPages.add(known);
+    Map<String, List<Page>> index = DataManager.indexPages(knownPages);
+
+    assertSame(known, DataManager.getIndexedPage(
+        EnumWikipedia.FR, "Title", null, null, index));
+    Page created = DataManager.getIndexedPage(
+        EnumWikipedia.FR, "Title", null, "12", index);
+    assertNotSame(known, created);
+    assertEquals(Integer.valueOf(12), created.getRevisionId());
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param title Page title.
+   * @param revisionId Revision id.
+   * @return Page.
+   */
+  private static Page createPage(EnumWikipedia wiki, String title, String revisionId) {
+    Page page = new Page(wiki, title);
+    page.setRevisionId(revisionId);
+    return page;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+
+
+/**
+ * Test class for PageAnalysisCache.
+ */
+public class PageAnalysisCacheTest {
+
+  /** Contents used for the tests */
+  private final static String CONTENTS =
+      "Text with a {{template|param=value}} and a [[link]].<ref>Reference</ref>";
+
+  @Test
+  public void testSharedBetweenPages() {
+    PageAnalysisCache cache = new PageAnalysisCache(10, 1024 * 1024);
+    Page page1 = new Page(EnumWikipedia.FR, "Title");
+    Page page2 = new Page(EnumWikipedia.FR, "Title");
+    PageAnalysis analysis1 = cache.getAnalysis(page1, CONTENTS);
+    PageAnalysis analysis2 = cache.getAnalysis(page2, CONTENTS);
+
+    // Each analysis is bound to the requesting page
+    assertTrue(analysis1.getPage() == page1);
+    assertTrue(analysis2.getPage() == page2);
+
+    // Elements are found only once
+    assertEquals(1, analysis1.getTemplates().size());
+    assertTrue(analysis1.getTemplates() == analysis2.getTemplates());
+    assertTrue(analysis1.getInternalLinks() == analysis2.getInternalLinks());
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void testDifferentContents() {
+    PageAnalysisCache cache = new PageAnalysisCache(10, 1024 * 1024);
+    Page page = new Page(EnumWikipedia.FR, "Title");
+    PageAnalysis analysis1 = cache.getAnalysis(page, CONTENTS);
+    PageAnalysis analysis2 = cache.getAnalysis(page, CONTENTS + "{{other}}");
+    assertEquals(1, analysis1.getTemplates().size());
+    assertEquals(2, analysis2.getTemplates().size());
+
+    // Same contents for another title
+    PageAnalysis analysis3 = cache.getAnalysis(new Page(EnumWikipedia.FR, "Other"), CONTENTS);
+    assertFalse(analysis1.getTemplates() == analysis3.getTemplates());
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  public void testEviction() {
+    PageAnalysisCache cache = new PageAnalysisCache(1, 1024 * 1024);
+    Page page = new Page(EnumWikipedia.FR, "Title");
+    PageAnalysis analysis1 = cache.getAnalysis(page, CONTENTS);
+    cache.getAnalysis(page, CONTENTS + "{{other}}");
+    PageAnalysis analysis2 = cache.getAnalysis(page, CONTENTS);
+    assertFalse(analysis1.getTemplates() == analysis2.getTemplates());
+    assertEquals(0, cache.getHits());
+  }
+}
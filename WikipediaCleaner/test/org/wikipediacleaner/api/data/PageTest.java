@@ -0,0 +1,80 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.utils.CompactText;
+
+
+/**
+ * Test class for Page.
+ */
+public class PageTest {
+
+  @Test
+  public void testCompactContents() {
+    String contents = createContents();
+    Page page = new Page(EnumWikipedia.FR, "Title");
+    page.setContents(contents);
+    page.compactContents();
+    assertEquals(contents, page.getContents());
+  }
+
+  @Test
+  public void testConcurrentInflate() throws InterruptedException {
+    final String contents = createContents();
+    final int threadCount = 4;
+    final AtomicInteger errors = new AtomicInteger();
+    for (int attempt = 0; attempt < 200; attempt++) {
+      final Page page = new Page(EnumWikipedia.FR, "Title");
+      page.setContents(contents);
+      page.compactContents();
+      final CountDownLatch start = new CountDownLatch(1);
+      Thread[] threads = new Thread[threadCount];
+      for (int i = 0; i < threadCount; i++) {
+        threads[i] = new Thread() {
+
+          @Override
+          public void run() {
+            try {
+              start.await();
+            } catch (InterruptedException e) {
+              return;
+            }
+            if (!contents.equals(page.getContents())) {
+              errors.incrementAndGet();
+            }
+          }
+        };
+        threads[i].start();
+      }
+      start.countDown();
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    }
+    assertEquals("Contents missing while inflated by another thread", 0, errors.get());
+  }
+
+  /**
+   * @return Contents long enough to be compacted.
+   */
+  private String createContents() {
+    StringBuilder buffer = new StringBuilder();
+    while (buffer.length() < 4 * CompactText.MIN_LENGTH) {
+      buffer.append("Text with a [[link]] and a {{template}}.\n");
+    }
+    return buffer.toString();
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.request.query.list;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.PageListConsumer;
+import org.wikipediacleaner.api.data.PageRef;
+
+
+/**
+ * Test class for ApiListExecutor.
+ */
+public class ApiListExecutorTest {
+
+  /** Number of pages returned by each request */
+  private final static int PAGES_BY_REQUEST = 10;
+
+  /** Number of requests for each partition */
+  private final static int REQUESTS_BY_PARTITION = 3;
+
+  @Test
+  public void testLimitInPartitionOrder() throws APIException {
+    List<String> titles = execute(2, 3, 45);
+
+    // First partitions of each group are the slowest, results must still be in their order
+    assertEquals(90, titles.size());
+    List<String> group0 = new ArrayList<>();
+    List<String> group1 = new ArrayList<>();
+    for (String title : titles) {
+      (title.startsWith("0/") ? group0 : group1).add(title);
+    }
+    assertEquals(expectedTitles(0, 45), group0);
+    assertEquals(expectedTitles(1, 45), group1);
+  }
+
+  @Test
+  public void testWithoutLimit() throws APIException {
+    List<String> titles = execute(1, 4, Integer.MAX_VALUE);
+    assertEquals(expectedTitles(0, 4 * PAGES_BY_REQUEST * REQUESTS_BY_PARTITION), titles);
+  }
+
+  @Test
+  public void testConsumerStop() throws APIException {
+    final List<String> titles = new ArrayList<>();
+    ApiListExecutor executor = new ApiListExecutor(
+        createQuery(), new PageListConsumer() {
+
+          @Override
+          public boolean pagesRetrieved(List<PageRef> pages) {
+            for (PageRef page : pages) {
+              titles.add(page.getTitle());
+            }
+            return false;
+          }
+        }, Integer.MAX_VALUE);
+    executor.execute(createGroups(1, 3));
+    assertEquals(expectedTitles(0, PAGES_BY_REQUEST), titles);
+  }
+
+  /**
+   * @param groupCount Number of groups.
+   * @param partitionCount Number of partitions in each group.
+   * @param maxSize Maximum number of results for each group.
+   * @return Titles sent to the consumer.
+   * @throws APIException Error executing the query.
+   */
+  private List<String> execute(
+      int groupCount, int partitionCount, int maxSize) throws APIException {
+    final List<String> titles = new ArrayList<>();
+    ApiListExecutor executor = new ApiListExecutor(
+        createQuery(), new PageListConsumer() {
+
+          @Override
+          public boolean pagesRetrieved(List<PageRef> pages) {
+            for (PageRef page : pages) {
+              titles.add(page.getTitle());
+            }
+            return true;
+          }
+        }, maxSize);
+    executor.execute(createGroups(groupCount, partitionCount));
+    return titles;
+  }
+
+  /**
+   * @param groupCount Number of groups.
+   * @param partitionCount Number of partitions in each group.
+   * @return Groups of partitions.
+   */
+  private List<List<Map<String, String>>> createGroups(int groupCount, int partitionCount) {
+    List<List<Map<String, String>>> groups = new ArrayList<>();
+    for (int group = 0; group < groupCount; group++) {
+      List<Map<String, String>> partitions = new ArrayList<>();
+      for (int partition = 0; partition < partitionCount; partition++) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("group", Integer.toString(group));
+        properties.put("partition", Integer.toString(partition));
+        properties.put("delay", Integer.toString(20 * (partitionCount - partition)));
+        properties.put("request", "0");
+        partitions.add(properties);
+      }
+      groups.add(partitions);
+    }
+    return groups;
+  }
+
+  /**
+   * @return Query returning pages named group/partition/number, the first partitions being the slowest.
+   */
+  private ApiListExecutor.Query createQuery() {
+    return new ApiListExecutor.Query() {
+
+      @Override
+      public boolean execute(
+          Map<String, String> properties,
+          List<PageRef> list) throws APIException {
+        try {
+          Thread.sleep(Integer.parseInt(properties.get("delay")));
+        } catch (InterruptedException e) {
+          throw new APIException("Interrupted", e);
+        }
+        int request = Integer.parseInt(properties.get("request"));
+        for (int i = 0; i < PAGES_BY_REQUEST; i++) {
+          list.add(new PageRef(
+              properties.get("group") + "/" + properties.get("partition") + "/" +
+              String.format("%02d", Integer.valueOf(request * PAGES_BY_REQUEST + i)),
+              Integer.valueOf(0), null));
+        }
+        request++;
+        properties.put("request", Integer.toString(request));
+        return (request < REQUESTS_BY_PARTITION);
+      }
+    };
+  }
+
+  /**
+   * @param group Group.
+   * @param count Number of titles.
+   * @return First titles of a group, in partition order.
+   */
+  private List<String> expectedTitles(int group, int count) {
+    List<String> titles = new ArrayList<>();
+    int byPartition = PAGES_BY_REQUEST * REQUESTS_BY_PARTITION;
+    for (int i = 0; i < count; i++) {
+      titles.add(
+          group + "/" + (i / byPartition) + "/" +
+          String.format("%02d", Integer.valueOf(i % byPartition)));
+    }
+    return titles;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.request.query.prop;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.jdom2.Element;
+import org.jdom2.JDOMException;
+import org.jdom2.input.JDOMParseException;
+import org.jdom2.input.SAXBuilder;
+import org.junit.Test;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Test class for ApiLinksRequest.
+ */
+public class ApiLinksRequestTest {
+
+  @Test
+  public void testGroupedLinks() throws APIException {
+    EnumWikipedia wiki = EnumWikipedia.FR;
+    StringLinksResult result = new StringLinksResult(wiki);
+    result.addAnswer("Page 1",
+        "<api><continue plcontinue=\"1|0|B\" continue=\"||\"/><query><pages>" +
+        "<page ns=\"0\" title=\"A\" pageid=\"1\" lastrevid=\"10\"/>" +
+        "</pages></query></api>");
+    result.addAnswer("Page 1",
+        "<api><query><pages>" +
+        "<page ns=\"0\" title=\"B\" pageid=\"2\" lastrevid=\"20\" redirect=\"\"/>" +
+        "</pages></query></api>");
+    result.addAnswer("Page 2",
+        "<api><query><pages>" +
+        "<page ns=\"0\" title=\"A\" pageid=\"1\" lastrevid=\"10\"/>" +
+        "<page ns=\"0\" title=\"C\" pageid=\"3\" lastrevid=\"30\"/>" +
+        "</pages></query></api>");
+    result.addAnswer("Page 3",
+        "<api><query><pages/></query></api>");
+
+    // Known page "A" comes after a page with the same title on another wiki
+    Page otherA = DataManager.getPage(EnumWikipedia.EN, "A", null, "10", null);
+    Page knownA = DataManager.getPage(wiki, "A", null, "10", null);
+    List<Page> knownPages = new ArrayList<Page>();
+    knownPages.add(otherA);
+    knownPages.add(knownA);
+
+    List<Page> pages = new ArrayList<Page>();
+    pages.add(DataManager.getPage(wiki, "Page 1", null, null, null));
+    pages.add(DataManager.getPage(wiki, "Page 2", null, null, null));
+    pages.add(DataManager.getPage(wiki, "Page 3", null, null, null));
+    List<Page> redirects = new ArrayList<Page>();
+    ApiLinksRequest request = new ApiLinksRequest(wiki, result);
+    List<Page> links = request.loadLinks(
+        pages, null, DataManager.indexPages(knownPages), redirects, true);
+
+    assertTrue(result.isEmpty());
+    assertEquals(4, links.size());
+    assertEquals(2, pages.get(0).getLinks().size());
+    assertEquals(2, pages.get(1).getLinks().size());
+    assertEquals(0, pages.get(2).getLinks().size());
+    assertSame(knownA, pages.get(0).getLinks().get(0));
+    assertSame(knownA, pages.get(1).getLinks().get(0));
+    assertEquals("B", pages.get(0).getLinks().get(1).getTitle());
+    assertEquals("C", pages.get(1).getLinks().get(1).getTitle());
+    assertEquals(1, redirects.size());
+    assertSame(pages.get(0).getLinks().get(1), redirects.get(0));
+  }
+
+  /**
+   * Links results read from strings, one list of answers per requested title.
+   */
+  private static class StringLinksResult extends ApiXmlLinksResult {
+
+    /** Answers not yet consumed, indexed by requested title */
+    private final Map<String, LinkedList<String>> answers;
+
+    /**
+     * @param wiki Wiki.
+     */
+    StringLinksResult(EnumWikipedia wiki) {
+      super(wiki, null);
+      this.answers = new HashMap<String, LinkedList<String>>();
+    }
+
+    /**
+     * @param title Requested title.
+     * @param answer Answer of the API.
+     */
+    void addAnswer(String title, String answer) {
+      LinkedList<String> list = answers.get(title);
+      if (list == null) {
+        list = new LinkedList<String>();
+        answers.put(title, list);
+      }
+      list.addLast(answer);
+    }
+
+    /**
+     * @return True if all answers have been consumed.
+     */
+    boolean isEmpty() {
+      for (LinkedList<String> list : answers.values()) {
+        if (!list.isEmpty()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @see org.wikipediacleaner.api.request.ApiXmlResult#getRoot(java.util.Map, int)
+     */
+    @Override
+    protected Element getRoot(Map<String, String> properties, int maxTry)
+        throws JDOMParseException, APIException {
+      String title = properties.get(ApiLinksRequest.PROPERTY_TITLES);
+      LinkedList<String> list = answers.get(title);
+      if ((list == null) || list.isEmpty()) {
+        throw new APIException("Unexpected request for " + title);
+      }
+      try {
+        SAXBuilder sxb = new SAXBuilder();
+        return sxb.build(new StringReader(list.removeFirst())).getRootElement();
+      } catch (JDOMParseException e) {
+        throw e;
+      } catch (JDOMException e) {
+        throw new APIException("Error parsing answer for " + title, e);
+      } catch (IOException e) {
+        throw new APIException("Error reading answer for " + title, e);
+      }
+    }
+  }
+}
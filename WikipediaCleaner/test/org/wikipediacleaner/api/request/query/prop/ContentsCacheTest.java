@@ -0,0 +1,169 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.request.query.prop;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Test class for ContentsCache.
+ */
+public class ContentsCacheTest {
+
+  /** Maximum size of the cache file for the tests */
+  private final static long MAX_SIZE = 64 * 1024;
+
+  /** Cache file */
+  private File file;
+
+  /** Cache */
+  private ContentsCache cache;
+
+  @Before
+  public void beforeTest() throws IOException {
+    file = File.createTempFile("ContentsCacheTest", ".dat");
+    file.delete();
+    cache = open();
+  }
+
+  @After
+  public void afterTest() {
+    if (cache != null) {
+      cache.close();
+    }
+    file.delete();
+    new File(file.getParentFile(), file.getName() + ".tmp").delete();
+  }
+
+  @Test
+  public void testRoundTrip() {
+    String contents = "Texte avec des accents (é, ß) et un caractère hors BMP : 𝄞";
+    cache.put(Integer.valueOf(1), Integer.valueOf(100), contents);
+    cache.put(Integer.valueOf(2), Integer.valueOf(200), "Other page");
+    assertEquals(contents, cache.get(Integer.valueOf(1), Integer.valueOf(100)));
+    assertNull(cache.get(Integer.valueOf(1), Integer.valueOf(101)));
+    assertNull(cache.get(Integer.valueOf(3), Integer.valueOf(100)));
+
+    // New revision replaces the previous one
+    cache.put(Integer.valueOf(2), Integer.valueOf(201), "Other page, modified");
+    assertNull(cache.get(Integer.valueOf(2), Integer.valueOf(200)));
+    assertEquals("Other page, modified", cache.get(Integer.valueOf(2), Integer.valueOf(201)));
+
+    // Contents are memorized between sessions
+    reopen();
+    assertEquals(contents, cache.get(Integer.valueOf(1), Integer.valueOf(100)));
+    assertNull(cache.get(Integer.valueOf(2), Integer.valueOf(200)));
+    assertEquals("Other page, modified", cache.get(Integer.valueOf(2), Integer.valueOf(201)));
+  }
+
+  @Test
+  public void testCompaction() {
+    String contents = createContents(1000);
+    int count = 200;
+    for (int i = 0; i < count; i++) {
+      cache.put(Integer.valueOf(i), Integer.valueOf(i + 1000), i + contents);
+      assertTrue("Cache file too big: " + file.length(), file.length() <= MAX_SIZE);
+    }
+
+    // Most recent pages are kept, oldest pages are evicted
+    assertEquals((count - 1) + contents, cache.get(Integer.valueOf(count - 1), Integer.valueOf(count - 1 + 1000)));
+    assertNull(cache.get(Integer.valueOf(0), Integer.valueOf(1000)));
+
+    // Compacted file is still valid
+    reopen();
+    assertEquals((count - 1) + contents, cache.get(Integer.valueOf(count - 1), Integer.valueOf(count - 1 + 1000)));
+    assertNull(cache.get(Integer.valueOf(0), Integer.valueOf(1000)));
+  }
+
+  @Test
+  public void testCorruptTail() throws IOException {
+    cache.put(Integer.valueOf(1), Integer.valueOf(100), "First page");
+    cache.put(Integer.valueOf(2), Integer.valueOf(200), "Second page");
+    cache.close();
+    long validLength = file.length();
+
+    // Simulate a record partially written when the application stopped
+    RandomAccessFile access = new RandomAccessFile(file, "rw");
+    try {
+      access.seek(validLength);
+      access.writeInt(1000);
+      access.writeInt(3);
+      access.writeInt(300);
+      access.write("Incomplete".getBytes("UTF-8"));
+    } finally {
+      access.close();
+    }
+
+    // Incomplete record is dropped, previous records are kept
+    cache = open();
+    assertEquals(validLength, file.length());
+    assertEquals("First page", cache.get(Integer.valueOf(1), Integer.valueOf(100)));
+    assertEquals("Second page", cache.get(Integer.valueOf(2), Integer.valueOf(200)));
+    assertNull(cache.get(Integer.valueOf(3), Integer.valueOf(300)));
+
+    // Cache can still be used
+    cache.put(Integer.valueOf(3), Integer.valueOf(300), "Third page");
+    reopen();
+    assertEquals("Third page", cache.get(Integer.valueOf(3), Integer.valueOf(300)));
+  }
+
+  @Test
+  public void testInvalidFile() throws IOException {
+    cache.close();
+    RandomAccessFile access = new RandomAccessFile(file, "rw");
+    try {
+      access.setLength(0);
+      access.write("Not a contents cache".getBytes("UTF-8"));
+    } finally {
+      access.close();
+    }
+
+    // Unknown format is discarded
+    cache = open();
+    assertEquals(4, file.length());
+    cache.put(Integer.valueOf(1), Integer.valueOf(100), "First page");
+    assertEquals("First page", cache.get(Integer.valueOf(1), Integer.valueOf(100)));
+  }
+
+  /**
+   * @return Cache opened on the test file.
+   */
+  private ContentsCache open() {
+    ContentsCache result = new ContentsCache(file, MAX_SIZE);
+    assertTrue("Unable to open cache " + file, result.open());
+    return result;
+  }
+
+  /**
+   * Close the cache and open it again.
+   */
+  private void reopen() {
+    cache.close();
+    cache = open();
+  }
+
+  /**
+   * @param length Length of the contents.
+   * @return Contents.
+   */
+  private static String createContents(int length) {
+    StringBuilder buffer = new StringBuilder(length);
+    while (buffer.length() < length) {
+      buffer.append("Lorem ipsum ");
+    }
+    return buffer.substring(0, length);
+  }
+}
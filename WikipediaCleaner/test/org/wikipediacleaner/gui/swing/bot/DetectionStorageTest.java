@@ -0,0 +1,120 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
+import org.wikipediacleaner.gui.swing.bot.ListCWWorker.Detection;
+
+
+/**
+ * Test class for DetectionStorage.
+ */
+public class DetectionStorageTest {
+
+  @Test
+  public void testLastDetectionKept() throws IOException {
+    DetectionStorage storage = new DetectionStorage("DetectionStorageTest_");
+    try {
+
+      // Enough detections to spill several temporary files
+      int pages = 12000;
+      for (int pass = 0; pass < 3; pass++) {
+        for (int i = 0; i < pages; i++) {
+          ErrorLevel level = ((i + pass) % 2 == 0) ? ErrorLevel.ERROR : ErrorLevel.WARNING;
+          storage.add(createDetection(i, "pass " + pass, level));
+        }
+      }
+      storage.merge();
+      assertEquals(pages, storage.size());
+
+      List<Detection> read = readAll(storage);
+      assertEquals(pages, read.size());
+      for (Detection detection : read) {
+        assertEquals(
+            "Only the last detection should be kept for " + detection.pageName,
+            Collections.singletonList("pass 2"), detection.notices);
+      }
+      assertSorted(read);
+    } finally {
+      storage.dispose();
+    }
+  }
+
+  @Test
+  public void testAddAfterMerge() throws IOException {
+    DetectionStorage storage = new DetectionStorage("DetectionStorageTest_");
+    try {
+      storage.add(createDetection(1, "first", ErrorLevel.ERROR));
+      storage.add(createDetection(2, "first", ErrorLevel.WARNING));
+      assertEquals(2, readAll(storage).size());
+
+      storage.add(createDetection(1, "second", ErrorLevel.WARNING));
+      storage.add(createDetection(3, "second", ErrorLevel.ERROR));
+      List<Detection> read = readAll(storage);
+      assertEquals(3, storage.size());
+      assertEquals(3, read.size());
+      assertSorted(read);
+      assertEquals("Page 00003", read.get(0).pageName);
+      assertEquals("Page 00001", read.get(1).pageName);
+      assertEquals(Collections.singletonList("second"), read.get(1).notices);
+      assertEquals("Page 00002", read.get(2).pageName);
+    } finally {
+      storage.dispose();
+    }
+  }
+
+  /**
+   * @param index Index of the page.
+   * @param notice Notice.
+   * @param level Error level.
+   * @return Detection.
+   */
+  private Detection createDetection(int index, String notice, ErrorLevel level) {
+    return new Detection(
+        String.format("Page %05d", Integer.valueOf(index)),
+        Collections.singletonList(notice), level);
+  }
+
+  /**
+   * @param storage Storage.
+   * @return All detections in reading order.
+   * @throws IOException Error reading the detections.
+   */
+  private List<Detection> readAll(DetectionStorage storage) throws IOException {
+    List<Detection> result = new ArrayList<>();
+    DetectionStorage.Reader reader = storage.open();
+    try {
+      Detection detection = null;
+      while ((detection = reader.next()) != null) {
+        result.add(detection);
+      }
+    } finally {
+      reader.close();
+    }
+    return result;
+  }
+
+  /**
+   * @param detections Detections that should be in their natural order.
+   */
+  private void assertSorted(List<Detection> detections) {
+    for (int i = 1; i < detections.size(); i++) {
+      assertTrue(
+          "Detections not sorted at " + i,
+          detections.get(i - 1).compareTo(detections.get(i)) < 0);
+    }
+  }
+}
@@ -0,0 +1,372 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.wikipediacleaner.api.API;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.APIFactoryTestHelper;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
+import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithms;
+import org.wikipediacleaner.api.constants.CWConfiguration;
+import org.wikipediacleaner.api.constants.CWConfigurationError;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.PageAnalysisCache;
+import org.wikipediacleaner.api.request.query.meta.ApiSiteInfoRequest;
+import org.wikipediacleaner.api.request.query.meta.ApiXmlFileSiteInfoResult;
+
+
+/**
+ * Test class for ListCWWorker, working on a local dump without accessing the wiki.
+ *
+ * The detections for each algorithm are compared to a golden file,
+ * and the throughput (pages/s) and allocations (bytes/page) are reported.
+ * Following system properties can be used:
+ * <ul>
+ * <li><code>wpcleaner.test.dump</code>: dump to analyze instead of the default fixture.</li>
+ * <li><code>wpcleaner.test.golden</code>: golden file to compare to.</li>
+ * <li><code>wpcleaner.test.updateGolden</code>: set to true to regenerate the golden file.</li>
+ * <li><code>wpcleaner.test.minPagesPerSecond</code>: minimum throughput required.</li>
+ * <li><code>wpcleaner.test.maxBytesPerPage</code>: maximum allocations per page allowed.</li>
+ * </ul>
+ */
+public class ListCWWorkerTest {
+
+  /** Directory containing the test files */
+  private final static String TEST_DIR = "test/org/wikipediacleaner/gui/swing/bot/";
+
+  /** Wiki used for the test */
+  private final static EnumWikipedia wiki = EnumWikipedia.FR;
+
+  /** API used before the test */
+  private static API previousApi;
+
+  /** Temporary directory for the results */
+  private static File outputDir;
+
+  @BeforeClass
+  public static void beforeClass() throws APIException, IOException {
+
+    // Stub for the API: nothing should be requested to the wiki
+    previousApi = APIFactoryTestHelper.installOfflineAPI();
+
+    // Site information
+    ApiSiteInfoRequest request = new ApiSiteInfoRequest(
+        wiki,
+        new ApiXmlFileSiteInfoResult(wiki, new File(TEST_DIR + "ListCWWorkerTest_siteinfo.xml")));
+    request.loadSiteInformation(true, true, true, true, true, true, true);
+
+    // Activate every algorithm
+    StringBuilder cwConfig = new StringBuilder();
+    String cwCode = wiki.getSettings().getCodeCheckWiki();
+    for (int errorNumber = 1; errorNumber <= CWConfiguration.MAX_ERROR_NUMBER; errorNumber++) {
+      cwConfig.append(String.format("error_%03d_prio_%s=%d END\n",
+          Integer.valueOf(errorNumber), cwCode,
+          Integer.valueOf(CWConfigurationError.PRIORITY_LOWEST)));
+    }
+    wiki.getCWConfiguration().setWikiConfiguration(new StringReader(cwConfig.toString()));
+    CheckErrorAlgorithms.initializeAlgorithms(wiki);
+
+    // Output directory
+    outputDir = File.createTempFile("ListCWWorkerTest", "");
+    outputDir.delete();
+    outputDir.mkdirs();
+  }
+
+  @AfterClass
+  public static void afterClass() {
+    APIFactoryTestHelper.restoreAPI(previousApi);
+    if (outputDir != null) {
+      File[] files = outputDir.listFiles();
+      if (files != null) {
+        for (File file : files) {
+          file.delete();
+        }
+      }
+      outputDir.delete();
+    }
+  }
+
+  @Test
+  public void testDumpAnalysis() throws IOException {
+    File dumpFile = new File(System.getProperty(
+        "wpcleaner.test.dump", TEST_DIR + "ListCWWorkerTest_dump.xml.bz2"));
+    File goldenFile = new File(System.getProperty(
+        "wpcleaner.test.golden", TEST_DIR + "ListCWWorkerTest_golden.txt"));
+    assertTrue("Missing dump: " + dumpFile.getAbsolutePath(), dumpFile.isFile());
+    List<CheckErrorAlgorithm> algorithms = CheckErrorAlgorithms.getAlgorithms(wiki);
+    assertNotNull(algorithms);
+
+    // First run to warm up the JVM
+    runWorker(dumpFile, algorithms);
+
+    // Measured run
+    AllocationSampler sampler = new AllocationSampler(ManagementFactory.getThreadMXBean());
+    sampler.start();
+    long beginTime = System.nanoTime();
+    ListCWWorker worker = runWorker(dumpFile, algorithms);
+    long duration = System.nanoTime() - beginTime;
+    long allocated = sampler.finish();
+    int count = worker.getCountAnalyzed();
+    assertTrue("No page analyzed", count > 0);
+    double pagesPerSecond = (count * 1000000000.0) / Math.max(duration, 1);
+    long bytesPerPage = (allocated >= 0) ? allocated / count : -1;
+    System.out.println(
+        "ListCWWorkerTest: " + count + " pages in " + (duration / 1000000) + " ms, " +
+        String.format("%.1f", Double.valueOf(pagesPerSecond)) + " pages/s, " +
+        ((bytesPerPage >= 0) ? bytesPerPage + " bytes/page" : "allocations not available"));
+
+    // Compare detections to the golden file
+    String detections = summarizeDetections(worker);
+    if (Boolean.getBoolean("wpcleaner.test.updateGolden")) {
+      writeFile(goldenFile, detections);
+    } else {
+      assertTrue("Missing golden file: " + goldenFile.getAbsolutePath(), goldenFile.isFile());
+      assertEquals(readFile(goldenFile), detections);
+    }
+
+    // Check performance
+    String minPagesPerSecond = System.getProperty("wpcleaner.test.minPagesPerSecond");
+    if (minPagesPerSecond != null) {
+      assertTrue(
+          "Throughput too low: " + pagesPerSecond + " pages/s",
+          pagesPerSecond >= Double.parseDouble(minPagesPerSecond));
+    }
+    String maxBytesPerPage = System.getProperty("wpcleaner.test.maxBytesPerPage");
+    if ((maxBytesPerPage != null) && (bytesPerPage >= 0)) {
+      assertTrue(
+          "Too many allocations: " + bytesPerPage + " bytes/page",
+          bytesPerPage <= Long.parseLong(maxBytesPerPage));
+    }
+  }
+
+  /**
+   * Analyze the dump.
+   *
+   * @param dumpFile Dump.
+   * @param algorithms Algorithms.
+   * @return Worker after the analysis.
+   */
+  private ListCWWorker runWorker(File dumpFile, List<CheckErrorAlgorithm> algorithms) {
+    PageAnalysisCache.getInstance().clear();
+    ListCWWorker worker = new ListCWWorker(
+        wiki, null, dumpFile, outputDir, algorithms, false);
+    Object result = worker.construct();
+    assertFalse("Analysis failed: " + result, result instanceof Throwable);
+    return worker;
+  }
+
+  /**
+   * Summarize the detections written by the worker: one line per algorithm with detections.
+   *
+   * @param worker Worker.
+   * @return Summary of the detections.
+   * @throws IOException Error reading the results.
+   */
+  private String summarizeDetections(ListCWWorker worker) throws IOException {
+    StringBuilder result = new StringBuilder();
+    String cwCode = wiki.getSettings().getCodeCheckWiki();
+    for (ListCWWorker.AlgorithmInformation algorithm : worker.selectedAlgorithms) {
+      String number = algorithm.algorithm.getErrorNumberString();
+      File outputFile = new File(outputDir, "CW_" + cwCode + "_" + number + ".txt");
+      assertTrue("Missing result: " + outputFile.getAbsolutePath(), outputFile.isFile());
+      StringBuilder line = new StringBuilder();
+      for (String resultLine : readFile(outputFile).split("\n")) {
+        if (resultLine.startsWith("* [[")) {
+          int end = resultLine.indexOf("]]");
+          if (end > 0) {
+            line.append((line.length() > 0) ? "|" : "");
+            line.append(resultLine.substring(4, end));
+          }
+        }
+      }
+      if (line.length() > 0) {
+        result.append(number);
+        result.append(": ");
+        result.append(line);
+        result.append("\n");
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Measure the bytes allocated by all threads during a run,
+   * including threads created and terminated during the run.
+   *
+   * Allocations of each thread are sampled regularly by a background thread,
+   * as they can't be retrieved any more once the thread has terminated:
+   * only the allocations done by a thread after its last sample are missed.
+   * Allocations of the sampling thread itself are excluded.
+   */
+  private static class AllocationSampler extends Thread {
+
+    /** Delay between samples (in milliseconds) */
+    private final static long SAMPLE_DELAY = 10;
+
+    /** Thread management (null if allocations are not available) */
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    /** Bytes allocated by each thread when the measure started */
+    private final Map<Long, Long> firstBytes;
+
+    /** Bytes allocated by each thread at the last sample */
+    private final Map<Long, Long> lastBytes;
+
+    /** True when the measure is finished */
+    private volatile boolean finished;
+
+    /**
+     * @param threadBean Thread management.
+     */
+    AllocationSampler(ThreadMXBean threadBean) {
+      super("Allocation sampler");
+      setDaemon(true);
+      com.sun.management.ThreadMXBean sunBean = null;
+      if (threadBean instanceof com.sun.management.ThreadMXBean) {
+        sunBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!sunBean.isThreadAllocatedMemorySupported() ||
+            !sunBean.isThreadAllocatedMemoryEnabled()) {
+          sunBean = null;
+        }
+      }
+      this.threadBean = sunBean;
+      this.firstBytes = new HashMap<>();
+      this.lastBytes = new HashMap<>();
+      this.finished = false;
+      sample(firstBytes);
+    }
+
+    /**
+     * @see java.lang.Thread#run()
+     */
+    @Override
+    public void run() {
+      while (!finished) {
+        sample(lastBytes);
+        try {
+          Thread.sleep(SAMPLE_DELAY);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Stop sampling.
+     *
+     * @return Bytes allocated by all threads since the creation of the sampler (-1 if not available).
+     */
+    long finish() {
+      finished = true;
+      try {
+        join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (threadBean == null) {
+        return -1;
+      }
+      sample(lastBytes);
+      long total = 0;
+      for (Map.Entry<Long, Long> entry : lastBytes.entrySet()) {
+        if (entry.getKey().longValue() == getId()) {
+          continue;
+        }
+        Long first = firstBytes.get(entry.getKey());
+        total += entry.getValue().longValue() - ((first != null) ? first.longValue() : 0);
+      }
+      return total;
+    }
+
+    /**
+     * Memorize the bytes allocated by each live thread.
+     *
+     * @param bytesByThread Bytes allocated by each thread.
+     */
+    private synchronized void sample(Map<Long, Long> bytesByThread) {
+      if (threadBean == null) {
+        return;
+      }
+      long[] ids = threadBean.getAllThreadIds();
+      long[] bytes = threadBean.getThreadAllocatedBytes(ids);
+      for (int i = 0; i < ids.length; i++) {
+        if (bytes[i] >= 0) {
+          bytesByThread.put(Long.valueOf(ids[i]), Long.valueOf(bytes[i]));
+        }
+      }
+    }
+  }
+
+  /**
+   * @param file File.
+   * @return Contents of the file.
+   * @throws IOException Error reading the file.
+   */
+  private static String readFile(File file) throws IOException {
+    BufferedReader reader = null;
+    try {
+      reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+      StringBuilder buffer = new StringBuilder((int) file.length());
+      char[] chars = new char[8192];
+      int count;
+      while ((count = reader.read(chars)) >= 0) {
+        buffer.append(chars, 0, count);
+      }
+      return buffer.toString();
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          // Nothing to do
+        }
+      }
+    }
+  }
+
+  /**
+   * @param file File.
+   * @param contents Contents of the file.
+   * @throws IOException Error writing the file.
+   */
+  private static void writeFile(File file, String contents) throws IOException {
+    Writer writer = null;
+    try {
+      writer = new OutputStreamWriter(new FileOutputStream(file, false), "UTF-8");
+      writer.write(contents);
+    } finally {
+      if (writer != null) {
+        try {
+          writer.close();
+        } catch (IOException e) {
+          // Nothing to do
+        }
+      }
+    }
+  }
+}
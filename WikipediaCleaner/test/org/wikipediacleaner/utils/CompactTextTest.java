@@ -0,0 +1,107 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2013  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.utils;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import org.junit.Test;
+
+
+/**
+ * Test class for CompactText.
+ */
+public class CompactTextTest {
+
+  /** Encoding of the text */
+  private final static Charset UTF8 = Charset.forName("UTF-8");
+
+  @Test
+  public void testCompressedRoundTrip() {
+    String text = createText();
+    CompactText compact = CompactText.create(text);
+    assertTrue("Text should be compressed", compact.isCompressed());
+    assertEquals(text, compact.getText());
+    assertEquals(text, compact.toString());
+  }
+
+  @Test
+  public void testUncompressedRoundTrip() {
+
+    // Short texts don't compress well
+    String text = "𝄞 é 𠀀";
+    CompactText compact = CompactText.create(text);
+    assertFalse("Text shouldn't be compressed", compact.isCompressed());
+    assertEquals(text, compact.getText());
+  }
+
+  @Test
+  public void testEmptyText() {
+    assertNull(CompactText.create(null));
+    assertEquals("", CompactText.create("").getText());
+  }
+
+  @Test
+  public void testTruncatedData() {
+    byte[] bytes = createText().getBytes(UTF8);
+    byte[] data = deflate(bytes);
+    CompactText compact = new CompactText(
+        Arrays.copyOf(data, data.length / 2), bytes.length, true);
+    assertNull("Partial text shouldn't be returned", compact.getText());
+    assertEquals("", compact.toString());
+  }
+
+  @Test
+  public void testCorruptedData() {
+    byte[] bytes = createText().getBytes(UTF8);
+    byte[] data = deflate(bytes);
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (data[i] ^ 0x55);
+    }
+    CompactText compact = new CompactText(data, bytes.length, true);
+    assertNull("Corrupted text shouldn't be returned", compact.getText());
+  }
+
+  /**
+   * @return Text looking like wiki text, with non BMP characters.
+   */
+  private static String createText() {
+    StringBuilder buffer = new StringBuilder();
+    int line = 0;
+    while (buffer.length() < 4 * CompactText.MIN_LENGTH) {
+      buffer.append("* [[Page ");
+      buffer.append(line);
+      buffer.append("]] : {{Modèle|param=valeur}} 𝄞 𠀀 <ref>Référence</ref>\n");
+      line++;
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * @param bytes Bytes.
+   * @return Compressed bytes.
+   */
+  private static byte[] deflate(byte[] bytes) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      byte[] buffer = new byte[bytes.length + 64];
+      int length = 0;
+      while (!deflater.finished()) {
+        length += deflater.deflate(buffer, length, buffer.length - length);
+      }
+      return Arrays.copyOf(buffer, length);
+    } finally {
+      deflater.end();
+    }
+  }
+}